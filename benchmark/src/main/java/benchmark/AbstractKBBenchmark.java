@@ -0,0 +1,60 @@
+// Copyright (c) 2006 - 2008, Clark & Parsia, LLC. <http://www.clarkparsia.com>
+// This source code is available under the terms of the Affero General Public License v3.
+//
+// Please see LICENSE.txt for full license terms, including the availability of proprietary exceptions.
+// Questions, comments, or requests for clarification: licensing@clarkparsia.com
+
+package benchmark;
+
+import java.util.Properties;
+
+import org.mindswap.pellet.PelletOptions;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * <p>
+ * Title: Abstract KB Benchmark
+ * </p>
+ * <p>
+ * Description: Base class of the benchmarks that are run with different
+ * values of the major {@link PelletOptions} switches so a regression in one
+ * of the optimizations shows up in the results of that switch. The options
+ * are set before the KB of the benchmark is created and restored after the
+ * trial.
+ * </p>
+ * <p>
+ * Copyright: Copyright (c) 2008
+ * </p>
+ * <p>
+ * Company: Clark & Parsia, LLC. <http://www.clarkparsia.com>
+ * </p>
+ */
+@State(Scope.Benchmark)
+public abstract class AbstractKBBenchmark {
+	/**
+	 * The options the benchmark is run with (see
+	 * {@link BenchmarkUtils#parseOptions(String)})
+	 */
+	@Param( { BenchmarkUtils.DEFAULT_OPTIONS, "USE_SEMANTIC_BRANCHING=false",
+			"USE_DISJUNCT_SORTING=false", "USE_COMPLETION_QUEUE=true", "USE_NOGOOD_LEARNING=true",
+			"TRACK_BRANCH_EFFECTS=true,USE_TRAIL_RESTORE=true", "CONCEPT_CACHE=TINY_LFU",
+			"USE_CD_CLASSIFICATION=false" })
+	public String		options;
+
+	private Properties	oldOptions;
+
+	@Setup(Level.Trial)
+	public void setOptions() {
+		oldOptions = BenchmarkUtils.setOptions( options );
+	}
+
+	@TearDown(Level.Trial)
+	public void restoreOptions() {
+		PelletOptions.setOptions( oldOptions );
+	}
+}
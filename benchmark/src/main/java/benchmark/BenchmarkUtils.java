@@ -0,0 +1,108 @@
+// Copyright (c) 2006 - 2008, Clark & Parsia, LLC. <http://www.clarkparsia.com>
+// This source code is available under the terms of the Affero General Public License v3.
+//
+// Please see LICENSE.txt for full license terms, including the availability of proprietary exceptions.
+// Questions, comments, or requests for clarification: licensing@clarkparsia.com
+
+package benchmark;
+
+import java.io.File;
+import java.util.Properties;
+
+import org.mindswap.pellet.KnowledgeBase;
+import org.mindswap.pellet.PelletOptions;
+import org.mindswap.pellet.jena.JenaLoader;
+
+/**
+ * <p>
+ * Title: Benchmark Utils
+ * </p>
+ * <p>
+ * Description: Functions shared by the benchmarks to locate the test
+ * ontologies and to set the Pellet options a benchmark is run with.
+ * </p>
+ * <p>
+ * The benchmark module is only built with the <code>benchmark</code> profile,
+ * e.g. <code>mvn -Pbenchmark -pl benchmark -am package</code>, which creates
+ * an executable JMH jar <code>benchmark/target/benchmarks.jar</code>.
+ * </p>
+ * <p>
+ * The ontologies are resolved against the directory given by the system
+ * property {@value #DATA_DIR_PROPERTY} which defaults to the test data of the
+ * <code>test</code> module relative to this module. When the benchmarks jar
+ * is run from another directory the property should be passed to the forked
+ * JVMs, e.g. <code>java -jar target/benchmarks.jar
+ * -jvmArgsAppend -Dpellet.benchmark.data=/path/to/test/data</code>.
+ * </p>
+ * <p>
+ * Copyright: Copyright (c) 2008
+ * </p>
+ * <p>
+ * Company: Clark & Parsia, LLC. <http://www.clarkparsia.com>
+ * </p>
+ */
+public class BenchmarkUtils {
+	public static final String	DATA_DIR_PROPERTY	= "pellet.benchmark.data";
+
+	public static final String	DEFAULT_DATA_DIR	= "../test/src/test/resources/test/data";
+
+	/**
+	 * The value of the options parameter of a benchmark that runs with the
+	 * default options
+	 */
+	public static final String	DEFAULT_OPTIONS		= "default";
+
+	/**
+	 * Returns the URI of an ontology given by its path relative to the test
+	 * data directory.
+	 */
+	public static String getFileURI(String ontology) {
+		File dataDir = new File( System.getProperty( DATA_DIR_PROPERTY, DEFAULT_DATA_DIR ) );
+		File file = new File( dataDir, ontology );
+		if( !file.exists() )
+			throw new IllegalArgumentException( "Ontology not found: " + file.getAbsolutePath()
+					+ " (use -D" + DATA_DIR_PROPERTY + " to set the test data directory)" );
+
+		return file.toURI().toString();
+	}
+
+	/**
+	 * Loads the ontology given by its path relative to the test data directory
+	 * into a new KB.
+	 */
+	public static KnowledgeBase loadKB(String ontology) {
+		JenaLoader loader = new JenaLoader();
+		return loader.createKB( getFileURI( ontology ) );
+	}
+
+	/**
+	 * Parses the options parameter of a benchmark which is either
+	 * {@value #DEFAULT_OPTIONS} or a comma separated list of
+	 * <code>NAME=value</code> pairs where <code>NAME</code> is one of the
+	 * fields of {@link PelletOptions}.
+	 */
+	public static Properties parseOptions(String options) {
+		Properties properties = new Properties();
+		if( options.equals( DEFAULT_OPTIONS ) )
+			return properties;
+
+		for( String option : options.split( "," ) ) {
+			int index = option.indexOf( '=' );
+			if( index <= 0 )
+				throw new IllegalArgumentException( "Invalid option: " + option );
+
+			properties.setProperty( option.substring( 0, index ).trim(), option.substring(
+					index + 1 ).trim() );
+		}
+
+		return properties;
+	}
+
+	/**
+	 * Sets the Pellet options given by the options parameter of a benchmark
+	 * and returns the old values of the options.
+	 */
+	public static Properties setOptions(String options) {
+		return PelletOptions.setOptions( parseOptions( options ) );
+	}
+}
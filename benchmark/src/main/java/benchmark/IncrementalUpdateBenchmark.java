@@ -0,0 +1,119 @@
+// Copyright (c) 2006 - 2008, Clark & Parsia, LLC. <http://www.clarkparsia.com>
+// This source code is available under the terms of the Affero General Public License v3.
+//
+// Please see LICENSE.txt for full license terms, including the availability of proprietary exceptions.
+// Questions, comments, or requests for clarification: licensing@clarkparsia.com
+
+package benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.mindswap.pellet.KnowledgeBase;
+import org.mindswap.pellet.PelletOptions;
+import org.mindswap.pellet.utils.ATermUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import aterm.ATermAppl;
+
+/**
+ * <p>
+ * Title: Incremental Update Benchmark
+ * </p>
+ * <p>
+ * Description: Adds a type and a property value assertion to the ABox of a
+ * consistent KB (the subject of the assertions is a new individual), checks the consistency incrementally, removes the assertions
+ * and checks the consistency again. The completion queue and incremental
+ * consistency are enabled on top of the options of the benchmark but
+ * incremental deletion is not, so the consistency check after the removal is
+ * not incremental.
+ * </p>
+ * <p>
+ * Copyright: Copyright (c) 2008
+ * </p>
+ * <p>
+ * Company: Clark & Parsia, LLC. <http://www.clarkparsia.com>
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class IncrementalUpdateBenchmark extends AbstractKBBenchmark {
+	@Param( { "modularity/koala.owl", "modularity/wine.owl", "misc/pizza.owl" })
+	public String			ontology;
+
+	private Properties		incOptions;
+
+	private KnowledgeBase	kb;
+
+	private List<ATermAppl>	classes;
+
+	private List<ATermAppl>	individuals;
+
+	private List<ATermAppl>	properties;
+
+	private Random			random;
+
+	private int				count;
+
+	@Setup(Level.Trial)
+	public void loadKB() {
+		Properties newOptions = new Properties();
+		newOptions.setProperty( "USE_COMPLETION_QUEUE", "true" );
+		newOptions.setProperty( "USE_INCREMENTAL_CONSISTENCY", "true" );
+		incOptions = PelletOptions.setOptions( newOptions );
+
+		kb = BenchmarkUtils.loadKB( ontology );
+		kb.isConsistent();
+
+		classes = new ArrayList<ATermAppl>( kb.getAllClasses() );
+		classes.removeAll( kb.getAllUnsatisfiableClasses() );
+		classes.remove( ATermUtils.TOP );
+		individuals = new ArrayList<ATermAppl>( kb.getIndividuals() );
+		properties = new ArrayList<ATermAppl>( kb.getObjectProperties() );
+		properties.remove( ATermUtils.TOP_OBJECT_PROPERTY );
+		properties.remove( ATermUtils.BOTTOM_OBJECT_PROPERTY );
+		random = new Random( 42 );
+	}
+
+	@TearDown(Level.Trial)
+	public void restoreIncOptions() {
+		PelletOptions.setOptions( incOptions );
+	}
+
+	@Benchmark
+	public boolean update() {
+		ATermAppl ind = ATermUtils.makeTermAppl( "benchmark" + (count++) );
+		ATermAppl c = classes.get( random.nextInt( classes.size() ) );
+		ATermAppl p = properties.get( random.nextInt( properties.size() ) );
+		ATermAppl other = individuals.isEmpty()
+			? ind
+			: individuals.get( random.nextInt( individuals.size() ) );
+
+		kb.addIndividual( ind );
+		kb.addType( ind, c );
+		kb.addPropertyValue( p, ind, other );
+		boolean consistent = kb.isConsistent();
+
+		kb.removePropertyValue( p, ind, other );
+		kb.removeType( ind, c );
+		consistent &= kb.isConsistent();
+
+		return consistent;
+	}
+}
@@ -0,0 +1,108 @@
+// Copyright (c) 2006 - 2008, Clark & Parsia, LLC. <http://www.clarkparsia.com>
+// This source code is available under the terms of the Affero General Public License v3.
+//
+// Please see LICENSE.txt for full license terms, including the availability of proprietary exceptions.
+// Questions, comments, or requests for clarification: licensing@clarkparsia.com
+
+package benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.mindswap.pellet.jena.PelletInfGraph;
+import org.mindswap.pellet.jena.PelletReasonerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.clarkparsia.pellet.sparqldl.jena.SparqlDLExecutionFactory;
+import com.hp.hpl.jena.ontology.OntModel;
+import com.hp.hpl.jena.query.Query;
+import com.hp.hpl.jena.query.QueryExecution;
+import com.hp.hpl.jena.query.QueryFactory;
+import com.hp.hpl.jena.query.ResultSet;
+import com.hp.hpl.jena.rdf.model.ModelFactory;
+
+/**
+ * <p>
+ * Title: Query Benchmark
+ * </p>
+ * <p>
+ * Description: Answers SPARQL-DL queries over the wine ontology with the Pellet
+ * query engine. The KB is realized once before the trial so the benchmark
+ * measures the query engine and not the reasoning tasks it triggers.
+ * </p>
+ * <p>
+ * Copyright: Copyright (c) 2008
+ * </p>
+ * <p>
+ * Company: Clark & Parsia, LLC. <http://www.clarkparsia.com>
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class QueryBenchmark extends AbstractKBBenchmark {
+	private static final String					PREFIXES	= "PREFIX rdf: <http://www.w3.org/1999/02/22-rdf-syntax-ns#>\n"
+																	+ "PREFIX rdfs: <http://www.w3.org/2000/01/rdf-schema#>\n"
+																	+ "PREFIX owl: <http://www.w3.org/2002/07/owl#>\n"
+																	+ "PREFIX wine: <http://www.w3.org/TR/2003/PR-owl-guide-20031209/wine#>\n";
+
+	private static final Map<String, String>	QUERIES		= new HashMap<String, String>();
+	static {
+		QUERIES.put( "instances", "SELECT ?x WHERE { ?x rdf:type wine:RedWine }" );
+		QUERIES.put( "join", "SELECT ?x ?y ?z WHERE { ?x rdf:type wine:Wine . "
+				+ "?x wine:hasMaker ?y . ?x wine:locatedIn ?z }" );
+		QUERIES.put( "types", "SELECT ?c WHERE { wine:ChateauMorgonBeaujolais rdf:type ?c }" );
+		QUERIES.put( "schema", "SELECT ?c ?d WHERE { ?c rdfs:subClassOf wine:Wine . "
+				+ "?d rdfs:subClassOf ?c }" );
+		QUERIES.put( "mixed", "SELECT ?x ?c WHERE { ?x rdf:type ?c . "
+				+ "?c rdfs:subClassOf wine:WhiteWine . ?x wine:hasSugar wine:Dry }" );
+	}
+
+	@Param( { "instances", "join", "types", "schema", "mixed" })
+	public String		query;
+
+	private OntModel	model;
+
+	private Query		parsedQuery;
+
+	@Setup(Level.Trial)
+	public void loadModel() {
+		model = ModelFactory.createOntologyModel( PelletReasonerFactory.THE_SPEC );
+		model.read( BenchmarkUtils.getFileURI( "modularity/wine.owl" ) );
+		model.prepare();
+		((PelletInfGraph) model.getGraph()).getKB().realize();
+
+		String queryString = QUERIES.get( query );
+		if( queryString == null )
+			throw new IllegalArgumentException( "Unknown query: " + query );
+		parsedQuery = QueryFactory.create( PREFIXES + queryString );
+	}
+
+	@Benchmark
+	public int sparqlDL() {
+		QueryExecution qe = SparqlDLExecutionFactory.createPelletExecution( parsedQuery, model );
+		try {
+			ResultSet results = qe.execSelect();
+			int count = 0;
+			while( results.hasNext() ) {
+				results.next();
+				count++;
+			}
+			return count;
+		} finally {
+			qe.close();
+		}
+	}
+}
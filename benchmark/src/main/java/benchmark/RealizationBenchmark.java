@@ -0,0 +1,62 @@
+// Copyright (c) 2006 - 2008, Clark & Parsia, LLC. <http://www.clarkparsia.com>
+// This source code is available under the terms of the Affero General Public License v3.
+//
+// Please see LICENSE.txt for full license terms, including the availability of proprietary exceptions.
+// Questions, comments, or requests for clarification: licensing@clarkparsia.com
+
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.mindswap.pellet.KnowledgeBase;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>
+ * Title: Realization Benchmark
+ * </p>
+ * <p>
+ * Description: Realizes an ontology. The ontology is loaded into a new KB and
+ * classified before each invocation so only the realization is measured.
+ * </p>
+ * <p>
+ * Copyright: Copyright (c) 2008
+ * </p>
+ * <p>
+ * Company: Clark & Parsia, LLC. <http://www.clarkparsia.com>
+ * </p>
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RealizationBenchmark extends AbstractKBBenchmark {
+	@Param( { "modularity/koala.owl", "modularity/wine.owl", "modularity/OWL2Primer.owl",
+			"misc/pizza.owl" })
+	public String			ontology;
+
+	private KnowledgeBase	kb;
+
+	@Setup(Level.Invocation)
+	public void loadKB() {
+		kb = BenchmarkUtils.loadKB( ontology );
+		kb.classify();
+	}
+
+	@Benchmark
+	public Object realization() {
+		kb.realize();
+
+		return kb.getTaxonomy();
+	}
+}
@@ -0,0 +1,79 @@
+// Copyright (c) 2006 - 2008, Clark & Parsia, LLC. <http://www.clarkparsia.com>
+// This source code is available under the terms of the Affero General Public License v3.
+//
+// Please see LICENSE.txt for full license terms, including the availability of proprietary exceptions.
+// Questions, comments, or requests for clarification: licensing@clarkparsia.com
+
+package benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.mindswap.pellet.KnowledgeBase;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+
+import aterm.ATermAppl;
+
+/**
+ * <p>
+ * Title: Satisfiability Benchmark
+ * </p>
+ * <p>
+ * Description: Checks the satisfiability of every named class of an ontology.
+ * The concept cache is cleared before each invocation so every class is
+ * checked with the tableau algorithm instead of being looked up in the cache.
+ * </p>
+ * <p>
+ * Copyright: Copyright (c) 2008
+ * </p>
+ * <p>
+ * Company: Clark & Parsia, LLC. <http://www.clarkparsia.com>
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class SatisfiabilityBenchmark extends AbstractKBBenchmark {
+	@Param( { "modularity/koala.owl", "modularity/miniTambis.owl", "modularity/wine.owl",
+			"modularity/galen.owl" })
+	public String			ontology;
+
+	private KnowledgeBase	kb;
+
+	private List<ATermAppl>	classes;
+
+	@Setup(Level.Trial)
+	public void loadKB() {
+		kb = BenchmarkUtils.loadKB( ontology );
+		kb.isConsistent();
+		classes = new ArrayList<ATermAppl>( kb.getAllClasses() );
+	}
+
+	@Setup(Level.Invocation)
+	public void clearCache() {
+		kb.getABox().getCache().clear();
+	}
+
+	@Benchmark
+	public int satisfiability() {
+		int unsatisfiable = 0;
+		for( ATermAppl c : classes ) {
+			if( !kb.isSatisfiable( c ) )
+				unsatisfiable++;
+		}
+
+		return unsatisfiable;
+	}
+}
@@ -3,6 +3,7 @@ package com.clarkparsia.pellet.datatypes;
 import static java.lang.String.format;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -17,8 +18,10 @@ import java.util.logging.Logger;
 
 import org.mindswap.pellet.Literal;
 import org.mindswap.pellet.PelletOptions;
+import org.mindswap.pellet.utils.ATermCache;
 import org.mindswap.pellet.utils.ATermUtils;
 
+import aterm.ATerm;
 import aterm.ATermAppl;
 import aterm.ATermList;
 
@@ -286,14 +289,96 @@ public class DatatypeReasonerImpl implements DatatypeReasoner {
 		}
 	}
 
+	/**
+	 * The number of values known to be in the data range of a conjunction.
+	 * Since a data range that contains at least <code>n</code> values also
+	 * contains at least <code>m</code> values for any <code>m &lt; n</code>
+	 * the results of the previous checks are kept as two bounds. Instances
+	 * are immutable so they can be shared by the threads using the cache.
+	 */
+	private static class SizeBounds {
+		private final DataRange<?>	range;
+		/**
+		 * The largest number of values the range is known to contain
+		 */
+		private final int			atLeast;
+		/**
+		 * The smallest number of values the range is known not to contain
+		 */
+		private final int			lessThan;
+
+		public SizeBounds(DataRange<?> range, int atLeast, int lessThan) {
+			this.range = range;
+			this.atLeast = atLeast;
+			this.lessThan = lessThan;
+		}
+	}
+
 	private final Set<ATermAppl> declaredUndefined;
 	private final NamedDataRangeExpander expander;
 	private final Map<ATermAppl, ATermAppl> namedDataRanges;
 
+	/**
+	 * Caches keyed by terms for the DNF of the conjunctions of data ranges,
+	 * the data ranges of the terms, the normalized data ranges of the
+	 * D-conjunctions and the sizes of the data ranges of the conjunctions.
+	 * Conjunctions are canonicalized with {@link #toConjunction(Collection)}
+	 * so the same data ranges in a different order use the same entry.
+	 */
+	private final ATermCache<ATermAppl> dnfCache;
+	private final ATermCache<DataRange<?>> dataRangeCache;
+	private final ATermCache<DataRange<?>> normalizedCache;
+	private final ATermCache<SizeBounds> sizeCache;
+
 	public DatatypeReasonerImpl() {
 		declaredUndefined = new HashSet<ATermAppl>();
 		expander = new NamedDataRangeExpander();
 		namedDataRanges = new HashMap<ATermAppl, ATermAppl>();
+
+		dnfCache = new ATermCache<ATermAppl>("dnf", PelletOptions.DATATYPE_CACHE_SIZE);
+		dataRangeCache = new ATermCache<DataRange<?>>("dataRange", PelletOptions.DATATYPE_CACHE_SIZE);
+		normalizedCache = new ATermCache<DataRange<?>>("normalizedRange", PelletOptions.DATATYPE_CACHE_SIZE);
+		sizeCache = new ATermCache<SizeBounds>("rangeSize", PelletOptions.DATATYPE_CACHE_SIZE);
+	}
+
+	/**
+	 * Returns the caches of this reasoner, e.g. to report their hit rates.
+	 */
+	public List<ATermCache<?>> getCaches() {
+		return Arrays.<ATermCache<?>> asList(dnfCache, dataRangeCache, normalizedCache, sizeCache);
+	}
+
+	/**
+	 * Clears the cached results. The results depend on the named data ranges
+	 * and declared datatypes so the caches are cleared when these change.
+	 */
+	public void clearCaches() {
+		for (ATermCache<?> cache : getCaches()) {
+			cache.clear();
+		}
+	}
+
+	/**
+	 * Returns the conjunction of the given data ranges in a canonical form
+	 * that does not depend on the order of the ranges in the collection.
+	 */
+	private static ATermAppl toConjunction(Collection<ATermAppl> ranges) {
+		if (ranges.isEmpty()) {
+			return ATermUtils.makeAnd(ATermUtils.EMPTY_LIST);
+		}
+
+		ATerm[] terms = ranges.toArray(new ATerm[ranges.size()]);
+		return ATermUtils.makeAnd(ATermUtils.toSet(terms, terms.length));
+	}
+
+	private ATermAppl getDNF(ATermAppl and) {
+		ATermAppl dnf = dnfCache.get(and);
+		if (dnf == null) {
+			dnf = DNF.dnf(expander.expand(and, namedDataRanges));
+			dnfCache.put(and, dnf);
+		}
+
+		return dnf;
 	}
 
 	private boolean containedIn(Object value, ATermAppl dconjunction) throws InvalidConstrainingFacetException,
@@ -314,8 +399,32 @@ public class DatatypeReasonerImpl implements DatatypeReasoner {
 	public boolean containsAtLeast(int n, Collection<ATermAppl> ranges) throws UnrecognizedDatatypeException,
 	                InvalidConstrainingFacetException, InvalidLiteralException {
 
-		ATermAppl and = ATermUtils.makeAnd(ATermUtils.makeList(ranges));
-		ATermAppl dnf = DNF.dnf(expander.expand(and, namedDataRanges));
+		ATermAppl and = toConjunction(ranges);
+		SizeBounds bounds = sizeCache.get(and);
+		if (bounds == null) {
+			bounds = new SizeBounds(getConjunctionRange(and), Integer.MIN_VALUE, Integer.MAX_VALUE);
+		}
+		else if (n <= bounds.atLeast) {
+			return true;
+		}
+		else if (n >= bounds.lessThan) {
+			return false;
+		}
+
+		boolean result = bounds.range.containsAtLeast(n);
+		if (result) {
+			sizeCache.put(and, new SizeBounds(bounds.range, n, bounds.lessThan));
+		}
+		else {
+			sizeCache.put(and, new SizeBounds(bounds.range, bounds.atLeast, n));
+		}
+
+		return result;
+	}
+
+	private DataRange<?> getConjunctionRange(ATermAppl and) throws InvalidConstrainingFacetException,
+	                InvalidLiteralException, UnrecognizedDatatypeException {
+		ATermAppl dnf = getDNF(and);
 		if (ATermUtils.isOr(dnf)) {
 			List<DataRange<?>> disjuncts = new ArrayList<DataRange<?>>();
 			for (ATermList l = (ATermList) dnf.getArgument(0); !l.isEmpty(); l = l.getNext()) {
@@ -325,14 +434,11 @@ public class DatatypeReasonerImpl implements DatatypeReasoner {
                 }
 			}
 
-			final DataRange<?> disjunction = getDisjunction(disjuncts);
-			return disjunction.containsAtLeast(n);
+			return getDisjunction(disjuncts);
 		}
 		else {
-			final DataRange<?> dr = normalizeVarRanges(dnf);
-			return dr.containsAtLeast(n);
+			return normalizeVarRanges(dnf);
 		}
-
 	}
 
 	public boolean declare(ATermAppl name) {
@@ -341,6 +447,7 @@ public class DatatypeReasonerImpl implements DatatypeReasoner {
         }
         else {
 			declaredUndefined.add(name);
+			clearCaches();
 			return true;
 		}
 	}
@@ -368,7 +475,17 @@ public class DatatypeReasonerImpl implements DatatypeReasoner {
 
 	private DataRange<?> getDataRange(ATermAppl a) throws InvalidConstrainingFacetException, InvalidLiteralException,
 	                UnrecognizedDatatypeException {
-		// TODO: Investigate the impact of keeping a results cache here
+		DataRange<?> dr = dataRangeCache.get(a);
+		if (dr == null) {
+			dr = createDataRange(a);
+			dataRangeCache.put(a, dr);
+		}
+
+		return dr;
+	}
+
+	private DataRange<?> createDataRange(ATermAppl a) throws InvalidConstrainingFacetException,
+	                InvalidLiteralException, UnrecognizedDatatypeException {
 
 		/*
 		 * rdfs:Literal
@@ -642,8 +759,7 @@ public class DatatypeReasonerImpl implements DatatypeReasoner {
 			vars = Collections.emptySet();
 		}
 
-		ATermAppl and = ATermUtils.makeAnd(ATermUtils.makeList(dataranges));
-		ATermAppl dnf = DNF.dnf(expander.expand(and, namedDataRanges));
+		ATermAppl dnf = getDNF(toConjunction(dataranges));
 		Collection<ATermAppl> dnfDisjuncts;
 		if (ATermUtils.isOr(dnf)) {
 			List<ATermAppl> disjuncts = new ArrayList<ATermAppl>();
@@ -1006,8 +1122,7 @@ public class DatatypeReasonerImpl implements DatatypeReasoner {
 		@SuppressWarnings("unchecked")
 		Collection<ATermAppl>[] dnfs = new Collection[literals.length];
 		for (int i = 0; i < literals.length; i++) {
-			ATermAppl and = ATermUtils.makeAnd(ATermUtils.makeList(literals[i].getTypes()));
-			ATermAppl dnf = DNF.dnf(expander.expand(and, namedDataRanges));
+			ATermAppl dnf = getDNF(toConjunction(literals[i].getTypes()));
 			if (ATermUtils.isOr(dnf)) {
 				List<ATermAppl> disjuncts = new ArrayList<ATermAppl>();
 				for (ATermList l = (ATermList) dnf.getArgument(0); !l.isEmpty(); l = l.getNext()) {
@@ -1034,12 +1149,24 @@ public class DatatypeReasonerImpl implements DatatypeReasoner {
 
 		namedDataRanges.put(name, datarange);
 		declaredUndefined.remove(name);
+		clearCaches();
 
 		return true;
 	}
 
 	private DataRange<?> normalizeVarRanges(ATermAppl dconjunction) throws InvalidConstrainingFacetException,
 	                InvalidLiteralException, UnrecognizedDatatypeException {
+		DataRange<?> dr = normalizedCache.get(dconjunction);
+		if (dr == null) {
+			dr = createNormalizedVarRange(dconjunction);
+			normalizedCache.put(dconjunction, dr);
+		}
+
+		return dr;
+	}
+
+	private DataRange<?> createNormalizedVarRange(ATermAppl dconjunction) throws InvalidConstrainingFacetException,
+	                InvalidLiteralException, UnrecognizedDatatypeException {
 
 		DataRange<?> ret;
 
@@ -1194,8 +1321,7 @@ public class DatatypeReasonerImpl implements DatatypeReasoner {
 	public Iterator<?> valueIterator(Collection<ATermAppl> dataranges) throws InvalidConstrainingFacetException,
 	                InvalidLiteralException, UnrecognizedDatatypeException {
 
-		ATermAppl and = ATermUtils.makeAnd(ATermUtils.makeList(dataranges));
-		ATermAppl dnf = DNF.dnf(expander.expand(and, namedDataRanges));
+		ATermAppl dnf = getDNF(toConjunction(dataranges));
 		if (ATermUtils.isOr(dnf)) {
 			List<DataRange<?>> disjuncts = new ArrayList<DataRange<?>>();
 			for (ATermList l = (ATermList) dnf.getArgument(0); !l.isEmpty(); l = l.getNext()) {
@@ -40,13 +40,14 @@ public class InfiniteNamedDatatype implements Datatype<ATermAppl> {
 	}
 
 	/**
-	 * Get an instance with a specific name.
+	 * Get an instance with a specific name. The cache is shared by all the
+	 * KBs so the access is synchronized.
 	 * 
 	 * @param dtName
 	 *            the name of the datatype
 	 * @return an instance
 	 */
-	public static InfiniteNamedDatatype get(ATermAppl dtName) {
+	public static synchronized InfiniteNamedDatatype get(ATermAppl dtName) {
 		WeakReference<InfiniteNamedDatatype> dtRef = cache.get( dtName );
 		InfiniteNamedDatatype dt = (dtRef == null)
 			? null
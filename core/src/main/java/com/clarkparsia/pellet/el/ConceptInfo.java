@@ -6,12 +6,18 @@
 
 package com.clarkparsia.pellet.el;
 
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.logging.Logger;
 
 import org.mindswap.pellet.utils.ATermUtils;
 import org.mindswap.pellet.utils.MultiValueMap;
+import org.mindswap.pellet.utils.iterator.FlattenningIterator;
 
 import aterm.ATermAppl;
 
@@ -39,30 +45,67 @@ class ConceptInfo {
 	private final ATermAppl								concept;
 	private final Set<Trigger>							triggers;
 	
-	private final MultiValueMap<ATermAppl, ConceptInfo>	successors;
-	private final MultiValueMap<ATermAppl, ConceptInfo>	predecessors;
+	private final Map<ATermAppl, Set<ConceptInfo>>		successors;
+	private final Map<ATermAppl, Set<ConceptInfo>>		predecessors;
 	
 	private final Set<ConceptInfo>						superClasses;
 
+	private final boolean								concurrent;
+
 	public ConceptInfo(ATermAppl c, boolean storeSuccessors, boolean noTriggers) {
-		concept = c;
+		this( c, storeSuccessors, noTriggers, false );
+	}
+
+	/**
+	 * Creates the info for a concept. If <code>concurrent</code> is true, the
+	 * super classes, successors and predecessors of the concept are stored in
+	 * concurrent collections so they can be added and read by different
+	 * threads without locking.
+	 */
+	ConceptInfo(ATermAppl c, boolean storeSuccessors, boolean noTriggers, boolean concurrent) {
+		this.concept = c;
+		this.concurrent = concurrent;
 		
-		superClasses = CollectionUtils.makeSet();
+		superClasses = concurrent
+			? Collections.newSetFromMap( new ConcurrentHashMap<ConceptInfo, Boolean>() )
+			: CollectionUtils.<ConceptInfo>makeSet();
 
 		successors = storeSuccessors
-			 ? new MultiValueMap<ATermAppl, ConceptInfo>()
+			 ? createMap()
 			 : null;
-		predecessors = new MultiValueMap<ATermAppl, ConceptInfo>();
+		predecessors = createMap();
 		
 		triggers = noTriggers
 			? null
 			: new HashSet<Trigger>();
 	}
 
+	private Map<ATermAppl, Set<ConceptInfo>> createMap() {
+		return concurrent
+			? new ConcurrentHashMap<ATermAppl, Set<ConceptInfo>>()
+			: new MultiValueMap<ATermAppl, ConceptInfo>();
+	}
+
+	private boolean add(Map<ATermAppl, Set<ConceptInfo>> map, ATermAppl p, ConceptInfo ci) {
+		if( !concurrent )
+			return ((MultiValueMap<ATermAppl, ConceptInfo>) map).add( p, ci );
+
+		Set<ConceptInfo> values = map.get( p );
+		if( values == null ) {
+			Set<ConceptInfo> newValues = Collections
+					.newSetFromMap( new ConcurrentHashMap<ConceptInfo, Boolean>() );
+			values = ((ConcurrentMap<ATermAppl, Set<ConceptInfo>>) map).putIfAbsent( p, newValues );
+			if( values == null )
+				values = newValues;
+		}
+
+		return values.add( ci );
+	}
+
 	public boolean addSuccessor(ATermAppl p, ConceptInfo ci) {
-		if( ci.predecessors.add( p, this ) ) {
+		if( add( ci.predecessors, p, this ) ) {
 			if( successors != null ) {
-				successors.add( p, ci );
+				add( successors, p, ci );
 			}
 		
 			return true;
@@ -88,14 +131,21 @@ class ConceptInfo {
 		return concept;
 	}
 
-	public MultiValueMap<ATermAppl, ConceptInfo> getSuccessors() {
+	public Map<ATermAppl, Set<ConceptInfo>> getSuccessors() {
 		return successors;
 	}
 
-	public MultiValueMap<ATermAppl, ConceptInfo> getPredecessors() {
+	public Map<ATermAppl, Set<ConceptInfo>> getPredecessors() {
 		return predecessors;
 	}
 
+	/**
+	 * Returns the predecessors of this concept for all properties.
+	 */
+	public Iterator<ConceptInfo> getAllPredecessors() {
+		return new FlattenningIterator<ConceptInfo>( predecessors.values() );
+	}
+
 	public Set<ConceptInfo> getSuperClasses() {
 		return superClasses;
 	}
@@ -105,7 +155,8 @@ class ConceptInfo {
 	}
 
 	public boolean hasSuccessor(ATermAppl p, ConceptInfo ci) {
-		return ci.predecessors.contains(p, this);
+		Set<ConceptInfo> preds = ci.predecessors.get( p );
+		return preds != null && preds.contains( this );
 	}
 
 	@Override
@@ -0,0 +1,254 @@
+// Copyright (c) 2006 - 2008, Clark & Parsia, LLC. <http://www.clarkparsia.com>
+// This source code is available under the terms of the Affero General Public License v3.
+//
+// Please see LICENSE.txt for full license terms, including the availability of proprietary exceptions.
+// Questions, comments, or requests for clarification: licensing@clarkparsia.com
+
+package com.clarkparsia.pellet.el;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.mindswap.pellet.PelletOptions;
+import org.mindswap.pellet.exceptions.InternalReasonerException;
+
+import aterm.ATermAppl;
+
+/**
+ * <p>
+ * Title: Concurrent EL Classifier
+ * </p>
+ * <p>
+ * Description: An EL classifier that applies the completion rules of
+ * {@link SimplifiedELClassifier} on a pool of worker threads. Instead of one
+ * global queue, every concept has its own queue of super classes waiting to be
+ * processed. A concept with a non-empty queue is put on a shared list of
+ * active concepts and the queue of a concept is processed by at most one
+ * thread at a time. The super classes, successors and predecessors of the
+ * concepts are stored in concurrent collections so the rules can add them from
+ * any thread without locking. A rule that derives a new fact always stores the
+ * fact before it reads the facts it should be combined with, so for any two
+ * facts that should be combined at least one of the threads that derived them
+ * sees the other one.
+ * </p>
+ * <p>
+ * The completion rules are monotone so the saturation reaches the same fixpoint
+ * in any order and the taxonomy is identical to the one computed by
+ * {@link SimplifiedELClassifier}. The number of threads is controlled by
+ * {@link PelletOptions#EL_CLASSIFICATION_THREADS}.
+ * </p>
+ * <p>
+ * Copyright: Copyright (c) 2008
+ * </p>
+ * <p>
+ * Company: Clark & Parsia, LLC. <http://www.clarkparsia.com>
+ * </p>
+ */
+public class ConcurrentELClassifier extends SimplifiedELClassifier {
+	/**
+	 * How long (in milliseconds) the calling thread waits for the workers
+	 * before updating the progress monitor.
+	 */
+	private static final long	CHECK_INTERVAL	= 100;
+
+	/**
+	 * A concept with its own queue of super classes waiting to be processed.
+	 */
+	private static class Context extends ConceptInfo {
+		private final Queue<ConceptInfo>	todo	= new ConcurrentLinkedQueue<ConceptInfo>();
+
+		/**
+		 * True if the concept is in the list of active concepts or one of the
+		 * threads is processing its queue
+		 */
+		private final AtomicBoolean			active	= new AtomicBoolean();
+
+		public Context(ATermAppl c, boolean storeSuccessors) {
+			super( c, storeSuccessors, true, true );
+		}
+	}
+
+	private final int				threadCount;
+
+	private Queue<Context>			activeContexts;
+
+	/**
+	 * Number of subsumptions that have been queued but not processed yet
+	 */
+	private AtomicInteger			pending;
+
+	private AtomicInteger			processed;
+
+	private volatile boolean		aborted;
+
+	public ConcurrentELClassifier() {
+		this( PelletOptions.EL_CLASSIFICATION_THREADS );
+	}
+
+	public ConcurrentELClassifier(int threadCount) {
+		this.threadCount = Math.max( 1, threadCount );
+	}
+
+	public int getThreadCount() {
+		return threadCount;
+	}
+
+	@Override
+	protected void reset() {
+		activeContexts = new ConcurrentLinkedQueue<Context>();
+		pending = new AtomicInteger();
+		processed = new AtomicInteger();
+		aborted = false;
+
+		super.reset();
+	}
+
+	@Override
+	ConceptInfo createConceptInfo(ATermAppl c, boolean storeSuccessors) {
+		return new Context( c, storeSuccessors );
+	}
+
+	@Override
+	void addToQueue(ConceptInfo sub, ConceptInfo sup) {
+		if( sub.addSuperClass( sup ) ) {
+			Context context = (Context) sub;
+			pending.incrementAndGet();
+			context.todo.add( sup );
+			activate( context );
+		}
+	}
+
+	private void activate(Context context) {
+		if( context.active.compareAndSet( false, true ) ) {
+			activeContexts.add( context );
+		}
+	}
+
+	@Override
+	protected int getQueueSize() {
+		return pending.get();
+	}
+
+	@Override
+	protected void processQueue() {
+		if( threadCount < 2 ) {
+			saturate();
+			return;
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool( threadCount,
+				new SaturationThreadFactory() );
+		try {
+			List<Future<Void>> futures = new ArrayList<Future<Void>>( threadCount );
+			for( int i = 0; i < threadCount; i++ ) {
+				futures.add( executor.submit( new Callable<Void>() {
+					public Void call() {
+						saturate();
+						return null;
+					}
+				} ) );
+			}
+
+			for( Future<Void> future : futures ) {
+				waitFor( future );
+			}
+		} finally {
+			aborted = true;
+			executor.shutdownNow();
+		}
+	}
+
+	private void waitFor(Future<Void> future) {
+		while( true ) {
+			try {
+				future.get( CHECK_INTERVAL, TimeUnit.MILLISECONDS );
+				return;
+			} catch( TimeoutException e ) {
+				int done = processed.get();
+				if( monitor.getProgress() < done ) {
+					monitor.setProgress( done );
+				}
+			} catch( InterruptedException e ) {
+				Thread.currentThread().interrupt();
+				throw new InternalReasonerException( "Interrupted while waiting for EL saturation" );
+			} catch( ExecutionException e ) {
+				Throwable cause = e.getCause();
+				if( cause instanceof RuntimeException )
+					throw (RuntimeException) cause;
+				if( cause instanceof Error )
+					throw (Error) cause;
+				throw new InternalReasonerException( cause );
+			}
+		}
+	}
+
+	/**
+	 * Processes the active concepts until there are no pending subsumptions
+	 * left.
+	 */
+	private void saturate() {
+		try {
+			while( !aborted ) {
+				Context context = activeContexts.poll();
+				if( context != null ) {
+					process( context );
+				}
+				else if( pending.get() == 0 ) {
+					// nothing is queued and no other thread is processing a
+					// subsumption that could queue more
+					return;
+				}
+				else {
+					Thread.yield();
+				}
+			}
+		} catch( RuntimeException e ) {
+			aborted = true;
+			throw e;
+		} catch( Error e ) {
+			aborted = true;
+			throw e;
+		}
+	}
+
+	private void process(Context context) {
+		while( true ) {
+			ConceptInfo sup;
+			while( (sup = context.todo.poll()) != null ) {
+				addSuperClass( context, sup );
+				processed.incrementAndGet();
+				pending.decrementAndGet();
+			}
+
+			context.active.set( false );
+
+			// another thread might have queued a subsumption after the last
+			// poll but before the context was deactivated, in which case it
+			// either activated the context again or we do it here
+			if( context.todo.isEmpty() || !context.active.compareAndSet( false, true ) )
+				return;
+		}
+	}
+
+	private static class SaturationThreadFactory implements ThreadFactory {
+		private static final AtomicInteger	threadNumber	= new AtomicInteger();
+
+		public Thread newThread(Runnable r) {
+			Thread t = new Thread( r, "pellet-el-saturation-" + threadNumber.incrementAndGet() );
+			t.setDaemon( true );
+			return t;
+		}
+	}
+}
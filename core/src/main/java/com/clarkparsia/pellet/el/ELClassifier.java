@@ -211,7 +211,7 @@ public class ELClassifier extends CDOptimizedTaxonomyBuilder implements Taxonomy
 				if (supInfo.equals(BOTTOM)) {
 					addSubsumer(ci, BOTTOM);
 					
-					Iterator<ConceptInfo> preds = ci.getPredecessors().flattenedValues();
+					Iterator<ConceptInfo> preds = ci.getAllPredecessors();
 					while( preds.hasNext() ) {
 						addSubsumer(preds.next(), BOTTOM);
 					}
@@ -282,7 +282,7 @@ public class ELClassifier extends CDOptimizedTaxonomyBuilder implements Taxonomy
 		ci.addSuperClass(supInfo);
 		
 		if (ATermUtils.isBottom(supInfo.getConcept())) {			
-			Iterator<ConceptInfo> preds = ci.getPredecessors().flattenedValues();
+			Iterator<ConceptInfo> preds = ci.getAllPredecessors();
 			while( preds.hasNext() ) {
 				addSubsumer( preds.next(), supInfo );
 			}
@@ -119,7 +119,7 @@ public class SimplifiedELClassifier extends CDOptimizedTaxonomyBuilder implement
 		logger.fine( "Created structures" );
 		t.stop();
 		
-		int queueSize =  primaryQueue.size();
+		int queueSize = getQueueSize();
 		monitor.setProgressTitle( "Classifiying" );
 		monitor.setProgressLength( queueSize );
 		monitor.taskStarted();
@@ -163,7 +163,7 @@ public class SimplifiedELClassifier extends CDOptimizedTaxonomyBuilder implement
 			return;
 		}
 		
-		for( ConceptInfo supOfSucc : succ.getSuperClasses() ) {
+		for( ConceptInfo supOfSucc : CollectionUtils.makeList( succ.getSuperClasses() ) ) {
 			addSuccessor( pred, p, supOfSucc );
 		}
 
@@ -219,7 +219,12 @@ public class SimplifiedELClassifier extends CDOptimizedTaxonomyBuilder implement
 		}
 	}
 	
-	private void addToQueue(ConceptInfo sub, ConceptInfo sup) {
+	/**
+	 * Records that <code>sup</code> is a super class of <code>sub</code> and
+	 * schedules the consequences of this subsumption to be computed by
+	 * {@link #addSuperClass(ConceptInfo, ConceptInfo)} if it is new.
+	 */
+	void addToQueue(ConceptInfo sub, ConceptInfo sup) {
 		if( sub.addSuperClass( sup ) ) {
 			primaryQueue.add( new QueueElement(sub, sup) );
 			if( logger.isLoggable( Level.FINER ) ) {
@@ -228,13 +233,13 @@ public class SimplifiedELClassifier extends CDOptimizedTaxonomyBuilder implement
 		}
 	}
 
-	private void addSuperClass(ConceptInfo sub, ConceptInfo sup) {
+	void addSuperClass(ConceptInfo sub, ConceptInfo sup) {
 		if( logger.isLoggable( Level.FINER ) ) {
 			logger.finer( "Adding " + sub + " < " + sup );
 		}
 		
 		if( sup == BOTTOM ) {
-			Iterator<ConceptInfo> preds = sub.getPredecessors().flattenedValues();
+			Iterator<ConceptInfo> preds = sub.getAllPredecessors();
 			while( preds.hasNext() ) {
 				addToQueue( preds.next(), sup );
 			}
@@ -317,7 +322,7 @@ public class SimplifiedELClassifier extends CDOptimizedTaxonomyBuilder implement
 	private ConceptInfo createConcept(ATermAppl c) {
 		ConceptInfo concept = concepts.get( c );
 		if( concept == null ) {
-			concept = new ConceptInfo( c, hasComplexRoles, false );
+			concept = createConceptInfo( c, hasComplexRoles );
 			
 			if( ATermUtils.isAnd( c ) ) {
 				ATermList list = (ATermList) c.getArgument(0);
@@ -372,6 +377,10 @@ public class SimplifiedELClassifier extends CDOptimizedTaxonomyBuilder implement
 		return concept;
 	}
 
+	ConceptInfo createConceptInfo(ATermAppl c, boolean storeSuccessors) {
+		return new ConceptInfo( c, storeSuccessors, false );
+	}
+
 	private void createConceptsFromAxiom(ATermAppl sub, ATermAppl sup) {
 		addToQueue( createConcept( sub ), createConcept( sup ) );
 	}	
@@ -482,7 +491,17 @@ public class SimplifiedELClassifier extends CDOptimizedTaxonomyBuilder implement
 		roleChains.print();
 	}
 
-	private void processQueue() {
+	/**
+	 * Returns the number of subsumptions waiting to be processed.
+	 */
+	protected int getQueueSize() {
+		return primaryQueue.size();
+	}
+
+	/**
+	 * Processes the queued subsumptions until no new subsumption is found.
+	 */
+	protected void processQueue() {
 		int startingSize = primaryQueue.size();
 		while( !primaryQueue.isEmpty()) {
 			int processed = startingSize - primaryQueue.size();
@@ -149,6 +149,11 @@ public class DLExpressivityChecker extends ProfileBasedExpressivityChecker {
 			if( r.getSubRoles().size() > 1 )
 				m_Expressivity.setHasRoleHierarchy(true);
 
+			// a super property of the top object property relates all pairs of
+			// individuals
+			if( r.getSubRoles().contains( m_KB.getRole( ATermUtils.TOP_OBJECT_PROPERTY ) ) )
+				m_Expressivity.setHasTopObjectProperty(true);
+
 			Set<ATermAppl> domains = r.getDomains();
 			if( !domains.isEmpty() && !domains.equals( TOP_SET ) ) {
 				m_Expressivity.setHasDomain(true);
@@ -173,6 +178,8 @@ public class DLExpressivityChecker extends ProfileBasedExpressivityChecker {
 		}
 
 		void visitRole(ATermAppl p) {
+			if( p.equals( ATermUtils.TOP_OBJECT_PROPERTY ) )
+				m_Expressivity.setHasTopObjectProperty(true);
 			if( !ATermUtils.isPrimitive( p ) ) {
 				m_Expressivity.setHasInverse(true);
 				m_Expressivity.addAnonInverse((ATermAppl) p.getArgument( 0 ));				
@@ -81,6 +81,12 @@ public class Expressivity {
 
 	private boolean			hasKeys				= false;
 
+	/**
+	 * The top object property is used in a class expression or is a sub
+	 * property of another property
+	 */
+	private boolean			hasTopObjectProperty	= false;
+
 	private boolean			hasDomain			= false;
 	private boolean			hasRange			= false;
 
@@ -116,6 +122,7 @@ public class Expressivity {
 		hasComplexSubRoles = other.hasComplexSubRoles;
 		hasDatatype = other.hasDatatype;
 		hasKeys = other.hasKeys;
+		hasTopObjectProperty = other.hasTopObjectProperty;
 		hasDomain = other.hasDomain;
 		hasRange = other.hasRange;
 		hasIndividual = other.hasIndividual;
@@ -404,6 +411,14 @@ public class Expressivity {
 		hasKeys = v;
 	}
 
+	public boolean hasTopObjectProperty() {
+		return hasTopObjectProperty;
+	}
+
+	public void setHasTopObjectProperty(boolean v) {
+		hasTopObjectProperty = v;
+	}
+
 	public boolean hasDomain() {
 		return hasDomain;
 	}
@@ -0,0 +1,246 @@
+// Copyright (c) 2006 - 2008, Clark & Parsia, LLC. <http://www.clarkparsia.com>
+// This source code is available under the terms of the Affero General Public License v3.
+//
+// Please see LICENSE.txt for full license terms, including the availability of proprietary exceptions.
+// Questions, comments, or requests for clarification: licensing@clarkparsia.com
+
+package com.clarkparsia.pellet.impl;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import aterm.ATermAppl;
+
+import com.clarkparsia.pellet.BranchEffectTracker;
+
+/**
+ * <p>
+ * Title: Trail Branch Effect Tracker
+ * </p>
+ * <p>
+ * Description: BranchEffectTracker implementation that records the effects in
+ * a chronological trail (undo log). Every change to a node label, an edge, a
+ * merge or a prune is appended to the trail together with the branch it
+ * depends on so backtracking to a branch only needs to visit the part of the
+ * trail recorded after that branch was created instead of all the nodes in
+ * the ABox (see {@link org.mindswap.pellet.PelletOptions#USE_TRAIL_RESTORE}).
+ * </p>
+ * <p>
+ * Appending to the trail does not hash the node names, consecutive duplicate
+ * entries are discarded and the remaining duplicates are discarded when the
+ * trail is undone.
+ * </p>
+ * <p>
+ * The trail only records which nodes were changed, not the changes
+ * themselves. Each node found in the undone part of the trail is restored
+ * with {@link org.mindswap.pellet.Node#restore(int)}, which still scans all
+ * the types, edges and other state of the node. So backtracking avoids
+ * visiting the unaffected nodes, but the cost for an affected node depends on
+ * the size of the node and not on the number of changes made to it after the
+ * branch.
+ * </p>
+ * <p>
+ * Copyright: Copyright (c) 2008
+ * </p>
+ * <p>
+ * Company: Clark & Parsia, LLC. <http://www.clarkparsia.com>
+ * </p>
+ */
+public class TrailBranchEffectTracker implements BranchEffectTracker {
+	private static final int	INITIAL_CAPACITY	= 64;
+
+	private ATermAppl[]			names;
+
+	private int[]				branches;
+
+	private int					size;
+
+	/**
+	 * Position of the first trail entry recorded for each branch (branch - 1
+	 * is used as the index) or -1 if there is no entry for that branch
+	 */
+	private int[]				first;
+
+	/**
+	 * Highest branch that has an entry in the trail
+	 */
+	private int					lastBranch;
+
+	public TrailBranchEffectTracker() {
+		names = new ATermAppl[INITIAL_CAPACITY];
+		branches = new int[INITIAL_CAPACITY];
+		first = new int[INITIAL_CAPACITY];
+		Arrays.fill( first, -1 );
+		size = 0;
+		lastBranch = 0;
+	}
+
+	private TrailBranchEffectTracker(TrailBranchEffectTracker other) {
+		names = other.names.clone();
+		branches = other.branches.clone();
+		first = other.first.clone();
+		size = other.size;
+		lastBranch = other.lastBranch;
+	}
+
+	/**
+	 * Record that a node is affected by a branch. Returns <code>false</code>
+	 * only if the last entry in the trail is the same branch and node pair.
+	 *
+	 * @see com.clarkparsia.pellet.BranchEffectTracker#add(int, aterm.ATermAppl)
+	 */
+	public boolean add(int branch, ATermAppl a) {
+		if( branch <= 0 )
+			return false;
+
+		if( size > 0 && branches[size - 1] == branch && names[size - 1] == a )
+			return false;
+
+		if( size == names.length ) {
+			names = Arrays.copyOf( names, size * 2 );
+			branches = Arrays.copyOf( branches, size * 2 );
+		}
+
+		if( branch > first.length ) {
+			int oldLength = first.length;
+			first = Arrays.copyOf( first, Math.max( branch, oldLength * 2 ) );
+			Arrays.fill( first, oldLength, first.length, -1 );
+		}
+
+		if( first[branch - 1] < 0 )
+			first[branch - 1] = size;
+		if( branch > lastBranch )
+			lastBranch = branch;
+
+		names[size] = a;
+		branches[size] = branch;
+		size++;
+
+		return true;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see com.clarkparsia.pellet.BranchEffectTracker#copy()
+	 */
+	public TrailBranchEffectTracker copy() {
+		return new TrailBranchEffectTracker( this );
+	}
+
+	/**
+	 * Returns the position of the first trail entry recorded for the given
+	 * branch or any subsequent branch. Entries of a branch are not necessarily
+	 * contiguous because effects can be recorded with the branch of a
+	 * dependency set that is older than the current branch.
+	 */
+	private int start(int branch) {
+		int start = size;
+		for( int b = branch; b <= lastBranch; b++ ) {
+			int pos = first[b - 1];
+			if( pos >= 0 && pos < start )
+				start = pos;
+		}
+
+		return start;
+	}
+
+	/**
+	 * Returns the number of entries in the trail.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see com.clarkparsia.pellet.BranchEffectTracker#getAll(int)
+	 */
+	public Set<ATermAppl> getAll(int branch) {
+		if( branch < 1 )
+			throw new IllegalArgumentException();
+
+		if( branch > lastBranch )
+			return Collections.emptySet();
+
+		Set<ATermAppl> ret = new LinkedHashSet<ATermAppl>();
+		for( int i = start( branch ); i < size; i++ ) {
+			if( branches[i] >= branch )
+				ret.add( names[i] );
+		}
+
+		return ret;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see com.clarkparsia.pellet.BranchEffectTracker#remove(int)
+	 */
+	public Set<ATermAppl> remove(int branch) {
+		return compact( branch, false );
+	}
+
+	/**
+	 * Remove a branch and all subsequent branches from the trail. The nodes
+	 * are returned in the order they were first affected.
+	 *
+	 * @see com.clarkparsia.pellet.BranchEffectTracker#removeAll(int)
+	 */
+	public Set<ATermAppl> removeAll(int branch) {
+		return compact( branch, true );
+	}
+
+	/**
+	 * Remove the entries of the given branch (and all the subsequent branches
+	 * if <code>all</code> is true) from the trail. If only one branch is
+	 * removed the subsequent branches are renumbered.
+	 */
+	private Set<ATermAppl> compact(int branch, boolean all) {
+		if( branch < 1 )
+			throw new IllegalArgumentException();
+
+		if( branch > lastBranch )
+			return Collections.emptySet();
+
+		int from = start( branch );
+		for( int b = branch; b <= lastBranch; b++ ) {
+			first[b - 1] = -1;
+		}
+
+		Set<ATermAppl> ret = new LinkedHashSet<ATermAppl>();
+		int to = from;
+		for( int i = from; i < size; i++ ) {
+			int b = branches[i];
+			if( b == branch || (all && b > branch) ) {
+				ret.add( names[i] );
+				continue;
+			}
+
+			if( b > branch ) {
+				b--;
+				if( first[b - 1] < 0 )
+					first[b - 1] = to;
+			}
+			else if( first[b - 1] == i ) {
+				// older branch whose first entry is moved
+				first[b - 1] = to;
+			}
+
+			names[to] = names[i];
+			branches[to] = b;
+			to++;
+		}
+
+		Arrays.fill( names, to, size, null );
+		size = to;
+		lastBranch = all
+			? branch - 1
+			: lastBranch - 1;
+
+		return ret;
+	}
+}
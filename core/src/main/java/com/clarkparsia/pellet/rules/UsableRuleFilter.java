@@ -82,9 +82,6 @@ public class UsableRuleFilter {
 		}
 	}
 
-	private static BodyAtomFilter	bodyFilter	= new BodyAtomFilter();
-	private static HeadAtomFilter	headFilter	= new HeadAtomFilter();
-
 	/**
 	 * Checks if a rule can be used for reasoning.
 	 * 
@@ -106,6 +103,10 @@ public class UsableRuleFilter {
 	 *         <code>null</code> if the rule can be used for reasoning
 	 */
 	public static String explainNotUsable(Rule rule) {
+		// the filters keep the message of the last visit so they are not
+		// shared between the threads using different KBs
+		BodyAtomFilter bodyFilter = new BodyAtomFilter();
+		HeadAtomFilter headFilter = new HeadAtomFilter();
 
 		Set<AtomVariable> bodyVars = new HashSet<AtomVariable>();
 		for( RuleAtom atom : rule.getBody() ) {
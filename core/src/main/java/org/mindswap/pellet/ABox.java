@@ -33,6 +33,7 @@ package org.mindswap.pellet;
 import static java.lang.String.format;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -41,15 +42,17 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import org.mindswap.pellet.exceptions.InternalReasonerException;
 import org.mindswap.pellet.tableau.branch.Branch;
+import org.mindswap.pellet.tableau.branch.NogoodStore;
 import org.mindswap.pellet.tableau.cache.CachedNode;
 import org.mindswap.pellet.tableau.cache.CachedNodeFactory;
 import org.mindswap.pellet.tableau.cache.ConceptCache;
-import org.mindswap.pellet.tableau.cache.ConceptCacheLRU;
+import org.mindswap.pellet.tableau.cache.ConceptCacheFactory;
 import org.mindswap.pellet.tableau.completion.CompletionStrategy;
 import org.mindswap.pellet.tableau.completion.SROIQIncStrategy;
 import org.mindswap.pellet.tableau.completion.queue.BasicCompletionQueue;
@@ -61,11 +64,10 @@ import org.mindswap.pellet.tbox.TBox;
 import org.mindswap.pellet.utils.ATermUtils;
 import org.mindswap.pellet.utils.Bool;
 import org.mindswap.pellet.utils.CandidateSet;
+import org.mindswap.pellet.utils.ReasonerEvents;
 import org.mindswap.pellet.utils.SetUtils;
 import org.mindswap.pellet.utils.Timer;
-import org.mindswap.pellet.utils.fsm.State;
-import org.mindswap.pellet.utils.fsm.Transition;
-import org.mindswap.pellet.utils.fsm.TransitionGraph;
+import org.mindswap.pellet.utils.fsm.TransitionTable;
 import org.mindswap.pellet.utils.iterator.MultiListIterator;
 
 import aterm.ATerm;
@@ -82,6 +84,7 @@ import com.clarkparsia.pellet.datatypes.exceptions.UnrecognizedDatatypeException
 import com.clarkparsia.pellet.expressivity.Expressivity;
 import com.clarkparsia.pellet.impl.SimpleBranchEffectTracker;
 import com.clarkparsia.pellet.impl.SimpleIncrementalChangeTracker;
+import com.clarkparsia.pellet.impl.TrailBranchEffectTracker;
 import com.clarkparsia.pellet.utils.MultiMapUtils;
 
 /**
@@ -106,6 +109,10 @@ public class ABox {
 	// this prefix is not a root node
 	private int								anonCount			= 0;
 
+	// counter shared by the ABoxes created for the components of an ABox so
+	// the nodes they generate have distinct names, null for other ABoxes
+	private AtomicInteger					anonCounter			= null;
+
 	public  ABoxStats						stats				= new ABoxStats();
 	
 	/**
@@ -176,6 +183,14 @@ public class ABox {
 	// The KB to which this ABox belongs
 	private KnowledgeBase					kb;
 
+	// identifiers of the concepts in node labels, shared with the copies of
+	// this ABox
+	private ConceptDictionary				conceptDictionary;
+
+	// canonical representations and values of the literals, shared with the
+	// copies of this ABox
+	private LiteralDictionary				literalDictionary;
+
 	public boolean							rulesNotApplied;
 
 	public boolean							ranRete				= false;
@@ -184,18 +199,24 @@ public class ABox {
 	private BranchEffectTracker				branchEffects;
 	private CompletionQueue					completionQueue;
 	private IncrementalChangeTracker		incChangeTracker;
+	private NogoodStore						nogoods;
 
 	// flag set when incrementally updating the abox with explicit assertions
 	private boolean							syntacticUpdate		= false;
 
+	// connected components completed separately before the consistency check
+	private ABoxComponents					components;
+
 	public ABox(KnowledgeBase kb) {
 		this.kb = kb;
+		conceptDictionary = new ConceptDictionary();
 		nodes = new HashMap<ATermAppl, Node>();
 		nodeList = new ArrayList<ATermAppl>();
 		clash = null;
 		assertedClashes = new HashSet<Clash>();
 		doExplanation = false;
 		dtReasoner = new DatatypeReasonerImpl();
+		literalDictionary = new LiteralDictionary( dtReasoner );
 		keepLastCompletion = false;
 
 		setBranch( DependencySet.NO_BRANCH );
@@ -206,7 +227,7 @@ public class ABox {
 		rulesNotApplied = true;
 		
 		if( PelletOptions.TRACK_BRANCH_EFFECTS ) {
-	        branchEffects = new SimpleBranchEffectTracker();
+	        branchEffects = createBranchEffectTracker();
         }
         else {
 	        branchEffects = null;
@@ -236,6 +257,7 @@ public class ABox {
 		this.kb = kb;
 		Timer timer = kb.timers.startTimer( "cloneABox" );
 
+		conceptDictionary = abox.conceptDictionary;
 
 		this.rulesNotApplied = true;
 		initialized = abox.initialized;
@@ -244,6 +266,7 @@ public class ABox {
 		cache = abox.cache;
 		clash = abox.clash;		
 		dtReasoner = abox.dtReasoner;
+		literalDictionary = abox.literalDictionary;
 		doExplanation = abox.doExplanation;
 		setDisjBranchStats( abox.getDisjBranchStats() );
 
@@ -262,7 +285,7 @@ public class ABox {
 	            branchEffects = abox.branchEffects.copy();
             }
             else {
-	            branchEffects = new SimpleBranchEffectTracker();
+	            branchEffects = createBranchEffectTracker();
             }
 		}
         else {
@@ -368,6 +391,93 @@ public class ABox {
 
 	}
 
+	/**
+	 * Create an ABox for one connected component of the given ABox that
+	 * contains copies of the given nodes. There should be no edges between the
+	 * given nodes and the other nodes of the ABox. The names of the nodes
+	 * generated while completing the new ABox are taken from the given counter
+	 * which is shared by all the components of an ABox.
+	 */
+	ABox(ABox abox, List<ATermAppl> nodeNames, List<NodeMerge> merges, AtomicInteger anonCounter) {
+		this( abox.kb );
+
+		conceptDictionary = abox.conceptDictionary;
+		literalDictionary = abox.literalDictionary;
+		cache = abox.cache;
+		doExplanation = abox.doExplanation;
+		toBeMerged = merges;
+		this.anonCounter = anonCounter;
+		setAnonCount( anonCounter.get() );
+
+		for( ATermAppl x : nodeNames ) {
+			Node copy = abox.getNode( x ).copyTo( this );
+
+			nodes.put( x, copy );
+			nodeList.add( x );
+		}
+
+		for( Node node : nodes.values() ) {
+			node.updateNodeReferences();
+		}
+	}
+
+	/**
+	 * Replace the nodes of a connected component of this ABox with copies of
+	 * the nodes of the given ABox which has been created for that component.
+	 * The nodes generated while completing the component are added to this
+	 * ABox. The given ABox is not changed and can be copied again.
+	 */
+	void copyComponent(ABox component) {
+		List<Node> copies = new ArrayList<Node>( component.nodeList.size() );
+		for( ATermAppl x : component.nodeList ) {
+			Node copy = component.getNode( x ).copyTo( this );
+
+			if( nodes.put( x, copy ) == null ) {
+				nodeList.add( x );
+			}
+			copies.add( copy );
+		}
+
+		for( Node copy : copies ) {
+			copy.updateNodeReferences();
+		}
+
+		if( stats.treeDepth < component.stats.treeDepth ) {
+			stats.treeDepth = component.stats.treeDepth;
+		}
+	}
+
+	/**
+	 * Returns the connected components of this ABox completed during the last
+	 * consistency check or <code>null</code> if the ABox has never been
+	 * partitioned.
+	 * 
+	 * @see PelletOptions#USE_PARTITIONED_CONSISTENCY
+	 */
+	public ABoxComponents getComponents() {
+		return components;
+	}
+
+	/**
+	 * Make room for the given number of additional nodes so that adding them
+	 * does not repeatedly grow the node map and the node list.
+	 */
+	public void ensureCapacity(int additionalNodes) {
+		if( additionalNodes <= 0 ) {
+			return;
+		}
+
+		int capacity = nodes.size() + additionalNodes;
+
+		Map<ATermAppl, Node> newNodes = new HashMap<ATermAppl, Node>( (int) (capacity / 0.75f) + 1 );
+		newNodes.putAll( nodes );
+		nodes = newNodes;
+
+		if( nodeList instanceof ArrayList ) {
+			((ArrayList<ATermAppl>) nodeList).ensureCapacity( capacity );
+		}
+	}
+
 	/**
 	 * Create a copy of this ABox with all the nodes and edges.
 	 * 
@@ -467,7 +577,7 @@ public class ABox {
 		lastCompletion = null;
 
 		if( clearSatCache ) {
-			cache = new ConceptCacheLRU( kb );
+			cache = ConceptCacheFactory.createConceptCache( kb );
 		}
 	}
 
@@ -479,6 +589,34 @@ public class ABox {
 		return cache;
 	}
 
+	/**
+	 * Replace the concept satisfiability cache used by this ABox. ABox copies
+	 * share the cache of the original ABox so a copy that will be used by a
+	 * different thread needs its own cache.
+	 *
+	 * @param cache
+	 *            new cache
+	 */
+	public void setCache(ConceptCache cache) {
+		this.cache = cache;
+	}
+
+	/**
+	 * Returns the dictionary used to assign integer identifiers to the
+	 * concepts in node labels.
+	 */
+	public ConceptDictionary getConceptDictionary() {
+		return conceptDictionary;
+	}
+
+	/**
+	 * Returns the dictionary used to find the canonical representations and
+	 * the values of literals.
+	 */
+	public LiteralDictionary getLiteralDictionary() {
+		return literalDictionary;
+	}
+
 	public CachedNode getCached(ATermAppl c) {
 		if (ATermUtils.isNominal(c)) {
 	        return getIndividual(c.getArgument(0)).getSame();
@@ -592,7 +730,9 @@ public class ABox {
 		stats.satisfiabilityCount++;
 
 		Timer t = kb.timers.startTimer( "satisfiability" );
+		ReasonerEvents.Satisfiability event = ReasonerEvents.beginSatisfiability( c );
 		boolean isSat = isConsistent( SetUtils.<ATermAppl>emptySet(), c, cacheModel );
+		event.finish( isSat );
 		t.stop();
 
 		return isSat;
@@ -892,7 +1032,7 @@ public class ABox {
 			try {
 				Object value = (o == null)
 					? null
-					: dtReasoner.getValue( o );
+					: literalDictionary.getValue( o );
 				return hasObviousDataPropertyValue( s, p, value );
 			} catch( UnrecognizedDatatypeException e ) {
 				log
@@ -1092,9 +1232,9 @@ public class ABox {
 					new HashMap<Individual,Set<Role>>(), true );
         }
         else {
-			TransitionGraph<Role> tg = role.getFSM();
-			getComplexObjectPropertyValues( subj, tg.getInitialState(), tg, knowns, unknowns,
-					getSames, new HashMap<Individual,Set<State<Role>>>(), true );
+			TransitionTable table = role.getTransitionTable();
+			getComplexObjectPropertyValues( subj, table.getInitialState(), table, knowns, unknowns,
+					getSames, new HashMap<Individual,BitSet>(), true );
 		}
 
 		if( !isIndependent ) {
@@ -1168,25 +1308,29 @@ public class ABox {
 			if( !prop.isSimple() ) {
 				// all the following roles might cause this property to
 				// propagate
-				Set<Role> transRoles = SetUtils.intersection( edgeRole.getSuperRoles(), prop
-						.getTransitiveSubRoles() );
-				for( Iterator<Role> j = transRoles.iterator(); j.hasNext(); ) {
-					Role transRole = j.next();
-					getTransitivePropertyValues( value, transRole, knowns, unknowns, getSames,
-							visited, isIndependent && ds.isIndependent() );
+				for( Role transRole : prop.getTransitiveSubRoles() ) {
+					if( edgeRole.isSubRoleOf( transRole ) )
+						getTransitivePropertyValues( value, transRole, knowns, unknowns, getSames,
+								visited, isIndependent && ds.isIndependent() );
 				}
 			}
 		}
 	}
 
-	void getComplexObjectPropertyValues(Individual subj, State<Role> st, TransitionGraph<Role> tg,
+	void getComplexObjectPropertyValues(Individual subj, int st, TransitionTable table,
 			Set<ATermAppl> knowns, Set<ATermAppl> unknowns, boolean getSames,
-			HashMap<Individual,Set<State<Role>>> visited, boolean isIndependent) {
-		if( !MultiMapUtils.add( visited, subj, st ) ) {
+			Map<Individual,BitSet> visited, boolean isIndependent) {
+		BitSet visitedStates = visited.get( subj );
+		if( visitedStates == null ) {
+			visitedStates = new BitSet( table.size() );
+			visited.put( subj, visitedStates );
+		}
+		else if( visitedStates.get( st ) ) {
 	        return;
         }
+		visitedStates.set( st );
 
-		if( tg.isFinal( st ) && subj.isRootNominal() ) {
+		if( table.isFinal( st ) && subj.isRootNominal() ) {
 			log.fine( "add " + subj );
 			if( isIndependent ) {
 				if( getSames ) {
@@ -1208,15 +1352,16 @@ public class ABox {
 
 		log.fine( subj.toString() );
 
-		for( Transition<Role> t : st.getTransitions() ) {
-			Role r = t.getName();
-			EdgeList edges = subj.getRNeighborEdges( r );
+		Role[] roles = table.getTransitionRoles( st );
+		int[] targets = table.getTransitionTargets( st );
+		for( int t = 0; t < roles.length; t++ ) {
+			EdgeList edges = subj.getRNeighborEdges( roles[t] );
 			for( int i = 0; i < edges.size(); i++ ) {
 				Edge edge = edges.edgeAt( i );
 				DependencySet ds = edge.getDepends();
 				Individual value = (Individual) edge.getNeighbor( subj );
 
-				getComplexObjectPropertyValues( value, t.getTo(), tg, knowns, unknowns, getSames,
+				getComplexObjectPropertyValues( value, targets[t], table, knowns, unknowns, getSames,
 						visited, isIndependent && ds.isIndependent() );
 			}
 		}
@@ -1255,7 +1400,16 @@ public class ABox {
 	public boolean isConsistent() {
 		boolean isConsistent = false;
 		
-		checkAssertedClashes();
+		// the components are not completed if there is an asserted clash
+		// because the clash is not found again by the completion rules
+		boolean assertedConsistent = checkAssertedClashes();
+
+		if( PelletOptions.USE_PARTITIONED_CONSISTENCY && assertedConsistent ) {
+			if( components == null ) {
+				components = new ABoxComponents( this );
+			}
+			components.complete();
+		}
 			
 		isConsistent = isConsistent( SetUtils.<ATermAppl>emptySet(), null, false );
 
@@ -1743,7 +1897,7 @@ public class ABox {
         }
         else {
 			try {
-				name = getDatatypeReasoner().getCanonicalRepresentation( dataValue );
+				name = literalDictionary.getCanonicalRepresentation( dataValue );
 			} catch( InvalidLiteralException e ) {
 				final String msg = format( "Attempt to create an invalid literal (%s): %s",
 						dataValue, e.getMessage() );
@@ -1958,7 +2112,9 @@ public class ABox {
 	}
 
 	final public ATermAppl createUniqueName(boolean isNominal) {
-		anonCount++;
+		anonCount = anonCounter != null
+			? anonCounter.incrementAndGet()
+			: anonCount + 1;
 
 		ATermAppl name = isNominal
 			? ATermUtils.makeAnonNominal( anonCount )
@@ -2168,6 +2324,12 @@ public class ABox {
 		return lastClash.getDepends().getExplain();
 	}
 	
+	private static BranchEffectTracker createBranchEffectTracker() {
+		return PelletOptions.USE_TRAIL_RESTORE
+			? new TrailBranchEffectTracker()
+			: new SimpleBranchEffectTracker();
+	}
+
 	public BranchEffectTracker getBranchEffectTracker() {
 		if( branchEffects == null ) {
 	        throw new NullPointerException();
@@ -2183,6 +2345,18 @@ public class ABox {
 		return branches;
 	}
 
+	/**
+	 * Returns the nogoods learned while completing this ABox. Nogoods are
+	 * never copied to other ABoxes.
+	 */
+	public NogoodStore getNogoods() {
+		if( nogoods == null ) {
+	        nogoods = new NogoodStore( this );
+        }
+
+		return nogoods;
+	}
+
 	public IncrementalChangeTracker getIncrementalChangeTracker() {
 		if( incChangeTracker == null ) {
 	        throw new NullPointerException();
@@ -2495,6 +2669,9 @@ public class ABox {
 				node.reset( false );
 			}
 		}
+
+		resetConceptDictionary();
+		literalDictionary.clear();
 		
 		setComplete( false );
 		setInitialized( false );
@@ -2516,6 +2693,21 @@ public class ABox {
 		for( Node node : nodes.values() ) {			
 			node.reset(true);
 		}
+
+		resetConceptDictionary();
+	}
+
+	/**
+	 * Move the nodes to a new concept dictionary. The dictionary never forgets
+	 * a concept so the concepts of removed nodes and of the satisfiability
+	 * tests done so far are only released this way. ABox copies created
+	 * before keep using the old dictionary.
+	 */
+	private void resetConceptDictionary() {
+		conceptDictionary = new ConceptDictionary();
+		for( Node node : nodes.values() ) {
+			node.setConceptDictionary( conceptDictionary );
+		}
 	}
 
 	/**
@@ -0,0 +1,112 @@
+// Copyright (c) 2006 - 2008, Clark & Parsia, LLC. <http://www.clarkparsia.com>
+// This source code is available under the terms of the Affero General Public License v3.
+//
+// Please see LICENSE.txt for full license terms, including the availability of proprietary exceptions.
+// Questions, comments, or requests for clarification: licensing@clarkparsia.com
+
+package org.mindswap.pellet;
+
+import aterm.ATermAppl;
+
+/**
+ * <p>
+ * Title: ABox Bulk Load
+ * </p>
+ * <p>
+ * Description: A session for adding a large number of ABox assertions to a
+ * KB. A bulk load is started with {@link KnowledgeBase#beginBulkLoad(int)},
+ * the assertions are added one by one or in batches of parallel arrays and
+ * the bulk load is finished with {@link #commit()}. While the bulk load is in
+ * progress the KB does not track each assertion as a separate change, does
+ * not update the structures used for incremental reasoning and does not
+ * create the assertion terms unless tracing, incremental deletion or
+ * {@link PelletOptions#KEEP_ABOX_ASSERTIONS} needs them. The expressivity of
+ * the KB is computed once when the KB is prepared after the bulk load.
+ * </p>
+ * <p>
+ * Copyright: Copyright (c) 2008
+ * </p>
+ * <p>
+ * Company: Clark & Parsia, LLC. <http://www.clarkparsia.com>
+ * </p>
+ */
+public class ABoxBulkLoad {
+	private KnowledgeBase	kb;
+
+	ABoxBulkLoad(KnowledgeBase kb) {
+		this.kb = kb;
+	}
+
+	private KnowledgeBase getKB() {
+		if( kb == null )
+			throw new IllegalStateException( "Bulk load has been committed" );
+
+		return kb;
+	}
+
+	public Individual addIndividual(ATermAppl i) {
+		return getKB().addIndividual( i );
+	}
+
+	public void addType(ATermAppl i, ATermAppl c) {
+		getKB().addType( i, c );
+	}
+
+	public boolean addPropertyValue(ATermAppl p, ATermAppl s, ATermAppl o) {
+		return getKB().addPropertyValue( p, s, o );
+	}
+
+	/**
+	 * Add the first <code>size</code> individuals of the given array.
+	 */
+	public void addIndividuals(ATermAppl[] individuals, int size) {
+		KnowledgeBase kb = getKB();
+		for( int i = 0; i < size; i++ ) {
+			kb.addIndividual( individuals[i] );
+		}
+	}
+
+	/**
+	 * Add the first <code>size</code> type assertions of the given arrays
+	 * where <code>classes[i]</code> is a type of <code>individuals[i]</code>.
+	 */
+	public void addTypes(ATermAppl[] individuals, ATermAppl[] classes, int size) {
+		KnowledgeBase kb = getKB();
+		for( int i = 0; i < size; i++ ) {
+			kb.addType( individuals[i], classes[i] );
+		}
+	}
+
+	/**
+	 * Add the first <code>size</code> property assertions of the given arrays
+	 * where the i-th assertion is
+	 * <code>properties[i](subjects[i], objects[i])</code>.
+	 *
+	 * @return the number of assertions that were added, assertions with
+	 *         unknown properties or individuals are ignored
+	 */
+	public int addPropertyValues(ATermAppl[] properties, ATermAppl[] subjects,
+			ATermAppl[] objects, int size) {
+		KnowledgeBase kb = getKB();
+		int added = 0;
+		for( int i = 0; i < size; i++ ) {
+			if( kb.addPropertyValue( properties[i], subjects[i], objects[i] ) )
+				added++;
+		}
+
+		return added;
+	}
+
+	/**
+	 * Finish the bulk load. The assertions added after this call are tracked
+	 * as usual.
+	 */
+	public void commit() {
+		getKB().commitBulkLoad( this );
+		kb = null;
+	}
+
+	public boolean isCommitted() {
+		return kb == null;
+	}
+}
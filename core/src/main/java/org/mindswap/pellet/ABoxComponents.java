@@ -0,0 +1,462 @@
+// Copyright (c) 2006 - 2008, Clark & Parsia, LLC. <http://www.clarkparsia.com>
+// This source code is available under the terms of the Affero General Public License v3.
+//
+// Please see LICENSE.txt for full license terms, including the availability of proprietary exceptions.
+// Questions, comments, or requests for clarification: licensing@clarkparsia.com
+
+package org.mindswap.pellet;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.mindswap.pellet.exceptions.InternalReasonerException;
+import org.mindswap.pellet.tableau.completion.CompletionStrategy;
+import org.mindswap.pellet.utils.ATermUtils;
+import org.mindswap.pellet.utils.Timer;
+
+import aterm.ATermAppl;
+
+import com.clarkparsia.pellet.expressivity.Expressivity;
+
+/**
+ * <p>
+ * Title: ABox Components
+ * </p>
+ * <p>
+ * Description: Splits an ABox into the connected components of the graph
+ * formed by its property assertions, same and different individual assertions
+ * and completes each component in its own ABox before the consistency check
+ * of the original ABox. Without nominals, rules, keys or the top object
+ * property, the completion rules never relate nodes from different components
+ * so each component can be completed independently and the components can be
+ * completed concurrently on a pool of threads. The components that were
+ * completed without any non-deterministic choice are copied into the original
+ * ABox so the consistency check has nothing left to do for them. The other
+ * components are completed again as part of the original ABox where their
+ * branches can be used for backtracking by the later checks.
+ * </p>
+ * <p>
+ * Consistent components are kept so that the consistency check after an ABox
+ * change, which starts again from the asserted ABox, only completes the
+ * components whose assertions have been changed. The unchanged components are
+ * copied again if they were completed without any non-deterministic choice.
+ * The kept components are cleared when the TBox or the RBox is changed.
+ * </p>
+ * <p>
+ * Copyright: Copyright (c) 2008
+ * </p>
+ * <p>
+ * Company: Clark & Parsia, LLC. <http://www.clarkparsia.com>
+ * </p>
+ */
+public class ABoxComponents {
+	public final static Logger	log	= Logger.getLogger( ABoxComponents.class.getName() );
+
+	/**
+	 * A connected component of the ABox.
+	 */
+	private static class Component {
+		private final List<ATermAppl>	nodeNames	= new ArrayList<ATermAppl>();
+
+		private final List<NodeMerge>	merges		= new ArrayList<NodeMerge>();
+
+		/**
+		 * The assertions about the nodes of the component before it was
+		 * completed
+		 */
+		private Set<ATermAppl>			assertions;
+
+		/**
+		 * ABox where this component is completed, null if the completion
+		 * needed a non-deterministic choice
+		 */
+		private ABox					completion;
+
+		private ATermAppl getKey() {
+			return nodeNames.get( 0 );
+		}
+	}
+
+	private final ABox					abox;
+
+	/**
+	 * The consistent components indexed by the name of their first node
+	 */
+	private Map<ATermAppl, Component>	completed;
+
+	private boolean						doExplanation;
+
+	private int							componentCount;
+
+	private int							completedCount;
+
+	private int							reusedCount;
+
+	private int							copiedCount;
+
+	ABoxComponents(ABox abox) {
+		this.abox = abox;
+		this.completed = new HashMap<ATermAppl, Component>();
+		this.doExplanation = abox.doExplanation();
+	}
+
+	/**
+	 * Returns the number of components found in the last consistency check
+	 * or 0 if the ABox could not be partitioned.
+	 */
+	public int getComponentCount() {
+		return componentCount;
+	}
+
+	/**
+	 * Returns the number of components completed during the last consistency
+	 * check.
+	 */
+	public int getCompletedCount() {
+		return completedCount;
+	}
+
+	/**
+	 * Returns the number of components in the last consistency check that
+	 * did not need to be completed because they were completed before and
+	 * have not been changed since.
+	 */
+	public int getReusedCount() {
+		return reusedCount;
+	}
+
+	/**
+	 * Returns the number of completed components copied into the ABox during
+	 * the last consistency check.
+	 */
+	public int getCopiedCount() {
+		return copiedCount;
+	}
+
+	/**
+	 * Forget the components completed so far.
+	 */
+	public void clear() {
+		completed = new HashMap<ATermAppl, Component>();
+	}
+
+	/**
+	 * Checks if the completion rules are guaranteed not to relate nodes from
+	 * different components of the ABox. The check is conservative, e.g. a
+	 * nominal used in any axiom prevents the ABox from being partitioned.
+	 */
+	private boolean canPartition() {
+		if( PelletOptions.USE_COMPLETION_QUEUE || PelletOptions.TRACK_BRANCH_EFFECTS
+				|| PelletOptions.USE_INCREMENTAL_DELETION ) {
+			return false;
+		}
+
+		KnowledgeBase kb = abox.getKB();
+		Expressivity expr = kb.getExpressivity();
+		if( expr.hasNominal() || expr.hasKeys() || expr.hasTopObjectProperty()
+				|| !kb.getRules().isEmpty() ) {
+			return false;
+		}
+
+		// only an ABox that has not been completed yet or has been reset is
+		// partitioned
+		return !abox.isClosed() && abox.getBranches().isEmpty();
+	}
+
+	/**
+	 * Find the connected components of the ABox.
+	 *
+	 * @return the components in the order of their first nodes or
+	 *         <code>null</code> if the ABox contains nodes that have been
+	 *         generated by the completion rules
+	 */
+	private List<Component> partition() {
+		List<ATermAppl> nodeList = abox.getNodeNames();
+		int size = nodeList.size();
+
+		Map<ATermAppl, Integer> indices = new HashMap<ATermAppl, Integer>( size );
+		for( int i = 0; i < size; i++ ) {
+			ATermAppl x = nodeList.get( i );
+			Node node = abox.getNode( x );
+			if( !node.isRootNominal() || node.isPruned() ) {
+				return null;
+			}
+
+			indices.put( x, i );
+		}
+
+		int[] parents = new int[size];
+		for( int i = 0; i < size; i++ ) {
+			parents[i] = i;
+		}
+
+		for( int i = 0; i < size; i++ ) {
+			Node node = abox.getNode( nodeList.get( i ) );
+			EdgeList edges = node.getInEdges();
+			for( int e = 0; e < edges.size(); e++ ) {
+				union( parents, i, indices.get( edges.edgeAt( e ).getFromName() ) );
+			}
+
+			if( node instanceof Individual ) {
+				edges = ((Individual) node).getOutEdges();
+				for( int e = 0; e < edges.size(); e++ ) {
+					union( parents, i, indices.get( edges.edgeAt( e ).getToName() ) );
+				}
+			}
+
+			for( Node other : node.getDifferents() ) {
+				union( parents, i, indices.get( other.getName() ) );
+			}
+		}
+
+		for( NodeMerge merge : abox.getToBeMerged() ) {
+			union( parents, indices.get( merge.getSource() ), indices.get( merge.getTarget() ) );
+		}
+
+		List<Component> components = new ArrayList<Component>();
+		Component[] roots = new Component[size];
+		for( int i = 0; i < size; i++ ) {
+			int root = find( parents, i );
+			Component component = roots[root];
+			if( component == null ) {
+				component = new Component();
+				roots[root] = component;
+				components.add( component );
+			}
+			component.nodeNames.add( nodeList.get( i ) );
+		}
+
+		for( NodeMerge merge : abox.getToBeMerged() ) {
+			roots[find( parents, indices.get( merge.getSource() ) )].merges.add( merge );
+		}
+
+		// literals that are not the value of any property are left to the
+		// consistency check of the ABox
+		for( Iterator<Component> i = components.iterator(); i.hasNext(); ) {
+			if( abox.getNode( i.next().getKey() ).isLiteral() ) {
+				i.remove();
+			}
+		}
+
+		return components;
+	}
+
+	private static int find(int[] parents, int i) {
+		while( parents[i] != i ) {
+			parents[i] = parents[parents[i]];
+			i = parents[i];
+		}
+		return i;
+	}
+
+	private static void union(int[] parents, int i, int j) {
+		int rootI = find( parents, i );
+		int rootJ = find( parents, j );
+		if( rootI != rootJ ) {
+			parents[Math.max( rootI, rootJ )] = Math.min( rootI, rootJ );
+		}
+	}
+
+	/**
+	 * Returns the assertions about the nodes of the component in the ABox.
+	 * Two components with the same assertions have the same completion.
+	 */
+	private Set<ATermAppl> getAssertions(Component component) {
+		Set<ATermAppl> assertions = new HashSet<ATermAppl>();
+		for( ATermAppl x : component.nodeNames ) {
+			Node node = abox.getNode( x );
+			for( ATermAppl c : node.getTypes() ) {
+				assertions.add( ATermUtils.makeTypeAtom( x, c ) );
+			}
+
+			if( node instanceof Individual ) {
+				EdgeList edges = ((Individual) node).getOutEdges();
+				for( int e = 0; e < edges.size(); e++ ) {
+					Edge edge = edges.edgeAt( e );
+					assertions.add( ATermUtils.makePropAtom( edge.getRole().getName(), x, edge
+							.getToName() ) );
+				}
+			}
+
+			for( Node other : node.getDifferents() ) {
+				assertions.add( ATermUtils.makeDifferent( x, other.getName() ) );
+			}
+		}
+
+		for( NodeMerge merge : component.merges ) {
+			assertions.add( ATermUtils.makeSameAs( merge.getSource(), merge.getTarget() ) );
+		}
+
+		return assertions;
+	}
+
+	/**
+	 * Complete the connected components of the ABox and copy the ones
+	 * completed without any non-deterministic choice into the ABox. Nothing is
+	 * copied if one of the components is inconsistent so the consistency check
+	 * of the ABox finds the clash and explains it as usual. The ABox is left
+	 * unchanged if it cannot be partitioned.
+	 */
+	void complete() {
+		componentCount = completedCount = reusedCount = copiedCount = 0;
+
+		if( !canPartition() ) {
+			return;
+		}
+
+		KnowledgeBase kb = abox.getKB();
+		Timer timer = kb.timers.startTimer( "partition" );
+		try {
+			List<Component> components = partition();
+			if( components == null || components.size() < 2 ) {
+				clear();
+				return;
+			}
+
+			if( doExplanation != abox.doExplanation() ) {
+				clear();
+				doExplanation = abox.doExplanation();
+			}
+
+			componentCount = components.size();
+
+			AtomicInteger anonCounter = new AtomicInteger( abox.getAnonCount() );
+			Map<ATermAppl, Component> reused = new HashMap<ATermAppl, Component>();
+			List<Component> incomplete = new ArrayList<Component>();
+			for( Component component : components ) {
+				component.assertions = getAssertions( component );
+
+				Component prev = completed.get( component.getKey() );
+				if( prev != null && prev.nodeNames.equals( component.nodeNames )
+						&& prev.assertions.equals( component.assertions ) ) {
+					reused.put( component.getKey(), prev );
+				}
+				else {
+					component.completion = new ABox( abox, component.nodeNames, component.merges,
+							anonCounter );
+					incomplete.add( component );
+				}
+			}
+
+			reusedCount = reused.size();
+			completedCount = incomplete.size();
+
+			boolean consistent = completeAll( incomplete );
+
+			completed = new HashMap<ATermAppl, Component>();
+			for( Component component : components ) {
+				Component completedComponent = reused.get( component.getKey() );
+				if( completedComponent == null && !component.completion.isClosed() ) {
+					completedComponent = component;
+					// the branches of this component are not valid in the
+					// ABox, it will be completed again as part of the ABox
+					if( !component.completion.getBranches().isEmpty() ) {
+						component.completion = null;
+					}
+				}
+
+				if( completedComponent != null ) {
+					completed.put( component.getKey(), completedComponent );
+				}
+			}
+
+			if( consistent ) {
+				for( Component component : components ) {
+					Component completedComponent = completed.get( component.getKey() );
+					if( completedComponent.completion != null ) {
+						abox.copyComponent( completedComponent.completion );
+						copiedCount++;
+					}
+				}
+
+				abox.setAnonCount( Math.max( abox.getAnonCount(), anonCounter.get() ) );
+			}
+
+			if( log.isLoggable( Level.FINE ) ) {
+				log.fine( "Components: " + componentCount + " completed: " + completedCount
+						+ " reused: " + reusedCount + " copied: " + copiedCount + " consistent: "
+						+ consistent );
+			}
+		} finally {
+			timer.stop();
+		}
+	}
+
+	/**
+	 * Complete the ABoxes of the given components using the configured number
+	 * of threads.
+	 *
+	 * @return <code>false</code> if one of the components is inconsistent
+	 */
+	private boolean completeAll(List<Component> components) {
+		final Expressivity expr = abox.getKB().getExpressivity();
+
+		int threadCount = Math.min( PelletOptions.PARTITIONED_CONSISTENCY_THREADS, components
+				.size() );
+		if( threadCount < 2 ) {
+			boolean consistent = true;
+			for( Component component : components ) {
+				consistent &= complete( component.completion, expr );
+			}
+			return consistent;
+		}
+
+		List<Callable<Boolean>> tasks = new ArrayList<Callable<Boolean>>( components.size() );
+		for( final Component component : components ) {
+			tasks.add( new Callable<Boolean>() {
+				public Boolean call() {
+					return complete( component.completion, expr );
+				}
+			} );
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool( threadCount,
+				new ReasonerWorkerPool.WorkerThreadFactory() );
+		try {
+			boolean consistent = true;
+			for( Future<Boolean> future : executor.invokeAll( tasks ) ) {
+				consistent &= future.get();
+			}
+			return consistent;
+		} catch( InterruptedException e ) {
+			Thread.currentThread().interrupt();
+			throw new InternalReasonerException( "Interrupted while waiting for worker threads" );
+		} catch( ExecutionException e ) {
+			Throwable cause = e.getCause();
+			if( cause instanceof RuntimeException )
+				throw (RuntimeException) cause;
+			if( cause instanceof Error )
+				throw (Error) cause;
+			throw new InternalReasonerException( cause );
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	private static boolean complete(ABox component, Expressivity expr) {
+		KnowledgeBase kb = component.getKB();
+		CompletionStrategy strategy = kb.chooseStrategy( component, expr );
+
+		Timer timer = kb.timers.startTimer( "complete" );
+		try {
+			strategy.complete( expr );
+		} finally {
+			timer.stop();
+		}
+
+		return !component.isClosed();
+	}
+}
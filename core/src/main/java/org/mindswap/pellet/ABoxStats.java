@@ -49,12 +49,17 @@ public class ABoxStats {
 
 	public int		branch				= 0;
 
+	public int		nogoodsLearned		= 0;
+	public int		nogoodsApplied		= 0;
+
 	public void add(ABoxStats other) {
 		backjumps += other.backjumps;
 		backtracks += other.backtracks;
 		globalRestores += other.globalRestores;
 		localRestores += other.localRestores;
 		branch += other.branch;
+		nogoodsLearned += other.nogoodsLearned;
+		nogoodsApplied += other.nogoodsApplied;
 	}
 
 	public String toString() {
@@ -65,6 +70,7 @@ public class ABoxStats {
 		sb.append( " Restores " + globalRestores + " global " + localRestores + " local" );
 		sb.append( " Backtracks " + backtracks );
 		sb.append( " Avg backjump " + (backjumps / (double) backtracks) );
+		sb.append( " Nogoods " + nogoodsLearned + " learned " + nogoodsApplied + " applied" );
 		return sb.toString();
 	}
 }
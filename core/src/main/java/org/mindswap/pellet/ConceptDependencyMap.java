@@ -0,0 +1,502 @@
+// Copyright (c) 2006 - 2008, Clark & Parsia, LLC. <http://www.clarkparsia.com>
+// This source code is available under the terms of the Affero General Public License v3.
+//
+// Please see LICENSE.txt for full license terms, including the availability of proprietary exceptions.
+// Questions, comments, or requests for clarification: licensing@clarkparsia.com
+
+package org.mindswap.pellet;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import aterm.ATermAppl;
+
+/**
+ * <p>
+ * Title: Concept Dependency Map
+ * </p>
+ * <p>
+ * Description: The label of a node, i.e. a map from concepts to the dependency
+ * sets explaining why the node has that type. Concepts are translated to dense
+ * integer identifiers by a {@link ConceptDictionary} and stored in an open
+ * addressing table of primitive ints so adding, finding and removing types
+ * does not allocate and does not call <code>equals</code> on the concepts.
+ * Concepts that are only queried are never added to the dictionary.
+ * </p>
+ * <p>
+ * Copies of a map share the tables with the original map until one of the
+ * maps is modified (see {@link PelletOptions#COPY_ON_WRITE_NODE_LABELS}) so
+ * copying an ABox does not copy the labels of the nodes that are not modified
+ * afterwards.
+ * </p>
+ * <p>
+ * Copyright: Copyright (c) 2008
+ * </p>
+ * <p>
+ * Company: Clark & Parsia, LLC. <http://www.clarkparsia.com>
+ * </p>
+ */
+public class ConceptDependencyMap extends AbstractMap<ATermAppl, DependencySet> {
+	private static final int		EMPTY				= 0;
+
+	private static final int		REMOVED				= -1;
+
+	private static final int		INITIAL_CAPACITY	= 8;
+
+	private final ConceptDictionary	dictionary;
+
+	/**
+	 * Identifier + 1 of the concept in each slot, or {@link #EMPTY} or
+	 * {@link #REMOVED}
+	 */
+	private int[]					keys;
+
+	private ATermAppl[]				concepts;
+
+	private DependencySet[]			values;
+
+	private int						size;
+
+	/**
+	 * Number of slots that are not {@link #EMPTY}
+	 */
+	private int						used;
+
+	private int						modCount;
+
+	/**
+	 * True if the tables might be shared with another map and should be
+	 * copied before being modified
+	 */
+	private boolean					shared;
+
+	private Set<ATermAppl>			keySet;
+
+	private Collection<DependencySet>	valueCollection;
+
+	private Set<Map.Entry<ATermAppl, DependencySet>>	entrySet;
+
+	public ConceptDependencyMap(ConceptDictionary dictionary) {
+		this.dictionary = dictionary;
+
+		keys = new int[INITIAL_CAPACITY];
+		concepts = new ATermAppl[INITIAL_CAPACITY];
+		values = new DependencySet[INITIAL_CAPACITY];
+	}
+
+	/**
+	 * Create a copy of the given map that uses the given dictionary.
+	 */
+	public ConceptDependencyMap(ConceptDependencyMap other, ConceptDictionary dictionary) {
+		this.dictionary = dictionary;
+
+		if( dictionary == other.dictionary ) {
+			keys = other.keys;
+			concepts = other.concepts;
+			values = other.values;
+			size = other.size;
+			used = other.used;
+
+			if( PelletOptions.COPY_ON_WRITE_NODE_LABELS ) {
+				shared = true;
+				other.shared = true;
+			}
+			else {
+				unshare();
+			}
+		}
+		else {
+			// identifiers are different so every concept needs to be added
+			// again
+			int capacity = INITIAL_CAPACITY;
+			while( capacity < other.size * 2 ) {
+				capacity <<= 1;
+			}
+			keys = new int[capacity];
+			concepts = new ATermAppl[capacity];
+			values = new DependencySet[capacity];
+			for( int i = 0; i < other.keys.length; i++ ) {
+				if( other.keys[i] > EMPTY )
+					put( other.concepts[i], other.values[i] );
+			}
+		}
+	}
+
+	/**
+	 * Make sure the tables of this map are not shared with any other map
+	 * before they are modified.
+	 */
+	private void unshare() {
+		keys = keys.clone();
+		concepts = concepts.clone();
+		values = values.clone();
+		shared = false;
+	}
+
+	private int indexOf(int key) {
+		int mask = keys.length - 1;
+		for( int i = mix( key ) & mask;; i = (i + 1) & mask ) {
+			int k = keys[i];
+			if( k == key )
+				return i;
+			if( k == EMPTY )
+				return -1;
+		}
+	}
+
+	private static int mix(int key) {
+		// identifiers are consecutive so scatter them a little to avoid long
+		// runs of occupied slots
+		return key * 0x9E3779B9 >>> 16 ^ key;
+	}
+
+	private int indexOf(Object o) {
+		if( !(o instanceof ATermAppl) )
+			return -1;
+
+		int id = dictionary.lookup( (ATermAppl) o );
+		if( id == ConceptDictionary.NOT_FOUND )
+			return -1;
+
+		return indexOf( id + 1 );
+	}
+
+	@Override
+	public DependencySet get(Object c) {
+		int i = indexOf( c );
+		return i < 0
+			? null
+			: values[i];
+	}
+
+	@Override
+	public boolean containsKey(Object c) {
+		return indexOf( c ) >= 0;
+	}
+
+	@Override
+	public DependencySet put(ATermAppl c, DependencySet ds) {
+		int key = dictionary.getId( c ) + 1;
+
+		int mask = keys.length - 1;
+		int free = -1;
+		int i = mix( key ) & mask;
+		for( ;; i = (i + 1) & mask ) {
+			int k = keys[i];
+			if( k == key ) {
+				DependencySet old = values[i];
+				if( shared )
+					unshare();
+				values[i] = ds;
+				return old;
+			}
+			if( k == EMPTY )
+				break;
+			if( k == REMOVED && free < 0 )
+				free = i;
+		}
+
+		if( free < 0 && (used + 1) * 2 > keys.length ) {
+			rehash();
+			put( c, ds );
+			return null;
+		}
+
+		if( shared )
+			unshare();
+
+		if( free >= 0 )
+			i = free;
+		else
+			used++;
+
+		keys[i] = key;
+		concepts[i] = c;
+		values[i] = ds;
+		size++;
+		modCount++;
+
+		return null;
+	}
+
+	private void rehash() {
+		int[] oldKeys = keys;
+		ATermAppl[] oldConcepts = concepts;
+		DependencySet[] oldValues = values;
+
+		// only grow if the table is full of live entries, otherwise removed
+		// slots are simply cleaned up
+		int capacity = (size + 1) * 4 > oldKeys.length
+			? oldKeys.length * 2
+			: oldKeys.length;
+		keys = new int[capacity];
+		concepts = new ATermAppl[capacity];
+		values = new DependencySet[capacity];
+		used = size;
+		shared = false;
+
+		int mask = capacity - 1;
+		for( int j = 0; j < oldKeys.length; j++ ) {
+			int key = oldKeys[j];
+			if( key > EMPTY ) {
+				int i = mix( key ) & mask;
+				while( keys[i] != EMPTY ) {
+					i = (i + 1) & mask;
+				}
+				keys[i] = key;
+				concepts[i] = oldConcepts[j];
+				values[i] = oldValues[j];
+			}
+		}
+	}
+
+	@Override
+	public DependencySet remove(Object c) {
+		int i = indexOf( c );
+		if( i < 0 )
+			return null;
+
+		DependencySet old = values[i];
+		removeAt( i );
+
+		return old;
+	}
+
+	private void removeAt(int i) {
+		if( shared )
+			unshare();
+
+		keys[i] = REMOVED;
+		concepts[i] = null;
+		values[i] = null;
+		size--;
+		modCount++;
+	}
+
+	@Override
+	public void clear() {
+		if( used == 0 )
+			return;
+
+		if( shared ) {
+			// nothing to copy
+			keys = new int[INITIAL_CAPACITY];
+			concepts = new ATermAppl[INITIAL_CAPACITY];
+			values = new DependencySet[INITIAL_CAPACITY];
+			shared = false;
+		}
+
+		for( int i = 0; i < keys.length; i++ ) {
+			keys[i] = EMPTY;
+			concepts[i] = null;
+			values[i] = null;
+		}
+		size = 0;
+		used = 0;
+		modCount++;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public Set<ATermAppl> keySet() {
+		if( keySet == null ) {
+			keySet = new AbstractSet<ATermAppl>() {
+				@Override
+				public Iterator<ATermAppl> iterator() {
+					return new SlotIterator<ATermAppl>() {
+						@Override
+						protected ATermAppl get(int i) {
+							return concepts[i];
+						}
+					};
+				}
+
+				@Override
+				public boolean contains(Object o) {
+					return containsKey( o );
+				}
+
+				@Override
+				public boolean remove(Object o) {
+					return ConceptDependencyMap.this.remove( o ) != null;
+				}
+
+				@Override
+				public int size() {
+					return size;
+				}
+
+				@Override
+				public void clear() {
+					ConceptDependencyMap.this.clear();
+				}
+			};
+		}
+
+		return keySet;
+	}
+
+	@Override
+	public Collection<DependencySet> values() {
+		if( valueCollection == null ) {
+			valueCollection = new AbstractCollection<DependencySet>() {
+				@Override
+				public Iterator<DependencySet> iterator() {
+					return new SlotIterator<DependencySet>() {
+						@Override
+						protected DependencySet get(int i) {
+							return values[i];
+						}
+					};
+				}
+
+				@Override
+				public int size() {
+					return size;
+				}
+
+				@Override
+				public void clear() {
+					ConceptDependencyMap.this.clear();
+				}
+			};
+		}
+
+		return valueCollection;
+	}
+
+	@Override
+	public Set<Map.Entry<ATermAppl, DependencySet>> entrySet() {
+		if( entrySet == null ) {
+			entrySet = new AbstractSet<Map.Entry<ATermAppl, DependencySet>>() {
+				@Override
+				public Iterator<Map.Entry<ATermAppl, DependencySet>> iterator() {
+					return new SlotIterator<Map.Entry<ATermAppl, DependencySet>>() {
+						@Override
+						protected Map.Entry<ATermAppl, DependencySet> get(int i) {
+							return new SlotEntry( i );
+						}
+					};
+				}
+
+				@Override
+				public int size() {
+					return size;
+				}
+
+				@Override
+				public void clear() {
+					ConceptDependencyMap.this.clear();
+				}
+			};
+		}
+
+		return entrySet;
+	}
+
+	private abstract class SlotIterator<T> implements Iterator<T> {
+		private int	next	= -1;
+		private int	current	= -1;
+		private int	expectedModCount;
+
+		SlotIterator() {
+			expectedModCount = modCount;
+			advance();
+		}
+
+		private void advance() {
+			do {
+				next++;
+			} while( next < keys.length && keys[next] <= EMPTY );
+		}
+
+		protected abstract T get(int i);
+
+		public boolean hasNext() {
+			return next < keys.length;
+		}
+
+		public T next() {
+			if( modCount != expectedModCount )
+				throw new ConcurrentModificationException();
+			if( next >= keys.length )
+				throw new NoSuchElementException();
+
+			current = next;
+			advance();
+
+			return get( current );
+		}
+
+		public void remove() {
+			if( current < 0 )
+				throw new IllegalStateException();
+			if( modCount != expectedModCount )
+				throw new ConcurrentModificationException();
+
+			// removing only marks the slot so iteration order is not affected
+			removeAt( current );
+			current = -1;
+			expectedModCount = modCount;
+		}
+	}
+
+	private class SlotEntry implements Map.Entry<ATermAppl, DependencySet> {
+		private final int	slot;
+
+		SlotEntry(int slot) {
+			this.slot = slot;
+		}
+
+		public ATermAppl getKey() {
+			return concepts[slot];
+		}
+
+		public DependencySet getValue() {
+			return values[slot];
+		}
+
+		public DependencySet setValue(DependencySet ds) {
+			if( shared )
+				unshare();
+
+			DependencySet old = values[slot];
+			values[slot] = ds;
+			return old;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if( !(o instanceof Map.Entry<?, ?>) )
+				return false;
+			Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+			return getKey().equals( e.getKey() ) && getValue().equals( e.getValue() );
+		}
+
+		@Override
+		public int hashCode() {
+			return getKey().hashCode() ^ getValue().hashCode();
+		}
+
+		@Override
+		public String toString() {
+			return getKey() + "=" + getValue();
+		}
+	}
+}
@@ -0,0 +1,155 @@
+// Copyright (c) 2006 - 2008, Clark & Parsia, LLC. <http://www.clarkparsia.com>
+// This source code is available under the terms of the Affero General Public License v3.
+//
+// Please see LICENSE.txt for full license terms, including the availability of proprietary exceptions.
+// Questions, comments, or requests for clarification: licensing@clarkparsia.com
+
+package org.mindswap.pellet;
+
+import aterm.ATermAppl;
+
+/**
+ * <p>
+ * Title: Concept Dictionary
+ * </p>
+ * <p>
+ * Description: Assigns dense integer identifiers (0, 1, 2, ...) to the
+ * concepts that appear in the node labels of an ABox so labels can be stored
+ * in primitive int-keyed structures, see {@link ConceptDependencyMap}. ATerms
+ * are maximally shared so concepts are compared by identity and the dictionary
+ * never calls <code>equals</code>.
+ * </p>
+ * <p>
+ * A dictionary is shared by an ABox and all its copies, which may be used by
+ * different threads (see {@link ReasonerWorkerPool}). Lookups do not lock;
+ * only adding a new concept synchronizes on the dictionary. Identifiers are
+ * never reused and the dictionary keeps the concepts reachable for as long as
+ * the ABoxes using it. A cleared KB creates a new ABox with a new dictionary
+ * and when the KB is prepared again after a change the ABox moves its nodes
+ * to a new dictionary (see {@link ABox#reset()} and
+ * {@link ABox#resetQueue()}).
+ * </p>
+ * <p>
+ * Copyright: Copyright (c) 2008
+ * </p>
+ * <p>
+ * Company: Clark & Parsia, LLC. <http://www.clarkparsia.com>
+ * </p>
+ */
+public class ConceptDictionary {
+	/**
+	 * Identifier returned by {@link #lookup(ATermAppl)} for concepts that are
+	 * not in the dictionary
+	 */
+	public static final int	NOT_FOUND			= -1;
+
+	private static final int	INITIAL_CAPACITY	= 1 << 10;
+
+	/**
+	 * Immutable table entry so that a thread that reads an entry without
+	 * locking always sees both fields initialized.
+	 */
+	private static final class Entry {
+		private final ATermAppl	concept;
+		private final int		id;
+
+		private Entry(ATermAppl concept, int id) {
+			this.concept = concept;
+			this.id = id;
+		}
+	}
+
+	/**
+	 * Open addressing table with linear probing. The array is replaced (never
+	 * resized in place) when it gets too full.
+	 */
+	private volatile Entry[]	table;
+
+	/**
+	 * Number of concepts in the dictionary, guarded by <code>this</code>
+	 */
+	private int					size;
+
+	public ConceptDictionary() {
+		table = new Entry[INITIAL_CAPACITY];
+	}
+
+	static int hash(ATermAppl c) {
+		// ATerm hash codes are cached so this is only a field read
+		int h = c.hashCode();
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 * Returns the identifier of the concept or {@link #NOT_FOUND} if the
+	 * concept has not been added to the dictionary yet.
+	 */
+	public int lookup(ATermAppl c) {
+		Entry[] tab = table;
+		int mask = tab.length - 1;
+		for( int i = hash( c ) & mask;; i = (i + 1) & mask ) {
+			Entry e = tab[i];
+			if( e == null )
+				return NOT_FOUND;
+			if( e.concept == c )
+				return e.id;
+		}
+	}
+
+	/**
+	 * Returns the identifier of the concept adding it to the dictionary if
+	 * necessary.
+	 */
+	public int getId(ATermAppl c) {
+		int id = lookup( c );
+		if( id == NOT_FOUND )
+			id = add( c );
+
+		return id;
+	}
+
+	private synchronized int add(ATermAppl c) {
+		// another thread might have added the concept after the lookup
+		int id = lookup( c );
+		if( id != NOT_FOUND )
+			return id;
+
+		Entry[] tab = table;
+		if( (size + 1) * 2 > tab.length )
+			tab = rehash( tab );
+
+		id = size++;
+		insert( tab, new Entry( c, id ) );
+		// publish the new entry
+		table = tab;
+
+		return id;
+	}
+
+	private static Entry[] rehash(Entry[] tab) {
+		Entry[] newTab = new Entry[tab.length * 2];
+		for( Entry e : tab ) {
+			if( e != null )
+				insert( newTab, e );
+		}
+
+		return newTab;
+	}
+
+	private static void insert(Entry[] tab, Entry e) {
+		int mask = tab.length - 1;
+		int i = hash( e.concept ) & mask;
+		while( tab[i] != null ) {
+			i = (i + 1) & mask;
+		}
+		tab[i] = e;
+	}
+
+	/**
+	 * Returns the number of concepts in the dictionary which is also the
+	 * smallest identifier that has not been assigned yet.
+	 */
+	public synchronized int size() {
+		return size;
+	}
+}
@@ -17,6 +17,7 @@ import org.mindswap.pellet.utils.Pair;
 import org.mindswap.pellet.utils.fsm.State;
 import org.mindswap.pellet.utils.fsm.Transition;
 import org.mindswap.pellet.utils.fsm.TransitionGraph;
+import org.mindswap.pellet.utils.fsm.TransitionTable;
 
 import aterm.ATermList;
 
@@ -84,7 +85,7 @@ public class FSMBuilder {
 
 			setFSM( s, tg );
 
-			setFSM( s.getInverse(), mirror( tg ).determinize().renumber() );
+			setFSM( s.getInverse(), mirror( tg ).determinize().minimize().renumber() );
 		}
 
 		visited.remove( s );
@@ -96,12 +97,18 @@ public class FSMBuilder {
 		if( log.isLoggable( Level.FINE ) )
 			log.fine( "NFA for " + s + ":\n" + tg );
 
+		assert tg.isDeterministic();
+
+		TransitionTable table = TransitionTable.compile( tg );
+
 		s.setFSM( tg );
+		s.setTransitionTable( table );
 		
 		Set<Role> eqRoles = s.getEquivalentProperties();
 		eqRoles.remove( s );
 		for( Role eqRole : eqRoles ) {
 			eqRole.setFSM( tg );
+			eqRole.setTransitionTable( table );
 		}
 	}
 	
@@ -62,6 +62,13 @@ public class Individual extends Node implements CachedNode {
 	private ArrayList<ATermAppl>[] types = new ArrayList[TYPES]; // Known warning message
 	public int[] applyNext = new int[TYPES];
 
+	/**
+	 * True if the type lists might be shared with a copy of this individual
+	 * (or with the individual this one was copied from) and should be copied
+	 * before being modified
+	 */
+	private boolean typesShared;
+
 	private int nominalLevel;
 	
 	private Individual parent;
@@ -100,10 +107,18 @@ public class Individual extends Node implements CachedNode {
 		nominalLevel = ind.nominalLevel;
 		parent = ind.parent;
 
-		for(int i = 0; i < TYPES; i++) {
-			types[i] = new ArrayList<ATermAppl>(ind.types[i]);		
-			applyNext[i] = ind.applyNext[i];		
+		if( PelletOptions.COPY_ON_WRITE_NODE_LABELS ) {
+			types = ind.types.clone();
+			typesShared = true;
+			ind.typesShared = true;
 		}
+		else {
+			for(int i = 0; i < TYPES; i++)
+				types[i] = new ArrayList<ATermAppl>(ind.types[i]);
+		}
+
+		for(int i = 0; i < TYPES; i++)
+			applyNext[i] = ind.applyNext[i];
 			
 		if( isPruned() )
 			outEdges = new EdgeList(ind.outEdges);
@@ -169,6 +184,20 @@ public class Individual extends Node implements CachedNode {
 	public List<ATermAppl> getTypes(int type) {
 		return types[type];
 	}
+
+	/**
+	 * Returns the list of types that can be modified, copying the type lists
+	 * first if they are shared with another individual.
+	 */
+	private ArrayList<ATermAppl> writableTypes(int type) {
+		if( typesShared ) {
+			for(int i = 0; i < TYPES; i++)
+				types[i] = new ArrayList<ATermAppl>(types[i]);
+			typesShared = false;
+		}
+
+		return types[type];
+	}
 		
 	public boolean isDifferent( Node node ) {
 	    if( PelletOptions.USE_UNIQUE_NAME_ASSUMPTION ) {
@@ -281,7 +310,7 @@ public class Individual extends Node implements CachedNode {
 		
 		if (ATermUtils.isPrimitive(c)) {
 			setChanged(ATOM);
-			types[ATOM].add(c);
+			writableTypes(ATOM).add(c);
 
 			if(PelletOptions.USE_COMPLETION_QUEUE){
 				//update completion queue
@@ -298,7 +327,7 @@ public class Individual extends Node implements CachedNode {
 			}
 			else if (c.getAFun().equals(ATermUtils.ALLFUN)) {
 				setChanged(ALL);			
-				types[ALL].add(c);			
+				writableTypes(ALL).add(c);			
 
 				if(PelletOptions.USE_COMPLETION_QUEUE){
 					//update completion queue
@@ -307,7 +336,7 @@ public class Individual extends Node implements CachedNode {
 			}
 			else if (c.getAFun().equals(ATermUtils.MINFUN)) {
 				if(!isRedundantMin(c)) {
-					types[MIN].add(c);
+					writableTypes(MIN).add(c);
 					setChanged(MIN);
 					
 					if(PelletOptions.USE_COMPLETION_QUEUE){		
@@ -327,7 +356,7 @@ public class Individual extends Node implements CachedNode {
 				ATermAppl x = (ATermAppl) c.getArgument(0);
 				if(ATermUtils.isAnd(x)) {
 					setChanged(OR);
-					types[OR].add(c);
+					writableTypes(OR).add(c);
 					
 					if(PelletOptions.USE_COMPLETION_QUEUE){
 						//update completion queue
@@ -336,7 +365,7 @@ public class Individual extends Node implements CachedNode {
 				}
 				else if(ATermUtils.isAllValues(x)) {
 					setChanged(SOME);
-					types[SOME].add(c);
+					writableTypes(SOME).add(c);
 					
 					if(PelletOptions.USE_COMPLETION_QUEUE){
 						//update completion queue					
@@ -345,7 +374,7 @@ public class Individual extends Node implements CachedNode {
 				}
 				else if(ATermUtils.isMin(x)) {
 					if(!isRedundantMax(x)) {
-						types[MAX].add(c);
+						writableTypes(MAX).add(c);
 						setChanged(MAX);
 						
 						if(PelletOptions.USE_COMPLETION_QUEUE){
@@ -365,7 +394,7 @@ public class Individual extends Node implements CachedNode {
 				}
 				else if(ATermUtils.isNominal(x)) {
 					setChanged(ATOM);
-					types[ATOM].add(c);
+					writableTypes(ATOM).add(c);
 						
 					if(PelletOptions.USE_COMPLETION_QUEUE){
 						//update completion queue					
@@ -385,7 +414,7 @@ public class Individual extends Node implements CachedNode {
 	            }
 				else if(x.getArity() == 0) {
 					setChanged(ATOM);
-					types[ATOM].add(c);
+					writableTypes(ATOM).add(c);
 					
 					if(PelletOptions.USE_COMPLETION_QUEUE){
 						//update completion queue					
@@ -397,7 +426,7 @@ public class Individual extends Node implements CachedNode {
 			}
 			else if (c.getAFun().equals(ATermUtils.VALUEFUN)) {
 				setChanged(NOM);
-				types[NOM].add(c);
+				writableTypes(NOM).add(c);
 			
 				if(PelletOptions.USE_COMPLETION_QUEUE){
 					//update completion queue				
@@ -406,7 +435,7 @@ public class Individual extends Node implements CachedNode {
 			}		
             else if (ATermUtils.isSelf(c)) {
             	setChanged( ATOM );
-                types[ATOM].add(c);
+                writableTypes(ATOM).add(c);
             }
 			else {
 				throw new InternalReasonerException("Warning: Adding invalid class constructor - " + c);
@@ -596,34 +625,34 @@ public class Individual extends Node implements CachedNode {
 		// it is important to continue removal here because restore function
 		// modified depends map directly 
 		if (ATermUtils.isPrimitive(c) || ATermUtils.isSelf(c)) {
-			types[ATOM].remove(c);
+			writableTypes(ATOM).remove(c);
 		}
 		else {
 			if(c.getAFun().equals(ATermUtils.ANDFUN)) {
 //			    types[AND].remove(c);
 			}
 			else if (c.getAFun().equals(ATermUtils.ALLFUN)) {
-				types[ALL].remove(c);
+				writableTypes(ALL).remove(c);
 			}
 			else if (c.getAFun().equals(ATermUtils.MINFUN)) {
-				types[MIN].remove(c);
+				writableTypes(MIN).remove(c);
 			}
 			else if (c.getAFun().equals(ATermUtils.NOTFUN)) {
 				ATermAppl x = (ATermAppl) c.getArgument(0);
 				if(ATermUtils.isAnd(x)) {
-					types[OR].remove(c);
+					writableTypes(OR).remove(c);
 				}
 				else if(ATermUtils.isAllValues(x)) {
-					types[SOME].remove(c);
+					writableTypes(SOME).remove(c);
 				}
 				else if(ATermUtils.isMin(x)) {
-					types[MAX].remove(c);
+					writableTypes(MAX).remove(c);
 				}
 				else if(ATermUtils.isNominal(x)) {
-					types[ATOM].remove(c);
+					writableTypes(ATOM).remove(c);
 				}
 				else if(x.getArity() == 0) {
-					types[ATOM].remove(c);
+					writableTypes(ATOM).remove(c);
 				}
 				else if(ATermUtils.isSelf(x)) {
 					// do nothing
@@ -632,7 +661,7 @@ public class Individual extends Node implements CachedNode {
 				    throw new InternalReasonerException( "Invalid type " +  c + " for individual " + name);				
 			}
 			else if(c.getAFun().equals(ATermUtils.VALUEFUN))
-				types[NOM].remove(c);
+				writableTypes(NOM).remove(c);
 			else
 				throw new RuntimeException("Invalid concept " + c);
 		}
@@ -1037,7 +1066,7 @@ public class Individual extends Node implements CachedNode {
     
     protected void resetTypes() {
     	for(int type = 0; type < TYPES; type++) {
-    		ArrayList<ATermAppl> list = types[type];
+    		ArrayList<ATermAppl> list = writableTypes(type);
     		int size = list.size();
     		for(int i = 0; i < size; i++) {
     			ATermAppl c = list.get(i);
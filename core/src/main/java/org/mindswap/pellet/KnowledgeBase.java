@@ -40,6 +40,8 @@ import static com.clarkparsia.pellet.utils.TermFactory.some;
 import static java.lang.String.format;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.PrintWriter;
 import java.io.Reader;
 import java.util.ArrayList;
@@ -69,10 +71,13 @@ import org.mindswap.pellet.tableau.completion.EmptySRIQStrategy;
 import org.mindswap.pellet.tableau.completion.SROIQStrategy;
 import org.mindswap.pellet.tableau.completion.incremental.DependencyIndex;
 import org.mindswap.pellet.tableau.completion.incremental.IncrementalRestore;
+import org.mindswap.pellet.tableau.completion.rule.TableauRuleStats;
 import org.mindswap.pellet.taxonomy.CDOptimizedTaxonomyBuilder;
+import org.mindswap.pellet.taxonomy.FrozenTaxonomy;
 import org.mindswap.pellet.taxonomy.Taxonomy;
 import org.mindswap.pellet.taxonomy.TaxonomyBuilder;
 import org.mindswap.pellet.taxonomy.TaxonomyNode;
+import org.mindswap.pellet.taxonomy.TypeIndex;
 import org.mindswap.pellet.taxonomy.printer.ClassTreePrinter;
 import org.mindswap.pellet.tbox.TBox;
 import org.mindswap.pellet.tbox.TBoxFactory;
@@ -80,6 +85,7 @@ import org.mindswap.pellet.utils.ATermUtils;
 import org.mindswap.pellet.utils.AnnotationClasses;
 import org.mindswap.pellet.utils.Bool;
 import org.mindswap.pellet.utils.MultiValueMap;
+import org.mindswap.pellet.utils.ReasonerEvents;
 import org.mindswap.pellet.utils.SizeEstimate;
 import org.mindswap.pellet.utils.TaxonomyUtils;
 import org.mindswap.pellet.utils.Timer;
@@ -94,6 +100,7 @@ import aterm.ATermList;
 import com.clarkparsia.pellet.datatypes.DatatypeReasoner;
 import com.clarkparsia.pellet.datatypes.exceptions.InvalidLiteralException;
 import com.clarkparsia.pellet.datatypes.exceptions.UnrecognizedDatatypeException;
+import com.clarkparsia.pellet.el.ConcurrentELClassifier;
 import com.clarkparsia.pellet.el.SimplifiedELClassifier;
 import com.clarkparsia.pellet.expressivity.Expressivity;
 import com.clarkparsia.pellet.expressivity.ExpressivityChecker;
@@ -112,6 +119,22 @@ import com.clarkparsia.pellet.utils.CollectionUtils;
 import com.clarkparsia.pellet.utils.MultiMapUtils;
 
 /**
+ * <p>
+ * A KB is not thread-safe, even the query functions update the caches and
+ * indexes of the KB and the ABox, so a KB should only be used by one thread at
+ * a time. The terms are created by the shared factory of {@link ATermUtils}
+ * which can be used concurrently and the KBs do not share any other mutable
+ * state so the following can be done concurrently from different threads as
+ * long as each thread uses its own KB:
+ * </p>
+ * <ul>
+ * <li>creating terms with {@link ATermUtils} and
+ * {@link com.clarkparsia.pellet.utils.TermFactory}, and normalizing them</li>
+ * <li>loading axioms into a KB, including the Jena and OWLAPI loaders</li>
+ * <li>consistency checking, classification, realization and the other
+ * reasoning and query functions of the KB</li>
+ * </ul>
+ * 
  * @author Evren Sirin
  */
 public class KnowledgeBase {
@@ -131,9 +154,19 @@ public class KnowledgeBase {
 	private Set<ATermAppl>									individuals;
 
 	protected TaxonomyBuilder								builder;
+
+	// index of the realization results, created when it is first used
+	private TypeIndex										typeIndex;
+	// compact copy of the class hierarchy, created when it is first used
+	private FrozenTaxonomy<ATermAppl>						frozenTaxonomy;
+	// index of the edges of the completed ABox, created when it is first used
+	private PropertyIndex									propertyIndex;
 	private ProgressMonitor									builderProgressMonitor;
 
 	private boolean											consistent;
+	// the consistency result was restored from a snapshot and the ABox will
+	// be completed when it is first needed
+	private boolean											isABoxCompletionPending;
 
 	private SizeEstimate									estimate;
 	
@@ -179,6 +212,12 @@ public class KnowledgeBase {
 	 */
 	public Timers							timers	= new Timers();
 
+	/**
+	 * Statistics about the applications of the tableau rules
+	 */
+	private TableauRuleStats				ruleStats	= new TableauRuleStats(
+																PelletOptions.COLLECT_RULE_STATISTICS );
+
 	/**
 	 * Rules added to this KB. The key is the asserted rule, 
 	 */
@@ -208,6 +247,13 @@ public class KnowledgeBase {
 
 	protected boolean				canUseIncConsistency;
 
+	// the bulk load in progress, null if there is none
+	private ABoxBulkLoad			bulkLoad			= null;
+
+	// set during a bulk load that adds the assertions without updating the
+	// incremental reasoning structures
+	private boolean					deferABoxChanges	= false;
+
 	FullyDefinedClassVisitor		fullyDefinedVisitor	= new FullyDefinedClassVisitor();
 	DatatypeVisitor					datatypeVisitor		= new DatatypeVisitor();
 
@@ -442,6 +488,7 @@ public class KnowledgeBase {
 		tbox = kb.tbox;
 		rbox = kb.rbox;
 		rules = kb.rules;
+		ruleStats = kb.ruleStats;
 
 		aboxAssertions = new MultiValueMap<AssertionType, ATermAppl>();
 		
@@ -504,8 +551,9 @@ public class KnowledgeBase {
 
 			state = EnumSet.of( ReasoningState.CONSISTENCY );
 			consistent = kb.consistent;
+			isABoxCompletionPending = kb.isABoxCompletionPending;
 
-			abox.setComplete( true );
+			abox.setComplete( !isABoxCompletionPending );
 
 			estimate = new SizeEstimate( this );
 		}
@@ -541,6 +589,8 @@ public class KnowledgeBase {
 		else {
 			boolean doExplanation = abox.doExplanation();
 			boolean keepLastCompletion = abox.isKeepLastCompletion();
+			// copies of the old ABox might still share its literal dictionary
+			abox.getLiteralDictionary().clear();
 			abox = new ABox( this );
 			abox.setDoExplanation( doExplanation );
 			abox.setKeepLastCompletion( keepLastCompletion );
@@ -561,6 +611,9 @@ public class KnowledgeBase {
 		// typeChecks = new HashMap();
 
 		builder = null;
+		typeIndex = null;
+		frozenTaxonomy = null;
+		propertyIndex = null;
 
 		state.clear();
 		changes = EnumSet.of( ChangeType.ABOX_ADD, ChangeType.TBOX_ADD, ChangeType.RBOX_ADD );
@@ -578,6 +631,8 @@ public class KnowledgeBase {
 			syntacticAssertions = new HashSet<ATermAppl>();
 		}
 
+		// copies of the old ABox might still share its literal dictionary
+		abox.getLiteralDictionary().clear();
 		ABox newABox = new ABox( this );
 		newABox.cache = abox.cache;
 		abox = newABox;
@@ -750,6 +805,74 @@ public class KnowledgeBase {
 		addPropertyValue( p, s, o );
 	}
 
+	/**
+	 * Start a bulk load of ABox assertions. The assertions added through the
+	 * returned object, or through the usual methods of the KB, until the bulk
+	 * load is committed skip the per assertion change tracking and the
+	 * incremental reasoning bookkeeping. If the KB can be updated
+	 * incrementally the assertions are tracked as usual so the next
+	 * consistency check is still incremental. The KB should not be queried
+	 * before the bulk load is committed.
+	 * 
+	 * @param individualCount
+	 *            the expected number of individuals that will be added which
+	 *            is used to size the ABox, zero if unknown
+	 * @return the bulk load
+	 * @throws IllegalStateException
+	 *             if another bulk load is in progress
+	 */
+	public ABoxBulkLoad beginBulkLoad(int individualCount) {
+		if( bulkLoad != null )
+			throw new IllegalStateException( "A bulk load is already in progress" );
+
+		deferABoxChanges = !canUseIncConsistency();
+		if( deferABoxChanges ) {
+			// set the addition flag once for all the assertions
+			changes.add( ChangeType.ABOX_ADD );
+
+			if( individualCount > 0 ) {
+				abox.ensureCapacity( individualCount );
+
+				Set<ATermAppl> newIndividuals = new HashSet<ATermAppl>(
+						(int) ((individuals.size() + individualCount) / 0.75f) + 1 );
+				newIndividuals.addAll( individuals );
+				individuals = newIndividuals;
+			}
+		}
+
+		bulkLoad = new ABoxBulkLoad( this );
+
+		return bulkLoad;
+	}
+
+	/**
+	 * Finish the given bulk load.
+	 */
+	void commitBulkLoad(ABoxBulkLoad load) {
+		if( bulkLoad != load )
+			throw new IllegalStateException( "Bulk load is not in progress" );
+
+		bulkLoad = null;
+		deferABoxChanges = false;
+	}
+
+	/**
+	 * Returns the bulk load in progress or <code>null</code> if there is none.
+	 */
+	public ABoxBulkLoad getBulkLoad() {
+		return bulkLoad;
+	}
+
+	/**
+	 * Checks if the assertions added to the KB need to be kept as terms
+	 * because of tracing, incremental deletion or
+	 * {@link PelletOptions#KEEP_ABOX_ASSERTIONS}.
+	 */
+	private static boolean isAssertionNeeded() {
+		return PelletOptions.USE_TRACING || PelletOptions.USE_INCREMENTAL_DELETION
+				|| PelletOptions.KEEP_ABOX_ASSERTIONS;
+	}
+
 	public Individual addIndividual(ATermAppl i) {
 		Node node = abox.getNode( i );
 		if( node != null ) {
@@ -784,6 +907,12 @@ public class KnowledgeBase {
 			abox.addType( i, nominal, DependencySet.INDEPENDENT );
 		}
 
+		if( deferABoxChanges ) {
+			abox.setBranch( remember );
+
+			return ind;
+		}
+
 		// set addition flag
 		changes.add( ChangeType.ABOX_ADD );
 
@@ -817,7 +946,10 @@ public class KnowledgeBase {
 			return;
 		}
 
-		ATermAppl typeAxiom = ATermUtils.makeTypeAtom( i, c );
+		// the assertion is not created unless it is needed
+		ATermAppl typeAxiom = isAssertionNeeded()
+			? ATermUtils.makeTypeAtom( i, c )
+			: null;
 		DependencySet ds = PelletOptions.USE_TRACING
 			? new DependencySet( typeAxiom )
 			: DependencySet.INDEPENDENT;
@@ -836,6 +968,13 @@ public class KnowledgeBase {
 	}
 
 	public void addType(ATermAppl i, ATermAppl c, DependencySet ds) {
+		if( deferABoxChanges ) {
+			abox.setSyntacticUpdate( true );
+			abox.addType( i, c, ds );
+			abox.setSyntacticUpdate( false );
+			return;
+		}
+
 		// set addition flag
 		changes.add( ChangeType.ABOX_ADD );
 
@@ -973,7 +1112,10 @@ public class KnowledgeBase {
 		if( !role.isObjectRole() && !role.isDatatypeRole() )
 			return false;
 
-		ATermAppl propAxiom = ATermUtils.makePropAtom( p, s, o );
+		// the assertion is not created unless it is needed
+		ATermAppl propAxiom = isAssertionNeeded()
+			? ATermUtils.makePropAtom( p, s, o )
+			: null;
 
 		DependencySet ds = PelletOptions.USE_TRACING
 			? new DependencySet( propAxiom )
@@ -1005,9 +1147,11 @@ public class KnowledgeBase {
 		}
 
 		// set addition flag
-		changes.add( ChangeType.ABOX_ADD );
+		if( !deferABoxChanges ) {
+			changes.add( ChangeType.ABOX_ADD );
+		}
 
-		if( !canUseIncConsistency() ) {
+		if( deferABoxChanges || !canUseIncConsistency() ) {
 			Edge edge = abox.addEdge( p, s, obj.getName(), ds );
 			
 			if( edge == null ) {
@@ -1565,7 +1709,7 @@ public class KnowledgeBase {
 	public boolean removePropertyValue(ATermAppl p, ATermAppl i1, ATermAppl i2) {
 		if( ATermUtils.isLiteral( i2 ) ) {
 			try {
-				i2 = abox.getDatatypeReasoner().getCanonicalRepresentation( i2 );
+				i2 = abox.getLiteralDictionary().getCanonicalRepresentation( i2 );
 			} catch( InvalidLiteralException e ) {
 				log.warning( format(
 						"Unable to remove property value (%s,%s,%s) due to invalid literal: %s", p,
@@ -1785,6 +1929,7 @@ public class KnowledgeBase {
 		state.remove( ReasoningState.CONSISTENCY );
 		// realization need to be repeated after modifications
 		state.remove( ReasoningState.REALIZE );
+		typeIndex = null;
 		
 		// classification may notbve repeated if ...
 		boolean reuseTaxonomy =
@@ -1817,6 +1962,10 @@ public class KnowledgeBase {
 			rbox.propagateDomainRange();
 		}
 
+		if( abox.getComponents() != null && (isTBoxChanged() || isRBoxChanged()) ) {
+			abox.getComponents().clear();
+		}
+
 		canUseIncConsistency = canUseIncConsistency();
 
 		if( abox.isComplete() ) {
@@ -1988,10 +2137,11 @@ public class KnowledgeBase {
 	}
 
 	private void consistency() {
-		if( isConsistencyDone() )
+		if( isConsistencyDone() && !isABoxCompletionPending )
 			return;
 
 		abox.setInitialized( false );
+		propertyIndex = null;
 
 		// prepare the KB
 		prepare();		
@@ -2005,6 +2155,7 @@ public class KnowledgeBase {
 		}
 
 		Timer timer = timers.startTimer( "consistency" );
+		ReasonerEvents.Phase event = ReasonerEvents.beginPhase( "consistency" );
 
 		boolean doExplanation = abox.doExplanation();
 		
@@ -2060,7 +2211,9 @@ public class KnowledgeBase {
 		abox.setDoExplanation( doExplanation );
 		
 		state.add( ReasoningState.CONSISTENCY );
+		isABoxCompletionPending = false;
 		
+		event.finish();
 		timer.stop();
 		
 		if ( log.isLoggable( Level.FINE ) ) {
@@ -2107,8 +2260,21 @@ public class KnowledgeBase {
 					(PelletOptions.USE_TRACING ? "\n" + renderExplanationSet() : "" ));
 	}
 
-	public void classify() {
+	/**
+	 * Same as {@link #ensureConsistency()} but the ABox is not completed if the
+	 * KB is already known to be consistent, e.g. when the consistency result
+	 * was restored from a snapshot. Used by the reasoning services that only
+	 * need the TBox.
+	 */
+	private void ensureKnownConsistency() {
+		if( isConsistencyDone() && consistent )
+			return;
+
 		ensureConsistency();
+	}
+
+	public void classify() {
+		ensureKnownConsistency();
 
 		if( isClassified() )
 			return;
@@ -2117,11 +2283,14 @@ public class KnowledgeBase {
 			log.fine( "Classifying..." );
 
 		Timer timer = timers.startTimer( "classify" );
+		ReasonerEvents.Phase event = ReasonerEvents.beginPhase( "classification" );
 
 		builder = getTaxonomyBuilder();
+		frozenTaxonomy = null;
 
 		boolean isClassified = builder.classify();
 
+		event.finish();
 		timer.stop();
 
 		if( !isClassified )
@@ -2141,11 +2310,18 @@ public class KnowledgeBase {
 		if( !isClassified() )
 			return;
 
+		// realization needs the completed ABox
+		ensureConsistency();
+
 		Timer timer = timers.startTimer( "realize" );
+		ReasonerEvents.Phase event = ReasonerEvents.beginPhase( "realization" );
+
+		typeIndex = null;
 
 		// This is false if the progress monitor is canceled
 		boolean isRealized = builder.realize();
 
+		event.finish();
 		timer.stop();
 
 		if( !isRealized )
@@ -2156,6 +2332,80 @@ public class KnowledgeBase {
 		estimate.computKBCosts();
 	}
 
+	/**
+	 * Create an immutable snapshot of the current classification and
+	 * realization results that can be queried concurrently from multiple
+	 * threads. The KB is realized first if necessary. Changes made to the KB
+	 * after the snapshot is created are not reflected in the snapshot.
+	 * 
+	 * @return a thread-safe read-only view of the reasoning results
+	 * @throws IllegalStateException
+	 *             if the KB could not be realized, e.g. the realization was
+	 *             canceled
+	 */
+	public KnowledgeBaseSnapshot snapshot() {
+		realize();
+
+		if( !isRealized() )
+			throw new IllegalStateException( "Cannot create a snapshot of a KB that is not realized" );
+
+		return new KnowledgeBaseSnapshot( this );
+	}
+
+	/**
+	 * Save a binary snapshot of this KB that can be loaded with
+	 * {@link #load(InputStream)} without classifying the KB again. The KB is
+	 * classified first if necessary. The stream is flushed but not closed.
+	 * 
+	 * @see KnowledgeBasePersistence
+	 */
+	public void save(OutputStream out) throws IOException {
+		KnowledgeBasePersistence.save( this, out );
+	}
+
+	/**
+	 * Create a KB from a binary snapshot saved by {@link #save(OutputStream)}.
+	 * The returned KB is consistent and classified, and also realized if the
+	 * saved KB was realized.
+	 * 
+	 * @see KnowledgeBasePersistence
+	 */
+	public static KnowledgeBase load(InputStream in) throws IOException {
+		return KnowledgeBasePersistence.load( in );
+	}
+
+	/**
+	 * Use a taxonomy computed earlier, e.g. loaded from a snapshot, as the
+	 * classification (and realization) results of this KB. The KB is prepared
+	 * first so the taxonomy should be computed for the current axioms. If the
+	 * KB is known to be consistent the ABox is not completed until an ABox
+	 * query or realization needs it.
+	 */
+	void setTaxonomy(Taxonomy<ATermAppl> taxonomy, boolean isRealized, boolean isConsistent) {
+		prepare();
+
+		CDOptimizedTaxonomyBuilder taxonomyBuilder = new CDOptimizedTaxonomyBuilder();
+		taxonomyBuilder.setKB( this );
+		if( builderProgressMonitor != null )
+			taxonomyBuilder.setProgressMonitor( builderProgressMonitor );
+		taxonomyBuilder.setTaxonomy( taxonomy );
+
+		builder = taxonomyBuilder;
+		typeIndex = null;
+		frozenTaxonomy = null;
+
+		if( isConsistent ) {
+			consistent = true;
+			isABoxCompletionPending = true;
+			state.add( ReasoningState.CONSISTENCY );
+		}
+		state.add( ReasoningState.CLASSIFY );
+		if( isRealized )
+			state.add( ReasoningState.REALIZE );
+
+		estimate.computKBCosts();
+	}
+
 	/**
 	 * Return the set of all named classes. Returned set is unmodifiable!
 	 * 
@@ -2724,7 +2974,7 @@ public class KnowledgeBase {
 	}
 
 	public boolean isSatisfiable(ATermAppl c) {
-		ensureConsistency();
+		ensureKnownConsistency();
 
 		if( !isClass( c ) ) {
 			handleUndefinedEntity( c + " is not a known class!" );
@@ -2800,7 +3050,7 @@ public class KnowledgeBase {
 	 * @return
 	 */
 	public boolean isSubClassOf(ATermAppl c1, ATermAppl c2) {
-		ensureConsistency();
+		ensureKnownConsistency();
 
 		if( !isClass( c1 ) ) {
 			handleUndefinedEntity( c1 + " is not a known class" );
@@ -2820,7 +3070,7 @@ public class KnowledgeBase {
 		c2 = ATermUtils.normalize( c2 );
 
 		if( isClassified() && !doExplanation() ) {
-			Bool isSubNode = builder.getTaxonomy().isSubNodeOf( c1, c2 );
+			Bool isSubNode = getFrozenTaxonomy().isSubNodeOf( c1, c2 );
 			if( isSubNode.isKnown() )
 				return isSubNode.isTrue();
 		}
@@ -2836,7 +3086,7 @@ public class KnowledgeBase {
 	 * @return
 	 */
 	public boolean isEquivalentClass(ATermAppl c1, ATermAppl c2) {
-		ensureConsistency();
+		ensureKnownConsistency();
 
 		if( !isClass( c1 ) ) {
 			handleUndefinedEntity( c1 + " is not a known class" );
@@ -2991,7 +3241,7 @@ public class KnowledgeBase {
 				throw new NullPointerException( "Taxonomy is null" );
 
 			if( taxonomy.contains( c ) )
-				return TaxonomyUtils.isType( taxonomy, x, c );
+				return getTypeIndex().isType( x, c );
 		}
 
 		return abox.isType( x, c );
@@ -3141,6 +3391,17 @@ public class KnowledgeBase {
 		return abox;
 	}
 
+	/**
+	 * Returns the statistics about the applications of the tableau rules in
+	 * this KB. The statistics are collected only if they are enabled, either
+	 * with {@link PelletOptions#COLLECT_RULE_STATISTICS} or with
+	 * {@link TableauRuleStats#setEnabled(boolean)}, and they are shared with
+	 * the copies of this KB.
+	 */
+	public TableauRuleStats getRuleStats() {
+		return ruleStats;
+	}
+
 	/**
 	 * @return Returns the rbox.
 	 */
@@ -3199,10 +3460,10 @@ public class KnowledgeBase {
 		Taxonomy<ATermAppl> taxonomy = builder.getTaxonomy();
 
 		if( !taxonomy.contains( c ) )
-			builder.classify( c );
+			classify( c );
 
 		Set<Set<ATermAppl>> supers = new HashSet<Set<ATermAppl>>();
-		for( Set<ATermAppl> s : taxonomy.getSupers( c, direct ) ) {
+		for( Set<ATermAppl> s : getFrozenTaxonomy().getSupers( c, direct ) ) {
 			Set<ATermAppl> supEqSet = ATermUtils.primitiveOrBottom( s );
 			if( !supEqSet.isEmpty() )
 				supers.add( supEqSet );
@@ -3369,6 +3630,7 @@ public class KnowledgeBase {
 		
 		if (types.isEmpty() && !PelletOptions.AUTO_REALIZE) {
 			classify();
+			typeIndex = null;
 			builder.realize(ind);
 			types = getPrimitiveTypes(ind, direct);
 		}
@@ -3378,7 +3640,10 @@ public class KnowledgeBase {
 	
 	private Set<Set<ATermAppl>> getPrimitiveTypes(ATermAppl ind, boolean direct) {
 		Set<Set<ATermAppl>> types = new HashSet<Set<ATermAppl>>();
-		for( Set<ATermAppl> t : TaxonomyUtils.getTypes( builder.getTaxonomy(), ind, direct ) ) {
+		Set<Set<ATermAppl>> taxonomyTypes = isRealized()
+			? getTypeIndex().getTypes( ind, direct )
+			: TaxonomyUtils.getTypes( builder.getTaxonomy(), ind, direct );
+		for( Set<ATermAppl> t : taxonomyTypes ) {
 			Set<ATermAppl> eqSet = ATermUtils.primitiveOrBottom( t );
 			if( !eqSet.isEmpty() )
 				types.add( eqSet );
@@ -3450,7 +3715,7 @@ public class KnowledgeBase {
 				throw new NullPointerException( "Taxonomy is null" );
 
 			if( taxonomy.contains( c ) && ATermUtils.isPrimitive( c ) )
-				return TaxonomyUtils.getAllInstances( taxonomy, c );
+				return getTypeIndex().getAllInstances( c );
 		}
 
 		return new HashSet<ATermAppl>( retrieve( c, individuals ) );
@@ -3494,10 +3759,10 @@ public class KnowledgeBase {
 
 		// Named concepts
 		if( ATermUtils.isPrimitive( c ) )
-			return TaxonomyUtils.getDirectInstances( taxonomy, c );
+			return getDirectInstances( taxonomy, c );
 
 		if( !taxonomy.contains( c ) )
-			builder.classify( c );
+			classify( c );
 
 		// Direct instances for anonymous concepts
 		Set<ATermAppl> ret = new HashSet<ATermAppl>();
@@ -3506,7 +3771,7 @@ public class KnowledgeBase {
 		for( Set<ATermAppl> s : sups ) {
 			Iterator<ATermAppl> i = s.iterator();
 			ATermAppl term = i.next();
-			Set<ATermAppl> cand = TaxonomyUtils.getDirectInstances( taxonomy, term );
+			Set<ATermAppl> cand = getDirectInstances( taxonomy, term );
 
 			if( ret.isEmpty() )
 				ret.addAll( cand );
@@ -3520,6 +3785,58 @@ public class KnowledgeBase {
 		return retrieve( c, ret );
 	}
 
+	private Set<ATermAppl> getDirectInstances(Taxonomy<ATermAppl> taxonomy, ATermAppl c) {
+		// realization might have been canceled
+		return isRealized()
+			? getTypeIndex().getDirectInstances( c )
+			: TaxonomyUtils.<ATermAppl, ATermAppl> getDirectInstances( taxonomy, c );
+	}
+
+	/**
+	 * Returns the compact copy of the class hierarchy. Should only be called
+	 * if the KB is classified.
+	 */
+	private FrozenTaxonomy<ATermAppl> getFrozenTaxonomy() {
+		Taxonomy<ATermAppl> taxonomy = builder.getTaxonomy();
+		if( frozenTaxonomy == null || frozenTaxonomy.getTaxonomy() != taxonomy ) {
+			Timer timer = timers.startTimer( "freezeTaxonomy" );
+			frozenTaxonomy = new FrozenTaxonomy<ATermAppl>( taxonomy );
+			timer.stop();
+		}
+
+		return frozenTaxonomy;
+	}
+
+	/**
+	 * Adds a class that is not in the taxonomy yet to the taxonomy of the
+	 * classified KB. The classes are usually added as hidden nodes which do
+	 * not change the hierarchy of the other classes, otherwise the frozen
+	 * taxonomy is discarded.
+	 */
+	private void classify(ATermAppl c) {
+		builder.classify( c );
+
+		TaxonomyNode<ATermAppl> node = builder.getTaxonomy().getNode( c );
+		if( frozenTaxonomy != null && node != null && !node.isHidden()
+				&& !frozenTaxonomy.contains( node ) )
+			frozenTaxonomy = null;
+	}
+
+	/**
+	 * Returns the index of the realization results. Should only be called if
+	 * the KB is realized.
+	 */
+	private TypeIndex getTypeIndex() {
+		Taxonomy<ATermAppl> taxonomy = builder.getTaxonomy();
+		if( typeIndex == null || typeIndex.getTaxonomy() != taxonomy ) {
+			Timer timer = timers.startTimer( "typeIndex" );
+			typeIndex = new TypeIndex( taxonomy );
+			timer.stop();
+		}
+
+		return typeIndex;
+	}
+
 	/**
 	 * Returns all the classes that are equivalent to class c, excluding c
 	 * itself.
@@ -3562,7 +3879,7 @@ public class KnowledgeBase {
 		Taxonomy<ATermAppl> taxonomy = builder.getTaxonomy();
 
 		if( !taxonomy.contains( c ) )
-			builder.classify( c );
+			classify( c );
 
 		return ATermUtils.primitiveOrBottom( taxonomy.getAllEquivalents( c ) );
 	}
@@ -3629,10 +3946,10 @@ public class KnowledgeBase {
 		Taxonomy<ATermAppl> taxonomy = builder.getTaxonomy();
 
 		if( !taxonomy.contains( c ) )
-			builder.classify( c );
+			classify( c );
 
 		Set<Set<ATermAppl>> subs = new HashSet<Set<ATermAppl>>();
-		for( Set<ATermAppl> s : taxonomy.getSubs( c, direct ) ) {
+		for( Set<ATermAppl> s : getFrozenTaxonomy().getSubs( c, direct ) ) {
 			Set<ATermAppl> subEqSet = ATermUtils.primitiveOrBottom( s );
 			if( !subEqSet.isEmpty() )
 				subs.add( subEqSet );
@@ -4123,7 +4440,7 @@ public class KnowledgeBase {
 
 		ATermAppl canonicalLit;
 		try {
-			canonicalLit = getDatatypeReasoner().getCanonicalRepresentation( litValue );
+			canonicalLit = abox.getLiteralDictionary().getCanonicalRepresentation( litValue );
 		} catch( InvalidLiteralException e ) {
 			log.warning( format("Invalid literal '%s' passed as input, returning empty set of individuals: %s", litValue, e.getMessage()) );
 			return Collections.emptyList();
@@ -4209,7 +4526,11 @@ public class KnowledgeBase {
 	public Map<ATermAppl, List<ATermAppl>> getPropertyValues(ATermAppl pred) {
 		Map<ATermAppl, List<ATermAppl>> result = new HashMap<ATermAppl, List<ATermAppl>>();
 
-		for( ATermAppl subj : individuals ) {
+		Role role = rbox.getRole( pred );
+		Collection<ATermAppl> subjects = (role == null || role.isUntypedRole())
+			? individuals
+			: getPossibleSubjects( role );
+		for( ATermAppl subj : subjects ) {
 			List<ATermAppl> objects = getPropertyValues( pred, subj );
 			if( !objects.isEmpty() )
 				result.put( subj, objects );
@@ -4242,6 +4563,11 @@ public class KnowledgeBase {
 		}
 		else if( abox.isSatisfiable( c ) ) {
 			Set<ATermAppl> subs = Collections.emptySet();
+			// instances of c found by the realization and the instances of
+			// the named superclasses of c, an instance of c has to be an
+			// instance of all those superclasses
+			Set<ATermAppl> realizedInstances = Collections.emptySet();
+			List<Set<ATermAppl>> supInstances = Collections.emptyList();
 			if( isClassified() ) {
 				if( builder == null )
 					throw new NullPointerException( "Builder is null" );
@@ -4251,12 +4577,33 @@ public class KnowledgeBase {
 				if( taxonomy == null )
 					throw new NullPointerException( "Taxonomy" );
 
-				if( taxonomy.contains( c ) )
+				if( taxonomy.contains( c ) ) {
 					subs = taxonomy.getFlattenedSubs( c, false );
+
+					if( isRealized() ) {
+						TypeIndex index = getTypeIndex();
+						realizedInstances = index.getAllInstances( c );
+						supInstances = new ArrayList<Set<ATermAppl>>();
+						for( ATermAppl sup : taxonomy.getFlattenedSupers( c, false ) ) {
+							if( ATermUtils.isPrimitive( sup ) && !sup.equals( ATermUtils.TOP ) )
+								supInstances.add( index.getAllInstances( sup ) );
+						}
+					}
+				}
 			}
 
 			List<ATermAppl> unknowns = new ArrayList<ATermAppl>();
-			for( ATermAppl x : individuals ) {
+			candidates: for( ATermAppl x : individuals ) {
+				if( realizedInstances.contains( x ) ) {
+					knowns.add( x );
+					continue;
+				}
+
+				for( Set<ATermAppl> instances : supInstances ) {
+					if( !instances.contains( x ) )
+						continue candidates;
+				}
+
 				Bool isType = abox.isKnownType( x, c, subs );
 				if( isType.isTrue() )
 					knowns.add( x );
@@ -4303,7 +4650,7 @@ public class KnowledgeBase {
 		}
 		
 		List<ATermAppl> result = new ArrayList<ATermAppl>();
-		for( ATermAppl ind : individuals ) {
+		for( ATermAppl ind : getPossibleSubjects( role ) ) {
 			if( !abox.hasObviousPropertyValue( ind, r, null ).isFalse() )
 				result.add( ind );
 		}
@@ -4311,6 +4658,55 @@ public class KnowledgeBase {
 		return result;
 	}
 
+	/**
+	 * Returns the individuals that may have a value for the given property.
+	 * The result contains every individual that has a value for the property
+	 * but it may also contain individuals that do not have a value. If
+	 * {@link PelletOptions#USE_PROPERTY_INDEX} is enabled the candidates are
+	 * found using the index of the edges of the completed ABox, otherwise all
+	 * the individuals are returned.
+	 * 
+	 * @param r
+	 * @return Set of ATermAppl objects.
+	 */
+	public Set<ATermAppl> getPossibleSubjects(ATermAppl r) {
+		ensureConsistency();
+
+		Role role = rbox.getRole( r );
+		if( role == null ) {
+			handleUndefinedEntity( r + " is not a known property!" );
+			return Collections.emptySet();
+		}
+
+		return getPossibleSubjects( role );
+	}
+
+	private Set<ATermAppl> getPossibleSubjects(Role role) {
+		ensureConsistency();
+
+		Set<ATermAppl> candidates = null;
+		if( PelletOptions.USE_PROPERTY_INDEX )
+			candidates = getPropertyIndex().getCandidates( role );
+
+		return candidates == null
+			? Collections.unmodifiableSet( individuals )
+			: candidates;
+	}
+
+	/**
+	 * Returns the index of the edges of the completed ABox. Should only be
+	 * called if the KB is consistent.
+	 */
+	private PropertyIndex getPropertyIndex() {
+		if( propertyIndex == null ) {
+			Timer timer = timers.startTimer( "propertyIndex" );
+			propertyIndex = new PropertyIndex( abox, individuals );
+			timer.stop();
+		}
+
+		return propertyIndex;
+	}
+
 	public void tracingBasedInstanceRetrieval(ATermAppl c, List<ATermAppl> candidates,
 			Collection<ATermAppl> results) {
 		boolean doExplanation = doExplanation();
@@ -4562,7 +4958,9 @@ public class KnowledgeBase {
 			prepare();
 
 			if( expChecker.getExpressivity().isEL() && !PelletOptions.DISABLE_EL_CLASSIFIER ) {
-				builder = new SimplifiedELClassifier();
+				builder = PelletOptions.USE_PARALLEL_EL_CLASSIFICATION
+					? new ConcurrentELClassifier()
+					: new SimplifiedELClassifier();
 			}
 			else {
 				builder = new CDOptimizedTaxonomyBuilder();
@@ -0,0 +1,632 @@
+// Copyright (c) 2006 - 2008, Clark & Parsia, LLC. <http://www.clarkparsia.com>
+// This source code is available under the terms of the Affero General Public License v3.
+//
+// Please see LICENSE.txt for full license terms, including the availability of proprietary exceptions.
+// Questions, comments, or requests for clarification: licensing@clarkparsia.com
+
+package org.mindswap.pellet;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.mindswap.pellet.exceptions.UnsupportedFeatureException;
+import org.mindswap.pellet.tableau.cache.ConceptCachePersistence;
+import org.mindswap.pellet.taxonomy.Taxonomy;
+import org.mindswap.pellet.taxonomy.TaxonomyNode;
+import org.mindswap.pellet.utils.ATermDataInputStream;
+import org.mindswap.pellet.utils.ATermDataOutputStream;
+import org.mindswap.pellet.utils.ATermUtils;
+import org.mindswap.pellet.utils.TaxonomyUtils;
+import org.mindswap.pellet.utils.Timer;
+
+import aterm.ATerm;
+import aterm.ATermAppl;
+import aterm.ATermList;
+
+import com.clarkparsia.pellet.datatypes.DatatypeReasoner;
+
+/**
+ * <p>
+ * Title: Knowledge Base Persistence
+ * </p>
+ * <p>
+ * Description: Saves a classified (and possibly realized) KB to a versioned
+ * binary snapshot and creates a KB from such a snapshot without classifying it
+ * again. The snapshot contains the entities, the prepared RBox (role
+ * characteristics, the closure of the role hierarchy, role chains, asserted
+ * domains and ranges), the asserted TBox axioms, the datatype definitions, the
+ * annotations, the deterministic facts of the completed ABox, the class
+ * taxonomy with the instances of each class if the KB is realized, and the
+ * concept cache (see {@link ConceptCachePersistence}).
+ * </p>
+ * <p>
+ * The internal structures derived from the axioms (the normalized and absorbed
+ * TBox, the role automata and the role taxonomy) are not stored but rebuilt
+ * when the loaded KB is prepared, which is fast compared to classification.
+ * The consistency result is saved with the taxonomy so the loaded KB does not
+ * complete its ABox until an ABox query or realization needs it. KBs with
+ * rules or keys cannot be saved.
+ * </p>
+ * <p>
+ * Copyright: Copyright (c) 2008
+ * </p>
+ * <p>
+ * Company: Clark & Parsia, LLC. <http://www.clarkparsia.com>
+ * </p>
+ */
+public class KnowledgeBasePersistence {
+	public static final Logger	log					= Logger.getLogger( KnowledgeBasePersistence.class
+															.getName() );
+
+	private static final int	MAGIC				= 0x504b4231;
+
+	private static final int	VERSION				= 2;
+
+	private static final int	TRANSITIVE			= 1 << 0;
+	private static final int	SYMMETRIC			= 1 << 1;
+	private static final int	ASYMMETRIC			= 1 << 2;
+	private static final int	REFLEXIVE			= 1 << 3;
+	private static final int	IRREFLEXIVE			= 1 << 4;
+	private static final int	FUNCTIONAL			= 1 << 5;
+	private static final int	INVERSE_FUNCTIONAL	= 1 << 6;
+
+	/**
+	 * Save a snapshot of the given KB to a file.
+	 */
+	public static void save(KnowledgeBase kb, File file) throws IOException {
+		OutputStream out = new FileOutputStream( file );
+		try {
+			save( kb, out );
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * Save a snapshot of the given KB to an output stream. The KB is
+	 * classified first if necessary. The stream is flushed but not closed.
+	 *
+	 * @throws UnsupportedFeatureException
+	 *             if the KB has rules or keys
+	 * @throws org.mindswap.pellet.exceptions.InconsistentOntologyException
+	 *             if the KB is inconsistent
+	 */
+	public static void save(KnowledgeBase kb, OutputStream outputStream) throws IOException {
+		if( !kb.getRules().isEmpty() )
+			throw new UnsupportedFeatureException( "Cannot save a KB with rules or keys" );
+
+		kb.classify();
+
+		Timer timer = kb.timers.startTimer( "save" );
+
+		ATermDataOutputStream out = new ATermDataOutputStream( new BufferedOutputStream(
+				outputStream ) );
+
+		out.writeInt( MAGIC );
+		out.writeInt( VERSION );
+
+		writeRoles( kb, out );
+		writeDatatypes( kb, out );
+		writeTerms( out, kb.getClasses() );
+		writeTerms( out, kb.getTBox().getAssertedAxioms() );
+		writeAnnotations( kb, out );
+		writeIndividuals( kb, out );
+
+		out.writeBoolean( kb.isConsistent() );
+		boolean isRealized = kb.isRealized();
+		out.writeBoolean( isRealized );
+		writeTaxonomy( kb.getTaxonomy(), out, isRealized );
+
+		ConceptCachePersistence.save( kb, out );
+
+		out.flush();
+
+		timer.stop();
+
+		if( log.isLoggable( Level.FINE ) )
+			log.fine( "Saved KB (" + timer.getLast() + "ms)" );
+	}
+
+	/**
+	 * Create a KB from a snapshot saved in a file.
+	 */
+	public static KnowledgeBase load(File file) throws IOException {
+		InputStream in = new FileInputStream( file );
+		try {
+			return load( in );
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Create a KB from a snapshot saved in an input stream. The returned KB is
+	 * prepared, consistent and classified, and also realized if the saved KB
+	 * was realized.
+	 *
+	 * @throws IOException
+	 *             if the stream cannot be read or it does not contain a
+	 *             snapshot with the current version
+	 */
+	public static KnowledgeBase load(InputStream inputStream) throws IOException {
+		ATermDataInputStream in = new ATermDataInputStream( new BufferedInputStream( inputStream ) );
+
+		if( in.readInt() != MAGIC )
+			throw new IOException( "Not a KB snapshot" );
+
+		int version = in.readInt();
+		if( version != VERSION )
+			throw new IOException( "Unsupported KB snapshot version " + version );
+
+		KnowledgeBase kb = new KnowledgeBase();
+
+		Timer timer = kb.timers.startTimer( "load" );
+
+		readRoles( kb, in );
+		readDatatypes( kb, in );
+		for( ATermAppl c : readAppls( in ) ) {
+			kb.addClass( c );
+		}
+		for( ATermAppl axiom : readAppls( in ) ) {
+			addAxiom( kb, axiom );
+		}
+		readAnnotations( kb, in );
+		readIndividuals( kb, in );
+
+		boolean isConsistent = in.readBoolean();
+		boolean isRealized = in.readBoolean();
+		Taxonomy<ATermAppl> taxonomy = readTaxonomy( in, isRealized );
+
+		kb.setTaxonomy( taxonomy, isRealized, isConsistent );
+
+		ConceptCachePersistence.load( kb, in );
+
+		timer.stop();
+
+		if( log.isLoggable( Level.FINE ) )
+			log.fine( "Loaded KB (" + timer.getLast() + "ms)" );
+
+		return kb;
+	}
+
+	private static void writeTerms(ATermDataOutputStream out, Collection<? extends ATerm> terms)
+			throws IOException {
+		out.writeInt( terms.size() );
+		for( ATerm term : terms ) {
+			out.writeTerm( term );
+		}
+	}
+
+	private static List<ATermAppl> readAppls(ATermDataInputStream in) throws IOException {
+		int size = in.readInt();
+		List<ATermAppl> terms = new ArrayList<ATermAppl>( size );
+		for( int i = 0; i < size; i++ ) {
+			terms.add( in.readAppl() );
+		}
+
+		return terms;
+	}
+
+	private static List<Role> getNamedRoles(KnowledgeBase kb) {
+		List<Role> roles = new ArrayList<Role>();
+		for( Role role : kb.getRBox().getRoles() ) {
+			if( !role.isAnon() && !role.isBuiltin() )
+				roles.add( role );
+		}
+
+		return roles;
+	}
+
+	private static void writeRoles(KnowledgeBase kb, ATermDataOutputStream out)
+			throws IOException {
+		RBox rbox = kb.getRBox();
+		List<Role> roles = getNamedRoles( kb );
+
+		// declare all the roles before any of them is referred to
+		out.writeInt( roles.size() );
+		for( Role role : roles ) {
+			out.writeTerm( role.getName() );
+			out.writeByte( role.getType().ordinal() );
+		}
+
+		for( Role role : roles ) {
+			int flags = 0;
+			if( role.isTransitive() )
+				flags |= TRANSITIVE;
+			if( role.isSymmetric() )
+				flags |= SYMMETRIC;
+			if( role.isAsymmetric() )
+				flags |= ASYMMETRIC;
+			if( role.isReflexive() )
+				flags |= REFLEXIVE;
+			if( role.isIrreflexive() )
+				flags |= IRREFLEXIVE;
+			if( role.isFunctional() )
+				flags |= FUNCTIONAL;
+			if( role.isInverseFunctional() )
+				flags |= INVERSE_FUNCTIONAL;
+			out.writeByte( flags );
+
+			Role inverse = role.getInverse();
+			boolean hasNamedInverse = inverse != null && !inverse.isAnon();
+			out.writeBoolean( hasNamedInverse );
+			if( hasNamedInverse )
+				out.writeTerm( inverse.getName() );
+
+			List<ATerm> subs = new ArrayList<ATerm>();
+			for( Role sub : role.getSubRoles() ) {
+				if( sub != role && !sub.isBottom() )
+					subs.add( sub.getName() );
+			}
+			subs.addAll( role.getSubRoleChains() );
+			writeTerms( out, subs );
+
+			List<ATerm> disjoints = new ArrayList<ATerm>();
+			for( Role disjoint : role.getDisjointRoles() ) {
+				if( !disjoint.isAnon() )
+					disjoints.add( disjoint.getName() );
+			}
+			writeTerms( out, disjoints );
+
+			writeTerms( out, toList( rbox.getAssertedDomains( role ) ) );
+			writeTerms( out, toList( rbox.getAssertedRanges( role ) ) );
+		}
+	}
+
+	private static List<ATermAppl> toList(Iterator<ATermAppl> i) {
+		List<ATermAppl> list = new ArrayList<ATermAppl>();
+		while( i.hasNext() ) {
+			list.add( i.next() );
+		}
+
+		return list;
+	}
+
+	private static void readRoles(KnowledgeBase kb, ATermDataInputStream in) throws IOException {
+		PropertyType[] types = PropertyType.values();
+
+		int count = in.readInt();
+		List<ATermAppl> names = new ArrayList<ATermAppl>( count );
+		for( int i = 0; i < count; i++ ) {
+			ATermAppl p = in.readAppl();
+			int type = in.readByte();
+			if( type < 0 || type >= types.length )
+				throw new IOException( "Unknown property type " + type );
+
+			switch( types[type] ) {
+			case OBJECT:
+				kb.addObjectProperty( p );
+				break;
+			case DATATYPE:
+				kb.addDatatypeProperty( p );
+				break;
+			case ANNOTATION:
+				kb.addAnnotationProperty( p );
+				break;
+			default:
+				kb.addProperty( p );
+				break;
+			}
+			names.add( p );
+		}
+
+		for( ATermAppl p : names ) {
+			int flags = in.readByte();
+			if( (flags & TRANSITIVE) != 0 )
+				kb.addTransitiveProperty( p );
+			if( (flags & SYMMETRIC) != 0 )
+				kb.addSymmetricProperty( p );
+			if( (flags & ASYMMETRIC) != 0 )
+				kb.addAsymmetricProperty( p );
+			if( (flags & REFLEXIVE) != 0 )
+				kb.addReflexiveProperty( p );
+			if( (flags & IRREFLEXIVE) != 0 )
+				kb.addIrreflexiveProperty( p );
+			if( (flags & FUNCTIONAL) != 0 )
+				kb.addFunctionalProperty( p );
+			if( (flags & INVERSE_FUNCTIONAL) != 0 )
+				kb.addInverseFunctionalProperty( p );
+
+			if( in.readBoolean() )
+				kb.addInverseProperty( p, in.readAppl() );
+
+			int subCount = in.readInt();
+			for( int i = 0; i < subCount; i++ ) {
+				kb.addSubProperty( in.readTerm(), p );
+			}
+
+			for( ATermAppl disjoint : readAppls( in ) ) {
+				kb.addDisjointProperty( p, disjoint );
+			}
+
+			for( ATermAppl domain : readAppls( in ) ) {
+				kb.addDomain( p, domain );
+			}
+
+			for( ATermAppl range : readAppls( in ) ) {
+				kb.addRange( p, range );
+			}
+		}
+	}
+
+	private static void writeDatatypes(KnowledgeBase kb, ATermDataOutputStream out)
+			throws IOException {
+		DatatypeReasoner dtReasoner = kb.getDatatypeReasoner();
+		Collection<ATermAppl> dataRanges = dtReasoner.listDataRanges();
+
+		out.writeInt( dataRanges.size() );
+		for( ATermAppl name : dataRanges ) {
+			out.writeTerm( name );
+
+			// built-in datatypes are defined but do not have a definition
+			ATermAppl definition = dtReasoner.isDefined( name )
+				? dtReasoner.getDefinition( name )
+				: null;
+			out.writeBoolean( definition != null );
+			if( definition != null )
+				out.writeTerm( definition );
+		}
+	}
+
+	private static void readDatatypes(KnowledgeBase kb, ATermDataInputStream in)
+			throws IOException {
+		int count = in.readInt();
+		for( int i = 0; i < count; i++ ) {
+			ATermAppl name = in.readAppl();
+			if( in.readBoolean() )
+				kb.addDatatypeDefinition( name, in.readAppl() );
+			else if( !kb.getDatatypeReasoner().isDeclared( name ) )
+				kb.addDatatype( name );
+		}
+	}
+
+	private static void addAxiom(KnowledgeBase kb, ATermAppl axiom) throws IOException {
+		if( axiom.getAFun().equals( ATermUtils.SUBFUN ) )
+			kb.addSubClass( (ATermAppl) axiom.getArgument( 0 ), (ATermAppl) axiom.getArgument( 1 ) );
+		else if( axiom.getAFun().equals( ATermUtils.EQCLASSFUN ) )
+			kb.addEquivalentClass( (ATermAppl) axiom.getArgument( 0 ), (ATermAppl) axiom
+					.getArgument( 1 ) );
+		else if( axiom.getAFun().equals( ATermUtils.DISJOINTFUN ) )
+			kb.addDisjointClass( (ATermAppl) axiom.getArgument( 0 ), (ATermAppl) axiom
+					.getArgument( 1 ) );
+		else if( axiom.getAFun().equals( ATermUtils.DISJOINTSFUN ) )
+			kb.addDisjointClasses( (ATermList) axiom.getArgument( 0 ) );
+		else
+			throw new IOException( "Unknown TBox axiom " + axiom );
+	}
+
+	private static void writeAnnotations(KnowledgeBase kb, ATermDataOutputStream out)
+			throws IOException {
+		Set<ATermAppl> subjects = kb.getAnnotationSubjects();
+		Set<ATermAppl> properties = kb.getAnnotationProperties();
+
+		out.writeInt( subjects.size() );
+		for( ATermAppl s : subjects ) {
+			out.writeTerm( s );
+
+			Map<ATermAppl, Set<ATermAppl>> values = new HashMap<ATermAppl, Set<ATermAppl>>();
+			for( ATermAppl p : properties ) {
+				Set<ATermAppl> objects = kb.getAnnotations( s, p );
+				if( !objects.isEmpty() )
+					values.put( p, objects );
+			}
+
+			out.writeInt( values.size() );
+			for( Map.Entry<ATermAppl, Set<ATermAppl>> entry : values.entrySet() ) {
+				out.writeTerm( entry.getKey() );
+				writeTerms( out, entry.getValue() );
+			}
+		}
+	}
+
+	private static void readAnnotations(KnowledgeBase kb, ATermDataInputStream in)
+			throws IOException {
+		int count = in.readInt();
+		for( int i = 0; i < count; i++ ) {
+			ATermAppl s = in.readAppl();
+			int propertyCount = in.readInt();
+			for( int j = 0; j < propertyCount; j++ ) {
+				ATermAppl p = in.readAppl();
+				for( ATermAppl o : readAppls( in ) ) {
+					kb.addAnnotation( s, p, o );
+				}
+			}
+		}
+	}
+
+	/**
+	 * Writes the facts about named individuals that hold in the completed ABox
+	 * without depending on a nondeterministic choice. These facts are either
+	 * asserted or entailed so asserting all of them in the loaded KB yields an
+	 * equivalent KB.
+	 */
+	private static void writeIndividuals(KnowledgeBase kb, ATermDataOutputStream out)
+			throws IOException {
+		ABox abox = kb.getABox();
+		Set<ATermAppl> individuals = kb.getIndividuals();
+
+		writeTerms( out, individuals );
+
+		for( ATermAppl name : individuals ) {
+			Individual ind = abox.getIndividual( name );
+
+			boolean isSame = ind.isMerged() && ind.getMergeDependency( true ).isIndependent();
+			out.writeBoolean( isSame );
+			if( isSame )
+				out.writeTerm( ind.getSame().getName() );
+
+			if( ind.isMerged() ) {
+				out.writeInt( 0 );
+				out.writeInt( 0 );
+				out.writeInt( 0 );
+				continue;
+			}
+
+			ATermAppl nominal = ATermUtils.makeValue( name );
+			List<ATermAppl> types = new ArrayList<ATermAppl>();
+			for( Map.Entry<ATermAppl, DependencySet> entry : ind.getDepends().entrySet() ) {
+				ATermAppl c = entry.getKey();
+				if( !entry.getValue().isIndependent() || c.equals( ATermUtils.TOP )
+						|| c.equals( nominal ) || hasRoleChain( c ) )
+					continue;
+
+				types.add( c );
+			}
+			writeTerms( out, types );
+
+			List<Edge> edges = new ArrayList<Edge>();
+			for( Edge edge : ind.getOutEdges() ) {
+				Role role = edge.getRole();
+				if( !edge.getDepends().isIndependent() || role.isAnon() || role.isTop()
+						|| role.isBottom() )
+					continue;
+
+				Node to = edge.getTo();
+				if( to.isLiteral()
+						? to.getTerm() != null
+						: individuals.contains( to.getName() ) )
+					edges.add( edge );
+			}
+			out.writeInt( edges.size() );
+			for( Edge edge : edges ) {
+				Node to = edge.getTo();
+				out.writeTerm( edge.getRole().getName() );
+				out.writeTerm( to.isLiteral()
+					? to.getTerm()
+					: to.getName() );
+			}
+
+			List<ATermAppl> differents = new ArrayList<ATermAppl>();
+			for( Node other : ind.getDifferents() ) {
+				if( individuals.contains( other.getName() )
+						&& ind.getDifferenceDependency( other ).isIndependent() )
+					differents.add( other.getName() );
+			}
+			writeTerms( out, differents );
+		}
+	}
+
+	/**
+	 * Checks if the given concept is a universal restriction on a role chain
+	 * which is only used internally to apply the role automata.
+	 */
+	private static boolean hasRoleChain(ATermAppl c) {
+		return ATermUtils.isAllValues( c ) && c.getArgument( 0 ) instanceof ATermList;
+	}
+
+	private static void readIndividuals(KnowledgeBase kb, ATermDataInputStream in)
+			throws IOException {
+		List<ATermAppl> individuals = readAppls( in );
+		for( ATermAppl name : individuals ) {
+			kb.addIndividual( name );
+		}
+
+		for( ATermAppl name : individuals ) {
+			if( in.readBoolean() )
+				kb.addSame( name, in.readAppl() );
+
+			for( ATermAppl c : readAppls( in ) ) {
+				kb.addType( name, c );
+			}
+
+			int edgeCount = in.readInt();
+			for( int i = 0; i < edgeCount; i++ ) {
+				ATermAppl p = in.readAppl();
+				ATermAppl o = in.readAppl();
+				kb.addPropertyValue( p, name, o );
+			}
+
+			for( ATermAppl other : readAppls( in ) ) {
+				kb.addDifferent( name, other );
+			}
+		}
+	}
+
+	private static void writeTaxonomy(Taxonomy<ATermAppl> taxonomy, ATermDataOutputStream out,
+			boolean writeInstances) throws IOException {
+		Collection<TaxonomyNode<ATermAppl>> nodes = taxonomy.getNodes();
+
+		out.writeInt( nodes.size() );
+		for( TaxonomyNode<ATermAppl> node : nodes ) {
+			out.writeTerm( node.getName() );
+			writeTerms( out, node.getEquivalents() );
+		}
+
+		for( TaxonomyNode<ATermAppl> node : nodes ) {
+			List<ATermAppl> subs = new ArrayList<ATermAppl>();
+			for( TaxonomyNode<ATermAppl> sub : node.getSubs() ) {
+				subs.add( sub.getName() );
+			}
+			writeTerms( out, subs );
+
+			if( writeInstances ) {
+				@SuppressWarnings("unchecked")
+				Set<ATermAppl> instances = (Set<ATermAppl>) node
+						.getDatum( TaxonomyUtils.INSTANCES_KEY );
+				out.writeBoolean( instances != null );
+				if( instances != null )
+					writeTerms( out, instances );
+			}
+		}
+	}
+
+	private static Taxonomy<ATermAppl> readTaxonomy(ATermDataInputStream in, boolean readInstances)
+			throws IOException {
+		Taxonomy<ATermAppl> taxonomy = new Taxonomy<ATermAppl>( null, ATermUtils.TOP,
+				ATermUtils.BOTTOM );
+
+		int count = in.readInt();
+		List<TaxonomyNode<ATermAppl>> nodes = new ArrayList<TaxonomyNode<ATermAppl>>( count );
+		for( int i = 0; i < count; i++ ) {
+			ATermAppl name = in.readAppl();
+			List<ATermAppl> equivalents = readAppls( in );
+			equivalents.remove( name );
+
+			TaxonomyNode<ATermAppl> node = taxonomy.getNode( name );
+			if( node == null )
+				node = taxonomy.addNode( name, /* hidden = */false );
+			taxonomy.addEquivalents( name, equivalents );
+			nodes.add( node );
+		}
+
+		// addNode links each node to top and bottom, the saved links replace
+		// these
+		for( TaxonomyNode<ATermAppl> node : nodes ) {
+			for( TaxonomyNode<ATermAppl> sub : new ArrayList<TaxonomyNode<ATermAppl>>( node
+					.getSubs() ) ) {
+				node.removeSub( sub );
+			}
+		}
+
+		for( TaxonomyNode<ATermAppl> node : nodes ) {
+			for( ATermAppl sub : readAppls( in ) ) {
+				TaxonomyNode<ATermAppl> subNode = taxonomy.getNode( sub );
+				if( subNode == null )
+					throw new IOException( "Unknown class in taxonomy " + sub );
+				node.addSub( subNode );
+			}
+
+			if( readInstances && in.readBoolean() )
+				node.putDatum( TaxonomyUtils.INSTANCES_KEY, new HashSet<ATermAppl>(
+						readAppls( in ) ) );
+		}
+
+		return taxonomy;
+	}
+}
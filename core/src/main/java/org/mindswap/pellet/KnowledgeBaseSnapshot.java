@@ -0,0 +1,562 @@
+// Copyright (c) 2006 - 2008, Clark & Parsia, LLC. <http://www.clarkparsia.com>
+// This source code is available under the terms of the Affero General Public License v3.
+//
+// Please see LICENSE.txt for full license terms, including the availability of proprietary exceptions.
+// Questions, comments, or requests for clarification: licensing@clarkparsia.com
+
+package org.mindswap.pellet;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.mindswap.pellet.exceptions.UndefinedEntityException;
+import org.mindswap.pellet.taxonomy.Taxonomy;
+import org.mindswap.pellet.taxonomy.TaxonomyNode;
+import org.mindswap.pellet.utils.ATermUtils;
+import org.mindswap.pellet.utils.TaxonomyUtils;
+
+import aterm.ATermAppl;
+
+/**
+ * <p>
+ * Title: Knowledge Base Snapshot
+ * </p>
+ * <p>
+ * Description: An immutable view of the class hierarchy and the realization
+ * results of a {@link KnowledgeBase} that can be queried from any number of
+ * threads without locking. The snapshot copies the taxonomy and the direct
+ * instances of every class when it is created so later changes to the KB do
+ * not affect the answers for named classes and individuals.
+ * </p>
+ * <p>
+ * Queries about class expressions that do not appear in the taxonomy need
+ * tableau reasoning. These are answered by a private copy of the KB created
+ * separately for each calling thread, so no tableau state is shared between
+ * threads. Such copies share the TBox and RBox with the original KB which
+ * therefore should not be modified while these queries are being answered.
+ * A thread that no longer needs the snapshot, e.g. a thread of a pool that
+ * outlives the snapshot, should call {@link #release()} so its copy can be
+ * garbage collected. Otherwise the copy lives as long as the thread that
+ * created it.
+ * </p>
+ * <p>
+ * Copyright: Copyright (c) 2008
+ * </p>
+ * <p>
+ * Company: Clark & Parsia, LLC. <http://www.clarkparsia.com>
+ * </p>
+ */
+public class KnowledgeBaseSnapshot {
+	private static class Node {
+		private final Set<ATermAppl>	equivalents;
+		private final boolean			hidden;
+		private Node[]					supers;
+		private Node[]					subs;
+		private Set<ATermAppl>			instances;
+
+		private Node(Set<ATermAppl> equivalents, boolean hidden) {
+			this.equivalents = equivalents;
+			this.hidden = hidden;
+		}
+
+		private ATermAppl getName() {
+			return equivalents.iterator().next();
+		}
+	}
+
+	private final Map<ATermAppl, Node>		nodes;
+
+	private final Node						top;
+
+	private final Node						bottom;
+
+	private final Map<ATermAppl, Node[]>	directTypes;
+
+	/**
+	 * KB copy used only as the source of the per-thread copies
+	 */
+	private final KnowledgeBase				template;
+
+	private final ThreadLocal<KnowledgeBase>	localKB;
+
+	/**
+	 * Create a snapshot of a realized KB. Should be called from the thread that
+	 * is using the KB, see {@link KnowledgeBase#snapshot()}.
+	 */
+	KnowledgeBaseSnapshot(KnowledgeBase kb) {
+		Taxonomy<ATermAppl> taxonomy = kb.getTaxonomy();
+
+		Map<TaxonomyNode<ATermAppl>, Node> copies = new HashMap<TaxonomyNode<ATermAppl>, Node>();
+		nodes = new HashMap<ATermAppl, Node>();
+		for( TaxonomyNode<ATermAppl> taxNode : taxonomy.getNodes() ) {
+			Node node = new Node( Collections.unmodifiableSet( new HashSet<ATermAppl>( taxNode
+					.getEquivalents() ) ), taxNode.isHidden() );
+			copies.put( taxNode, node );
+			for( ATermAppl c : taxNode.getEquivalents() ) {
+				nodes.put( c, node );
+			}
+		}
+
+		Map<ATermAppl, List<Node>> types = new HashMap<ATermAppl, List<Node>>();
+		for( Map.Entry<TaxonomyNode<ATermAppl>, Node> entry : copies.entrySet() ) {
+			TaxonomyNode<ATermAppl> taxNode = entry.getKey();
+			Node node = entry.getValue();
+
+			node.supers = copyNodes( taxNode.getSupers(), copies );
+			node.subs = copyNodes( taxNode.getSubs(), copies );
+
+			@SuppressWarnings("unchecked")
+			Set<ATermAppl> instances = (Set<ATermAppl>) taxNode
+					.getDatum( TaxonomyUtils.INSTANCES_KEY );
+			if( instances == null || instances.isEmpty() ) {
+				node.instances = Collections.emptySet();
+			}
+			else {
+				node.instances = Collections.unmodifiableSet( new HashSet<ATermAppl>( instances ) );
+				for( ATermAppl ind : instances ) {
+					List<Node> indTypes = types.get( ind );
+					if( indTypes == null ) {
+						indTypes = new ArrayList<Node>( 2 );
+						types.put( ind, indTypes );
+					}
+					indTypes.add( node );
+				}
+			}
+		}
+
+		top = nodes.get( ATermUtils.TOP );
+		bottom = nodes.get( ATermUtils.BOTTOM );
+
+		directTypes = new HashMap<ATermAppl, Node[]>();
+		for( ATermAppl ind : kb.getIndividuals() ) {
+			List<Node> indTypes = types.get( ind );
+			directTypes.put( ind, indTypes == null
+				? new Node[0]
+				: indTypes.toArray( new Node[indTypes.size()] ) );
+		}
+
+		template = ReasonerWorkerPool.createWorker( kb );
+		// the taxonomy of the original KB might be modified later so the copies
+		// should never use it
+		template.builder = null;
+		template.state.remove( KnowledgeBase.ReasoningState.CLASSIFY );
+
+		// every copy has its own ABox, concept cache and disjunction
+		// statistics, see ReasonerWorkerPool.createWorker
+		localKB = new ThreadLocal<KnowledgeBase>() {
+			protected KnowledgeBase initialValue() {
+				synchronized( template ) {
+					return ReasonerWorkerPool.createWorker( template );
+				}
+			}
+		};
+	}
+
+	private static Node[] copyNodes(Collection<TaxonomyNode<ATermAppl>> taxNodes,
+			Map<TaxonomyNode<ATermAppl>, Node> copies) {
+		Node[] result = new Node[taxNodes.size()];
+		int i = 0;
+		for( TaxonomyNode<ATermAppl> taxNode : taxNodes ) {
+			result[i++] = copies.get( taxNode );
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the KB copy confined to the calling thread.
+	 */
+	private KnowledgeBase getLocalKB() {
+		return localKB.get();
+	}
+
+	/**
+	 * Discard the KB copy used to answer queries from the calling thread, if
+	 * there is one. The snapshot can still be used by this thread after this
+	 * call and a new copy will be created when it is needed.
+	 */
+	public void release() {
+		localKB.remove();
+	}
+
+	public boolean isClass(ATermAppl c) {
+		return nodes.containsKey( c ) || getLocalKB().isClass( c );
+	}
+
+	public boolean isIndividual(ATermAppl ind) {
+		return directTypes.containsKey( ind );
+	}
+
+	public Set<ATermAppl> getIndividuals() {
+		return Collections.unmodifiableSet( directTypes.keySet() );
+	}
+
+	/**
+	 * Check if individual <code>x</code> is an instance of class
+	 * <code>c</code>.
+	 */
+	public boolean isType(ATermAppl x, ATermAppl c) {
+		if( !isIndividual( x ) ) {
+			handleUndefinedEntity( x + " is not an individual!" );
+			return false;
+		}
+
+		Node node = nodes.get( c );
+		if( node == null ) {
+			if( !isClass( c ) ) {
+				handleUndefinedEntity( c + " is not a valid class expression" );
+				return false;
+			}
+
+			return getLocalKB().isType( x, c );
+		}
+
+		if( node == top ) {
+			return true;
+		}
+
+		Set<Node> visited = new HashSet<Node>();
+		List<Node> visit = new ArrayList<Node>();
+		Collections.addAll( visit, directTypes.get( x ) );
+		for( int i = 0; i < visit.size(); i++ ) {
+			Node next = visit.get( i );
+			if( next == node ) {
+				return true;
+			}
+			if( visited.add( next ) ) {
+				Collections.addAll( visit, next.supers );
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Returns the direct types of the individual or all of its types depending
+	 * on the <code>direct</code> parameter. See
+	 * {@link KnowledgeBase#getTypes(ATermAppl, boolean)}.
+	 */
+	public Set<Set<ATermAppl>> getTypes(ATermAppl x, boolean direct) {
+		if( !isIndividual( x ) ) {
+			handleUndefinedEntity( x + " is not an individual!" );
+			return Collections.emptySet();
+		}
+
+		Set<Set<ATermAppl>> types = new HashSet<Set<ATermAppl>>();
+		for( Node node : directTypes.get( x ) ) {
+			addNamed( node.equivalents, types );
+			if( !direct ) {
+				types.addAll( getSubSupers( node, false, true ) );
+			}
+		}
+
+		return types;
+	}
+
+	/**
+	 * Returns all the instances of the class. See
+	 * {@link KnowledgeBase#getInstances(ATermAppl)}.
+	 */
+	public Set<ATermAppl> getInstances(ATermAppl c) {
+		return getInstances( c, false );
+	}
+
+	/**
+	 * Returns the direct or all instances of the class depending on the
+	 * <code>direct</code> parameter. See
+	 * {@link KnowledgeBase#getInstances(ATermAppl, boolean)}.
+	 */
+	public Set<ATermAppl> getInstances(ATermAppl c, boolean direct) {
+		Node node = nodes.get( c );
+		if( node == null ) {
+			if( !isClass( c ) ) {
+				handleUndefinedEntity( c + " is not a class!" );
+				return Collections.emptySet();
+			}
+
+			KnowledgeBase kb = getLocalKB();
+			if( !direct ) {
+				return kb.retrieve( c, kb.getIndividuals() );
+			}
+
+			// same as KnowledgeBase: direct instances of an anonymous class are
+			// searched among the direct instances of its direct superclasses
+			Set<ATermAppl> candidates = null;
+			for( Node sup : search( ATermUtils.normalize( c ), true ).get( 0 ) ) {
+				if( candidates == null ) {
+					candidates = new HashSet<ATermAppl>( sup.instances );
+				}
+				else {
+					candidates.retainAll( sup.instances );
+				}
+
+				if( candidates.isEmpty() ) {
+					return candidates;
+				}
+			}
+
+			return kb.retrieve( c, candidates );
+		}
+
+		if( direct ) {
+			return node.instances;
+		}
+
+		Set<ATermAppl> instances = new HashSet<ATermAppl>();
+		Set<Node> visited = new HashSet<Node>();
+		List<Node> visit = new ArrayList<Node>();
+		visit.add( node );
+		for( int i = 0; i < visit.size(); i++ ) {
+			Node next = visit.get( i );
+			if( visited.add( next ) ) {
+				instances.addAll( next.instances );
+				Collections.addAll( visit, next.subs );
+			}
+		}
+
+		return Collections.unmodifiableSet( instances );
+	}
+
+	/**
+	 * Returns the (named) superclasses of the class. See
+	 * {@link KnowledgeBase#getSuperClasses(ATermAppl, boolean)}.
+	 */
+	public Set<Set<ATermAppl>> getSuperClasses(ATermAppl c, boolean direct) {
+		return getSubSuperClasses( c, direct, true );
+	}
+
+	/**
+	 * Returns the (named) subclasses of the class. See
+	 * {@link KnowledgeBase#getSubClasses(ATermAppl, boolean)}.
+	 */
+	public Set<Set<ATermAppl>> getSubClasses(ATermAppl c, boolean direct) {
+		return getSubSuperClasses( c, direct, false );
+	}
+
+	/**
+	 * Returns the (named) classes equivalent to the class excluding the class
+	 * itself. See {@link KnowledgeBase#getEquivalentClasses(ATermAppl)}.
+	 */
+	public Set<ATermAppl> getEquivalentClasses(ATermAppl c) {
+		Node node = nodes.get( c );
+		if( node == null ) {
+			if( !isClass( c ) ) {
+				handleUndefinedEntity( c + " is not a class!" );
+				return Collections.emptySet();
+			}
+
+			List<Set<Node>> result = search( ATermUtils.normalize( c ), true );
+			node = result.size() > 2
+				? result.get( 2 ).iterator().next()
+				: null;
+			if( node == null ) {
+				return Collections.emptySet();
+			}
+		}
+
+		Set<ATermAppl> equivalents = ATermUtils.primitiveOrBottom( node.equivalents );
+		equivalents.remove( c );
+
+		return equivalents;
+	}
+
+	public boolean isSubClassOf(ATermAppl c1, ATermAppl c2) {
+		Node node1 = nodes.get( c1 );
+		Node node2 = nodes.get( c2 );
+		if( node1 == null || node2 == null ) {
+			if( !isClass( c1 ) ) {
+				handleUndefinedEntity( c1 + " is not a class!" );
+				return false;
+			}
+			if( !isClass( c2 ) ) {
+				handleUndefinedEntity( c2 + " is not a class!" );
+				return false;
+			}
+
+			return getLocalKB().getABox().isSubClassOf( ATermUtils.normalize( c1 ), ATermUtils
+					.normalize( c2 ) );
+		}
+
+		if( node1 == node2 || node1 == bottom || node2 == top ) {
+			return true;
+		}
+
+		Set<Node> visited = new HashSet<Node>();
+		List<Node> visit = new ArrayList<Node>();
+		Collections.addAll( visit, node1.supers );
+		for( int i = 0; i < visit.size(); i++ ) {
+			Node next = visit.get( i );
+			if( next == node2 ) {
+				return true;
+			}
+			if( visited.add( next ) ) {
+				Collections.addAll( visit, next.supers );
+			}
+		}
+
+		return false;
+	}
+
+	private Set<Set<ATermAppl>> getSubSuperClasses(ATermAppl c, boolean direct, boolean supers) {
+		Node node = nodes.get( c );
+		if( node == null ) {
+			if( !isClass( c ) ) {
+				handleUndefinedEntity( c + " is not a class!" );
+				return Collections.emptySet();
+			}
+
+			List<Set<Node>> result = search( ATermUtils.normalize( c ), supers );
+			if( result.size() > 2 ) {
+				// equivalent to a class in the hierarchy
+				node = result.get( 2 ).iterator().next();
+			}
+			else {
+				Set<Set<ATermAppl>> classes = new HashSet<Set<ATermAppl>>();
+				for( Node n : result.get( direct
+					? 0
+					: 1 ) ) {
+					if( !n.hidden ) {
+						addNamed( n.equivalents, classes );
+					}
+				}
+				return classes;
+			}
+		}
+
+		return getSubSupers( node, direct, supers );
+	}
+
+	/**
+	 * Same as the traversal done by {@link Taxonomy} followed by the filtering
+	 * done by {@link KnowledgeBase}.
+	 */
+	private Set<Set<ATermAppl>> getSubSupers(Node node, boolean direct, boolean supers) {
+		Set<Set<ATermAppl>> result = new HashSet<Set<ATermAppl>>();
+
+		List<Node> visit = new ArrayList<Node>();
+		Collections.addAll( visit, supers
+			? node.supers
+			: node.subs );
+
+		for( int i = 0; i < visit.size(); i++ ) {
+			Node next = visit.get( i );
+
+			if( next.hidden ) {
+				continue;
+			}
+
+			addNamed( next.equivalents, result );
+
+			if( !direct ) {
+				Collections.addAll( visit, supers
+					? next.supers
+					: next.subs );
+			}
+		}
+
+		return result;
+	}
+
+	private static void addNamed(Set<ATermAppl> equivalents, Set<Set<ATermAppl>> result) {
+		Set<ATermAppl> named = ATermUtils.primitiveOrBottom( equivalents );
+		if( !named.isEmpty() ) {
+			result.add( named );
+		}
+	}
+
+	/**
+	 * Find the position of a class expression that is not in the hierarchy by
+	 * running tableau tests on the KB copy of the calling thread. The search
+	 * starts from TOP for superclasses and from BOTTOM for subclasses. Returns
+	 * a list where the first element is the set of most specific (general)
+	 * nodes found, the second element is all the nodes found and the optional
+	 * third element is the node equivalent to the class expression.
+	 */
+	private List<Set<Node>> search(ATermAppl c, boolean supers) {
+		KnowledgeBase kb = getLocalKB();
+
+		List<Set<Node>> result = new ArrayList<Set<Node>>( 3 );
+
+		// same as the taxonomy builder, unsatisfiable classes are equivalent
+		// to BOTTOM and classes whose negation is unsatisfiable to TOP
+		Node equivalent = null;
+		if( !kb.getABox().isSatisfiable( c, true ) ) {
+			equivalent = bottom;
+		}
+		else if( !kb.getABox().isSatisfiable( ATermUtils.makeNot( c ), true ) ) {
+			equivalent = top;
+		}
+
+		if( equivalent != null ) {
+			Set<Node> nodes = Collections.singleton( equivalent );
+			result.add( nodes );
+			result.add( nodes );
+			result.add( nodes );
+			return result;
+		}
+
+		Node start = supers
+			? top
+			: bottom;
+
+		Set<Node> mostSpecific = new HashSet<Node>();
+		Set<Node> found = new HashSet<Node>();
+		List<Node> visit = new ArrayList<Node>();
+		visit.add( start );
+		found.add( start );
+		for( int i = 0; i < visit.size(); i++ ) {
+			Node node = visit.get( i );
+
+			boolean specific = true;
+			for( Node next : supers
+				? node.subs
+				: node.supers ) {
+				if( found.contains( next ) ) {
+					specific = false;
+				}
+				else if( subsumes( kb, c, next, supers ) ) {
+					specific = false;
+					found.add( next );
+					visit.add( next );
+				}
+			}
+
+			if( specific ) {
+				mostSpecific.add( node );
+			}
+		}
+
+		result.add( mostSpecific );
+		result.add( found );
+
+		if( mostSpecific.size() == 1 ) {
+			Node candidate = mostSpecific.iterator().next();
+			if( subsumes( kb, c, candidate, !supers ) ) {
+				result.add( mostSpecific );
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Check if <code>c</code> is subsumed by (if <code>supers</code> is
+	 * true) or subsumes (otherwise) the given node.
+	 */
+	private boolean subsumes(KnowledgeBase kb, ATermAppl c, Node node, boolean supers) {
+		return supers
+			? kb.getABox().isSubClassOf( c, node.getName() )
+			: kb.getABox().isSubClassOf( node.getName(), c );
+	}
+
+	private static void handleUndefinedEntity(String s) {
+		if( !PelletOptions.SILENT_UNDEFINED_ENTITY_HANDLING ) {
+			throw new UndefinedEntityException( s );
+		}
+	}
+}
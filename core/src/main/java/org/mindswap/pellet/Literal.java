@@ -78,7 +78,7 @@ public class Literal extends Node {
 					.equals( ATermUtils.NO_DATATYPE );
 			if( hasValue ) {
 				try {
-					value = abox.dtReasoner.getValue( term );
+					value = abox.getLiteralDictionary().getValue( term );
 				} catch( InvalidLiteralException e ) {
 					final String msg = format(
 							"Attempt to create literal from invalid literal (%s): %s", term, e
@@ -182,7 +182,7 @@ public class Literal extends Node {
 			if( ATermUtils.isNominal( a ) ) {
 				try {
 					final ATermAppl input = (ATermAppl) a.getArgument( 0 );
-					final ATermAppl canonical = abox.getDatatypeReasoner()
+					final ATermAppl canonical = abox.getLiteralDictionary()
 							.getCanonicalRepresentation( input );
 					if( !canonical.equals( input ) ) {
 	                    type = ATermUtils.makeValue( canonical );
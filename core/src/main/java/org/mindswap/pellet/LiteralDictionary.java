@@ -0,0 +1,137 @@
+// Copyright (c) 2006 - 2008, Clark & Parsia, LLC. <http://www.clarkparsia.com>
+// This source code is available under the terms of the Affero General Public License v3.
+//
+// Please see LICENSE.txt for full license terms, including the availability of proprietary exceptions.
+// Questions, comments, or requests for clarification: licensing@clarkparsia.com
+
+package org.mindswap.pellet;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import aterm.ATermAppl;
+
+import com.clarkparsia.pellet.datatypes.DatatypeReasoner;
+import com.clarkparsia.pellet.datatypes.exceptions.InvalidLiteralException;
+import com.clarkparsia.pellet.datatypes.exceptions.UnrecognizedDatatypeException;
+
+/**
+ * <p>
+ * Title: Literal Dictionary
+ * </p>
+ * <p>
+ * Description: Remembers the canonical representation and the value computed
+ * by the datatype reasoner for each literal added to an ABox so the lexical
+ * form of a literal that appears many times in the data (dates, decimals, etc.)
+ * is parsed only once. Equal values are interned so the different lexical
+ * forms of a value share one value object, and since they also share the
+ * canonical representation they are represented by one {@link Literal} node.
+ * Invalid literals are not stored and are reported by the datatype reasoner
+ * every time they are used.
+ * </p>
+ * <p>
+ * A dictionary is shared by an ABox and all its copies, which may be used by
+ * different threads (see {@link ReasonerWorkerPool}). Entries are immutable
+ * and computing the same entry twice in different threads is harmless. The
+ * dictionary is cleared when the KB or its ABox is cleared and when the ABox
+ * is reset after a deletion so the literals that are no longer used are
+ * released.
+ * </p>
+ * <p>
+ * Copyright: Copyright (c) 2008
+ * </p>
+ * <p>
+ * Company: Clark & Parsia, LLC. <http://www.clarkparsia.com>
+ * </p>
+ */
+public class LiteralDictionary {
+	private static final class Entry {
+		private final ATermAppl	canonical;
+		private final Object	value;
+
+		private Entry(ATermAppl canonical, Object value) {
+			this.canonical = canonical;
+			this.value = value;
+		}
+	}
+
+	private final DatatypeReasoner					dtReasoner;
+
+	private final ConcurrentMap<ATermAppl, Entry>	entries;
+
+	/**
+	 * Maps each value to itself so equal values are represented by the same
+	 * object
+	 */
+	private final ConcurrentMap<Object, Object>		values;
+
+	public LiteralDictionary(DatatypeReasoner dtReasoner) {
+		this.dtReasoner = dtReasoner;
+		this.entries = new ConcurrentHashMap<ATermAppl, Entry>();
+		this.values = new ConcurrentHashMap<Object, Object>();
+	}
+
+	private Entry getEntry(ATermAppl literal) throws InvalidLiteralException,
+			UnrecognizedDatatypeException {
+		Entry entry = entries.get( literal );
+		if( entry == null ) {
+			ATermAppl canonical = dtReasoner.getCanonicalRepresentation( literal );
+			Object value = intern( dtReasoner.getValue( literal ) );
+
+			entry = new Entry( canonical, value );
+			Entry previous = entries.putIfAbsent( literal, entry );
+			if( previous != null )
+				entry = previous;
+		}
+
+		return entry;
+	}
+
+	private Object intern(Object value) {
+		if( value == null )
+			return null;
+
+		Object previous = values.putIfAbsent( value, value );
+
+		return previous == null
+			? value
+			: previous;
+	}
+
+	/**
+	 * Returns the canonical representation of the given literal.
+	 *
+	 * @see DatatypeReasoner#getCanonicalRepresentation(ATermAppl)
+	 */
+	public ATermAppl getCanonicalRepresentation(ATermAppl literal) throws InvalidLiteralException,
+			UnrecognizedDatatypeException {
+		return getEntry( literal ).canonical;
+	}
+
+	/**
+	 * Returns the value of the given literal. Equal literals return the same
+	 * value object.
+	 *
+	 * @see DatatypeReasoner#getValue(ATermAppl)
+	 */
+	public Object getValue(ATermAppl literal) throws InvalidLiteralException,
+			UnrecognizedDatatypeException {
+		return getEntry( literal ).value;
+	}
+
+	/**
+	 * Returns the number of literals in the dictionary.
+	 */
+	public int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Remove all the literals and values from the dictionary. ABox copies that
+	 * share the dictionary compute the entries again when they need them.
+	 */
+	public void clear() {
+		entries.clear();
+		values.clear();
+	}
+}
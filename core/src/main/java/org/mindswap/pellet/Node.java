@@ -79,7 +79,7 @@ public abstract class Node {
 	
 	protected ABox abox;
 	protected ATermAppl name;
-	protected Map<ATermAppl, DependencySet> depends;
+	protected ConceptDependencyMap depends;
 	private boolean isRoot;
 	private boolean isConceptRoot;		
 	
@@ -117,7 +117,7 @@ public abstract class Node {
 		
 		mergeDepends = DependencySet.INDEPENDENT; 
 		differents = CollectionUtils.makeMap();
-		depends = CollectionUtils.makeMap();
+		depends = new ConceptDependencyMap( abox.getConceptDictionary() );
 
         inEdges = new EdgeList();
 	}
@@ -137,7 +137,7 @@ public abstract class Node {
 		// do not copy differents right now because we need to
 		// update node references later anyway
 		differents = node.differents;
-		depends = CollectionUtils.makeMap(node.depends);
+		depends = new ConceptDependencyMap( node.depends, abox.getConceptDictionary() );
 		        
         inEdges = node.inEdges;
 	}
@@ -590,6 +590,14 @@ public abstract class Node {
 		return depends;
 	}
 	
+	/**
+	 * Store the label of this node with the identifiers of the given concept
+	 * dictionary.
+	 */
+	void setConceptDictionary(ConceptDictionary dictionary) {
+		depends = new ConceptDependencyMap( depends, dictionary );
+	}
+	
 	public Set<ATermAppl> getTypes() {
 		return depends.keySet();
 	}	
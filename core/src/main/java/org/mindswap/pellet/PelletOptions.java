@@ -103,6 +103,13 @@ public class PelletOptions {
 		DISABLED, ENABLED, ENABLED_LEGACY_ORDERING
 	}
 
+	/**
+	 * @see #CONCEPT_CACHE
+	 */
+	public enum ConceptCacheType {
+		LRU, TINY_LFU
+	}
+
 	/**
 	 * Sets the Pellet configuration options and returns the old values for the
 	 * options.
@@ -142,12 +149,23 @@ public class PelletOptions {
 		MAX_ANONYMOUS_CACHE = getIntProperty( newOptions, "MAX_ANONYMOUS_CACHE",
 				MAX_ANONYMOUS_CACHE, oldOptions );
 
+		CONCEPT_CACHE = getEnumProperty( newOptions, "CONCEPT_CACHE", CONCEPT_CACHE, oldOptions );
+
 		OPTIMIZE_DOWN_MONOTONIC = getBooleanProperty( newOptions, "OPTIMIZE_DOWN_MONOTONIC",
 				OPTIMIZE_DOWN_MONOTONIC, oldOptions );
 
 		REALIZE_INDIVIDUAL_AT_A_TIME = getBooleanProperty( newOptions,
 				"REALIZE_INDIVIDUAL_AT_A_TIME", REALIZE_INDIVIDUAL_AT_A_TIME, oldOptions );
 
+		USE_PARALLEL_REALIZATION = getBooleanProperty( newOptions, "USE_PARALLEL_REALIZATION",
+				USE_PARALLEL_REALIZATION, oldOptions );
+
+		REALIZATION_THREADS = getIntProperty( newOptions, "REALIZATION_THREADS",
+				REALIZATION_THREADS, oldOptions );
+
+		REALIZATION_BATCH_SIZE = getIntProperty( newOptions, "REALIZATION_BATCH_SIZE",
+				REALIZATION_BATCH_SIZE, oldOptions );
+
 		AUTO_REALIZE = getBooleanProperty( newOptions, "AUTO_REALIZE", AUTO_REALIZE, oldOptions );
 
 		RETURN_DEDUCTIONS_GRAPH = getBooleanProperty( newOptions, "RETURN_DEDUCTIONS_GRAPH",
@@ -168,6 +186,12 @@ public class PelletOptions {
 		TRACK_BRANCH_EFFECTS = getBooleanProperty( newOptions, "TRACK_BRANCH_EFFECTS",
 				TRACK_BRANCH_EFFECTS, oldOptions );
 
+		USE_TRAIL_RESTORE = getBooleanProperty( newOptions, "USE_TRAIL_RESTORE",
+				USE_TRAIL_RESTORE, oldOptions );
+
+		COLLECT_RULE_STATISTICS = getBooleanProperty( newOptions, "COLLECT_RULE_STATISTICS",
+				COLLECT_RULE_STATISTICS, oldOptions );
+
 		TREAT_ALL_VARS_DISTINGUISHED = getBooleanProperty( newOptions,
 				"TREAT_ALL_VARS_DISTINGUISHED", TREAT_ALL_VARS_DISTINGUISHED, oldOptions );
 
@@ -200,6 +224,12 @@ public class PelletOptions {
 		USE_CD_CLASSIFICATION = getBooleanProperty( newOptions, "USE_CD_CLASSIFICATION",
 				USE_CD_CLASSIFICATION, oldOptions );
 
+		USE_PARALLEL_CLASSIFICATION = getBooleanProperty( newOptions,
+				"USE_PARALLEL_CLASSIFICATION", USE_PARALLEL_CLASSIFICATION, oldOptions );
+
+		CLASSIFICATION_THREADS = getIntProperty( newOptions, "CLASSIFICATION_THREADS",
+				CLASSIFICATION_THREADS, oldOptions );
+
 		USE_CLASSIFICATION_MONITOR = getEnumProperty( newOptions, "USE_CLASSIFICATION_MONITOR",
 				USE_CLASSIFICATION_MONITOR, oldOptions );
 
@@ -218,6 +248,24 @@ public class PelletOptions {
 		USE_INCREMENTAL_DELETION = getBooleanProperty( newOptions, "USE_INCREMENTAL_DELETION",
 				USE_INCREMENTAL_DELETION, oldOptions );
 
+		USE_PARTITIONED_CONSISTENCY = getBooleanProperty( newOptions,
+				"USE_PARTITIONED_CONSISTENCY", USE_PARTITIONED_CONSISTENCY, oldOptions );
+
+		PARTITIONED_CONSISTENCY_THREADS = getIntProperty( newOptions,
+				"PARTITIONED_CONSISTENCY_THREADS", PARTITIONED_CONSISTENCY_THREADS, oldOptions );
+
+		TERM_CACHE_SIZE = getIntProperty( newOptions, "TERM_CACHE_SIZE", TERM_CACHE_SIZE,
+				oldOptions );
+
+		DATATYPE_CACHE_SIZE = getIntProperty( newOptions, "DATATYPE_CACHE_SIZE",
+				DATATYPE_CACHE_SIZE, oldOptions );
+
+		COLLECT_TERM_CACHE_STATISTICS = getBooleanProperty( newOptions,
+				"COLLECT_TERM_CACHE_STATISTICS", COLLECT_TERM_CACHE_STATISTICS, oldOptions );
+
+		USE_PROPERTY_INDEX = getBooleanProperty( newOptions, "USE_PROPERTY_INDEX",
+				USE_PROPERTY_INDEX, oldOptions );
+
 		USE_NAIVE_QUERY_ENGINE = getBooleanProperty( newOptions, "USE_NAIVE_QUERY_ENGINE",
 				USE_NAIVE_QUERY_ENGINE, oldOptions );
 
@@ -226,6 +274,9 @@ public class PelletOptions {
 
 		USE_SEMANTIC_BRANCHING = getBooleanProperty( newOptions, "USE_SEMANTIC_BRANCHING",
 				USE_SEMANTIC_BRANCHING, oldOptions );
+
+		USE_NOGOOD_LEARNING = getBooleanProperty( newOptions, "USE_NOGOOD_LEARNING",
+				USE_NOGOOD_LEARNING, oldOptions );
 		
 		USE_SMART_RESTORE = getBooleanProperty( newOptions, "USE_SMART_RESTORE", USE_SMART_RESTORE, oldOptions);
 
@@ -242,6 +293,12 @@ public class PelletOptions {
 		
 		DISABLE_EL_CLASSIFIER = getBooleanProperty( newOptions, "DISABLE_EL_CLASSIFIER", DISABLE_EL_CLASSIFIER, 
 				oldOptions );
+
+		USE_PARALLEL_EL_CLASSIFICATION = getBooleanProperty( newOptions,
+				"USE_PARALLEL_EL_CLASSIFICATION", USE_PARALLEL_EL_CLASSIFICATION, oldOptions );
+
+		EL_CLASSIFICATION_THREADS = getIntProperty( newOptions, "EL_CLASSIFICATION_THREADS",
+				EL_CLASSIFICATION_THREADS, oldOptions );
 		
 		PROCESS_JENA_UPDATES_INCREMENTALLY = getBooleanProperty(newOptions, "PROCESS_JENA_UPDATES_INCREMENTALLY",
 		                PROCESS_JENA_UPDATES_INCREMENTALLY, oldOptions);
@@ -370,6 +427,24 @@ public class PelletOptions {
 	 */
 	public static boolean								TRACK_BRANCH_EFFECTS					= false;
 
+	/**
+	 * When branch effects are tracked (see {@link #TRACK_BRANCH_EFFECTS}),
+	 * record them in a chronological trail and backtrack by undoing only the
+	 * part of the trail recorded after the branch. Nodes created after the
+	 * branch are removed and the all values rule is reapplied only around the
+	 * restored nodes instead of scanning every node in the ABox. Has no effect
+	 * if branch effects are not tracked.
+	 */
+	public static boolean								USE_TRAIL_RESTORE						= false;
+
+	/**
+	 * Collect statistics about the applications of each tableau rule (number
+	 * of applications, time, nodes created, clashes and backtracks). The
+	 * statistics can also be enabled at runtime for a single KB (see
+	 * {@link KnowledgeBase#getRuleStats()}).
+	 */
+	public static boolean								COLLECT_RULE_STATISTICS					= false;
+
 	/**
 	 * According to SPARQL semantics all variables are distinguished by
 	 * definition and bnodes in the query are non-distinguished variables. This
@@ -386,6 +461,14 @@ public class PelletOptions {
 	 */
 	public static boolean								USE_DISJUNCT_SORTING					= true && !SATURATE_TABLEAU;
 
+	/**
+	 * Learn the combinations of disjunction and max cardinality branch
+	 * decisions that cause a clash (nogoods) and prune the choices that would
+	 * recreate a known nogood. Nogoods are not learned when explanations are
+	 * computed or from clashes found on blocked individuals.
+	 */
+	public static boolean								USE_NOGOOD_LEARNING						= false;
+
 	public static MonitorType							USE_CLASSIFICATION_MONITOR				= MonitorType.CONSOLE;
 
 	public static final String							NO_SORTING								= "NO";
@@ -468,6 +551,16 @@ public class PelletOptions {
 	 */
 	public static int									MAX_ANONYMOUS_CACHE						= 20000;
 
+	/**
+	 * The implementation of the concept satisfiability cache. {@link ConceptCacheType#LRU}
+	 * removes the least recently used anonymous class when the cache is full
+	 * and can only be used by one thread. {@link ConceptCacheType#TINY_LFU}
+	 * can be shared by multiple threads and only admits an anonymous class
+	 * to a full cache if it is used more frequently than the class it would
+	 * replace. The cache type is read when the caches of a KB are cleared.
+	 */
+	public static ConceptCacheType						CONCEPT_CACHE							= ConceptCacheType.LRU;
+
 	/**
 	 * To decide if individual <code>i</code> has type class <code>c</code>
 	 * check if the edges from cached model of <code>c</code> to nominal nodes
@@ -528,6 +621,13 @@ public class PelletOptions {
 	 */
 	public static boolean								COPY_ON_WRITE							= true;
 
+	/**
+	 * When an ABox is copied, the labels of the nodes are shared between the
+	 * original and the copy and each node label is copied only when one of the
+	 * ABoxes modifies it.
+	 */
+	public static boolean								COPY_ON_WRITE_NODE_LABELS				= true;
+
 	/**
 	 * Control the behavior if a function such as kb.getInstances(),
 	 * kb.getTypes(), kb.getPropertyValues() is called with a parameter that is
@@ -548,6 +648,30 @@ public class PelletOptions {
 	 * disadvantages. Best performance depends on the ontology characteristics.
 	 */
 	public static boolean								REALIZE_INDIVIDUAL_AT_A_TIME			= false;
+
+	/**
+	 * Realize individuals on a pool of worker threads where each thread uses
+	 * its own copy of the ABox. Individuals are split into batches of
+	 * {@link #REALIZATION_BATCH_SIZE} and the direct types computed for each
+	 * batch are added to the taxonomy by the calling thread. Both realization
+	 * strategies (see {@link #REALIZE_INDIVIDUAL_AT_A_TIME}) are supported.
+	 * Parallel realization is not used when explanations are being generated.
+	 */
+	public static boolean								USE_PARALLEL_REALIZATION				= false;
+
+	/**
+	 * The number of worker threads used when {@link #USE_PARALLEL_REALIZATION}
+	 * is enabled. A value less than 2 disables parallel realization.
+	 */
+	public static int									REALIZATION_THREADS						= Runtime
+																										.getRuntime()
+																										.availableProcessors();
+
+	/**
+	 * The minimum number of individuals processed by a worker thread in one
+	 * task when {@link #USE_PARALLEL_REALIZATION} is enabled.
+	 */
+	public static int									REALIZATION_BATCH_SIZE					= 100;
 	
 	/**
 	 * When this options is set, all the individuals in the KB are realized automatically
@@ -753,12 +877,85 @@ public class PelletOptions {
 																										&& USE_TRACING
 																										&& USE_COMPLETION_QUEUE;
 
+	/**
+	 * Split the ABox into the connected components of its assertions before
+	 * the consistency check and complete each component in its own ABox on a
+	 * pool of worker threads. The completed components that did not need any
+	 * non-deterministic choice are copied into the ABox of the KB, the rest of
+	 * the ABox is completed as usual. Completed components are kept so that the
+	 * consistency check after an ABox change only completes the components
+	 * that have been changed. The ABox is not partitioned if the KB contains
+	 * nominals, rules, keys or the top object property, or when the completion
+	 * queue, branch effect tracking or incremental deletion is used.
+	 */
+	public static boolean								USE_PARTITIONED_CONSISTENCY				= false;
+
+	/**
+	 * The number of worker threads used when
+	 * {@link #USE_PARTITIONED_CONSISTENCY} is enabled. A value less than 2
+	 * completes the components one after another in the calling thread.
+	 */
+	public static int									PARTITIONED_CONSISTENCY_THREADS			= Runtime
+																										.getRuntime()
+																										.availableProcessors();
+
+	/**
+	 * Index the edges of the completed ABox by their properties so that the
+	 * queries asking for the individuals that have a value for a property only
+	 * look at the individuals that have an edge with that property or one of
+	 * its sub properties.
+	 */
+	public static boolean								USE_PROPERTY_INDEX						= true;
+
+	/**
+	 * The number of entries in each of the caches of the normalized and NNF
+	 * terms in {@link org.mindswap.pellet.utils.ATermUtils}. The caches are
+	 * created when the terms are first used so this option should be set
+	 * before that, a value of 0 disables the caches.
+	 */
+	public static int									TERM_CACHE_SIZE							= 16384;
+
+	/**
+	 * The number of entries in each of the caches of the datatype reasoner
+	 * that store the normalized data ranges and the results of the
+	 * cardinality checks for the conjunctions of data ranges. The caches are
+	 * created with the datatype reasoner of each ABox, a value of 0 disables
+	 * the caches.
+	 */
+	public static int									DATATYPE_CACHE_SIZE						= 4096;
+
+	/**
+	 * Count the hits and misses of the term and datatype caches (see
+	 * {@link org.mindswap.pellet.utils.ATermCache#getHitRate()}). The term
+	 * caches are shared by all the threads so the counters are off by default.
+	 */
+	public static boolean								COLLECT_TERM_CACHE_STATISTICS			= false;
+
 	/**
 	 * Use (if applicable) special optimization for completely defined (CD)
 	 * concepts during classification.
 	 */
 	public static boolean								USE_CD_CLASSIFICATION					= true;
 
+	/**
+	 * Run the satisfiability and subsumption tests performed during
+	 * classification on a pool of worker threads where each thread uses its own
+	 * copy of the ABox. The taxonomy itself is still built by the calling
+	 * thread in definition order so the result is identical to the sequential
+	 * classification. Parallel classification is not used when explanations
+	 * are being generated.
+	 */
+	public static boolean								USE_PARALLEL_CLASSIFICATION				= false;
+
+	/**
+	 * The number of worker threads used when
+	 * {@link #USE_PARALLEL_CLASSIFICATION} is enabled. A value less than 2
+	 * disables parallel classification.
+	 */
+	public static int									CLASSIFICATION_THREADS					= Runtime
+																										.getRuntime()
+																										.availableProcessors();
+
 	@Deprecated
 	public static boolean								USE_NAIVE_QUERY_ENGINE					= false;
 
@@ -797,6 +994,23 @@ public class PelletOptions {
 	 * Do not use EL Classifier, even if the ontology is EL
 	 */
 	public static boolean 								DISABLE_EL_CLASSIFIER					= false;
+
+	/**
+	 * Saturate EL ontologies on a pool of worker threads (see
+	 * {@link com.clarkparsia.pellet.el.ConcurrentELClassifier}) instead of the
+	 * single threaded EL classifier. Both classifiers compute the same
+	 * taxonomy.
+	 */
+	public static boolean								USE_PARALLEL_EL_CLASSIFICATION			= false;
+
+	/**
+	 * The number of worker threads used when
+	 * {@link #USE_PARALLEL_EL_CLASSIFICATION} is enabled. A value less than 2
+	 * saturates the ontology in the calling thread.
+	 */
+	public static int									EL_CLASSIFICATION_THREADS				= Runtime
+																										.getRuntime()
+																										.availableProcessors();
 	
 	
 	public static boolean 								PROCESS_JENA_UPDATES_INCREMENTALLY		= true;
@@ -0,0 +1,143 @@
+// Copyright (c) 2006 - 2008, Clark & Parsia, LLC. <http://www.clarkparsia.com>
+// This source code is available under the terms of the Affero General Public License v3.
+//
+// Please see LICENSE.txt for full license terms, including the availability of proprietary exceptions.
+// Questions, comments, or requests for clarification: licensing@clarkparsia.com
+
+package org.mindswap.pellet;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import aterm.ATermAppl;
+
+/**
+ * <p>
+ * Title: Property Index
+ * </p>
+ * <p>
+ * Description: An index of the edges of the completed ABox that maps each
+ * role to the individuals that are the subject of an edge with that role and
+ * to the individuals that are the object of an edge with that role. The index
+ * is used to find the candidate subjects for the property value queries
+ * without looking at the edges of every individual. The candidates returned
+ * for a role are all the individuals that have an outgoing edge with a sub
+ * role or an incoming edge with a sub role of the inverse, which includes
+ * every individual for which
+ * {@link ABox#hasObviousPropertyValue(ATermAppl, ATermAppl, ATermAppl)} does
+ * not return false. Individuals that have been merged to another individual
+ * are always included in the candidates. No candidates are computed for the
+ * top property and for properties with complex sub properties.
+ * </p>
+ * <p>
+ * The index is a snapshot of the ABox at the time it is created so it needs to
+ * be created again after the next consistency check.
+ * </p>
+ * <p>
+ * Copyright: Copyright (c) 2008
+ * </p>
+ * <p>
+ * Company: Clark & Parsia, LLC. <http://www.clarkparsia.com>
+ * </p>
+ */
+public class PropertyIndex {
+	/**
+	 * Individuals that have an outgoing edge with the role
+	 */
+	private final Map<Role, Set<ATermAppl>>	subjects;
+
+	/**
+	 * Individuals that have an incoming edge with the role
+	 */
+	private final Map<Role, Set<ATermAppl>>	objects;
+
+	/**
+	 * Individuals that have been merged to another individual
+	 */
+	private final List<ATermAppl>			merged;
+
+	public PropertyIndex(ABox abox, Collection<ATermAppl> individuals) {
+		subjects = new HashMap<Role, Set<ATermAppl>>();
+		objects = new HashMap<Role, Set<ATermAppl>>();
+		merged = new ArrayList<ATermAppl>();
+
+		for( ATermAppl name : individuals ) {
+			Individual ind = abox.getIndividual( name );
+			if( ind == null )
+				continue;
+
+			if( ind.isMerged() ) {
+				merged.add( name );
+				continue;
+			}
+
+			EdgeList outEdges = ind.getOutEdges();
+			for( int i = 0; i < outEdges.size(); i++ ) {
+				add( subjects, outEdges.edgeAt( i ).getRole(), name );
+			}
+
+			EdgeList inEdges = ind.getInEdges();
+			for( int i = 0; i < inEdges.size(); i++ ) {
+				add( objects, inEdges.edgeAt( i ).getRole(), name );
+			}
+		}
+	}
+
+	private static void add(Map<Role, Set<ATermAppl>> index, Role role, ATermAppl name) {
+		Set<ATermAppl> names = index.get( role );
+		if( names == null ) {
+			names = new HashSet<ATermAppl>();
+			index.put( role, names );
+		}
+		names.add( name );
+	}
+
+	private static void addAll(Map<Role, Set<ATermAppl>> index, Role role, Set<ATermAppl> result) {
+		for( Role sub : role.getSubRoles() ) {
+			Set<ATermAppl> names = index.get( sub );
+			if( names != null )
+				result.addAll( names );
+		}
+
+		Set<ATermAppl> names = index.get( role );
+		if( names != null )
+			result.addAll( names );
+	}
+
+	/**
+	 * Returns the individuals that are the subject of an edge with the given
+	 * role or its sub roles, i.e. the subjects of the asserted or inferred
+	 * property values of the role that are explicitly stored in the ABox.
+	 */
+	public Set<ATermAppl> getSubjects(Role role) {
+		Set<ATermAppl> result = new HashSet<ATermAppl>();
+		addAll( subjects, role, result );
+		return result;
+	}
+
+	/**
+	 * Returns the individuals that may have a value for the given role or
+	 * <code>null</code> if the candidates cannot be found using the index.
+	 */
+	public Set<ATermAppl> getCandidates(Role role) {
+		if( role.isTop() || role.isAnnotationRole() || role.hasComplexSubRole() )
+			return null;
+
+		if( role.isBottom() )
+			return Collections.emptySet();
+
+		Set<ATermAppl> result = getSubjects( role );
+		Role invRole = role.getInverse();
+		if( invRole != null )
+			addAll( objects, invRole, result );
+		result.addAll( merged );
+
+		return result;
+	}
+}
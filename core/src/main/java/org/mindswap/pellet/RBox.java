@@ -108,6 +108,8 @@ public class RBox {
 
 	private final Map<ATermAppl, Role> roles = new HashMap<ATermAppl, Role>();
 	private final Set<Role> reflexiveRoles = new HashSet<Role>();
+	private int roleCount = 0;
+	private RoleHierarchy roleHierarchy;
 	
 	private final Map<Role,Map<ATermAppl,Set<Set<ATermAppl>>>> domainAssertions;
 	private final Map<Role,Map<ATermAppl,Set<Set<ATermAppl>>>> rangeAssertions;
@@ -525,6 +527,14 @@ public class RBox {
 
 	public void prepare() {
 
+		// assign ids to the new roles, ids of existing roles do not change so
+		// the transition tables built in earlier calls remain valid
+		for (Role role : roles.values()) {
+			if (role.getId() < 0) {
+				role.setId(roleCount++);
+			}
+		}
+
 		// first pass - compute sub roles
 		Set<Role> complexRoles = new HashSet<Role>();
 		for (Role role : roles.values()) {
@@ -676,6 +686,8 @@ public class RBox {
 			}
 		}
 
+		roleHierarchy = new RoleHierarchy(roles.values(), roleCount);
+
 		// we will compute the taxonomy when we need it
 		objectTaxonomy = null;
 		dataTaxonomy = null;
@@ -949,6 +961,26 @@ public class RBox {
 		return roles.values();
 	}
 
+	/**
+	 * Returns an upper bound for the ids of the roles in this RBox. All the
+	 * roles have an id less than this value after the RBox is prepared.
+	 * 
+	 * @return the number of ids assigned to roles
+	 */
+	public int getRoleIdBound() {
+		return roleCount;
+	}
+
+	/**
+	 * Returns the role hierarchy computed when this RBox was last prepared.
+	 * 
+	 * @return the role hierarchy or <code>null</code> if the RBox has not been
+	 *         prepared
+	 */
+	public RoleHierarchy getRoleHierarchy() {
+		return roleHierarchy;
+	}
+
 	public Taxonomy<ATermAppl> getObjectTaxonomy() {
 		if (objectTaxonomy == null) {
 			RoleTaxonomyBuilder builder = new RoleTaxonomyBuilder(this, PropertyType.OBJECT);
@@ -0,0 +1,297 @@
+// Copyright (c) 2006 - 2008, Clark & Parsia, LLC. <http://www.clarkparsia.com>
+// This source code is available under the terms of the Affero General Public License v3.
+//
+// Please see LICENSE.txt for full license terms, including the availability of proprietary exceptions.
+// Questions, comments, or requests for clarification: licensing@clarkparsia.com
+
+package org.mindswap.pellet;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.mindswap.pellet.exceptions.InternalReasonerException;
+import org.mindswap.pellet.tableau.cache.ConceptCache;
+import org.mindswap.pellet.tableau.cache.ConceptCacheFactory;
+import org.mindswap.pellet.utils.Timer;
+import org.mindswap.pellet.utils.Timers;
+
+import aterm.ATermAppl;
+
+/**
+ * <p>
+ * Title: Reasoner Worker Pool
+ * </p>
+ * <p>
+ * Description: A fixed size pool of threads where each thread runs tableau
+ * tests against its own copy of a consistent KB. Worker KBs share the TBox and
+ * RBox of the original KB but have their own ABox, concept cache, disjunction
+ * statistics and timers so no tableau state is ever shared between threads.
+ * If the original KB is already classified, workers also use its taxonomy to
+ * answer queries, which is safe as long as the tasks only read the taxonomy.
+ * The pool is created and driven from a single thread which is also the only
+ * thread allowed to touch the original KB while the pool is alive.
+ * </p>
+ * <p>
+ * Copyright: Copyright (c) 2008
+ * </p>
+ * <p>
+ * Company: Clark & Parsia, LLC. <http://www.clarkparsia.com>
+ * </p>
+ */
+public class ReasonerWorkerPool {
+	/**
+	 * A unit of work executed by the pool against one of the worker KBs.
+	 */
+	public interface Task<T> {
+		public T call(KnowledgeBase worker);
+	}
+
+	/**
+	 * How long (in milliseconds) the calling thread waits for a result before
+	 * checking its own timer again.
+	 */
+	private static final long			CHECK_INTERVAL	= 100;
+
+	private KnowledgeBase				kb;
+
+	private List<KnowledgeBase>			workers;
+
+	private BlockingQueue<KnowledgeBase>	idleWorkers;
+
+	private ExecutorService				executor;
+
+	/**
+	 * Create a pool with the given number of threads for the given KB. The KB
+	 * should already be consistent and should not be modified while the pool
+	 * is in use.
+	 *
+	 * @param kb
+	 *            the KB whose ABox will be copied for each worker
+	 * @param threadCount
+	 *            number of threads (and worker KBs) to create
+	 */
+	public ReasonerWorkerPool(KnowledgeBase kb, int threadCount) {
+		if( threadCount < 1 )
+			throw new IllegalArgumentException( "Invalid number of threads: " + threadCount );
+
+		this.kb = kb;
+
+		workers = new ArrayList<KnowledgeBase>( threadCount );
+		idleWorkers = new LinkedBlockingQueue<KnowledgeBase>();
+
+		for( int i = 0; i < threadCount; i++ ) {
+			KnowledgeBase worker = createWorker( kb );
+
+			workers.add( worker );
+			idleWorkers.add( worker );
+		}
+
+		executor = Executors.newFixedThreadPool( threadCount, new WorkerThreadFactory() );
+	}
+
+	/**
+	 * Create a copy of the KB that can be used by a different thread than the
+	 * one using the original KB. The copy has its own ABox, disjunction
+	 * statistics and timers and shares the taxonomy of the original KB if it
+	 * is already classified. A thread-safe concept cache is shared with the
+	 * original KB, otherwise the copy has its own cache initialized with the
+	 * contents of the original cache. The original KB is only read by this
+	 * function.
+	 */
+	static KnowledgeBase createWorker(KnowledgeBase kb) {
+		KnowledgeBase worker = kb.copy( false );
+
+		worker.timers = new Timers();
+		worker.timers.createTimer( "preprocessing" );
+		worker.timers.createTimer( "consistency" );
+		worker.timers.createTimer( "complete" );
+
+		// disjunction statistics are updated by every tableau test and the
+		// copy constructor of ABox shares the map with the original ABox
+		worker.getABox().setDisjBranchStats( new HashMap<ATermAppl, int[]>() );
+
+		ConceptCache cache = kb.getABox().getCache();
+		if( !ConceptCacheFactory.isThreadSafe( cache ) ) {
+			ConceptCache workerCache = ConceptCacheFactory.createConceptCache( worker, cache
+					.getMaxSize() );
+			workerCache.putAll( cache );
+			worker.getABox().setCache( workerCache );
+		}
+
+		if( kb.isClassified() ) {
+			worker.builder = kb.builder;
+			worker.state.add( KnowledgeBase.ReasoningState.CLASSIFY );
+		}
+
+		return worker;
+	}
+
+	/**
+	 * Returns the number of threads in this pool.
+	 */
+	public int getThreadCount() {
+		return workers.size();
+	}
+
+	/**
+	 * Returns the KB this pool was created for.
+	 */
+	public KnowledgeBase getKB() {
+		return kb;
+	}
+
+	/**
+	 * Run all the tasks in the pool and return the results in the same order
+	 * the tasks were given. The calling thread blocks until all the tasks are
+	 * finished but keeps checking the given timer so timeouts and interrupts
+	 * are still honored. If the timer check or one of the tasks fails, the
+	 * remaining tasks are cancelled and the exception is rethrown in the
+	 * calling thread.
+	 *
+	 * @param timerName
+	 *            name of the worker timer that will accumulate the time spent
+	 *            running these tasks
+	 * @param tasks
+	 *            tasks to run
+	 * @param checkTimer
+	 *            timer of the calling thread that will be checked while
+	 *            waiting, may be <code>null</code>
+	 * @return results of the tasks
+	 */
+	public <T> List<T> invokeAll(String timerName, List<? extends Task<T>> tasks, Timer checkTimer) {
+		if( tasks.isEmpty() )
+			return Collections.emptyList();
+
+		List<Future<T>> futures = new ArrayList<Future<T>>( tasks.size() );
+		for( Task<T> task : tasks ) {
+			futures.add( executor.submit( new WorkerCallable<T>( timerName, task ) ) );
+		}
+
+		List<T> results = new ArrayList<T>( tasks.size() );
+		try {
+			for( Future<T> future : futures ) {
+				results.add( waitFor( future, checkTimer ) );
+			}
+		} catch( RuntimeException e ) {
+			cancel( futures );
+			throw e;
+		} catch( Error e ) {
+			cancel( futures );
+			throw e;
+		}
+
+		return results;
+	}
+
+	private <T> T waitFor(Future<T> future, Timer checkTimer) {
+		while( true ) {
+			try {
+				return future.get( CHECK_INTERVAL, TimeUnit.MILLISECONDS );
+			} catch( java.util.concurrent.TimeoutException e ) {
+				if( checkTimer != null )
+					checkTimer.check();
+			} catch( InterruptedException e ) {
+				Thread.currentThread().interrupt();
+				throw new InternalReasonerException( "Interrupted while waiting for worker threads" );
+			} catch( ExecutionException e ) {
+				Throwable cause = e.getCause();
+				if( cause instanceof RuntimeException )
+					throw (RuntimeException) cause;
+				if( cause instanceof Error )
+					throw (Error) cause;
+				throw new InternalReasonerException( cause );
+			}
+		}
+	}
+
+	private <T> void cancel(List<Future<T>> futures) {
+		for( Future<T> future : futures ) {
+			future.cancel( false );
+		}
+
+		// stop the tableau tests that are still running
+		for( KnowledgeBase worker : workers ) {
+			worker.timers.interrupt();
+		}
+	}
+
+	/**
+	 * Copy the satisfiability results computed by the workers into the cache
+	 * of the original KB and share the combined results with all workers.
+	 * Should only be called when no tasks are running.
+	 */
+	public void mergeCaches() {
+		ConceptCache cache = kb.getABox().getCache();
+		for( KnowledgeBase worker : workers ) {
+			cache.putAll( worker.getABox().getCache() );
+		}
+		for( KnowledgeBase worker : workers ) {
+			worker.getABox().getCache().putAll( cache );
+		}
+	}
+
+	/**
+	 * Stop the worker threads and add the statistics collected by workers to
+	 * the timers of the original KB.
+	 */
+	public void shutdown() {
+		executor.shutdownNow();
+
+		for( KnowledgeBase worker : workers ) {
+			// wall time of the worker is not interesting, only the time
+			// spent in individual timers is added to the original KB
+			worker.timers.mainTimer.reset();
+			kb.timers.addAll( worker.timers );
+		}
+
+		workers.clear();
+		idleWorkers.clear();
+	}
+
+	private class WorkerCallable<T> implements Callable<T> {
+		private String	timerName;
+		private Task<T>	task;
+
+		public WorkerCallable(String timerName, Task<T> task) {
+			this.timerName = timerName;
+			this.task = task;
+		}
+
+		public T call() throws Exception {
+			KnowledgeBase worker = idleWorkers.take();
+			Timer timer = worker.timers.startTimer( timerName );
+			try {
+				return task.call( worker );
+			} finally {
+				timer.stop();
+				idleWorkers.add( worker );
+			}
+		}
+	}
+
+	static class WorkerThreadFactory implements ThreadFactory {
+		private static final AtomicInteger	poolCount	= new AtomicInteger();
+
+		private final AtomicInteger			threadCount	= new AtomicInteger();
+
+		private final String				prefix		= "pellet-worker-" + poolCount.incrementAndGet() + "-";
+
+		public Thread newThread(Runnable r) {
+			Thread thread = new Thread( r, prefix + threadCount.incrementAndGet() );
+			thread.setDaemon( true );
+			return thread;
+		}
+	}
+}
@@ -32,6 +32,7 @@
 package org.mindswap.pellet;
 
 
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -42,6 +43,7 @@ import org.mindswap.pellet.exceptions.InternalReasonerException;
 import org.mindswap.pellet.utils.ATermUtils;
 import org.mindswap.pellet.utils.SetUtils;
 import org.mindswap.pellet.utils.fsm.TransitionGraph;
+import org.mindswap.pellet.utils.fsm.TransitionTable;
 
 import com.clarkparsia.pellet.utils.CollectionUtils;
 import com.clarkparsia.pellet.utils.TermFactory;
@@ -90,6 +92,13 @@ public class Role {
 	private Set<Role> transitiveSubRoles = SetUtils.emptySet();
 
     private TransitionGraph<Role> tg;
+    private TransitionTable transitionTable;
+    
+    private int id = -1;
+    
+    private RoleHierarchy hierarchy;
+    private BitSet superRoleIds;
+    private BitSet subRoleIds;
 
     public static int TRANSITIVE     = 0x01;
     public static int FUNCTIONAL     = 0x02;
@@ -252,6 +261,7 @@ public class Role {
 			explainSub.put(r.getName(), ds);
 
 		subRoles = SetUtils.add( r, subRoles );
+		subRoleIds = null;
 		explainSub.put(r.getName(), ds);
 	}
 
@@ -289,6 +299,7 @@ public class Role {
 
     public void removeSubRole(Role r) {
         subRoles = SetUtils.remove( r, subRoles );
+        subRoleIds = null;
     }
 
 	/**
@@ -305,6 +316,7 @@ public class Role {
 
 	public void addSuperRole(Role r, DependencySet ds) {
         superRoles = SetUtils.add( r, superRoles );
+        superRoleIds = null;
         explainSup.put(r.getName(), ds);
 	}
 
@@ -473,10 +485,18 @@ public class Role {
 	}
 
 	public boolean isSubRoleOf(Role r) {
+		BitSet bits = superRoleIds;
+		if( bits != null && r.hierarchy == hierarchy )
+			return bits.get( r.id );
+
 		return superRoles.contains(r);
 	}
 
 	public boolean isSuperRoleOf(Role r) {
+		BitSet bits = subRoleIds;
+		if( bits != null && r.hierarchy == hierarchy )
+			return bits.get( r.id );
+
 		return subRoles.contains(r);
 	}
 
@@ -614,6 +634,7 @@ public class Role {
 	 */
     public void setSubRolesAndChains(Set<Role> subRoles, Set<ATermList> subRoleChains, Map<ATerm,DependencySet> dependencies) {
         this.subRoles = subRoles;
+        this.subRoleIds = null;
     	this.subRoleChains = subRoleChains;
         this.explainSub = dependencies;
     }
@@ -624,6 +645,7 @@ public class Role {
 	 */
 	public void setSuperRoles(Set<Role> superRoles) {
 		this.superRoles = superRoles;
+		this.superRoleIds = null;
 	}
 
 	/**
@@ -737,6 +759,49 @@ public class Role {
         return tg;
     }
 
+    public void setTransitionTable( TransitionTable transitionTable ) {
+        this.transitionTable = transitionTable;
+    }
+
+    /**
+     * Returns the compiled form of the automaton returned by {@link #getFSM()}.
+     * 
+     * @return the transition table for this role or <code>null</code> if this
+     *         role does not have an automaton
+     */
+    public TransitionTable getTransitionTable() {
+        return transitionTable;
+    }
+
+    /**
+     * Returns the id assigned to this role by the RBox when it is prepared. Ids
+     * are dense, small integers that can be used to index arrays.
+     * 
+     * @return the id of this role or <code>-1</code> if the RBox has not been
+     *         prepared since this role was created
+     */
+    public int getId() {
+        return id;
+    }
+
+    void setId( int id ) {
+        this.id = id;
+    }
+
+    /**
+     * Sets the bit sets of the sub and super role ids of this role that are
+     * used by {@link #isSubRoleOf(Role)} and {@link #isSuperRoleOf(Role)}.
+     */
+    void setHierarchy( RoleHierarchy hierarchy, BitSet superRoleIds, BitSet subRoleIds ) {
+        this.hierarchy = hierarchy;
+        this.superRoleIds = superRoleIds;
+        this.subRoleIds = subRoleIds;
+    }
+
+    int getFlags() {
+        return flags;
+    }
+
     /* Dependency Retreival */
 
     public DependencySet getExplainAsymmetric() {
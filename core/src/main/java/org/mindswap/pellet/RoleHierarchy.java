@@ -0,0 +1,188 @@
+// Copyright (c) 2006 - 2008, Clark & Parsia, LLC. <http://www.clarkparsia.com>
+// This source code is available under the terms of the Affero General Public License v3.
+//
+// Please see LICENSE.txt for full license terms, including the availability of proprietary exceptions.
+// Questions, comments, or requests for clarification: licensing@clarkparsia.com
+
+package org.mindswap.pellet;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * <p>
+ * Title: Role Hierarchy
+ * </p>
+ * <p>
+ * Description: A frozen copy of the role hierarchy of a prepared RBox where
+ * roles are identified by their ids (see {@link Role#getId()}). The sub and
+ * super roles of each role (including the role itself) are stored as bit sets
+ * and the characteristics of each role as a flag word using the flags defined
+ * in {@link Role}, e.g. {@link Role#FUNCTIONAL}. Each role also keeps a
+ * reference to its own bit sets so {@link Role#isSubRoleOf(Role)} and
+ * {@link Role#isSuperRoleOf(Role)} test a single bit instead of looking up a
+ * hash set.
+ * </p>
+ * <p>
+ * The hierarchy is a snapshot of the RBox at the time it is prepared. A role
+ * whose sub or super roles are modified afterwards stops using the bit sets
+ * until the RBox is prepared again.
+ * </p>
+ * <p>
+ * Copyright: Copyright (c) 2008
+ * </p>
+ * <p>
+ * Company: Clark & Parsia, LLC. <http://www.clarkparsia.com>
+ * </p>
+ */
+public class RoleHierarchy {
+	private final Role[]	roles;
+
+	private final BitSet[]	superRoles;
+
+	private final BitSet[]	subRoles;
+
+	private final int[]		characteristics;
+
+	/**
+	 * Creates the hierarchy for the given roles. All the roles should have an
+	 * id less than the given bound.
+	 *
+	 * @param roles
+	 *            the roles of a prepared RBox
+	 * @param idBound
+	 *            upper bound for the role ids
+	 */
+	RoleHierarchy(Collection<Role> roles, int idBound) {
+		this.roles = new Role[idBound];
+		this.superRoles = new BitSet[idBound];
+		this.subRoles = new BitSet[idBound];
+		this.characteristics = new int[idBound];
+
+		for( Role role : roles ) {
+			this.roles[role.getId()] = role;
+		}
+
+		for( Role role : roles ) {
+			int id = role.getId();
+			BitSet supers = toBits( role.getSuperRoles() );
+			BitSet subs = toBits( role.getSubRoles() );
+			if( supers == null || subs == null ) {
+				supers = new BitSet();
+				subs = new BitSet();
+				for( Role other : this.roles ) {
+					if( other != null ) {
+						if( role.isSubRoleOf( other ) )
+							supers.set( other.getId() );
+						if( role.isSuperRoleOf( other ) )
+							subs.set( other.getId() );
+					}
+				}
+				role.setHierarchy( this, null, null );
+			}
+			else {
+				role.setHierarchy( this, supers, subs );
+			}
+
+			superRoles[id] = supers;
+			subRoles[id] = subs;
+			characteristics[id] = role.getFlags();
+		}
+	}
+
+	private BitSet toBits(Collection<Role> roles) {
+		BitSet bits = new BitSet( this.roles.length );
+		for( Role role : roles ) {
+			int id = role.getId();
+			// the role keeps using its sets if they contain a role that is not
+			// in this hierarchy
+			if( id < 0 || id >= this.roles.length || this.roles[id] != role )
+				return null;
+
+			bits.set( id );
+		}
+
+		return bits;
+	}
+
+	/**
+	 * Returns an upper bound for the role ids in this hierarchy.
+	 */
+	public int size() {
+		return roles.length;
+	}
+
+	/**
+	 * Returns the role with the given id.
+	 *
+	 * @return the role with the given id or <code>null</code> if no role in
+	 *         the hierarchy has the id
+	 */
+	public Role getRole(int id) {
+		return roles[id];
+	}
+
+	public boolean isSubRoleOf(int sub, int sup) {
+		return superRoles[sub].get( sup );
+	}
+
+	public boolean isSubRoleOf(Role sub, Role sup) {
+		return isSubRoleOf( sub.getId(), sup.getId() );
+	}
+
+	/**
+	 * Returns the ids of the super roles of the role with the given id,
+	 * including the role itself. The returned set should not be modified.
+	 */
+	public BitSet getSuperRoleIds(int id) {
+		return superRoles[id];
+	}
+
+	/**
+	 * Returns the ids of the sub roles of the role with the given id,
+	 * including the role itself. The returned set should not be modified.
+	 */
+	public BitSet getSubRoleIds(int id) {
+		return subRoles[id];
+	}
+
+	public List<Role> getSuperRoles(int id) {
+		return toRoles( superRoles[id] );
+	}
+
+	public List<Role> getSubRoles(int id) {
+		return toRoles( subRoles[id] );
+	}
+
+	private List<Role> toRoles(BitSet bits) {
+		List<Role> result = new ArrayList<Role>( bits.cardinality() );
+		for( int i = bits.nextSetBit( 0 ); i >= 0; i = bits.nextSetBit( i + 1 ) ) {
+			result.add( roles[i] );
+		}
+
+		return result;
+	}
+
+	/**
+	 * Returns the characteristics of the role with the given id as a
+	 * combination of the flags defined in {@link Role}.
+	 */
+	public int getCharacteristics(int id) {
+		return characteristics[id];
+	}
+
+	/**
+	 * Checks if the role with the given id has all the given characteristics
+	 *
+	 * @param id
+	 *            id of the role
+	 * @param flags
+	 *            a combination of the flags defined in {@link Role}, e.g.
+	 *            <code>Role.FUNCTIONAL | Role.TRANSITIVE</code>
+	 */
+	public boolean hasCharacteristics(int id, int flags) {
+		return (characteristics[id] & flags) == flags;
+	}
+}
@@ -35,6 +35,7 @@ import java.util.logging.Logger;
 import org.mindswap.pellet.ABox;
 import org.mindswap.pellet.Clash;
 import org.mindswap.pellet.DependencySet;
+import org.mindswap.pellet.Individual;
 import org.mindswap.pellet.Node;
 import org.mindswap.pellet.PelletOptions;
 import org.mindswap.pellet.tableau.completion.CompletionStrategy;
@@ -88,6 +89,8 @@ public abstract class Branch {
     public void setLastClash( DependencySet ds ) {
     		if(getTryNext()>=0){
     			prevDS = prevDS.union( ds, abox.doExplanation() );
+    			if( NogoodStore.isEnabled( abox ) && !isClashOnBlockedNode() )
+    				abox.getNogoods().learn( ds );
     			if(PelletOptions.USE_INCREMENTAL_DELETION){
 	    			//CHW - added for incremental deletions support THIS SHOULD BE MOVED TO SUPER
 	    			abox.getKB().getDependencyIndex().addCloseBranchDependency(this, ds);		
@@ -95,6 +98,26 @@ public abstract class Branch {
     		}
     }
 	
+    /**
+     * Returns true if the current clash is on an individual that is blocked.
+     * Which rules are applied to a node depends on whether and by which node
+     * it is blocked, and that is not recorded in any dependency set, so the
+     * same decisions might not cause such a clash again. The blocking status
+     * last computed by the completion strategy is used because evaluating
+     * blocking again updates the status of the nodes in the middle of a clash.
+     */
+    private boolean isClashOnBlockedNode() {
+    	Clash clash = abox.getClash();
+    	if( clash == null )
+    		return false;
+
+    	Node node = clash.getNode();
+    	if( !(node instanceof Individual) || node.isPruned() )
+    		return false;
+
+    	return ((Individual) node).isBlocked();
+    }
+    
     public DependencySet getCombinedClash() {
         return prevDS;
     }
@@ -132,6 +155,14 @@ public abstract class Branch {
 	
 	public abstract Node getNode();
 	
+	/**
+	 * Returns the decision taken by the current try of this branch to be used
+	 * in nogoods or <code>null</code> if the decision cannot be described.
+	 */
+	public NogoodStore.Decision getDecision() {
+		return null;
+	}
+	
 	public String toString() {
 //		return "Branch " + branch + " (" + tryCount + ")";
 		return "Branch on node " + getNode() + "  Branch number: "+ getBranch() + " " + getTryNext() + "(" + getTryCount() + ")";
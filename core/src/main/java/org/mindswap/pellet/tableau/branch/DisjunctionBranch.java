@@ -129,6 +129,13 @@ public class DisjunctionBranch extends Branch {
     			prevDS[getTryNext()] = ds;
     }
     
+    public NogoodStore.Decision getDecision() {
+    	if(getTryNext() < 0 || getTryNext() >= getTryCount())
+    		return null;
+    	
+    	return NogoodStore.type(node, disj[getTryNext()]);
+    }
+    
 	protected void tryBranch() {			
 		abox.incrementBranch();
 		
@@ -207,6 +214,9 @@ public class DisjunctionBranch extends Branch {
 			
 			ATermAppl notD = ATermUtils.negate(d);
 			DependencySet clashDepends = PelletOptions.SATURATE_TABLEAU ? null : node.getDepends(notD);
+			// adding the disjunct would recreate a known nogood
+			if(clashDepends == null && NogoodStore.isEnabled(abox))
+				clashDepends = abox.getNogoods().check(NogoodStore.type(this.node, d));
 			if(clashDepends == null) {
 			    strategy.addType(node, d, ds);
 				// we may still find a clash if concept is allValuesFrom
@@ -182,6 +182,15 @@ public class MaxBranch extends IndividualBranch {
 	        		break;
 	        }
 			
+			if( NogoodStore.isEnabled( abox ) ) {
+				DependencySet nogoodDepends = abox.getNogoods().check( getDecision() );
+				if( nogoodDepends != null ) {
+					// merging the nodes would recreate a known nogood
+					setLastClash( nogoodDepends.union( ds, abox.doExplanation() ) );
+					continue;
+				}
+			}
+			
 			strategy.mergeTo(y, z, ds);
 
 //			abox.validate();
@@ -230,6 +239,14 @@ public class MaxBranch extends IndividualBranch {
         if(getTryNext()>=0)
         		prevDS[getTryNext()] = ds;
     }
+    
+    public NogoodStore.Decision getDecision() {
+    	if(getTryNext() < 0 || getTryNext() >= getTryCount())
+    		return null;
+    	
+    	NodeMerge nm = mergePairs.get(getTryNext());
+    	return NogoodStore.merge(abox.getNode(nm.getSource()), abox.getNode(nm.getTarget()));
+    }
 	
 	public String toString() {
 		if(getTryNext() < mergePairs.size())
@@ -0,0 +1,330 @@
+// Copyright (c) 2006 - 2008, Clark & Parsia, LLC. <http://www.clarkparsia.com>
+// This source code is available under the terms of the Affero General Public License v3.
+//
+// Please see LICENSE.txt for full license terms, including the availability of proprietary exceptions.
+// Questions, comments, or requests for clarification: licensing@clarkparsia.com
+
+package org.mindswap.pellet.tableau.branch;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.mindswap.pellet.ABox;
+import org.mindswap.pellet.DependencySet;
+import org.mindswap.pellet.Node;
+import org.mindswap.pellet.PelletOptions;
+import org.mindswap.pellet.utils.intset.IntIterator;
+
+import aterm.ATermAppl;
+
+/**
+ * <p>
+ * Title: Nogood Store
+ * </p>
+ * <p>
+ * Description: Stores the combinations of branch decisions that are known to
+ * cause a clash (nogoods). When a branch records a clash (see
+ * {@link Branch#setLastClash(DependencySet)}) the decisions currently taken by
+ * the branches in the clash dependency set are learned as a nogood. Before a
+ * disjunct is added or two nodes are merged the branches check if the choice
+ * together with the decisions that currently hold would recreate a known
+ * nogood, in which case the choice is pruned without being tried.
+ * </p>
+ * <p>
+ * Nogoods refer to the node objects of an ABox so they are never shared
+ * between ABox copies and they are discarded whenever the completion strategy
+ * is initialized. Learning is disabled if explanations are needed because a
+ * pruned choice does not have the axioms that explain the original clash.
+ * </p>
+ * <p>
+ * A clash dependency set only records the branches that added the clashing
+ * facts. It does not record whether a node is blocked, so clashes found on a
+ * blocked individual are not learned (see
+ * {@link Branch#setLastClash(DependencySet)}). The dependency sets of the
+ * nodes copied from a pseudo model refer to the branches of the pseudo model,
+ * so nothing is learned in a completion that starts from such a copy (see
+ * {@link #clear()}).
+ * </p>
+ * <p>
+ * Copyright: Copyright (c) 2008
+ * </p>
+ * <p>
+ * Company: Clark & Parsia, LLC. <http://www.clarkparsia.com>
+ * </p>
+ */
+public class NogoodStore {
+	public static final Logger	log				= Logger.getLogger( NogoodStore.class.getName() );
+
+	/**
+	 * Nogoods with more decisions are rarely recreated and are not learned
+	 */
+	private static final int	MAX_DECISIONS	= 8;
+
+	/**
+	 * Maximum number of nogoods stored for one completion
+	 */
+	private static final int	MAX_NOGOODS		= 10000;
+
+	/**
+	 * A decision taken by a branch: either a node has a type (a disjunct) or
+	 * two nodes are merged.
+	 */
+	public static class Decision {
+		private final Node		node;
+		private final ATermAppl	type;
+		private final Node		target;
+
+		private Decision(Node node, ATermAppl type, Node target) {
+			this.node = node;
+			this.type = type;
+			this.target = target;
+		}
+
+		private static boolean isAlive(ABox abox, Node node) {
+			return abox.getNode( node.getName() ) == node;
+		}
+
+		/**
+		 * Returns the dependency of this decision if it currently holds in the
+		 * ABox, <code>null</code> otherwise.
+		 */
+		DependencySet getDepends(ABox abox) {
+			if( !isAlive( abox, node ) )
+				return null;
+
+			if( type != null )
+				return node.getSame().getDepends( type );
+
+			if( !isAlive( abox, target ) || node.getSame() != target.getSame() )
+				return null;
+
+			DependencySet ds = node.getMergeDependency( true );
+			DependencySet targetDS = target.getMergeDependency( true );
+			if( ds == null )
+				return targetDS;
+			if( targetDS == null )
+				return ds;
+			return ds.union( targetDS, abox.doExplanation() );
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if( !(o instanceof Decision) )
+				return false;
+
+			Decision other = (Decision) o;
+			return node == other.node && type == other.type && target == other.target;
+		}
+
+		@Override
+		public int hashCode() {
+			int hash = node.hashCode();
+			if( type != null )
+				hash = 31 * hash + type.hashCode();
+			if( target != null )
+				hash = 31 * hash + target.hashCode();
+			return hash;
+		}
+
+		@Override
+		public String toString() {
+			return type != null
+				? node + ":" + type
+				: node + "->" + target;
+		}
+	}
+
+	private ABox						abox;
+
+	/**
+	 * Nogoods indexed by each of their decisions
+	 */
+	private Map<Decision, List<Decision[]>>	nogoods;
+
+	private int							size;
+
+	/**
+	 * False if the clashes found in the current completion might depend on
+	 * something that is not recorded in their dependency sets
+	 */
+	private boolean						learning;
+
+	public NogoodStore(ABox abox) {
+		this.abox = abox;
+		this.nogoods = new HashMap<Decision, List<Decision[]>>();
+		this.size = 0;
+		this.learning = true;
+	}
+
+	/**
+	 * Returns true if nogoods should be learned and applied in the given ABox
+	 * with the current options.
+	 */
+	public static boolean isEnabled(ABox abox) {
+		return PelletOptions.USE_NOGOOD_LEARNING && !PelletOptions.SATURATE_TABLEAU
+				&& !PelletOptions.USE_INCREMENTAL_DELETION && !abox.doExplanation();
+	}
+
+	/**
+	 * Create the decision of adding a type to a node.
+	 */
+	public static Decision type(Node node, ATermAppl type) {
+		return new Decision( node, type, null );
+	}
+
+	/**
+	 * Create the decision of merging a node to another node.
+	 */
+	public static Decision merge(Node source, Node target) {
+		return new Decision( source, null, target );
+	}
+
+	/**
+	 * Learn the decisions of the branches in the given clash dependency set as
+	 * a nogood. Nothing is learned if the clash depends on a branch that is
+	 * not a disjunction or a max cardinality merge or if learning has been
+	 * stopped for the current completion.
+	 */
+	public void learn(DependencySet clashDepends) {
+		if( !learning || size >= MAX_NOGOODS )
+			return;
+
+		List<Branch> branches = abox.getBranches();
+		Decision[] nogood = new Decision[clashDepends.size()];
+		int count = 0;
+		for( IntIterator i = clashDepends.getDepends().iterator(); i.hasNext(); ) {
+			int b = i.next();
+			if( b <= 0 )
+				continue;
+			if( b > branches.size() || count == MAX_DECISIONS )
+				return;
+
+			Decision decision = branches.get( b - 1 ).getDecision();
+			if( decision == null )
+				return;
+
+			nogood[count++] = decision;
+		}
+
+		if( count == 0 )
+			return;
+
+		nogood = Arrays.copyOf( nogood, count );
+		if( contains( nogood ) )
+			return;
+
+		for( Decision decision : nogood ) {
+			List<Decision[]> list = nogoods.get( decision );
+			if( list == null ) {
+				list = new ArrayList<Decision[]>( 2 );
+				nogoods.put( decision, list );
+			}
+			list.add( nogood );
+		}
+
+		size++;
+		abox.stats.nogoodsLearned++;
+
+		if( log.isLoggable( Level.FINE ) )
+			log.fine( "NOGOOD: " + Arrays.toString( nogood ) );
+	}
+
+	private boolean contains(Decision[] nogood) {
+		List<Decision[]> list = nogoods.get( nogood[0] );
+		if( list != null ) {
+			for( Decision[] other : list ) {
+				if( Arrays.equals( nogood, other ) )
+					return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Checks if taking the given decision would recreate a known nogood, i.e.
+	 * all the other decisions of the nogood currently hold. Returns the union
+	 * of the dependencies of the other decisions if that is the case,
+	 * <code>null</code> otherwise.
+	 */
+	public DependencySet check(Decision decision) {
+		List<Decision[]> list = nogoods.get( decision );
+		if( list == null )
+			return null;
+
+		for( Decision[] nogood : list ) {
+			DependencySet ds = DependencySet.EMPTY;
+			for( Decision other : nogood ) {
+				if( other.equals( decision ) )
+					continue;
+
+				DependencySet otherDS = other.getDepends( abox );
+				if( otherDS == null ) {
+					ds = null;
+					break;
+				}
+				ds = ds.union( otherDS, abox.doExplanation() );
+			}
+
+			if( ds != null ) {
+				abox.stats.nogoodsApplied++;
+
+				if( log.isLoggable( Level.FINE ) )
+					log.fine( "NOGOOD: Prune " + decision + " " + ds );
+
+				return ds;
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Stop learning nogoods until the store is cleared. The nogoods learned so
+	 * far are still used.
+	 */
+	public void stopLearning() {
+		if( learning && log.isLoggable( Level.FINE ) )
+			log.fine( "NOGOOD: Stop learning" );
+
+		learning = false;
+	}
+
+	/**
+	 * Returns true if clashes are currently learned as nogoods.
+	 */
+	public boolean isLearning() {
+		return learning;
+	}
+
+	/**
+	 * Discard all the nogoods. Learning starts again unless the ABox already
+	 * contains blockable nodes, i.e. it is a copy of a completed pseudo model.
+	 */
+	public void clear() {
+		if( size > 0 ) {
+			nogoods.clear();
+			size = 0;
+		}
+
+		learning = true;
+		for( Node node : abox.getNodes() ) {
+			if( node.isIndividual() && node.isBlockable() && !node.isMerged() && !node.isPruned() ) {
+				stopLearning();
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of nogoods stored.
+	 */
+	public int size() {
+		return size;
+	}
+}
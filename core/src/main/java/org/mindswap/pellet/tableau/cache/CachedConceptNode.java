@@ -74,6 +74,19 @@ public class CachedConceptNode implements CachedNode {
 		}
 	}
 
+	/**
+	 * Create a cached node from its components, e.g. when a persisted cache
+	 * is loaded (see {@link ConceptCachePersistence}).
+	 */
+	CachedConceptNode(ATermAppl name, EdgeList inEdges, EdgeList outEdges,
+			Map<ATermAppl, DependencySet> types, boolean isIndependent) {
+		this.name = name;
+		this.inEdges = inEdges;
+		this.outEdges = outEdges;
+		this.types = types;
+		this.isIndependent = isIndependent;
+	}
+
 	private void collectComplexPropertyValues(Individual subj) {
 		Set<Role> collected = new HashSet<Role>();
 		for( Edge edge : subj.getOutEdges() ) {
@@ -0,0 +1,48 @@
+// Copyright (c) 2006 - 2008, Clark & Parsia, LLC. <http://www.clarkparsia.com>
+// This source code is available under the terms of the Affero General Public License v3.
+//
+// Please see LICENSE.txt for full license terms, including the availability of proprietary exceptions.
+// Questions, comments, or requests for clarification: licensing@clarkparsia.com
+
+package org.mindswap.pellet.tableau.cache;
+
+import org.mindswap.pellet.KnowledgeBase;
+import org.mindswap.pellet.PelletOptions;
+
+/**
+ * <p>
+ * Title: Concept Cache Factory
+ * </p>
+ * <p>
+ * Description: Creates the concept cache selected by
+ * {@link PelletOptions#CONCEPT_CACHE}.
+ * </p>
+ * <p>
+ * Copyright: Copyright (c) 2008
+ * </p>
+ * <p>
+ * Company: Clark & Parsia, LLC. <http://www.clarkparsia.com>
+ * </p>
+ */
+public class ConceptCacheFactory {
+	public static ConceptCache createConceptCache(KnowledgeBase kb) {
+		return createConceptCache( kb, Integer.MAX_VALUE );
+	}
+
+	public static ConceptCache createConceptCache(KnowledgeBase kb, int maxSize) {
+		switch( PelletOptions.CONCEPT_CACHE ) {
+		case TINY_LFU:
+			return new ConceptCacheTinyLFU( kb, maxSize );
+		default:
+			return new ConceptCacheLRU( kb, maxSize );
+		}
+	}
+
+	/**
+	 * Returns true if the given cache can be used by multiple threads at the
+	 * same time.
+	 */
+	public static boolean isThreadSafe(ConceptCache cache) {
+		return cache instanceof ConceptCacheTinyLFU;
+	}
+}
@@ -0,0 +1,359 @@
+// Copyright (c) 2006 - 2008, Clark & Parsia, LLC. <http://www.clarkparsia.com>
+// This source code is available under the terms of the Affero General Public License v3.
+//
+// Please see LICENSE.txt for full license terms, including the availability of proprietary exceptions.
+// Questions, comments, or requests for clarification: licensing@clarkparsia.com
+
+package org.mindswap.pellet.tableau.cache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.mindswap.pellet.DependencySet;
+import org.mindswap.pellet.Edge;
+import org.mindswap.pellet.EdgeList;
+import org.mindswap.pellet.KnowledgeBase;
+import org.mindswap.pellet.Role;
+import org.mindswap.pellet.exceptions.InternalReasonerException;
+import org.mindswap.pellet.utils.ATermDataInputStream;
+import org.mindswap.pellet.utils.ATermDataOutputStream;
+
+import aterm.ATerm;
+import aterm.ATermAppl;
+
+import com.clarkparsia.pellet.utils.CollectionUtils;
+
+/**
+ * <p>
+ * Title: Concept Cache Persistence
+ * </p>
+ * <p>
+ * Description: Saves the satisfiability results and the pseudo models in the
+ * concept cache of a KB to a binary file and loads them into the concept
+ * cache of another KB, e.g. after the JVM is restarted, so the cached
+ * concepts do not need to be checked again. The file records a fingerprint
+ * of the TBox and RBox it was created for and it is only loaded if the
+ * fingerprint of the KB is the same. Each term is written once in the file
+ * and referred to by its index (see {@link ATermDataOutputStream}).
+ * </p>
+ * <p>
+ * The results for a KB with nominals depend on the individuals in the ABox so
+ * they are not saved.
+ * </p>
+ * <p>
+ * Copyright: Copyright (c) 2008
+ * </p>
+ * <p>
+ * Company: Clark & Parsia, LLC. <http://www.clarkparsia.com>
+ * </p>
+ */
+public class ConceptCachePersistence {
+	public static final Logger	log			= Logger.getLogger( ConceptCachePersistence.class
+													.getName() );
+
+	private static final int	MAGIC		= 0x50434331;
+
+	private static final int	VERSION		= 1;
+
+	private static final byte	TOP			= 0;
+	private static final byte	BOTTOM		= 1;
+	private static final byte	SATISFIABLE	= 2;
+	private static final byte	CONCEPT		= 3;
+
+	/**
+	 * Save the concept cache of the given KB to a file.
+	 */
+	public static void save(KnowledgeBase kb, File file) throws IOException {
+		OutputStream out = new FileOutputStream( file );
+		try {
+			save( kb, out );
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * Save the concept cache of the given KB to an output stream. The stream
+	 * is flushed but not closed.
+	 */
+	public static void save(KnowledgeBase kb, OutputStream outputStream) throws IOException {
+		kb.prepare();
+
+		List<Map.Entry<ATermAppl, CachedNode>> entries = new ArrayList<Map.Entry<ATermAppl, CachedNode>>();
+		if( !kb.getExpressivity().hasNominal() ) {
+			for( Map.Entry<ATermAppl, CachedNode> entry : kb.getABox().getCache().entrySet() ) {
+				CachedNode node = entry.getValue();
+				if( node instanceof CachedConstantNode || node instanceof CachedConceptNode )
+					entries.add( entry );
+			}
+		}
+
+		ATermDataOutputStream out = new ATermDataOutputStream( new BufferedOutputStream(
+				outputStream ) );
+
+		out.writeInt( MAGIC );
+		out.writeInt( VERSION );
+		byte[] fingerprint = computeFingerprint( kb );
+		out.writeInt( fingerprint.length );
+		out.write( fingerprint );
+
+		out.writeInt( entries.size() );
+		for( Map.Entry<ATermAppl, CachedNode> entry : entries ) {
+			CachedNode node = entry.getValue();
+
+			out.writeTerm( entry.getKey() );
+			if( node.isTop() )
+				out.writeByte( TOP );
+			else if( node.isBottom() )
+				out.writeByte( BOTTOM );
+			else if( !node.isComplete() )
+				out.writeByte( SATISFIABLE );
+			else {
+				out.writeByte( CONCEPT );
+				out.writeBoolean( node.isIndependent() );
+
+				Map<ATermAppl, DependencySet> types = node.getDepends();
+				out.writeInt( types.size() );
+				for( Map.Entry<ATermAppl, DependencySet> type : types.entrySet() ) {
+					out.writeTerm( type.getKey() );
+					out.writeBoolean( type.getValue().isIndependent() );
+				}
+
+				writeEdges( out, node.getOutEdges(), true );
+				writeEdges( out, node.getInEdges(), false );
+			}
+		}
+
+		out.flush();
+
+		if( log.isLoggable( Level.FINE ) )
+			log.fine( "Saved " + entries.size() + " cached concepts" );
+	}
+
+	/**
+	 * Load the concept cache saved in a file into the concept cache of the
+	 * given KB.
+	 *
+	 * @return <code>true</code> if the cache was loaded, <code>false</code>
+	 *         if the cache was saved for a different TBox or RBox
+	 */
+	public static boolean load(KnowledgeBase kb, File file) throws IOException {
+		InputStream in = new FileInputStream( file );
+		try {
+			return load( kb, in );
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Load the concept cache saved in an input stream into the concept cache
+	 * of the given KB. The loaded concepts do not replace the concepts that
+	 * are already in the cache. The KB is prepared before the cache is loaded
+	 * because preparing a changed KB clears the cache.
+	 *
+	 * @return <code>true</code> if the cache was loaded, <code>false</code>
+	 *         if the cache was saved for a different TBox or RBox
+	 */
+	public static boolean load(KnowledgeBase kb, InputStream inputStream) throws IOException {
+		kb.prepare();
+
+		ATermDataInputStream in = new ATermDataInputStream( new BufferedInputStream( inputStream ) );
+
+		if( in.readInt() != MAGIC )
+			throw new IOException( "Not a concept cache file" );
+
+		if( in.readInt() != VERSION ) {
+			log.fine( "Concept cache file has a different version" );
+			return false;
+		}
+
+		byte[] fingerprint = new byte[in.readInt()];
+		in.readFully( fingerprint );
+		if( !Arrays.equals( fingerprint, computeFingerprint( kb ) ) ) {
+			log.fine( "Concept cache file was saved for a different TBox or RBox" );
+			return false;
+		}
+
+		ConceptCache cache = kb.getABox().getCache();
+		int count = in.readInt();
+		for( int i = 0; i < count; i++ ) {
+			ATermAppl c = in.readAppl();
+
+			CachedNode node;
+			byte type = in.readByte();
+			switch( type ) {
+			case TOP:
+				node = CachedNodeFactory.createTopNode();
+				break;
+			case BOTTOM:
+				node = CachedNodeFactory.createBottomNode();
+				break;
+			case SATISFIABLE:
+				node = CachedNodeFactory.createSatisfiableNode();
+				break;
+			case CONCEPT:
+				boolean isIndependent = in.readBoolean();
+
+				int typeCount = in.readInt();
+				Map<ATermAppl, DependencySet> types = CollectionUtils.makeIdentityMap( typeCount );
+				for( int j = 0; j < typeCount; j++ ) {
+					ATermAppl t = in.readAppl();
+					types.put( t, readDepends( in ) );
+				}
+
+				EdgeList outEdges = readEdges( in, kb, true );
+				EdgeList inEdges = readEdges( in, kb, false );
+
+				node = new CachedConceptNode( c, inEdges, outEdges, types, isIndependent );
+				break;
+			default:
+				throw new IOException( "Unknown cached node type " + type );
+			}
+
+			if( !cache.containsKey( c ) )
+				cache.put( c, node );
+		}
+
+		if( log.isLoggable( Level.FINE ) )
+			log.fine( "Loaded " + count + " cached concepts" );
+
+		return true;
+	}
+
+	/**
+	 * Computes a fingerprint of the TBox axioms, the role definitions and the
+	 * expressivity of the given KB.
+	 */
+	public static byte[] computeFingerprint(KnowledgeBase kb) {
+		List<String> axioms = new ArrayList<String>();
+		for( ATermAppl axiom : kb.getTBox().getAxioms() ) {
+			axioms.add( axiom.toString() );
+		}
+		Collections.sort( axioms );
+
+		List<String> roles = new ArrayList<String>();
+		for( Role role : kb.getRBox().getRoles() ) {
+			roles.add( toString( role ) );
+		}
+		Collections.sort( roles );
+
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance( "SHA-1" );
+		} catch( NoSuchAlgorithmException e ) {
+			throw new InternalReasonerException( e );
+		}
+
+		update( digest, axioms );
+		update( digest, roles );
+		update( digest, Collections.singletonList( kb.getExpressivity().toString() ) );
+
+		return digest.digest();
+	}
+
+	private static void update(MessageDigest digest, List<String> strings) {
+		try {
+			for( String s : strings ) {
+				digest.update( s.getBytes( "UTF-8" ) );
+				digest.update( (byte) 0 );
+			}
+			digest.update( (byte) 0 );
+		} catch( java.io.UnsupportedEncodingException e ) {
+			throw new InternalReasonerException( e );
+		}
+	}
+
+	private static String toString(Role role) {
+		StringBuilder sb = new StringBuilder();
+		sb.append( role.getName() ).append( ' ' ).append( role.getType() );
+		sb.append( ' ' ).append( role.isTransitive() ).append( role.isReflexive() ).append(
+				role.isIrreflexive() ).append( role.isSymmetric() ).append( role.isAsymmetric() )
+				.append( role.isFunctional() ).append( role.isInverseFunctional() );
+		if( role.getInverse() != null )
+			sb.append( " inv " ).append( role.getInverse().getName() );
+		sb.append( " sub " ).append( sortedNames( role.getSubRoles() ) );
+		sb.append( " disjoint " ).append( sortedNames( role.getDisjointRoles() ) );
+		sb.append( " chains " ).append( sortedStrings( role.getSubRoleChains() ) );
+		sb.append( " domain " ).append( sortedStrings( role.getDomains() ) );
+		sb.append( " range " ).append( sortedStrings( role.getRanges() ) );
+
+		return sb.toString();
+	}
+
+	private static List<String> sortedNames(Iterable<Role> roles) {
+		List<String> names = new ArrayList<String>();
+		for( Role role : roles ) {
+			names.add( role.getName().toString() );
+		}
+		Collections.sort( names );
+
+		return names;
+	}
+
+	private static List<String> sortedStrings(Iterable<? extends ATerm> terms) {
+		List<String> strings = new ArrayList<String>();
+		if( terms != null ) {
+			for( ATerm term : terms ) {
+				strings.add( term.toString() );
+			}
+		}
+		Collections.sort( strings );
+
+		return strings;
+	}
+
+	private static void writeEdges(ATermDataOutputStream out, EdgeList edges, boolean isOut)
+			throws IOException {
+		out.writeInt( edges.size() );
+		for( Edge edge : edges ) {
+			out.writeTerm( edge.getRole().getName() );
+			out.writeTerm( isOut
+				? edge.getToName()
+				: edge.getFromName() );
+			out.writeBoolean( edge.getDepends().isIndependent() );
+		}
+	}
+
+	private static EdgeList readEdges(ATermDataInputStream in, KnowledgeBase kb, boolean isOut)
+			throws IOException {
+		int size = in.readInt();
+		EdgeList edges = new EdgeList( size );
+		for( int i = 0; i < size; i++ ) {
+			ATerm roleName = in.readTerm();
+			ATermAppl neighbor = in.readAppl();
+			DependencySet ds = readDepends( in );
+
+			Role role = kb.getRole( roleName );
+			if( role == null )
+				throw new IOException( "Unknown role " + roleName );
+
+			edges.addEdge( isOut
+				? new CachedOutEdge( role, neighbor, ds )
+				: new CachedInEdge( role, neighbor, ds ) );
+		}
+
+		return edges;
+	}
+
+	private static DependencySet readDepends(ATermDataInputStream in) throws IOException {
+		return in.readBoolean()
+			? DependencySet.INDEPENDENT
+			: DependencySet.DUMMY;
+	}
+}
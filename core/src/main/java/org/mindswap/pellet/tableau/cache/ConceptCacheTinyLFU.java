@@ -0,0 +1,286 @@
+// Copyright (c) 2006 - 2008, Clark & Parsia, LLC. <http://www.clarkparsia.com>
+// This source code is available under the terms of the Affero General Public License v3.
+//
+// Please see LICENSE.txt for full license terms, including the availability of proprietary exceptions.
+// Questions, comments, or requests for clarification: licensing@clarkparsia.com
+
+package org.mindswap.pellet.tableau.cache;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.mindswap.pellet.KnowledgeBase;
+import org.mindswap.pellet.utils.ATermUtils;
+
+import aterm.ATermAppl;
+
+/**
+ * <p>
+ * Title: Concept Cache TinyLFU
+ * </p>
+ * <p>
+ * Description: Thread-safe implementation of ConceptCache with a frequency
+ * based admission policy. Primitive concepts and their negation are always
+ * kept in the cache. When the max size is reached a new complex concept is
+ * only admitted if it has been accessed more frequently (see
+ * {@link FrequencySketch}) than the oldest complex concept in the cache which
+ * is then evicted. Otherwise the new concept is not cached and the oldest
+ * concept is moved to the end of the eviction queue. Concepts that are looked
+ * up often therefore stay in the cache while concepts seen only once do not
+ * push them out.
+ * </p>
+ * <p>
+ * Lookups do not lock. Adding a complex concept that is not already cached and
+ * removing a concept lock the eviction queue. Reducing the max size takes
+ * effect when the next complex concept is added.
+ * </p>
+ * <p>
+ * Copyright: Copyright (c) 2008
+ * </p>
+ * <p>
+ * Company: Clark & Parsia, LLC. <http://www.clarkparsia.com>
+ * </p>
+ */
+public class ConceptCacheTinyLFU extends AbstractConceptCache implements ConceptCache {
+	private Map<ATermAppl, CachedNode>	primitive;
+	private Map<ATermAppl, CachedNode>	nonPrimitive;
+
+	/**
+	 * Complex concepts in the order they were admitted, guarded by itself
+	 */
+	private LinkedHashSet<ATermAppl>	queue;
+
+	private volatile FrequencySketch	sketch;
+
+	private CacheSafety					cacheSafety;
+
+	private AtomicLong					hits;
+	private AtomicLong					misses;
+	private AtomicLong					evictions;
+	private AtomicLong					rejections;
+
+	/**
+	 * Creates an empty cache with no size restrictions
+	 */
+	public ConceptCacheTinyLFU(KnowledgeBase kb) {
+		this( kb, Integer.MAX_VALUE );
+	}
+
+	/**
+	 * Creates an empty cache with at most <code>maxSize</code> elements which
+	 * are neither named or negations of names.
+	 *
+	 * @param maxSize
+	 */
+	public ConceptCacheTinyLFU(KnowledgeBase kb, int maxSize) {
+		super( maxSize );
+
+		cacheSafety = CacheSafetyFactory.createCacheSafety( kb.getExpressivity() );
+
+		primitive = new ConcurrentHashMap<ATermAppl, CachedNode>();
+		nonPrimitive = new ConcurrentHashMap<ATermAppl, CachedNode>();
+		queue = new LinkedHashSet<ATermAppl>();
+		sketch = new FrequencySketch( maxSize );
+
+		hits = new AtomicLong();
+		misses = new AtomicLong();
+		evictions = new AtomicLong();
+		rejections = new AtomicLong();
+	}
+
+	public CacheSafety getSafety() {
+		return cacheSafety;
+	}
+
+	@Override
+	public void setMaxSize(int maxSize) {
+		if( maxSize != getMaxSize() ) {
+			super.setMaxSize( maxSize );
+			sketch = new FrequencySketch( maxSize );
+		}
+	}
+
+	public void clear() {
+		synchronized( queue ) {
+			primitive.clear();
+			nonPrimitive.clear();
+			queue.clear();
+		}
+	}
+
+	public boolean containsKey(Object key) {
+		return primitive.containsKey( key ) || nonPrimitive.containsKey( key );
+	}
+
+	public boolean containsValue(Object value) {
+		return primitive.containsValue( value ) || nonPrimitive.containsValue( value );
+	}
+
+	public Set<java.util.Map.Entry<ATermAppl, CachedNode>> entrySet() {
+		Set<java.util.Map.Entry<ATermAppl, CachedNode>> returnSet;
+		returnSet = new HashSet<java.util.Map.Entry<ATermAppl, CachedNode>>( primitive.entrySet() );
+		returnSet.addAll( nonPrimitive.entrySet() );
+		return returnSet;
+	}
+
+	public CachedNode get(Object key) {
+		CachedNode node = primitive.get( key );
+		if( node == null ) {
+			sketch.increment( key );
+			node = nonPrimitive.get( key );
+		}
+
+		if( node != null )
+			hits.incrementAndGet();
+		else
+			misses.incrementAndGet();
+
+		return node;
+	}
+
+	public boolean isEmpty() {
+		return primitive.isEmpty() && nonPrimitive.isEmpty();
+	}
+
+	public Set<ATermAppl> keySet() {
+		Set<ATermAppl> keys = new HashSet<ATermAppl>( primitive.keySet() );
+		keys.addAll( nonPrimitive.keySet() );
+		return keys;
+	}
+
+	public CachedNode put(ATermAppl key, CachedNode value) {
+		if( ATermUtils.isPrimitiveOrNegated( key ) )
+			return primitive.put( key, value );
+
+		FrequencySketch sketch = this.sketch;
+		sketch.increment( key );
+
+		synchronized( queue ) {
+			CachedNode prev = nonPrimitive.get( key );
+			if( prev != null ) {
+				nonPrimitive.put( key, value );
+				return prev;
+			}
+
+			int maxSize = getMaxSize();
+			if( maxSize <= 0 ) {
+				rejections.incrementAndGet();
+				return null;
+			}
+
+			int frequency = sketch.frequency( key );
+			while( nonPrimitive.size() >= maxSize ) {
+				Iterator<ATermAppl> i = queue.iterator();
+				ATermAppl victim = i.next();
+				i.remove();
+
+				if( frequency > sketch.frequency( victim ) ) {
+					nonPrimitive.remove( victim );
+					evictions.incrementAndGet();
+				}
+				else {
+					// give the next concept in the queue a chance to be evicted
+					queue.add( victim );
+					rejections.incrementAndGet();
+					return null;
+				}
+			}
+
+			queue.add( key );
+			nonPrimitive.put( key, value );
+		}
+
+		return null;
+	}
+
+	public void putAll(Map<? extends ATermAppl, ? extends CachedNode> t) {
+		for( java.util.Map.Entry<? extends ATermAppl, ? extends CachedNode> entry : t.entrySet() ) {
+			put( entry.getKey(), entry.getValue() );
+		}
+	}
+
+	public CachedNode remove(Object key) {
+		CachedNode prev = primitive.remove( key );
+		if( prev != null )
+			return prev;
+
+		synchronized( queue ) {
+			queue.remove( key );
+			return nonPrimitive.remove( key );
+		}
+	}
+
+	public int size() {
+		return primitive.size() + nonPrimitive.size();
+	}
+
+	public Collection<CachedNode> values() {
+		Set<CachedNode> valueSet = new HashSet<CachedNode>( primitive.values() );
+		valueSet.addAll( nonPrimitive.values() );
+		return valueSet;
+	}
+
+	/**
+	 * Returns the number of lookups that found a cached concept.
+	 */
+	public long getHitCount() {
+		return hits.get();
+	}
+
+	/**
+	 * Returns the number of lookups that did not find a cached concept.
+	 */
+	public long getMissCount() {
+		return misses.get();
+	}
+
+	/**
+	 * Returns the number of complex concepts removed from the cache to admit
+	 * a more frequently used concept.
+	 */
+	public long getEvictionCount() {
+		return evictions.get();
+	}
+
+	/**
+	 * Returns the number of complex concepts that were not cached because the
+	 * cache was full and the concept was not used frequently enough.
+	 */
+	public long getRejectionCount() {
+		return rejections.get();
+	}
+
+	/**
+	 * Returns the ratio of lookups that found a cached concept or 0 if there
+	 * has been no lookup.
+	 */
+	public double getHitRate() {
+		long hitCount = hits.get();
+		long total = hitCount + misses.get();
+		return total == 0
+			? 0
+			: (double) hitCount / total;
+	}
+
+	/**
+	 * Reset the hit, miss, eviction and rejection counts.
+	 */
+	public void resetStats() {
+		hits.set( 0 );
+		misses.set( 0 );
+		evictions.set( 0 );
+		rejections.set( 0 );
+	}
+
+	public String toString() {
+		return "[Cache size: " + primitive.size() + "," + nonPrimitive.size() + " hits: " + hits
+				+ " misses: " + misses + " evictions: " + evictions + " rejections: " + rejections
+				+ "]";
+	}
+}
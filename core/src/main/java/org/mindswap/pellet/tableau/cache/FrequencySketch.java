@@ -0,0 +1,123 @@
+// Copyright (c) 2006 - 2008, Clark & Parsia, LLC. <http://www.clarkparsia.com>
+// This source code is available under the terms of the Affero General Public License v3.
+//
+// Please see LICENSE.txt for full license terms, including the availability of proprietary exceptions.
+// Questions, comments, or requests for clarification: licensing@clarkparsia.com
+
+package org.mindswap.pellet.tableau.cache;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * <p>
+ * Title: Frequency Sketch
+ * </p>
+ * <p>
+ * Description: Approximate access frequency of the keys of a cache (a count-min
+ * sketch with small saturating counters). Each key is mapped to
+ * {@link #DEPTH} counters and its frequency is the minimum of those counters.
+ * After a number of increments proportional to the size of the sketch all the
+ * counters are halved so the frequencies reflect the recent accesses. The
+ * counters are updated without locking and concurrent updates may
+ * occasionally be lost which only makes the estimates less accurate.
+ * </p>
+ * <p>
+ * Copyright: Copyright (c) 2008
+ * </p>
+ * <p>
+ * Company: Clark & Parsia, LLC. <http://www.clarkparsia.com>
+ * </p>
+ */
+class FrequencySketch {
+	/**
+	 * Number of counters each key is mapped to
+	 */
+	private static final int	DEPTH			= 4;
+
+	/**
+	 * Counters saturate at this value
+	 */
+	private static final int	MAX_COUNT		= 15;
+
+	/**
+	 * Maximum number of counters in the sketch
+	 */
+	private static final int	MAX_WIDTH		= 1 << 16;
+
+	private static final int[]	SEEDS			= { 0x97cb3127, 0xb2ceb5b5, 0x85ebca6b, 0xc2b2ae35 };
+
+	private final AtomicIntegerArray	table;
+
+	private final int					mask;
+
+	private final int					sampleSize;
+
+	private final AtomicInteger			additions;
+
+	/**
+	 * Create a sketch for a cache with the given maximum number of entries.
+	 */
+	public FrequencySketch(int maxSize) {
+		int width = 64;
+		while( width < maxSize && width < MAX_WIDTH )
+			width <<= 1;
+
+		table = new AtomicIntegerArray( width );
+		mask = width - 1;
+		sampleSize = 10 * width;
+		additions = new AtomicInteger();
+	}
+
+	private int index(int hash, int i) {
+		int h = (hash ^ SEEDS[i]) * SEEDS[i];
+		h ^= h >>> 16;
+		return h & mask;
+	}
+
+	private static int spread(Object key) {
+		int h = key.hashCode();
+		h ^= (h >>> 20) ^ (h >>> 12);
+		return h ^ (h >>> 7) ^ (h >>> 4);
+	}
+
+	/**
+	 * Record an access to the given key.
+	 */
+	public void increment(Object key) {
+		int hash = spread( key );
+		boolean added = false;
+		for( int i = 0; i < DEPTH; i++ ) {
+			int index = index( hash, i );
+			int count = table.get( index );
+			if( count < MAX_COUNT && table.compareAndSet( index, count, count + 1 ) )
+				added = true;
+		}
+
+		if( added && additions.incrementAndGet() >= sampleSize )
+			reset();
+	}
+
+	/**
+	 * Returns the estimated number of recent accesses to the given key.
+	 */
+	public int frequency(Object key) {
+		int hash = spread( key );
+		int frequency = MAX_COUNT;
+		for( int i = 0; i < DEPTH; i++ ) {
+			frequency = Math.min( frequency, table.get( index( hash, i ) ) );
+		}
+
+		return frequency;
+	}
+
+	/**
+	 * Halve all the counters so old accesses count less than the recent ones.
+	 */
+	private void reset() {
+		additions.set( 0 );
+		for( int i = 0, n = table.length(); i < n; i++ ) {
+			table.set( i, table.get( i ) >>> 1 );
+		}
+	}
+}
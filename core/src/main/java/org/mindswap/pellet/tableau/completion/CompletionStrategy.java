@@ -11,7 +11,9 @@ import static com.clarkparsia.pellet.utils.TermFactory.TOP_OBJECT_PROPERTY;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -35,6 +37,7 @@ import org.mindswap.pellet.tableau.blocking.Blocking;
 import org.mindswap.pellet.tableau.blocking.BlockingFactory;
 import org.mindswap.pellet.tableau.branch.Branch;
 import org.mindswap.pellet.tableau.branch.GuessBranch;
+import org.mindswap.pellet.tableau.branch.NogoodStore;
 import org.mindswap.pellet.tableau.completion.queue.NodeSelector;
 import org.mindswap.pellet.tableau.completion.queue.QueueElement;
 import org.mindswap.pellet.tableau.completion.rule.AllValuesRule;
@@ -61,6 +64,7 @@ import aterm.ATermAppl;
 import aterm.ATermList;
 
 import com.clarkparsia.pellet.expressivity.Expressivity;
+import com.clarkparsia.pellet.impl.TrailBranchEffectTracker;
 import com.clarkparsia.pellet.rules.model.DifferentIndividualsAtom;
 import com.clarkparsia.pellet.rules.model.Rule;
 import com.clarkparsia.pellet.rules.model.RuleAtom;
@@ -269,6 +273,12 @@ public abstract class CompletionStrategy {
 			branch.setStrategy(this);
 		}
 
+		// nogoods learned in a previous completion might refer to nodes that
+		// have been changed since
+		if (NogoodStore.isEnabled(abox)) {
+			abox.getNogoods().clear();
+		}
+
 		if (abox.isInitialized()) {
 
 			Iterator<Individual> i = getInitializeIterator();
@@ -1117,6 +1127,20 @@ public abstract class CompletionStrategy {
 			abox.getIncrementalChangeTracker().clear();
 		}
 
+		if (PelletOptions.TRACK_BRANCH_EFFECTS && abox.getBranchEffectTracker() instanceof TrailBranchEffectTracker) {
+			restoreTrail(br.getBranch());
+
+			if (log.isLoggable(Level.FINE)) {
+				abox.printTree();
+			}
+
+			if (!abox.isClosed()) {
+				abox.validate();
+			}
+
+			return;
+		}
+
 		// for each node we either need to restore the node to the status it
 		// had at the time branch was created or remove the node completely if
 		// it was created after the branch. To optimize removing elements from
@@ -1203,6 +1227,107 @@ public abstract class CompletionStrategy {
 		// timer.stop();
 	}
 
+	/**
+	 * Restore the ABox by undoing the part of the branch effect trail recorded
+	 * after the given branch. Only the nodes in the trail are visited: the ones
+	 * created after the branch are removed, the others are restored and the all
+	 * values rule is reapplied to them and their neighbors. The trail does not
+	 * record the individual changes so each restored node is still scanned in
+	 * full by {@link Node#restore(int)}.
+	 */
+	protected void restoreTrail(int branch) {
+		Set<ATermAppl> effected = abox.getBranchEffectTracker().removeAll(branch + 1);
+		Set<ATermAppl> removed = new HashSet<ATermAppl>();
+		List<Node> restored = new ArrayList<Node>(effected.size());
+		for (ATermAppl a : effected) {
+			Node node = abox.getNode(a);
+			if (node == null) {
+				continue;
+			}
+
+			// use the same test as the full restore to find the nodes created
+			// after the branch
+			if (node.getNodeDepends() == null || node.getNodeDepends().getBranch() > branch) {
+				abox.removeNode(a);
+				if (node.isMerged()) {
+					node.undoSetSame();
+				}
+				removed.add(a);
+			}
+			else {
+				restored.add(node);
+			}
+		}
+
+		for (Node node : restored) {
+			node.restore(branch);
+			// a literal whose value branch is restored has no references left
+			// (the full restore removes such literals when it next visits them)
+			if (node.getNodeDepends() == null) {
+				abox.removeNode(node.getName());
+				removed.add(node.getName());
+			}
+		}
+
+		if (!removed.isEmpty()) {
+			removeNodeNames(removed);
+		}
+
+		Set<Individual> allValuesNodes = new LinkedHashSet<Individual>();
+		for (Node node : restored) {
+			if (removed.contains(node.getName())) {
+				continue;
+			}
+
+			if (node.isIndividual()) {
+				Individual ind = (Individual) node;
+				allValuesNodes.add(ind);
+				for (Edge edge : ind.getOutEdges()) {
+					if (edge.getTo().isIndividual()) {
+						allValuesNodes.add((Individual) edge.getTo());
+					}
+				}
+			}
+			for (Edge edge : node.getInEdges()) {
+				allValuesNodes.add(edge.getFrom());
+			}
+		}
+
+		for (Individual ind : allValuesNodes) {
+			if (!ind.isPruned() && abox.getNode(ind.getName()) == ind) {
+				allValuesRule.apply(ind);
+			}
+		}
+	}
+
+	private void removeNodeNames(Set<ATermAppl> removed) {
+		List<ATermAppl> nodeList = abox.getNodeNames();
+		int size = nodeList.size();
+
+		// nodes created after the branch are found near the end of the list
+		// so search backwards for the first position that needs to change
+		int from = size;
+		for (int count = removed.size(); count > 0 && from > 0;) {
+			if (removed.contains(nodeList.get(--from))) {
+				count--;
+			}
+		}
+
+		int to = from;
+		for (int i = from; i < size; i++) {
+			ATermAppl a = nodeList.get(i);
+			if (!removed.contains(a)) {
+				nodeList.set(to++, a);
+			}
+		}
+
+		if (log.isLoggable(Level.FINE)) {
+			log.fine("Remove nodes " + removed);
+		}
+
+		nodeList.subList(to, size).clear();
+	}
+
 	public void addBranch(Branch newBranch) {
 		abox.getBranches().add(newBranch);
 
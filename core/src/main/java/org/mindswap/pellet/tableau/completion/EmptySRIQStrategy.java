@@ -543,6 +543,8 @@ public class EmptySRIQStrategy extends CompletionStrategy {
 		boolean branchFound = false;
 
 		abox.stats.backtracks++;
+		if( abox.getKB().getRuleStats().isEnabled() )
+			abox.getKB().getRuleStats().backtrack( abox );
 		
 		while( !branchFound ) {
 			completionTimer.check();
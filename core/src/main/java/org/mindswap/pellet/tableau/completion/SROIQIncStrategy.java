@@ -49,6 +49,7 @@ import org.mindswap.pellet.PelletOptions;
 import org.mindswap.pellet.Role;
 import org.mindswap.pellet.tableau.blocking.BlockingFactory;
 import org.mindswap.pellet.tableau.branch.Branch;
+import org.mindswap.pellet.tableau.branch.NogoodStore;
 import org.mindswap.pellet.tableau.completion.queue.NodeSelector;
 import org.mindswap.pellet.tableau.completion.queue.QueueElement;
 import org.mindswap.pellet.utils.ATermUtils;
@@ -162,6 +163,10 @@ public class SROIQIncStrategy extends SROIQStrategy {
 			branch.setStrategy(this);
 		}
 
+		if (NogoodStore.isEnabled(abox)) {
+			abox.getNogoods().clear();
+		}
+
 		// if this is an incremental addition we may need to merge nodes and
 		// handle newly added individuals
 
@@ -45,6 +45,8 @@ public class SROIQStrategy extends CompletionStrategy {
 	protected boolean backtrack() {
 		boolean branchFound = false;
 		abox.stats.backtracks++;
+		if( abox.getKB().getRuleStats().isEnabled() )
+			abox.getKB().getRuleStats().backtrack( abox );
 		while( !branchFound ) {
 			completionTimer.check();
 
@@ -40,6 +40,9 @@ public abstract class AbstractTableauRule implements TableauRule {
     protected CompletionStrategy strategy;
     protected NodeSelector nodeSelector;
     protected BlockingType blockingType;
+    
+    private TableauRuleStats stats;
+    private TableauRuleStats.RuleCounters counters;
 
 	public AbstractTableauRule(CompletionStrategy strategy, NodeSelector nodeSelector, BlockingType blockingType) {
 		this.strategy = strategy;
@@ -51,6 +54,31 @@ public abstract class AbstractTableauRule implements TableauRule {
 		return false;
 	}
 	
+	/**
+	 * Apply the rule to the given individual, recording the statistics of the
+	 * application if the rule statistics of the KB are enabled (see
+	 * {@link TableauRuleStats}).
+	 */
+	public final void apply( Individual ind ) {
+		TableauRuleStats kbStats = strategy.getABox().getKB().getRuleStats();
+		if( !kbStats.isEnabled() ) {
+			applyRule( ind );
+			return;
+		}
+		
+		if( stats != kbStats ) {
+			stats = kbStats;
+			counters = kbStats.getCounters( this );
+		}
+		
+		kbStats.apply( this, counters, ind );
+	}
+	
+	/**
+	 * Apply the rule to the given individual.
+	 */
+	protected abstract void applyRule( Individual ind );
+	
 	public void apply( IndividualIterator i ) {
         i.reset( nodeSelector );
         while( i.hasNext() ) {
@@ -22,6 +22,7 @@ import org.mindswap.pellet.exceptions.InternalReasonerException;
 import org.mindswap.pellet.tableau.completion.CompletionStrategy;
 import org.mindswap.pellet.tableau.completion.queue.NodeSelector;
 import org.mindswap.pellet.utils.ATermUtils;
+import org.mindswap.pellet.utils.fsm.TransitionTable;
 
 import aterm.ATerm;
 import aterm.ATermAppl;
@@ -48,7 +49,7 @@ public class AllValuesRule extends AbstractTableauRule {
 		super( strategy, NodeSelector.UNIVERSAL, BlockingType.NONE );
 	}
 
-   public  void apply( Individual x ) {
+   protected void applyRule( Individual x ) {
         List<ATermAppl> allValues = x.getTypes( Node.ALL );
         int size = allValues.size();
         Iterator<ATermAppl> i = allValues.iterator();
@@ -122,7 +123,7 @@ public class AllValuesRule extends AbstractTableauRule {
                 return;
         }
 
-        if( !s.isSimple() ) {
+        if( !s.isSimple() && hasChainStart( x, s ) ) {
             Set<ATermList> subRoleChains = s.getSubRoleChains();
             for( Iterator<ATermList> it = subRoleChains.iterator(); it.hasNext(); ) {
                 ATermList chain = it.next();
@@ -139,6 +140,46 @@ public class AllValuesRule extends AbstractTableauRule {
         // timer.stop();
     }
 
+    /**
+     * Checks if the given individual has an edge that can be the first step of
+     * a path accepted by the automaton of the given role. If there is no such
+     * edge no sub role chain of the role can be applied to the individual.
+     */
+    protected boolean hasChainStart( Individual x, Role s ) {
+        TransitionTable table = s.getTransitionTable();
+        if( table == null )
+            return true;
+
+        int initial = table.getInitialState();
+
+        EdgeList edges = x.getOutEdges();
+        for( int e = 0; e < edges.size(); e++ ) {
+            if( table.move( initial, edges.edgeAt( e ).getRole() ) != TransitionTable.NONE )
+                return true;
+        }
+
+        edges = x.getInEdges();
+        for( int e = 0; e < edges.size(); e++ ) {
+            Role invRole = edges.edgeAt( e ).getRole().getInverse();
+            if( invRole != null && table.move( initial, invRole ) != TransitionTable.NONE )
+                return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Checks if an edge with the given role can be the first step of a path
+     * accepted by the automaton of the given role. The automaton has a
+     * transition from its initial state for every sub role of the first role
+     * of a sub role chain, so roles without a transition can skip the chains.
+     */
+    protected boolean isChainStart( Role s, Role pred ) {
+        TransitionTable table = s.getTransitionTable();
+
+        return table == null || table.move( table.getInitialState(), pred ) != TransitionTable.NONE;
+    }
+
     protected boolean applyAllValuesPropertyChain( Individual x, ATermList chain, ATermAppl c, DependencySet ds ) {
          Role r = strategy.getABox().getRole( chain.getFirst() );
          
@@ -220,7 +261,7 @@ public class AllValuesRule extends AbstractTableauRule {
                     return;
             }
 
-            if( !s.isSimple() ) {
+            if( !s.isSimple() && isChainStart( s, pred ) ) {
                 DependencySet finalDS = subj.getDepends( av ).union( ds, strategy.getABox().doExplanation() );
                 Set<ATermList> subRoleChains = s.getSubRoleChains();
                 for( Iterator<ATermList> it = subRoleChains.iterator(); it.hasNext(); ) {
@@ -44,7 +44,7 @@ public class ChooseRule extends AbstractTableauRule {
 		super( strategy, NodeSelector.CHOOSE, BlockingType.INDIRECT );
 	}
 
-    public void apply( Individual x ) {
+    protected void applyRule( Individual x ) {
         if( !x.canApply( Individual.MAX ) )
         	return;
 
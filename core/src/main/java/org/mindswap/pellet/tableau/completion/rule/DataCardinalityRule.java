@@ -50,7 +50,7 @@ public class DataCardinalityRule extends AbstractTableauRule {
 		super( strategy, NodeSelector.DATATYPE, BlockingType.NONE );
 	}
 
-	public void apply(Individual x) {
+	protected void applyRule(Individual x) {
 		final Map<ATermAppl, Collection<ATermAppl>> dataranges = new HashMap<ATermAppl, Collection<ATermAppl>>();
 		final Map<ATermAppl, DependencySet> rangeDepends = new HashMap<ATermAppl, DependencySet>();
 
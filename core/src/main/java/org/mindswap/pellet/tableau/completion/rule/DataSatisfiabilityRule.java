@@ -50,7 +50,7 @@ public class DataSatisfiabilityRule extends AbstractTableauRule {
 		super( strategy, NodeSelector.DATATYPE, BlockingType.NONE );
 	}
 
-	public void apply(Individual ind) {
+	protected void applyRule(Individual ind) {
 		Set<Literal> nodes = new HashSet<Literal>();
 		LinkedList<Literal> pending = new LinkedList<Literal>();
 		Map<Literal, Set<Literal>> ne = new HashMap<Literal, Set<Literal>>();
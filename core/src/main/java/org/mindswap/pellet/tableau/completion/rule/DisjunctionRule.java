@@ -45,7 +45,7 @@ public class DisjunctionRule extends AbstractTableauRule {
 		super( strategy, NodeSelector.DISJUNCTION, BlockingType.COMPLETE );
 	}
 
-	public void apply(Individual node) {
+	protected void applyRule(Individual node) {
 		if( !node.canApply( Node.OR ) )
 			return;
 
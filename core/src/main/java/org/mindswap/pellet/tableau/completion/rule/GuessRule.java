@@ -43,7 +43,7 @@ public class GuessRule extends AbstractTableauRule {
 		super( strategy, NodeSelector.GUESS, BlockingType.NONE );
 	}
 
-	public void apply(Individual x) {
+	protected void applyRule(Individual x) {
 		if( x.isBlockable() )
 			return;
 
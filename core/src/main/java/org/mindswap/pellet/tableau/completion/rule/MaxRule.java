@@ -53,7 +53,7 @@ public class MaxRule extends AbstractTableauRule {
     /**
      * Apply max rule to the individual.
      */
-    public void apply( Individual x ) {
+    protected void applyRule( Individual x ) {
         if( !x.canApply( Individual.MAX ) )
         	return;
 
@@ -42,7 +42,7 @@ public class MinRule extends AbstractTableauRule {
 		super( strategy, NodeSelector.MIN_NUMBER, BlockingType.COMPLETE );
 	}
 
-    public void apply( Individual x ) {
+    protected void applyRule( Individual x ) {
         if( !x.canApply( Node.MIN ) )
         	return;
 
@@ -45,7 +45,7 @@ public class NominalRule extends AbstractTableauRule {
 		super( strategy, NodeSelector.NOMINAL, BlockingType.NONE );
 	}
 
-	public void apply(Individual y) {
+	protected void applyRule(Individual y) {
 		List<ATermAppl> types = y.getTypes( Node.NOM );
 		int size = types.size();
 		for( int j = 0; j < size; j++ ) {
@@ -61,7 +61,7 @@ public class NominalRule extends AbstractTableauRule {
 				return;
 			
 			if( y.isMerged() ) {
-				apply( y.getSame() );
+				applyRule( y.getSame() );
 				return;
 			}
 		}
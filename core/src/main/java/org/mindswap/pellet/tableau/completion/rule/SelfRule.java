@@ -41,7 +41,7 @@ public class SelfRule extends AbstractTableauRule {
 		super( strategy, NodeSelector.ATOM, BlockingType.NONE );
 	}
 
-    public final void apply( Individual node ) {
+    protected final void applyRule( Individual node ) {
         List<ATermAppl> types = node.getTypes( Node.ATOM );
         int size = types.size();
         for( int j = 0; j < size; j++ ) {
@@ -52,7 +52,7 @@ public class SomeValuesRule extends AbstractTableauRule {
 		super( strategy, NodeSelector.EXISTENTIAL, BlockingType.COMPLETE );
 	}
 	
-    public void apply( Individual x ) {
+    protected void applyRule( Individual x ) {
         if( !x.canApply( Individual.SOME ) )
         	return;
 
@@ -156,7 +156,7 @@ public class SomeValuesRule extends AbstractTableauRule {
 				}
 				else {
 					try {
-						canonical = strategy.getABox().getDatatypeReasoner().getCanonicalRepresentation( input );
+						canonical = strategy.getABox().getLiteralDictionary().getCanonicalRepresentation( input );
 					} catch( InvalidLiteralException e ) {
 						final String msg = "Invalid literal encountered in nominal when attempting to apply some values rule: "
 								+ e.getMessage();
@@ -0,0 +1,292 @@
+// Copyright (c) 2006 - 2008, Clark & Parsia, LLC. <http://www.clarkparsia.com>
+// This source code is available under the terms of the Affero General Public License v3.
+//
+// Please see LICENSE.txt for full license terms, including the availability of proprietary exceptions.
+// Questions, comments, or requests for clarification: licensing@clarkparsia.com
+
+package org.mindswap.pellet.tableau.completion.rule;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.mindswap.pellet.ABox;
+import org.mindswap.pellet.Clash;
+import org.mindswap.pellet.Individual;
+
+/**
+ * <p>
+ * Title: Tableau Rule Stats
+ * </p>
+ * <p>
+ * Description: Statistics about the applications of the tableau rules of a KB:
+ * for each rule the number of applications, the time spent, the number of
+ * nodes created, the number of clashes found and the number of backtracks
+ * caused by those clashes. The time of a rule does not include the time of
+ * other rules applied while it is being applied. Rules are counted when they
+ * are applied to an individual through {@link TableauRule#apply(Individual)}
+ * so the all values restrictions applied on-the-fly when an edge is added are
+ * counted as part of the rule that added the edge.
+ * </p>
+ * <p>
+ * The statistics are not collected unless they are enabled, in which case the
+ * rules only check a flag. The counters can be updated by any number of
+ * threads, e.g. the workers of a parallel classification, and they can be
+ * read with the methods of this class or through JMX after
+ * {@link #registerMBean(String)} is called.
+ * </p>
+ * <p>
+ * Copyright: Copyright (c) 2008
+ * </p>
+ * <p>
+ * Company: Clark & Parsia, LLC. <http://www.clarkparsia.com>
+ * </p>
+ */
+public class TableauRuleStats implements TableauRuleStatsMXBean {
+	/**
+	 * The counters of one rule.
+	 */
+	public static class RuleCounters {
+		private final String		name;
+		private final AtomicLong	applications	= new AtomicLong();
+		private final AtomicLong	time			= new AtomicLong();
+		private final AtomicLong	nodes			= new AtomicLong();
+		private final AtomicLong	clashes			= new AtomicLong();
+		private final AtomicLong	backtracks		= new AtomicLong();
+
+		private RuleCounters(String name) {
+			this.name = name;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * Returns the number of times the rule has been applied to an
+		 * individual.
+		 */
+		public long getApplications() {
+			return applications.get();
+		}
+
+		/**
+		 * Returns the time spent applying the rule in milliseconds.
+		 */
+		public long getTime() {
+			return TimeUnit.NANOSECONDS.toMillis( time.get() );
+		}
+
+		/**
+		 * Returns the number of nodes added to the completion graph by the
+		 * rule.
+		 */
+		public long getNodes() {
+			return nodes.get();
+		}
+
+		/**
+		 * Returns the number of clashes found while applying the rule.
+		 */
+		public long getClashes() {
+			return clashes.get();
+		}
+
+		/**
+		 * Returns the number of times the completion backtracked because of a
+		 * clash found while applying the rule.
+		 */
+		public long getBacktracks() {
+			return backtracks.get();
+		}
+
+		private void reset() {
+			applications.set( 0 );
+			time.set( 0 );
+			nodes.set( 0 );
+			clashes.set( 0 );
+			backtracks.set( 0 );
+		}
+
+		@Override
+		public String toString() {
+			return String.format( "%-25s %12d %10d %10d %10d %10d", name, getApplications(),
+					getTime(), getNodes(), getClashes(), getBacktracks() );
+		}
+	}
+
+	/**
+	 * The rule application in progress in the current thread.
+	 */
+	private static class Application {
+		/**
+		 * The time spent in the rules applied during the current application
+		 */
+		private long			nestedTime;
+
+		/**
+		 * The last clash found while applying a rule and the counters of that
+		 * rule
+		 */
+		private Clash			clash;
+		private RuleCounters	clashRule;
+	}
+
+	private static final ThreadLocal<Application>	applications	= new ThreadLocal<Application>() {
+																		@Override
+																		protected Application initialValue() {
+																			return new Application();
+																		}
+																	};
+
+	private volatile boolean						enabled;
+
+	private final ConcurrentMap<String, RuleCounters>	counters;
+
+	public TableauRuleStats() {
+		this( false );
+	}
+
+	public TableauRuleStats(boolean enabled) {
+		this.enabled = enabled;
+		this.counters = new ConcurrentHashMap<String, RuleCounters>();
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	/**
+	 * Returns the counters of the given rule creating them if necessary.
+	 */
+	public RuleCounters getCounters(TableauRule rule) {
+		String name = rule.getClass().getSimpleName();
+		RuleCounters ruleCounters = counters.get( name );
+		if( ruleCounters == null ) {
+			ruleCounters = new RuleCounters( name );
+			RuleCounters prev = counters.putIfAbsent( name, ruleCounters );
+			if( prev != null )
+				ruleCounters = prev;
+		}
+
+		return ruleCounters;
+	}
+
+	/**
+	 * Returns the counters of the rules that have been applied since the
+	 * statistics were enabled, sorted by the rule names.
+	 */
+	public Map<String, RuleCounters> getRules() {
+		return Collections.unmodifiableMap( new TreeMap<String, RuleCounters>( counters ) );
+	}
+
+	/**
+	 * Reset all the counters to zero.
+	 */
+	public void reset() {
+		for( RuleCounters ruleCounters : counters.values() ) {
+			ruleCounters.reset();
+		}
+	}
+
+	/**
+	 * Apply the given rule to an individual recording the statistics of the
+	 * application.
+	 */
+	void apply(AbstractTableauRule rule, RuleCounters ruleCounters, Individual ind) {
+		ABox abox = rule.strategy.getABox();
+		Application application = applications.get();
+
+		boolean closed = abox.isClosed();
+		int size = abox.size();
+		long nestedTime = application.nestedTime;
+		application.nestedTime = 0;
+		long start = System.nanoTime();
+		try {
+			rule.applyRule( ind );
+		} finally {
+			long time = System.nanoTime() - start;
+			ruleCounters.applications.incrementAndGet();
+			ruleCounters.time.addAndGet( time - application.nestedTime );
+			application.nestedTime = nestedTime + time;
+
+			int created = abox.size() - size;
+			if( created > 0 )
+				ruleCounters.nodes.addAndGet( created );
+
+			// a clash found by a nested rule application is already recorded
+			Clash clash = abox.getClash();
+			if( !closed && clash != null && clash != application.clash ) {
+				ruleCounters.clashes.incrementAndGet();
+				application.clash = clash;
+				application.clashRule = ruleCounters;
+			}
+		}
+	}
+
+	/**
+	 * Record that the completion backtracks because of the current clash of
+	 * the given ABox. The backtrack is counted for the rule that found the
+	 * clash if the clash was found by a rule in the current thread.
+	 */
+	public void backtrack(ABox abox) {
+		Application application = applications.get();
+		if( application.clash != null ) {
+			if( application.clash == abox.getClash() )
+				application.clashRule.backtracks.incrementAndGet();
+			application.clash = null;
+			application.clashRule = null;
+		}
+	}
+
+	/**
+	 * Register these statistics to the platform MBean server with the given
+	 * name.
+	 *
+	 * @return the name of the registered MBean
+	 */
+	public ObjectName registerMBean(String name) throws JMException {
+		ObjectName objectName = createObjectName( name );
+		ManagementFactory.getPlatformMBeanServer().registerMBean( this, objectName );
+		return objectName;
+	}
+
+	/**
+	 * Unregister the MBean registered with the given name.
+	 */
+	public void unregisterMBean(String name) throws JMException {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		ObjectName objectName = createObjectName( name );
+		if( server.isRegistered( objectName ) )
+			server.unregisterMBean( objectName );
+	}
+
+	private static ObjectName createObjectName(String name) throws JMException {
+		return new ObjectName( "org.mindswap.pellet:type=TableauRuleStats,name="
+				+ ObjectName.quote( name ) );
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append( String.format( "%-25s %12s %10s %10s %10s %10s", "Rule", "Applications",
+				"Time (ms)", "Nodes", "Clashes", "Backtracks" ) );
+		for( RuleCounters ruleCounters : getRules().values() ) {
+			sb.append( '\n' ).append( ruleCounters );
+		}
+		return sb.toString();
+	}
+}
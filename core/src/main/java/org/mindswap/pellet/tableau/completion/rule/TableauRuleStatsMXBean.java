@@ -0,0 +1,35 @@
+// Copyright (c) 2006 - 2008, Clark & Parsia, LLC. <http://www.clarkparsia.com>
+// This source code is available under the terms of the Affero General Public License v3.
+//
+// Please see LICENSE.txt for full license terms, including the availability of proprietary exceptions.
+// Questions, comments, or requests for clarification: licensing@clarkparsia.com
+
+package org.mindswap.pellet.tableau.completion.rule;
+
+import java.util.Map;
+
+import org.mindswap.pellet.tableau.completion.rule.TableauRuleStats.RuleCounters;
+
+/**
+ * <p>
+ * Title: Tableau Rule Stats MXBean
+ * </p>
+ * <p>
+ * Description: Management interface of {@link TableauRuleStats}.
+ * </p>
+ * <p>
+ * Copyright: Copyright (c) 2008
+ * </p>
+ * <p>
+ * Company: Clark & Parsia, LLC. <http://www.clarkparsia.com>
+ * </p>
+ */
+public interface TableauRuleStatsMXBean {
+	public boolean isEnabled();
+
+	public void setEnabled(boolean enabled);
+
+	public Map<String, RuleCounters> getRules();
+
+	public void reset();
+}
@@ -46,7 +46,7 @@ public class UnfoldingRule extends AbstractTableauRule {
 		super( strategy, NodeSelector.ATOM, BlockingType.COMPLETE );
 	}
     
-    public void apply( Individual node ) {
+    protected void applyRule( Individual node ) {
         if( !node.canApply( Node.ATOM ) )
         	return;
         
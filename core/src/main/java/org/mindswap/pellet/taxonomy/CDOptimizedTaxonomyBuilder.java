@@ -24,12 +24,14 @@ import java.util.logging.Logger;
 import org.mindswap.pellet.Individual;
 import org.mindswap.pellet.KnowledgeBase;
 import org.mindswap.pellet.PelletOptions;
+import org.mindswap.pellet.ReasonerWorkerPool;
 import org.mindswap.pellet.Role;
 import org.mindswap.pellet.exceptions.InternalReasonerException;
 import org.mindswap.pellet.tbox.TBox;
 import org.mindswap.pellet.tbox.impl.Unfolding;
 import org.mindswap.pellet.utils.ATermUtils;
 import org.mindswap.pellet.utils.MemUtils;
+import org.mindswap.pellet.utils.Pair;
 import org.mindswap.pellet.utils.SetUtils;
 import org.mindswap.pellet.utils.TaxonomyUtils;
 import org.mindswap.pellet.utils.Timer;
@@ -73,6 +75,12 @@ public class CDOptimizedTaxonomyBuilder implements TaxonomyBuilder {
 		COMPLETELY_DEFINED, PRIMITIVE, NONPRIMITIVE, NONPRIMITIVE_TA, OTHER
 	}
 	
+	/**
+	 * Number of tasks given to each worker thread in one batch during
+	 * parallel satisfiability checking
+	 */
+	private static final int				PARALLEL_BATCH_FACTOR	= 64;
+
 	private static final Set<ConceptFlag>	PHASE1_FLAGS	= EnumSet.of(
 																	ConceptFlag.COMPLETELY_DEFINED,
 																	ConceptFlag.PRIMITIVE,
@@ -97,6 +105,18 @@ public class CDOptimizedTaxonomyBuilder implements TaxonomyBuilder {
 
 	private Map<ATermAppl, ConceptFlag>	conceptFlags;
 
+	/**
+	 * Worker threads used for parallel classification, <code>null</code> if
+	 * classification is done sequentially
+	 */
+	private ReasonerWorkerPool				workers;
+
+	/**
+	 * Results of the subsumption tests computed in parallel for the concept
+	 * being classified keyed by (sub, sup) pairs
+	 */
+	private Map<Pair<ATermAppl, ATermAppl>, Boolean>	prefetchedSubsumptions;
+
 	public CDOptimizedTaxonomyBuilder() {
 
 	}
@@ -140,6 +160,19 @@ public class CDOptimizedTaxonomyBuilder implements TaxonomyBuilder {
 		return toldDisjoints;
 	}
 
+	/**
+	 * Use a taxonomy computed earlier, e.g. loaded from a file, as the
+	 * classification results instead of classifying the KB. The told
+	 * information is still computed so concepts that are not in the taxonomy
+	 * can be classified later.
+	 */
+	public void setTaxonomy(Taxonomy<ATermAppl> taxonomy) {
+		if( !prepared )
+			prepare();
+
+		this.taxonomy = taxonomy;
+	}
+
 	/**
 	 * Classify the KB.
 	 */
@@ -213,9 +246,21 @@ public class CDOptimizedTaxonomyBuilder implements TaxonomyBuilder {
 		}
 
 		boolean completed = true;
-		
-		completed = completed && classify( phase1, /* requireTopSearch = */false );
-		completed = completed && classify( phase2, /* requireTopSearch = */true );
+
+		if( useParallelClassification() ) {
+			startWorkers();
+		}
+
+		try {
+			if( workers != null ) {
+				completed = checkSatisfiabilityInParallel();
+			}
+
+			completed = completed && classify( phase1, /* requireTopSearch = */false );
+			completed = completed && classify( phase2, /* requireTopSearch = */true );
+		} finally {
+			stopWorkers();
+		}
 
 		monitor.taskFinished();
 
@@ -283,6 +328,53 @@ public class CDOptimizedTaxonomyBuilder implements TaxonomyBuilder {
 		return true;
 	}
 
+	private boolean useParallelClassification() {
+		return PelletOptions.USE_PARALLEL_CLASSIFICATION
+				&& PelletOptions.CLASSIFICATION_THREADS > 1 && !kb.doExplanation();
+	}
+
+	private void startWorkers() {
+		Timer t = kb.timers.startTimer( "classifyParallelInit" );
+		workers = new ReasonerWorkerPool( kb, PelletOptions.CLASSIFICATION_THREADS );
+		prefetchedSubsumptions = new HashMap<Pair<ATermAppl, ATermAppl>, Boolean>();
+		t.stop();
+
+		if( log.isLoggable( Level.FINE ) ) {
+			log.fine( "Using parallel classification with " + workers.getThreadCount()
+					+ " threads" );
+		}
+	}
+
+	private void stopWorkers() {
+		if( workers == null ) {
+			return;
+		}
+
+		workers.shutdown();
+		workers = null;
+		prefetchedSubsumptions = null;
+
+		if( log.isLoggable( Level.FINE ) ) {
+			logSpeedup( "classifyParallelSat" );
+			logSpeedup( "classifyParallelSub" );
+		}
+	}
+
+	/**
+	 * Log the ratio between the total time spent by the worker threads and the
+	 * wall-clock time spent by the classification thread waiting for them.
+	 */
+	private void logSpeedup(String timerName) {
+		Timer wall = kb.timers.getTimer( timerName );
+		Timer work = kb.timers.getTimer( timerName + "Work" );
+		if( wall == null || work == null || wall.getTotal() == 0 ) {
+			return;
+		}
+
+		log.fine( String.format( "%s: wall %d ms work %d ms speedup %.2f", timerName, wall
+				.getTotal(), work.getTotal(), (double) work.getTotal() / wall.getTotal() ) );
+	}
+
 	private void prepare() {
 		reset();
 
@@ -795,6 +887,110 @@ public class CDOptimizedTaxonomyBuilder implements TaxonomyBuilder {
 		return taxonomy.getNode( c );
 	}
 
+	/**
+	 * Compute the satisfiability of all the classes (and their negations) with
+	 * the worker threads and put the results into the concept cache of the KB
+	 * so {@link #checkSatisfiability(ATermAppl)} will not need to run any
+	 * tableau tests.
+	 */
+	private boolean checkSatisfiabilityInParallel() {
+		Timer t = kb.timers.startTimer( "classifyParallelSat" );
+
+		int batchSize = workers.getThreadCount() * PARALLEL_BATCH_FACTOR;
+		List<ReasonerWorkerPool.Task<Boolean>> tasks = new ArrayList<ReasonerWorkerPool.Task<Boolean>>();
+		Iterator<ATermAppl> i = definitionOrder.iterator();
+		while( i.hasNext() ) {
+			final ATermAppl c = i.next();
+			if( kb.getABox().getCachedSat( c ).isKnown() ) {
+				continue;
+			}
+
+			tasks.add( new ReasonerWorkerPool.Task<Boolean>() {
+				public Boolean call(KnowledgeBase worker) {
+					boolean isSatisfiable = worker.getABox().isSatisfiable( c, true );
+					if( PelletOptions.USE_CACHING ) {
+						worker.getABox().isSatisfiable( ATermUtils.makeNot( c ), true );
+					}
+					return isSatisfiable;
+				}
+			} );
+
+			if( tasks.size() == batchSize ) {
+				workers.invokeAll( "classifyParallelSatWork", tasks, kb.timers
+						.getTimer( "classify" ) );
+				tasks.clear();
+
+				if( monitor.isCanceled() ) {
+					t.stop();
+					return false;
+				}
+			}
+		}
+
+		workers.invokeAll( "classifyParallelSatWork", tasks, kb.timers.getTimer( "classify" ) );
+
+		workers.mergeCaches();
+
+		t.stop();
+
+		return true;
+	}
+
+	/**
+	 * Run the subsumption tests between the concept being classified and the
+	 * given nodes with the worker threads. Only the tests the sequential search
+	 * could not answer from the marks or the cache are computed. The results
+	 * are stored and consumed later by {@link #subsumes(ATermAppl, ATermAppl)}
+	 * so the search itself, and the taxonomy it builds, stays exactly the same.
+	 */
+	private void prefetchSubsumptions(boolean topDown, ATermAppl c,
+			Collection<TaxonomyNode<ATermAppl>> nodes) {
+		if( nodes.size() < 2 ) {
+			return;
+		}
+
+		List<Pair<ATermAppl, ATermAppl>> tests = new ArrayList<Pair<ATermAppl, ATermAppl>>();
+		for( TaxonomyNode<ATermAppl> node : nodes ) {
+			if( node.mark != null || findFalseMarkPath( node, topDown ) != null ) {
+				continue;
+			}
+
+			Pair<ATermAppl, ATermAppl> test = topDown
+				? Pair.create( c, node.getName() )
+				: Pair.create( node.getName(), c );
+
+			if( prefetchedSubsumptions.containsKey( test )
+					|| kb.getABox().isKnownSubClassOf( test.first, test.second ).isKnown() ) {
+				continue;
+			}
+
+			tests.add( test );
+		}
+
+		if( tests.size() < 2 ) {
+			return;
+		}
+
+		Timer t = kb.timers.startTimer( "classifyParallelSub" );
+
+		List<ReasonerWorkerPool.Task<Boolean>> tasks = new ArrayList<ReasonerWorkerPool.Task<Boolean>>();
+		for( final Pair<ATermAppl, ATermAppl> test : tests ) {
+			tasks.add( new ReasonerWorkerPool.Task<Boolean>() {
+				public Boolean call(KnowledgeBase worker) {
+					return worker.getABox().isSubClassOf( test.first, test.second );
+				}
+			} );
+		}
+
+		List<Boolean> results = workers.invokeAll( "classifyParallelSubWork", tasks, kb.timers
+				.getTimer( "classify" ) );
+		for( int i = 0; i < tests.size(); i++ ) {
+			prefetchedSubsumptions.put( tests.get( i ), results.get( i ) );
+		}
+
+		t.stop();
+	}
+
 	/**
 	 * Add a new concept to the already classified taxonomy
 	 */
@@ -818,6 +1014,10 @@ public class CDOptimizedTaxonomyBuilder implements TaxonomyBuilder {
 
 		clearMarks();
 
+		if( prefetchedSubsumptions != null ) {
+			prefetchedSubsumptions.clear();
+		}
+
 		List<TaxonomyNode<ATermAppl>> superNodes;
 		List<TaxonomyNode<ATermAppl>> subNodes;
 		List<ATermAppl> subs;
@@ -938,6 +1138,10 @@ public class CDOptimizedTaxonomyBuilder implements TaxonomyBuilder {
 
 		log.finer( "Bottom search..." );
 
+		if( workers != null ) {
+			prefetchSubsumptions( /* topDown = */false, c, searchFrom );
+		}
+
 		List<TaxonomyNode<ATermAppl>> subs = new ArrayList<TaxonomyNode<ATermAppl>>();
 		Set<TaxonomyNode<ATermAppl>> visited = new HashSet<TaxonomyNode<ATermAppl>>();
 		for( TaxonomyNode<ATermAppl> n : searchFrom ) {
@@ -1070,6 +1274,10 @@ public class CDOptimizedTaxonomyBuilder implements TaxonomyBuilder {
 			? x.getSubs()
 			: x.getSupers();
 
+		if( workers != null ) {
+			prefetchSubsumptions( topSearch, c, list );
+		}
+
 		for( TaxonomyNode<ATermAppl> next : list ) {
 
 			if( topSearch ) {
@@ -1110,54 +1318,78 @@ public class CDOptimizedTaxonomyBuilder implements TaxonomyBuilder {
 		/*
 		 * Search ancestors for marks to propogate
 		 */
+		List<TaxonomyNode<ATermAppl>> falsePath = findFalseMarkPath( node, topDown );
+		if( falsePath != null ) {
+			for( TaxonomyNode<ATermAppl> n : falsePath ) {
+				mark( n, Boolean.FALSE, Propogate.NONE );
+			}
+			return false;
+		}
+
+		// check subsumption
+		boolean calcdMark = topDown
+			? subsumes( node.getName(), c )
+			: subsumes( c, node.getName() );
+		// mark the node appropriately
+		mark( node, Boolean.valueOf( calcdMark ), Propogate.NONE );
+
+		return calcdMark;
+	}
+
+	/**
+	 * Search the ancestors (descendants if <code>topDown</code> is false) of a
+	 * node for a node marked false. If such a node is found returns the path of
+	 * unmarked nodes leading from it back to the given node. These nodes can
+	 * all be marked false without doing a subsumption test. Returns
+	 * <code>null</code> if there is no such node. Nodes are not marked by this
+	 * function.
+	 */
+	private List<TaxonomyNode<ATermAppl>> findFalseMarkPath(TaxonomyNode<ATermAppl> node,
+			boolean topDown) {
 		Collection<TaxonomyNode<ATermAppl>> others = topDown
 			? node.getSupers()
 			: node.getSubs();
 
-		if( others.size() > 1 ) {
-			Map<TaxonomyNode<ATermAppl>, TaxonomyNode<ATermAppl>> visited = new LinkedHashMap<TaxonomyNode<ATermAppl>, TaxonomyNode<ATermAppl>>();
-			visited.put( node, null );
+		if( others.size() <= 1 ) {
+			return null;
+		}
 
-			Map<TaxonomyNode<ATermAppl>, TaxonomyNode<ATermAppl>> toBeVisited = new LinkedHashMap<TaxonomyNode<ATermAppl>, TaxonomyNode<ATermAppl>>();
-			for( TaxonomyNode<ATermAppl> n : others ) {
-				toBeVisited.put( n, node );
-			}
+		Map<TaxonomyNode<ATermAppl>, TaxonomyNode<ATermAppl>> visited = new LinkedHashMap<TaxonomyNode<ATermAppl>, TaxonomyNode<ATermAppl>>();
+		visited.put( node, null );
 
-			while( !toBeVisited.isEmpty() ) {
-				TaxonomyNode<ATermAppl> relative = toBeVisited.keySet().iterator().next();
-				TaxonomyNode<ATermAppl> reachedFrom = toBeVisited.get( relative );
+		Map<TaxonomyNode<ATermAppl>, TaxonomyNode<ATermAppl>> toBeVisited = new LinkedHashMap<TaxonomyNode<ATermAppl>, TaxonomyNode<ATermAppl>>();
+		for( TaxonomyNode<ATermAppl> n : others ) {
+			toBeVisited.put( n, node );
+		}
 
-				Boolean ancestorMark = relative.mark;
-				if( Boolean.FALSE.equals( ancestorMark ) ) {
-					for( TaxonomyNode<ATermAppl> n = reachedFrom; n != null; n = visited.get( n ) ) {
-						mark( n, Boolean.FALSE, Propogate.NONE );
-					}
-					return false;
+		while( !toBeVisited.isEmpty() ) {
+			TaxonomyNode<ATermAppl> relative = toBeVisited.keySet().iterator().next();
+			TaxonomyNode<ATermAppl> reachedFrom = toBeVisited.get( relative );
+
+			Boolean ancestorMark = relative.mark;
+			if( Boolean.FALSE.equals( ancestorMark ) ) {
+				List<TaxonomyNode<ATermAppl>> path = new ArrayList<TaxonomyNode<ATermAppl>>();
+				for( TaxonomyNode<ATermAppl> n = reachedFrom; n != null; n = visited.get( n ) ) {
+					path.add( n );
 				}
+				return path;
+			}
 
-				if( ancestorMark == null ) {
-					Collection<TaxonomyNode<ATermAppl>> moreRelatives = topDown
-						? relative.getSupers()
-						: relative.getSubs();
-					for( TaxonomyNode<ATermAppl> n : moreRelatives ) {
-						if( !visited.keySet().contains( n ) && !toBeVisited.keySet().contains( n ) ) {
-							toBeVisited.put( n, relative );
-						}
+			if( ancestorMark == null ) {
+				Collection<TaxonomyNode<ATermAppl>> moreRelatives = topDown
+					? relative.getSupers()
+					: relative.getSubs();
+				for( TaxonomyNode<ATermAppl> n : moreRelatives ) {
+					if( !visited.keySet().contains( n ) && !toBeVisited.keySet().contains( n ) ) {
+						toBeVisited.put( n, relative );
 					}
 				}
-				toBeVisited.remove( relative );
-				visited.put( relative, reachedFrom );
 			}
+			toBeVisited.remove( relative );
+			visited.put( relative, reachedFrom );
 		}
 
-		// check subsumption
-		boolean calcdMark = topDown
-			? subsumes( node.getName(), c )
-			: subsumes( c, node.getName() );
-		// mark the node appropriately
-		mark( node, Boolean.valueOf( calcdMark ), Propogate.NONE );
-
-		return calcdMark;
+		return null;
 	}
 
 	private boolean subsumes(TaxonomyNode<ATermAppl> node, ATermAppl c) {
@@ -1207,7 +1439,13 @@ public class CDOptimizedTaxonomyBuilder implements TaxonomyBuilder {
 							+ "]..." );
 		}
 
-		boolean result = kb.getABox().isSubClassOf( sub, sup );
+		Boolean prefetched = (prefetchedSubsumptions != null)
+			? prefetchedSubsumptions.remove( Pair.create( sub, sup ) )
+			: null;
+
+		boolean result = (prefetched != null)
+			? prefetched.booleanValue()
+			: kb.getABox().isSubClassOf( sub, sup );
 
 		if( log.isLoggable( Level.FINER ) ) {
 			String sign = (kb.getABox().stats.satisfiabilityCount > count)
@@ -1236,11 +1474,40 @@ public class CDOptimizedTaxonomyBuilder implements TaxonomyBuilder {
 	public boolean realize() {
 		monitor.setProgressTitle( "Realizing" );
 
+		if( useParallelRealization() ) {
+			Timer t = kb.timers.startTimer( "realizeParallelInit" );
+			workers = new ReasonerWorkerPool( kb, PelletOptions.REALIZATION_THREADS );
+			t.stop();
+
+			if( log.isLoggable( Level.FINE ) ) {
+				log.fine( "Using parallel realization with " + workers.getThreadCount()
+						+ " threads" );
+			}
+
+			try {
+				return PelletOptions.REALIZE_INDIVIDUAL_AT_A_TIME
+					? realizeByIndividualsInParallel()
+					: realizeByConceptsInParallel();
+			} finally {
+				workers.shutdown();
+				workers = null;
+
+				if( log.isLoggable( Level.FINE ) ) {
+					logSpeedup( "realizeParallel" );
+				}
+			}
+		}
+
 		return PelletOptions.REALIZE_INDIVIDUAL_AT_A_TIME
 			? realizeByIndividuals()
 			: realizeByConcepts();
 	}
 
+	private boolean useParallelRealization() {
+		return PelletOptions.USE_PARALLEL_REALIZATION && PelletOptions.REALIZATION_THREADS > 1
+				&& !kb.doExplanation();
+	}
+
 	private boolean realizeByIndividuals() {
 		monitor.setProgressLength( kb.getIndividuals().size() );
 		monitor.taskStarted();
@@ -1275,12 +1542,23 @@ public class CDOptimizedTaxonomyBuilder implements TaxonomyBuilder {
 	}
 	
 	private void realize(Individual x) {
+		for( ATermAppl c : computeDirectTypes( kb, x.getName() ) ) {
+			addInstance( c, x.getName() );
+		}
+	}
+
+	/**
+	 * Find the most specific classes in the taxonomy the individual belongs
+	 * to. Type checks are done with the given KB, which is either the KB of
+	 * this builder or a worker copy of it, and the taxonomy is not modified.
+	 */
+	private Set<ATermAppl> computeDirectTypes(KnowledgeBase kb, ATermAppl n) {
 		Map<ATermAppl, Boolean> marked = new HashMap<ATermAppl, Boolean>();
 
 		List<ATermAppl> obviousTypes = new ArrayList<ATermAppl>();
 		List<ATermAppl> obviousNonTypes = new ArrayList<ATermAppl>();
 
-		kb.getABox().getObviousTypes( x.getName(), obviousTypes, obviousNonTypes );
+		kb.getABox().getObviousTypes( n, obviousTypes, obviousNonTypes );
 
 		for( ATermAppl c : obviousTypes ) {
 			// since nominals can be returned by getObviousTypes
@@ -1302,10 +1580,25 @@ public class CDOptimizedTaxonomyBuilder implements TaxonomyBuilder {
 			mark( taxonomy.getFlattenedSubs( c, /* direct = */true ), marked, Boolean.FALSE );
 		}
 
-		realize( x.getName(), ATermUtils.TOP, marked );
+		Set<ATermAppl> directTypes = new HashSet<ATermAppl>();
+		realize( kb, n, ATermUtils.TOP, marked, directTypes );
+
+		return directTypes;
+	}
+
+	private void addInstance(ATermAppl c, ATermAppl n) {
+		TaxonomyNode<ATermAppl> node = taxonomy.getNode( c );
+		@SuppressWarnings("unchecked")
+		Set<ATermAppl> instances = (Set<ATermAppl>) node.getDatum( TaxonomyUtils.INSTANCES_KEY );
+		if( instances == null ) {
+			instances = new HashSet<ATermAppl>();
+			node.putDatum( TaxonomyUtils.INSTANCES_KEY, instances );
+		}
+		instances.add( n );
 	}
 
-	private boolean realize(ATermAppl n, ATermAppl c, Map<ATermAppl, Boolean> marked) {
+	private boolean realize(KnowledgeBase kb, ATermAppl n, ATermAppl c,
+			Map<ATermAppl, Boolean> marked, Set<ATermAppl> directTypes) {
 		boolean realized = false;
 
 		if( c.equals( ATermUtils.BOTTOM ) ) {
@@ -1347,20 +1640,13 @@ public class CDOptimizedTaxonomyBuilder implements TaxonomyBuilder {
 
 			for( TaxonomyNode<ATermAppl> sub : node.getSubs() ) {
 				ATermAppl d = sub.getName();
-				realized = realize( n, d, marked ) || realized;
+				realized = realize( kb, n, d, marked, directTypes ) || realized;
 			}
 
 			// this concept is the most specific concept x belongs to
 			// so add it here and return true
 			if( !realized ) {
-				@SuppressWarnings("unchecked")
-				Set<ATermAppl> instances = (Set<ATermAppl>) node
-						.getDatum( TaxonomyUtils.INSTANCES_KEY );
-				if( instances == null ) {
-					instances = new HashSet<ATermAppl>();
-					node.putDatum( TaxonomyUtils.INSTANCES_KEY, instances );
-				}
-				instances.add( n );
+				directTypes.add( node.getName() );
 				realized = true;
 			}
 		}
@@ -1445,6 +1731,185 @@ public class CDOptimizedTaxonomyBuilder implements TaxonomyBuilder {
 		return instances;
 	}
 
+	/**
+	 * Realize individuals one at a time as in {@link #realizeByIndividuals()}
+	 * but compute the direct types of batches of individuals with the worker
+	 * threads. The results are added to the taxonomy by this thread after each
+	 * round of batches.
+	 */
+	private boolean realizeByIndividualsInParallel() {
+		monitor.setProgressLength( kb.getIndividuals().size() );
+		monitor.taskStarted();
+
+		List<List<ATermAppl>> batches = new ArrayList<List<ATermAppl>>();
+		List<ATermAppl> batch = new ArrayList<ATermAppl>();
+		Iterator<Individual> i = kb.getABox().getIndIterator();
+		while( i.hasNext() ) {
+			batch.add( i.next().getName() );
+
+			if( batch.size() == PelletOptions.REALIZATION_BATCH_SIZE ) {
+				batches.add( batch );
+				batch = new ArrayList<ATermAppl>();
+			}
+
+			if( batches.size() == workers.getThreadCount() || !i.hasNext() ) {
+				if( !batch.isEmpty() ) {
+					batches.add( batch );
+					batch = new ArrayList<ATermAppl>();
+				}
+
+				if( !realizeBatches( batches ) ) {
+					return false;
+				}
+				batches.clear();
+			}
+		}
+
+		monitor.taskFinished();
+
+		return true;
+	}
+
+	private boolean realizeBatches(List<List<ATermAppl>> batches) {
+		Timer t = kb.timers.startTimer( "realizeParallel" );
+
+		List<ReasonerWorkerPool.Task<List<Set<ATermAppl>>>> tasks = new ArrayList<ReasonerWorkerPool.Task<List<Set<ATermAppl>>>>();
+		for( final List<ATermAppl> batch : batches ) {
+			tasks.add( new ReasonerWorkerPool.Task<List<Set<ATermAppl>>>() {
+				public List<Set<ATermAppl>> call(KnowledgeBase worker) {
+					List<Set<ATermAppl>> types = new ArrayList<Set<ATermAppl>>( batch.size() );
+					for( ATermAppl n : batch ) {
+						worker.timers.mainTimer.check();
+						types.add( computeDirectTypes( worker, n ) );
+					}
+					return types;
+				}
+			} );
+		}
+
+		List<List<Set<ATermAppl>>> results = workers.invokeAll( "realizeParallelWork", tasks,
+				kb.timers.getTimer( "realize" ) );
+
+		t.stop();
+
+		int count = 0;
+		for( int b = 0; b < batches.size(); b++ ) {
+			List<ATermAppl> batch = batches.get( b );
+			List<Set<ATermAppl>> types = results.get( b );
+			for( int j = 0; j < batch.size(); j++ ) {
+				for( ATermAppl c : types.get( j ) ) {
+					addInstance( c, batch.get( j ) );
+				}
+			}
+			count += batch.size();
+		}
+
+		monitor.setProgress( monitor.getProgress() + count );
+
+		return !monitor.isCanceled();
+	}
+
+	/**
+	 * Realize the KB by traversing the class hierarchy as in
+	 * {@link #realizeByConcepts()} where each worker thread does the traversal
+	 * for a different partition of the individuals. Most specific instances
+	 * found for each partition are added to the taxonomy by this thread.
+	 */
+	private boolean realizeByConceptsInParallel() {
+		monitor.setProgressLength( kb.getIndividuals().size() );
+		monitor.taskStarted();
+
+		List<ATermAppl> individuals = new ArrayList<ATermAppl>( kb.getIndividuals() );
+
+		int threads = workers.getThreadCount();
+		// use more partitions than threads for load balancing but not too many
+		// since each partition traverses the whole hierarchy
+		int batchSize = Math.max( PelletOptions.REALIZATION_BATCH_SIZE, (individuals.size()
+				+ 4 * threads - 1)
+				/ (4 * threads) );
+
+		List<ReasonerWorkerPool.Task<Map<ATermAppl, Set<ATermAppl>>>> tasks = new ArrayList<ReasonerWorkerPool.Task<Map<ATermAppl, Set<ATermAppl>>>>();
+		for( int start = 0; start < individuals.size(); start += batchSize ) {
+			final List<ATermAppl> batch = individuals.subList( start, Math.min( start + batchSize,
+					individuals.size() ) );
+			tasks.add( new ReasonerWorkerPool.Task<Map<ATermAppl, Set<ATermAppl>>>() {
+				public Map<ATermAppl, Set<ATermAppl>> call(KnowledgeBase worker) {
+					Map<ATermAppl, Set<ATermAppl>> mostSpecific = new HashMap<ATermAppl, Set<ATermAppl>>();
+					realizeByConcept( worker, ATermUtils.TOP, batch,
+							new HashMap<ATermAppl, Set<ATermAppl>>(), mostSpecific );
+					return mostSpecific;
+				}
+			} );
+
+			if( tasks.size() == threads || start + batchSize >= individuals.size() ) {
+				Timer t = kb.timers.startTimer( "realizeParallel" );
+				List<Map<ATermAppl, Set<ATermAppl>>> results = workers.invokeAll(
+						"realizeParallelWork", tasks, kb.timers.getTimer( "realize" ) );
+				t.stop();
+
+				for( Map<ATermAppl, Set<ATermAppl>> mostSpecific : results ) {
+					for( Map.Entry<ATermAppl, Set<ATermAppl>> entry : mostSpecific.entrySet() ) {
+						for( ATermAppl n : entry.getValue() ) {
+							addInstance( entry.getKey(), n );
+						}
+					}
+				}
+				tasks.clear();
+
+				monitor.setProgress( Math.min( start + batchSize, individuals.size() ) );
+
+				if( monitor.isCanceled() ) {
+					return false;
+				}
+			}
+		}
+
+		monitor.taskFinished();
+
+		return true;
+	}
+
+	/**
+	 * Find the instances of the given concept among the given individuals and
+	 * recursively do the same for its subclasses. Unlike
+	 * {@link #realizeByConcept(ATermAppl, Collection)} this function does not
+	 * modify the taxonomy; instances of the visited concepts are kept in
+	 * <code>visited</code> and the most specific instances are put into
+	 * <code>mostSpecific</code>.
+	 */
+	private Set<ATermAppl> realizeByConcept(KnowledgeBase kb, ATermAppl c,
+			Collection<ATermAppl> individuals, Map<ATermAppl, Set<ATermAppl>> visited,
+			Map<ATermAppl, Set<ATermAppl>> mostSpecific) {
+		if( c.equals( ATermUtils.BOTTOM ) ) {
+			return SetUtils.emptySet();
+		}
+
+		Set<ATermAppl> instances = visited.get( c );
+		if( instances != null ) {
+			return instances;
+		}
+
+		kb.timers.mainTimer.check();
+
+		instances = new HashSet<ATermAppl>( kb.retrieve( c, individuals ) );
+		visited.put( c, instances );
+
+		if( !instances.isEmpty() ) {
+			Set<ATermAppl> mostSpecificInstances = new HashSet<ATermAppl>( instances );
+
+			for( TaxonomyNode<ATermAppl> sub : taxonomy.getNode( c ).getSubs() ) {
+				mostSpecificInstances.removeAll( realizeByConcept( kb, sub.getName(), instances,
+						visited, mostSpecific ) );
+			}
+
+			if( !mostSpecificInstances.isEmpty() ) {
+				mostSpecific.put( c, mostSpecificInstances );
+			}
+		}
+
+		return instances;
+	}
+
 	public void printStats() {
 		Timer t1 = kb.timers.getTimer( "satisfiability" );
 		Timer t2 = kb.timers.getTimer( "subClassSat" );
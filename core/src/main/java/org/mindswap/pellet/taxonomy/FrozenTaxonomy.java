@@ -0,0 +1,369 @@
+// Copyright (c) 2006 - 2008, Clark & Parsia, LLC. <http://www.clarkparsia.com>
+// This source code is available under the terms of the Affero General Public License v3.
+//
+// Please see LICENSE.txt for full license terms, including the availability of proprietary exceptions.
+// Questions, comments, or requests for clarification: licensing@clarkparsia.com
+
+package org.mindswap.pellet.taxonomy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.mindswap.pellet.utils.Bool;
+
+/**
+ * <p>
+ * Title: Frozen Taxonomy
+ * </p>
+ * <p>
+ * Description: A compact copy of the hierarchy of a taxonomy created once the
+ * classification is finished. The visible nodes of the taxonomy are numbered
+ * in the depth-first order of a spanning tree starting from the top node and
+ * the direct subs and supers of each node are stored as arrays of node
+ * numbers. The ancestors of each node are stored as a sorted array so the
+ * supers of a node are found without a traversal. A node is known to be a
+ * descendant of another node in constant time if it is in the subtree of that
+ * node in the spanning tree and known not to be a descendant if its number is
+ * outside the range of the numbers of the descendants of that node. Only the
+ * remaining cases need a binary search in the ancestors.
+ * </p>
+ * <p>
+ * The equivalents of the nodes are read from the taxonomy so the equivalents
+ * added to existing nodes are visible in the results. Hidden nodes added to
+ * the taxonomy after it has been frozen, e.g. for the complex classes
+ * classified after the classification, are not numbered and the queries for
+ * them are answered by the taxonomy. Adding visible nodes to the taxonomy
+ * changes the hierarchy of the numbered nodes so the frozen taxonomy needs to
+ * be created again.
+ * </p>
+ * <p>
+ * Copyright: Copyright (c) 2008
+ * </p>
+ * <p>
+ * Company: Clark & Parsia, LLC. <http://www.clarkparsia.com>
+ * </p>
+ */
+public class FrozenTaxonomy<T> {
+	private static final int[]						NO_IDS	= new int[0];
+
+	private final Taxonomy<T>						taxonomy;
+
+	private final List<TaxonomyNode<T>>				nodes;
+	private final Map<TaxonomyNode<T>, Integer>		nodeIds;
+
+	private final int[][]							subs;
+	private final int[][]							supers;
+
+	/**
+	 * The sorted ids of the ancestors of each node, <code>null</code> if the
+	 * node is on a cycle
+	 */
+	private final int[][]							ancestors;
+
+	/**
+	 * The largest id in the subtree of each node in the spanning tree
+	 */
+	private final int[]								treeEnd;
+
+	/**
+	 * The smallest and largest ids of the descendants of each node
+	 */
+	private final int[]								minDescendant;
+	private final int[]								maxDescendant;
+
+	public FrozenTaxonomy(Taxonomy<T> taxonomy) {
+		this.taxonomy = taxonomy;
+
+		nodes = new ArrayList<TaxonomyNode<T>>();
+		nodeIds = new IdentityHashMap<TaxonomyNode<T>, Integer>();
+		List<Integer> treeEnds = new ArrayList<Integer>();
+		addNodes( taxonomy.getTop(), treeEnds );
+		for( TaxonomyNode<T> node : taxonomy.getNodes() ) {
+			addNodes( node, treeEnds );
+		}
+		addNodes( taxonomy.getBottom(), treeEnds );
+
+		int size = nodes.size();
+		subs = new int[size][];
+		supers = new int[size][];
+		treeEnd = new int[size];
+		for( int n = 0; n < size; n++ ) {
+			TaxonomyNode<T> node = nodes.get( n );
+			subs[n] = getIds( node.getSubs() );
+			supers[n] = getIds( node.getSupers() );
+			treeEnd[n] = treeEnds.get( n );
+		}
+
+		ancestors = new int[size][];
+		minDescendant = new int[size];
+		maxDescendant = new int[size];
+		computeClosure();
+	}
+
+	/**
+	 * Number the given node and the visible nodes below it that have not been
+	 * numbered yet in depth-first order and record the largest number in the
+	 * subtree of each node.
+	 */
+	private void addNodes(TaxonomyNode<T> root, List<Integer> treeEnds) {
+		if( root == null || root.isHidden() || nodeIds.containsKey( root ) )
+			return;
+
+		List<TaxonomyNode<T>> path = new ArrayList<TaxonomyNode<T>>();
+		List<List<TaxonomyNode<T>>> pending = new ArrayList<List<TaxonomyNode<T>>>();
+
+		nodeIds.put( root, nodes.size() );
+		nodes.add( root );
+		treeEnds.add( -1 );
+		path.add( root );
+		pending.add( new ArrayList<TaxonomyNode<T>>( root.getSubs() ) );
+		while( !path.isEmpty() ) {
+			List<TaxonomyNode<T>> children = pending.get( pending.size() - 1 );
+			if( children.isEmpty() ) {
+				TaxonomyNode<T> node = path.remove( path.size() - 1 );
+				pending.remove( pending.size() - 1 );
+				treeEnds.set( nodeIds.get( node ), nodes.size() - 1 );
+				continue;
+			}
+
+			TaxonomyNode<T> child = children.remove( children.size() - 1 );
+			if( child.isHidden() || nodeIds.containsKey( child ) )
+				continue;
+
+			nodeIds.put( child, nodes.size() );
+			nodes.add( child );
+			treeEnds.add( -1 );
+			path.add( child );
+			pending.add( new ArrayList<TaxonomyNode<T>>( child.getSubs() ) );
+		}
+	}
+
+	private int[] getIds(Collection<TaxonomyNode<T>> others) {
+		int[] ids = new int[others.size()];
+		int size = 0;
+		for( TaxonomyNode<T> other : others ) {
+			Integer id = nodeIds.get( other );
+			if( id != null )
+				ids[size++] = id;
+		}
+
+		return size == 0
+			? NO_IDS
+			: Arrays.copyOf( ids, size );
+	}
+
+	/**
+	 * Compute the ancestors of the nodes in topological order and the range of
+	 * the ids of the descendants of the nodes in reverse topological order.
+	 */
+	private void computeClosure() {
+		int size = nodes.size();
+
+		int[] remaining = new int[size];
+		int[] order = new int[size];
+		int ordered = 0;
+		for( int n = 0; n < size; n++ ) {
+			remaining[n] = supers[n].length;
+			if( remaining[n] == 0 )
+				order[ordered++] = n;
+		}
+
+		BitSet marks = new BitSet( size );
+		for( int i = 0; i < ordered; i++ ) {
+			int n = order[i];
+
+			marks.clear();
+			for( int sup : supers[n] ) {
+				marks.set( sup );
+				for( int a : ancestors[sup] ) {
+					marks.set( a );
+				}
+			}
+			int[] anc = new int[marks.cardinality()];
+			int k = 0;
+			for( int a = marks.nextSetBit( 0 ); a >= 0; a = marks.nextSetBit( a + 1 ) ) {
+				anc[k++] = a;
+			}
+			ancestors[n] = anc;
+
+			for( int sub : subs[n] ) {
+				if( --remaining[sub] == 0 )
+					order[ordered++] = sub;
+			}
+		}
+
+		for( int n = 0; n < size; n++ ) {
+			minDescendant[n] = n;
+			maxDescendant[n] = n;
+		}
+		if( ordered < size ) {
+			// the nodes on a cycle are not ordered, no descendant is
+			// excluded by the id range of any node
+			for( int n = 0; n < size; n++ ) {
+				minDescendant[n] = 0;
+				maxDescendant[n] = size - 1;
+			}
+			return;
+		}
+		for( int i = size - 1; i >= 0; i-- ) {
+			int n = order[i];
+			for( int sub : subs[n] ) {
+				if( minDescendant[sub] < minDescendant[n] )
+					minDescendant[n] = minDescendant[sub];
+				if( maxDescendant[sub] > maxDescendant[n] )
+					maxDescendant[n] = maxDescendant[sub];
+			}
+		}
+	}
+
+	public Taxonomy<T> getTaxonomy() {
+		return taxonomy;
+	}
+
+	/**
+	 * Checks if the node is numbered in this frozen taxonomy.
+	 */
+	public boolean contains(TaxonomyNode<T> node) {
+		return nodeIds.containsKey( node );
+	}
+
+	private Integer getId(T t) {
+		TaxonomyNode<T> node = taxonomy.getNode( t );
+		return node == null
+			? null
+			: nodeIds.get( node );
+	}
+
+	/**
+	 * Checks if the node with id x is a strict descendant of the node with id
+	 * y.
+	 */
+	private boolean isDescendant(int x, int y) {
+		if( x == y )
+			return false;
+
+		if( y < x && x <= treeEnd[y] )
+			return true;
+
+		if( x < minDescendant[y] || x > maxDescendant[y] )
+			return false;
+
+		int[] anc = ancestors[x];
+		if( anc == null )
+			return isReachable( y, x );
+
+		return Arrays.binarySearch( anc, y ) >= 0;
+	}
+
+	private boolean isReachable(int from, int to) {
+		BitSet visited = new BitSet( nodes.size() );
+		int[] pending = new int[nodes.size()];
+		int size = 0;
+		pending[size++] = from;
+		visited.set( from );
+		while( size > 0 ) {
+			int n = pending[--size];
+			for( int sub : subs[n] ) {
+				if( sub == to )
+					return true;
+				if( !visited.get( sub ) ) {
+					visited.set( sub );
+					pending[size++] = sub;
+				}
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Checks if x has an ancestor y.
+	 *
+	 * @see Taxonomy#isSubNodeOf(Object, Object)
+	 */
+	public Bool isSubNodeOf(T x, T y) {
+		Integer idX = getId( x );
+		Integer idY = getId( y );
+		if( idX == null || idY == null )
+			return taxonomy.isSubNodeOf( x, y );
+
+		if( idX.equals( idY ) || isDescendant( idX, idY ) )
+			return Bool.TRUE;
+
+		return Bool.FALSE;
+	}
+
+	/**
+	 * Returns the equivalence classes of the supers of the given element.
+	 *
+	 * @see Taxonomy#getSupers(Object, boolean)
+	 */
+	public Set<Set<T>> getSupers(T t, boolean direct) {
+		Integer id = getId( t );
+		if( id == null || (!direct && ancestors[id] == null) )
+			return taxonomy.getSupers( t, direct );
+
+		return getEquivalents( direct
+			? supers[id]
+			: ancestors[id] );
+	}
+
+	/**
+	 * Returns the equivalence classes of the subs of the given element.
+	 *
+	 * @see Taxonomy#getSubs(Object, boolean)
+	 */
+	public Set<Set<T>> getSubs(T t, boolean direct) {
+		Integer id = getId( t );
+		if( id == null )
+			return taxonomy.getSubs( t, direct );
+
+		if( direct )
+			return getEquivalents( subs[id] );
+
+		BitSet visited = new BitSet( nodes.size() );
+		int[] pending = new int[nodes.size()];
+		int size = 0;
+		for( int sub : subs[id] ) {
+			if( !visited.get( sub ) ) {
+				visited.set( sub );
+				pending[size++] = sub;
+			}
+		}
+		while( size > 0 ) {
+			int n = pending[--size];
+			for( int sub : subs[n] ) {
+				if( !visited.get( sub ) ) {
+					visited.set( sub );
+					pending[size++] = sub;
+				}
+			}
+		}
+
+		int[] ids = new int[visited.cardinality()];
+		int k = 0;
+		for( int n = visited.nextSetBit( 0 ); n >= 0; n = visited.nextSetBit( n + 1 ) ) {
+			ids[k++] = n;
+		}
+
+		return getEquivalents( ids );
+	}
+
+	private Set<Set<T>> getEquivalents(int[] ids) {
+		Set<Set<T>> result = new HashSet<Set<T>>();
+		for( int n : ids ) {
+			Set<T> equivalents = nodes.get( n ).getEquivalents();
+			if( !equivalents.isEmpty() )
+				result.add( new HashSet<T>( equivalents ) );
+		}
+
+		return result;
+	}
+}
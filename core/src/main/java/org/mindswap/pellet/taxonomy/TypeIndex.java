@@ -0,0 +1,335 @@
+// Copyright (c) 2006 - 2008, Clark & Parsia, LLC. <http://www.clarkparsia.com>
+// This source code is available under the terms of the Affero General Public License v3.
+//
+// Please see LICENSE.txt for full license terms, including the availability of proprietary exceptions.
+// Questions, comments, or requests for clarification: licensing@clarkparsia.com
+
+package org.mindswap.pellet.taxonomy;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.mindswap.pellet.utils.TaxonomyUtils;
+
+import aterm.ATermAppl;
+
+/**
+ * <p>
+ * Title: Type Index
+ * </p>
+ * <p>
+ * Description: An index of the instances stored in the nodes of a realized
+ * taxonomy. Individuals are numbered in the depth-first order of the taxonomy
+ * nodes so the instances of a subtree have nearby numbers, the direct
+ * instances of each node are stored as a sorted array of numbers and the
+ * direct types of each individual as an array of node numbers. The instances
+ * of a class are computed as a bit set that is the union of the arrays of the
+ * node and its descendants and returned as a read-only set view of that bit
+ * set.
+ * </p>
+ * <p>
+ * The index is a snapshot of the {@link TaxonomyUtils#INSTANCES_KEY} data of
+ * the taxonomy at the time it is created so it needs to be created again after
+ * the taxonomy is realized again.
+ * </p>
+ * <p>
+ * Copyright: Copyright (c) 2008
+ * </p>
+ * <p>
+ * Company: Clark & Parsia, LLC. <http://www.clarkparsia.com>
+ * </p>
+ */
+public class TypeIndex {
+	private static final int[]						NO_IDS	= new int[0];
+
+	private final Taxonomy<ATermAppl>				taxonomy;
+
+	private final List<TaxonomyNode<ATermAppl>>		nodes;
+	private final Map<TaxonomyNode<ATermAppl>, Integer>	nodeIds;
+
+	private final ATermAppl[]						individuals;
+	private final Map<ATermAppl, Integer>			ids;
+
+	/**
+	 * The sorted ids of the direct instances of each node
+	 */
+	private final int[][]							directInstances;
+
+	/**
+	 * The ids of the nodes each individual is a direct instance of
+	 */
+	private final int[][]							directTypes;
+
+	public TypeIndex(Taxonomy<ATermAppl> taxonomy) {
+		this.taxonomy = taxonomy;
+
+		nodes = new ArrayList<TaxonomyNode<ATermAppl>>();
+		nodeIds = new IdentityHashMap<TaxonomyNode<ATermAppl>, Integer>();
+		addNodes( taxonomy.getTop() );
+		for( TaxonomyNode<ATermAppl> node : taxonomy.getNodes() ) {
+			addNodes( node );
+		}
+
+		List<ATermAppl> individualList = new ArrayList<ATermAppl>();
+		ids = new HashMap<ATermAppl, Integer>();
+		directInstances = new int[nodes.size()][];
+		int[] typeCounts = new int[16];
+		for( int n = 0; n < nodes.size(); n++ ) {
+			@SuppressWarnings("unchecked")
+			Set<ATermAppl> instances = (Set<ATermAppl>) nodes.get( n ).getDatum(
+					TaxonomyUtils.INSTANCES_KEY );
+			if( instances == null || instances.isEmpty() ) {
+				directInstances[n] = NO_IDS;
+				continue;
+			}
+
+			int[] instanceIds = new int[instances.size()];
+			int i = 0;
+			for( ATermAppl x : instances ) {
+				Integer id = ids.get( x );
+				if( id == null ) {
+					id = individualList.size();
+					ids.put( x, id );
+					individualList.add( x );
+					if( id == typeCounts.length )
+						typeCounts = Arrays.copyOf( typeCounts, 2 * id );
+				}
+				typeCounts[id]++;
+				instanceIds[i++] = id;
+			}
+			Arrays.sort( instanceIds );
+			directInstances[n] = instanceIds;
+		}
+
+		individuals = individualList.toArray( new ATermAppl[individualList.size()] );
+
+		directTypes = new int[individuals.length][];
+		for( int id = 0; id < individuals.length; id++ ) {
+			directTypes[id] = new int[typeCounts[id]];
+			typeCounts[id] = 0;
+		}
+		for( int n = 0; n < nodes.size(); n++ ) {
+			for( int id : directInstances[n] ) {
+				directTypes[id][typeCounts[id]++] = n;
+			}
+		}
+	}
+
+	/**
+	 * Number the given node and the nodes below it that have not been
+	 * numbered yet in depth-first order.
+	 */
+	private void addNodes(TaxonomyNode<ATermAppl> root) {
+		if( root == null || nodeIds.containsKey( root ) )
+			return;
+
+		List<TaxonomyNode<ATermAppl>> pending = new ArrayList<TaxonomyNode<ATermAppl>>();
+		pending.add( root );
+		while( !pending.isEmpty() ) {
+			TaxonomyNode<ATermAppl> node = pending.remove( pending.size() - 1 );
+			if( nodeIds.containsKey( node ) )
+				continue;
+
+			nodeIds.put( node, nodes.size() );
+			nodes.add( node );
+
+			for( TaxonomyNode<ATermAppl> sub : node.getSubs() ) {
+				if( !nodeIds.containsKey( sub ) )
+					pending.add( sub );
+			}
+		}
+	}
+
+	public Taxonomy<ATermAppl> getTaxonomy() {
+		return taxonomy;
+	}
+
+	private TaxonomyNode<ATermAppl> getNode(ATermAppl c) {
+		TaxonomyNode<ATermAppl> node = taxonomy.getNode( c );
+		if( node == null )
+			throw new RuntimeException( c + " is an unknown class!" );
+
+		return node;
+	}
+
+	/**
+	 * Set the bits of the direct instances of the given node. The nodes added
+	 * to the taxonomy after the index was created, e.g. for the classes
+	 * classified after realization, are not numbered so their instances are
+	 * looked up in the taxonomy.
+	 */
+	private void setDirectInstances(TaxonomyNode<ATermAppl> node, BitSet bits) {
+		Integer nodeId = nodeIds.get( node );
+		if( nodeId != null ) {
+			for( int id : directInstances[nodeId] ) {
+				bits.set( id );
+			}
+		}
+		else {
+			@SuppressWarnings("unchecked")
+			Set<ATermAppl> instances = (Set<ATermAppl>) node.getDatum( TaxonomyUtils.INSTANCES_KEY );
+			if( instances != null ) {
+				for( ATermAppl x : instances ) {
+					Integer id = ids.get( x );
+					if( id != null )
+						bits.set( id );
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the individuals that are instances of the given class and not
+	 * instances of any of its subclasses.
+	 */
+	public Set<ATermAppl> getDirectInstances(ATermAppl c) {
+		BitSet bits = new BitSet( individuals.length );
+		setDirectInstances( getNode( c ), bits );
+
+		return new InstanceSet( bits );
+	}
+
+	/**
+	 * Returns the individuals that are instances of the given class or any of
+	 * its subclasses.
+	 */
+	public Set<ATermAppl> getAllInstances(ATermAppl c) {
+		BitSet bits = new BitSet( individuals.length );
+		Set<TaxonomyNode<ATermAppl>> visited = new HashSet<TaxonomyNode<ATermAppl>>();
+		List<TaxonomyNode<ATermAppl>> pending = new ArrayList<TaxonomyNode<ATermAppl>>();
+
+		TaxonomyNode<ATermAppl> node = getNode( c );
+		visited.add( node );
+		pending.add( node );
+		while( !pending.isEmpty() ) {
+			TaxonomyNode<ATermAppl> current = pending.remove( pending.size() - 1 );
+			setDirectInstances( current, bits );
+
+			for( TaxonomyNode<ATermAppl> sub : current.getSubs() ) {
+				if( visited.add( sub ) )
+					pending.add( sub );
+			}
+		}
+
+		return new InstanceSet( bits );
+	}
+
+	/**
+	 * Checks if the individual is an instance of the given class by checking
+	 * if any node the individual is a direct instance of is the node of the
+	 * class or one of its descendants.
+	 */
+	public boolean isType(ATermAppl x, ATermAppl c) {
+		TaxonomyNode<ATermAppl> node = getNode( c );
+
+		Integer id = ids.get( x );
+		if( id == null )
+			return false;
+
+		for( int n : directTypes[id] ) {
+			TaxonomyNode<ATermAppl> type = nodes.get( n );
+			if( type == node || isAncestor( node, type ) )
+				return true;
+		}
+
+		return false;
+	}
+
+	private static boolean isAncestor(TaxonomyNode<ATermAppl> ancestor,
+			TaxonomyNode<ATermAppl> node) {
+		Set<TaxonomyNode<ATermAppl>> visited = new HashSet<TaxonomyNode<ATermAppl>>();
+		List<TaxonomyNode<ATermAppl>> pending = new ArrayList<TaxonomyNode<ATermAppl>>();
+		pending.add( node );
+		while( !pending.isEmpty() ) {
+			TaxonomyNode<ATermAppl> current = pending.remove( pending.size() - 1 );
+			for( TaxonomyNode<ATermAppl> sup : current.getSupers() ) {
+				if( sup == ancestor )
+					return true;
+				if( visited.add( sup ) )
+					pending.add( sup );
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Returns the classes the individual is an instance of.
+	 *
+	 * @see TaxonomyUtils#getTypes(Taxonomy, Object, boolean)
+	 */
+	public Set<Set<ATermAppl>> getTypes(ATermAppl x, boolean directOnly) {
+		Integer id = ids.get( x );
+		if( id == null )
+			return Collections.emptySet();
+
+		Set<Set<ATermAppl>> types = new HashSet<Set<ATermAppl>>();
+		for( int n : directTypes[id] ) {
+			Set<ATermAppl> equivalents = nodes.get( n ).getEquivalents();
+			types.add( Collections.unmodifiableSet( equivalents ) );
+			if( !directOnly )
+				types.addAll( taxonomy.getSupers( equivalents.iterator().next() ) );
+		}
+
+		return Collections.unmodifiableSet( types );
+	}
+
+	/**
+	 * A read-only view of a set of individual ids.
+	 */
+	private class InstanceSet extends AbstractSet<ATermAppl> {
+		private final BitSet	bits;
+		private final int		size;
+
+		public InstanceSet(BitSet bits) {
+			this.bits = bits;
+			this.size = bits.cardinality();
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			Integer id = ids.get( o );
+			return id != null && bits.get( id );
+		}
+
+		@Override
+		public Iterator<ATermAppl> iterator() {
+			return new Iterator<ATermAppl>() {
+				private int	next	= bits.nextSetBit( 0 );
+
+				public boolean hasNext() {
+					return next >= 0;
+				}
+
+				public ATermAppl next() {
+					if( next < 0 )
+						throw new NoSuchElementException();
+
+					ATermAppl x = individuals[next];
+					next = bits.nextSetBit( next + 1 );
+					return x;
+				}
+
+				public void remove() {
+					throw new UnsupportedOperationException();
+				}
+			};
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+	}
+}
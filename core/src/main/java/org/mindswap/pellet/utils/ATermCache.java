@@ -0,0 +1,148 @@
+// Copyright (c) 2006 - 2008, Clark & Parsia, LLC. <http://www.clarkparsia.com>
+// This source code is available under the terms of the Affero General Public License v3.
+//
+// Please see LICENSE.txt for full license terms, including the availability of proprietary exceptions.
+// Questions, comments, or requests for clarification: licensing@clarkparsia.com
+
+package org.mindswap.pellet.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.mindswap.pellet.PelletOptions;
+
+import aterm.ATermAppl;
+
+/**
+ * <p>
+ * Title: ATerm Cache
+ * </p>
+ * <p>
+ * Description: A bounded cache for the results of a function on terms. Terms
+ * are maximally shared so the cache compares the keys by identity. The cache is
+ * a direct-mapped table where each term can only be stored in the slot
+ * selected by its hash code, a new entry simply replaces the entry in its slot
+ * so the cache never grows beyond its capacity. Entries are immutable and the
+ * slots are updated atomically so the cache can be used by multiple threads
+ * without locking. The hits and misses are only counted if
+ * {@link PelletOptions#COLLECT_TERM_CACHE_STATISTICS} is set.
+ * </p>
+ * <p>
+ * Copyright: Copyright (c) 2008
+ * </p>
+ * <p>
+ * Company: Clark & Parsia, LLC. <http://www.clarkparsia.com>
+ * </p>
+ */
+public class ATermCache<V> {
+	private static class Entry<V> {
+		private final ATermAppl	key;
+		private final V			value;
+
+		public Entry(ATermAppl key, V value) {
+			this.key = key;
+			this.value = value;
+		}
+	}
+
+	private final String						name;
+	private final AtomicReferenceArray<Entry<V>>	entries;
+	private final int							mask;
+
+	private final AtomicLong					hits	= new AtomicLong();
+	private final AtomicLong					misses	= new AtomicLong();
+
+	/**
+	 * Create a cache with the given capacity rounded up to a power of two. A
+	 * cache with capacity zero does not store anything.
+	 */
+	public ATermCache(String name, int capacity) {
+		this.name = name;
+
+		int size = 0;
+		if( capacity > 0 ) {
+			size = 1;
+			while( size < capacity )
+				size <<= 1;
+		}
+
+		entries = new AtomicReferenceArray<Entry<V>>( size );
+		mask = size - 1;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public int getCapacity() {
+		return entries.length();
+	}
+
+	private int index(ATermAppl key) {
+		int h = key.hashCode();
+		h ^= (h >>> 16);
+		return h & mask;
+	}
+
+	/**
+	 * Returns the cached value for the term or <code>null</code> if the
+	 * value is not in the cache.
+	 */
+	public V get(ATermAppl key) {
+		if( mask < 0 )
+			return null;
+
+		Entry<V> entry = entries.get( index( key ) );
+		if( entry != null && entry.key == key ) {
+			if( PelletOptions.COLLECT_TERM_CACHE_STATISTICS )
+				hits.incrementAndGet();
+			return entry.value;
+		}
+
+		if( PelletOptions.COLLECT_TERM_CACHE_STATISTICS )
+			misses.incrementAndGet();
+		return null;
+	}
+
+	public void put(ATermAppl key, V value) {
+		if( mask < 0 )
+			return;
+
+		entries.set( index( key ), new Entry<V>( key, value ) );
+	}
+
+	public void clear() {
+		for( int i = 0; i < entries.length(); i++ ) {
+			entries.set( i, null );
+		}
+	}
+
+	public long getHits() {
+		return hits.get();
+	}
+
+	public long getMisses() {
+		return misses.get();
+	}
+
+	/**
+	 * Returns the ratio of the lookups that found the value in the cache.
+	 */
+	public double getHitRate() {
+		long h = hits.get();
+		long total = h + misses.get();
+		return total == 0
+			? 0
+			: (double) h / total;
+	}
+
+	public void resetStats() {
+		hits.set( 0 );
+		misses.set( 0 );
+	}
+
+	@Override
+	public String toString() {
+		return name + " cache: " + hits.get() + " hits, " + misses.get() + " misses";
+	}
+}
@@ -0,0 +1,113 @@
+// Copyright (c) 2006 - 2008, Clark & Parsia, LLC. <http://www.clarkparsia.com>
+// This source code is available under the terms of the Affero General Public License v3.
+//
+// Please see LICENSE.txt for full license terms, including the availability of proprietary exceptions.
+// Questions, comments, or requests for clarification: licensing@clarkparsia.com
+
+package org.mindswap.pellet.utils;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import aterm.ATerm;
+import aterm.ATermAppl;
+import aterm.ATermFactory;
+import aterm.ATermList;
+
+/**
+ * <p>
+ * Title: ATerm Data Input Stream
+ * </p>
+ * <p>
+ * Description: Data input stream that can also read the ATerms written by
+ * {@link ATermDataOutputStream}. The terms are created with the factory used
+ * by {@link ATermUtils}.
+ * </p>
+ * <p>
+ * Copyright: Copyright (c) 2008
+ * </p>
+ * <p>
+ * Company: Clark & Parsia, LLC. <http://www.clarkparsia.com>
+ * </p>
+ */
+public class ATermDataInputStream extends DataInputStream {
+	private ATermFactory	factory;
+
+	private List<ATerm>		terms;
+
+	public ATermDataInputStream(InputStream in) {
+		super( in );
+
+		factory = ATermUtils.getFactory();
+		terms = new ArrayList<ATerm>();
+	}
+
+	/**
+	 * Read a term.
+	 */
+	public ATerm readTerm() throws IOException {
+		int id = readInt();
+		if( id != ATermDataOutputStream.NEW_TERM ) {
+			if( id < 0 || id >= terms.size() )
+				throw new IOException( "Invalid term index " + id );
+			return terms.get( id );
+		}
+
+		ATerm term;
+		byte type = readByte();
+		switch( type ) {
+		case ATermDataOutputStream.APPL:
+			String name = readString();
+			boolean isQuoted = readBoolean();
+			ATerm[] args = new ATerm[readInt()];
+			for( int i = 0; i < args.length; i++ ) {
+				args[i] = readTerm();
+			}
+			term = factory.makeAppl( factory.makeAFun( name, args.length, isQuoted ), args );
+			break;
+		case ATermDataOutputStream.INT:
+			term = factory.makeInt( readInt() );
+			break;
+		case ATermDataOutputStream.LIST:
+			ATerm[] elements = new ATerm[readInt()];
+			for( int i = 0; i < elements.length; i++ ) {
+				elements[i] = readTerm();
+			}
+			ATermList list = factory.makeList();
+			for( int i = elements.length - 1; i >= 0; i-- ) {
+				list = list.insert( elements[i] );
+			}
+			term = list;
+			break;
+		default:
+			throw new IOException( "Unknown term type " + type );
+		}
+
+		terms.add( term );
+
+		return term;
+	}
+
+	/**
+	 * Read a term that is expected to be an application.
+	 */
+	public ATermAppl readAppl() throws IOException {
+		ATerm term = readTerm();
+		if( !(term instanceof ATermAppl) )
+			throw new IOException( "Expected an application term: " + term );
+
+		return (ATermAppl) term;
+	}
+
+	/**
+	 * Read a string written by {@link ATermDataOutputStream#writeString(String)}.
+	 */
+	public String readString() throws IOException {
+		byte[] bytes = new byte[readInt()];
+		readFully( bytes );
+		return new String( bytes, "UTF-8" );
+	}
+}
@@ -0,0 +1,106 @@
+// Copyright (c) 2006 - 2008, Clark & Parsia, LLC. <http://www.clarkparsia.com>
+// This source code is available under the terms of the Affero General Public License v3.
+//
+// Please see LICENSE.txt for full license terms, including the availability of proprietary exceptions.
+// Questions, comments, or requests for clarification: licensing@clarkparsia.com
+
+package org.mindswap.pellet.utils;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import aterm.AFun;
+import aterm.ATerm;
+import aterm.ATermAppl;
+import aterm.ATermInt;
+import aterm.ATermList;
+
+/**
+ * <p>
+ * Title: ATerm Data Output Stream
+ * </p>
+ * <p>
+ * Description: Data output stream that can also write ATerms in a compact
+ * binary form to be read by {@link ATermDataInputStream}. Each term is written
+ * only once: the first time a term is written its function symbol and
+ * arguments are written and it is given the next index, afterwards only the
+ * index is written. Application, integer and list terms are supported.
+ * </p>
+ * <p>
+ * Copyright: Copyright (c) 2008
+ * </p>
+ * <p>
+ * Company: Clark & Parsia, LLC. <http://www.clarkparsia.com>
+ * </p>
+ */
+public class ATermDataOutputStream extends DataOutputStream {
+	static final int				NEW_TERM	= -1;
+
+	static final byte				APPL		= 0;
+	static final byte				INT			= 1;
+	static final byte				LIST		= 2;
+
+	private Map<ATerm, Integer>	ids;
+
+	public ATermDataOutputStream(OutputStream out) {
+		super( out );
+
+		ids = new IdentityHashMap<ATerm, Integer>();
+	}
+
+	/**
+	 * Write a term or its index if the term has already been written to this
+	 * stream.
+	 */
+	public void writeTerm(ATerm term) throws IOException {
+		Integer id = ids.get( term );
+		if( id != null ) {
+			writeInt( id );
+			return;
+		}
+
+		writeInt( NEW_TERM );
+		switch( term.getType() ) {
+		case ATerm.APPL:
+			ATermAppl appl = (ATermAppl) term;
+			AFun fun = appl.getAFun();
+			writeByte( APPL );
+			writeString( fun.getName() );
+			writeBoolean( fun.isQuoted() );
+			writeInt( fun.getArity() );
+			for( int i = 0; i < appl.getArity(); i++ ) {
+				writeTerm( appl.getArgument( i ) );
+			}
+			break;
+		case ATerm.INT:
+			writeByte( INT );
+			writeInt( ((ATermInt) term).getInt() );
+			break;
+		case ATerm.LIST:
+			ATermList list = (ATermList) term;
+			writeByte( LIST );
+			writeInt( list.getLength() );
+			for( ; !list.isEmpty(); list = list.getNext() ) {
+				writeTerm( list.getFirst() );
+			}
+			break;
+		default:
+			throw new IOException( "Cannot write term " + term );
+		}
+
+		// the arguments are numbered before the term itself
+		ids.put( term, ids.size() );
+	}
+
+	/**
+	 * Write a string of any length in UTF-8 encoding.
+	 */
+	public void writeString(String s) throws IOException {
+		byte[] bytes = s.getBytes( "UTF-8" );
+		writeInt( bytes.length );
+		write( bytes );
+	}
+}
@@ -38,6 +38,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 
+import org.mindswap.pellet.PelletOptions;
 import org.mindswap.pellet.Role;
 import org.mindswap.pellet.exceptions.InternalReasonerException;
 import org.mindswap.pellet.output.ATermManchesterSyntaxRenderer;
@@ -57,12 +58,42 @@ import aterm.pure.PureFactory;
  * URI's and complex class descriptions is done here. There are also functions
  * for normalization, simplification and conversion to NNF (Normal Negation
  * Form).
+ * <p>
+ * All the terms are created by a single factory shared by every KB. The
+ * factory keeps its hash-consing table in segments that are locked separately
+ * when a new term is added while lookups of existing terms do not lock. The
+ * entries of the table are weak references so the terms that are not used
+ * anymore are garbage collected. The functions in this class only depend on
+ * the factory so they can be called concurrently from any number of threads
+ * and the terms created by different threads are still maximally shared, i.e.
+ * structurally equal terms are identical.
+ * </p>
+ * <p>
+ * A {@link org.mindswap.pellet.KnowledgeBase} is not thread-safe but
+ * separate KBs do not share any other mutable state so different KBs can be
+ * loaded and used for reasoning concurrently, see
+ * {@link org.mindswap.pellet.KnowledgeBase}.
+ * </p>
  * 
  * @author Evren Sirin
  */
 public class ATermUtils {
+	/**
+	 * The factory of aterm-java is a concurrent, segmented table with weak
+	 * entries
+	 */
 	private static final ATermFactory	factory				= new PureFactory();
 
+	/**
+	 * Caches for the results of {@link #normalize(ATermAppl)} and
+	 * {@link #nnf(ATermAppl)}. There is no cache for {@link #negate(ATermAppl)}
+	 * since the negation is a single lookup in the factory.
+	 */
+	private static final ATermCache<ATermAppl>	normalizeCache	= new ATermCache<ATermAppl>( "normalize",
+																	PelletOptions.TERM_CACHE_SIZE );
+	private static final ATermCache<ATermAppl>	nnfCache		= new ATermCache<ATermAppl>( "nnf",
+																	PelletOptions.TERM_CACHE_SIZE );
+
 	public static final AFun			LITFUN				= factory
 																	.makeAFun( "literal", 3, false );
 	public static final int				LIT_VAL_INDEX		= 0;
@@ -211,6 +242,25 @@ public class ATermUtils {
 		return factory;
 	}
 
+	public static ATermCache<ATermAppl> getNormalizeCache() {
+		return normalizeCache;
+	}
+
+	public static ATermCache<ATermAppl> getNNFCache() {
+		return nnfCache;
+	}
+
+	/**
+	 * Clear the caches of the normalized and NNF terms. The caches are shared
+	 * by all the KBs and bounded so they are not cleared with a KB, clearing
+	 * them only releases the cached terms and does not change the results of
+	 * any function.
+	 */
+	public static void clearCaches() {
+		normalizeCache.clear();
+		nnfCache.clear();
+	}
+
 	final static public ATermAppl makeTypeAtom(ATermAppl ind, ATermAppl c) {
 		return factory.makeAppl( TYPEFUN, ind, c );
 	}
@@ -1141,6 +1191,19 @@ public class ATermUtils {
 	 * concepts
 	 */
 	public static ATermAppl nnf(ATermAppl term) {
+		if( term.getArity() == 0 )
+			return term;
+
+		ATermAppl newterm = nnfCache.get( term );
+		if( newterm == null ) {
+			newterm = nnfTerm( term );
+			nnfCache.put( term, newterm );
+		}
+
+		return newterm;
+	}
+
+	private static ATermAppl nnfTerm(ATermAppl term) {
 		ATermAppl newterm = null;
 
 		AFun af = term.getAFun();
@@ -1256,6 +1319,19 @@ public class ATermUtils {
 	 * @return
 	 */
 	public static ATermAppl normalize(ATermAppl term) {
+		if( term.getArity() == 0 )
+			return term;
+
+		ATermAppl norm = normalizeCache.get( term );
+		if( norm == null ) {
+			norm = normalizeTerm( term );
+			normalizeCache.put( term, norm );
+		}
+
+		return norm;
+	}
+
+	private static ATermAppl normalizeTerm(ATermAppl term) {
 		ATermAppl norm = term;
 		AFun fun = term.getAFun();
 		ATerm arg1 = (term.getArity() > 0)
@@ -0,0 +1,134 @@
+// Copyright (c) 2006 - 2008, Clark & Parsia, LLC. <http://www.clarkparsia.com>
+// This source code is available under the terms of the Affero General Public License v3.
+//
+// Please see LICENSE.txt for full license terms, including the availability of proprietary exceptions.
+// Questions, comments, or requests for clarification: licensing@clarkparsia.com
+
+package org.mindswap.pellet.utils;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import aterm.ATermAppl;
+
+/**
+ * <p>
+ * Title: Reasoner Events
+ * </p>
+ * <p>
+ * Description: Emits the major reasoning phases (consistency, classification,
+ * realization and query answering) and the satisfiability tests as Java
+ * Flight Recorder events so they can be recorded in production with a low
+ * overhead. The Flight Recorder implementation needs Java 11 and is in the
+ * optional pellet-jfr module. When that module is not on the classpath, the
+ * JVM does not support Flight Recorder or the events are not enabled in the
+ * recording, the events are shared objects that do nothing.
+ * </p>
+ * <p>
+ * An event is created when the operation begins and finished when the operation
+ * finishes:
+ * </p>
+ * 
+ * <pre>
+ * ReasonerEvents.Phase event = ReasonerEvents.beginPhase( &quot;classification&quot; );
+ * try {
+ * 	...
+ * } finally {
+ * 	event.finish();
+ * }
+ * </pre>
+ * <p>
+ * Copyright: Copyright (c) 2008
+ * </p>
+ * <p>
+ * Company: Clark & Parsia, LLC. <http://www.clarkparsia.com>
+ * </p>
+ */
+public abstract class ReasonerEvents {
+	public final static Logger	log	= Logger.getLogger( ReasonerEvents.class.getName() );
+
+	/**
+	 * A reasoning phase
+	 */
+	public interface Phase {
+		void finish();
+	}
+
+	/**
+	 * A satisfiability test
+	 */
+	public interface Satisfiability {
+		void finish(boolean satisfiable);
+	}
+
+	private static final Phase					NO_PHASE			= new Phase() {
+																		public void finish() {
+																		}
+																	};
+
+	private static final Satisfiability			NO_SATISFIABILITY	= new Satisfiability() {
+																		public void finish(
+																				boolean satisfiable) {
+																		}
+																	};
+
+	private static final ReasonerEvents			INSTANCE			= createInstance();
+
+	private static ReasonerEvents createInstance() {
+		try {
+			Class.forName( "jdk.jfr.Event" );
+			return (ReasonerEvents) Class.forName(
+					"org.mindswap.pellet.utils.JFRReasonerEvents" ).newInstance();
+		} catch( Throwable e ) {
+			if( log.isLoggable( Level.FINE ) )
+				log.fine( "Flight Recorder events are not available: " + e );
+			return null;
+		}
+	}
+
+	/**
+	 * Returns <code>true</code> if the events can be recorded by Flight
+	 * Recorder in this JVM.
+	 */
+	public static boolean isAvailable() {
+		return INSTANCE != null;
+	}
+
+	/**
+	 * Begins a reasoning phase with the given name.
+	 */
+	public static Phase beginPhase(String name) {
+		if( INSTANCE == null )
+			return NO_PHASE;
+
+		Phase phase = INSTANCE.createPhase( name );
+		return phase == null
+			? NO_PHASE
+			: phase;
+	}
+
+	/**
+	 * Begins the satisfiability test of the given concept.
+	 */
+	public static Satisfiability beginSatisfiability(ATermAppl c) {
+		if( INSTANCE == null )
+			return NO_SATISFIABILITY;
+
+		Satisfiability sat = INSTANCE.createSatisfiability( c );
+		return sat == null
+			? NO_SATISFIABILITY
+			: sat;
+	}
+
+	/**
+	 * Creates and begins a phase event or returns <code>null</code> if the
+	 * event is not enabled.
+	 */
+	protected abstract Phase createPhase(String name);
+
+	/**
+	 * Creates and begins a satisfiability event or returns <code>null</code>
+	 * if the event is not enabled.
+	 */
+	protected abstract Satisfiability createSatisfiability(ATermAppl c);
+}
@@ -30,6 +30,8 @@
 
 package org.mindswap.pellet.utils;
 
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -51,11 +53,20 @@ import org.mindswap.pellet.exceptions.TimerInterruptedException;
  * is the programmer's responsibility to make sure each start() is
  * stopped by a stop() call.</p> 
  * 
+ * <p>A timer can be started and stopped by several threads at the same time. The start and
+ * stop calls are counted separately for each thread and the time spent by each thread is
+ * added to the total time and count of the timer, so the total time of a timer used by
+ * parallel threads may be greater than the wall clock time. The timer is running as long
+ * as one of the threads has started it and the elapsed time is measured from the time the
+ * first thread started it.</p>
+ * 
  * <p>Each timer may be associated with a timeout limit. This means that time spent between 
  * start() and stop() calls should be less than the 
  * timeout specified. Timeouts will only be checked when check() function
  * is called. If check() function is not called setting timeouts has no
- * effect. It is up to the programmer to decide when and how many times a timer will be checked.</p> 
+ * effect. It is up to the programmer to decide when and how many times a timer will be checked.
+ * Checking a timer without a timeout only reads the volatile interrupted flag of the timer and
+ * its parent so it can be called in the inner loops of the reasoner.</p> 
  * 
  * <p>There may be a dependency between timers. For example, classification, realization and entailment
  * operations all use consistency checks. If something goes wrong inside a consistency check and
@@ -81,18 +92,34 @@ public class Timer {
 	public final static long NOT_STARTED = -1;
 	public final static long NO_TIMEOUT  = 0;
 	
-	private String name; 		// name to identify what we are timing 
-	private long totalTime;		// total time that has elapsed when the timer was running		
-	private long startTime;		// last time timer was started
-	private long count;			// number of times the timer was started and stopped
-	private long startCount;	// if we are timing recursive functions timer may be started 
-								// multiple times. we only want to measure time spent in the 
-								// upper most function call so we need to discard other starts
-	private long timeout;		// Point at which a call to check throws an exception
-	private long lastTime;		// time that has elapsed between last start()-stop() period
-	private boolean interrupted; // Tells whether this timer has been interrupted
+	/**
+	 * The start and stop calls of one thread
+	 */
+	private static class Frame {
+		private int		epoch;		// the reset count of the timer when the frame was used
+		private long	startCount;	// number of starts that have not been stopped
+		private long	startTime;	// time the thread started the timer
+		private long	lastTime;	// time that has elapsed between last start()-stop() period
+	}
+	
+	private final String name; 			// name to identify what we are timing 
+	private final AtomicLong totalTime;	// total time that has elapsed when the timer was running		
+	private final AtomicLong count;		// number of times the timer was started and stopped
+	private final AtomicInteger running;	// number of threads that have started the timer
+	private volatile long startTime;	// time the first running thread started the timer
+	private volatile long timeout;		// Point at which a call to check throws an exception
+	private volatile boolean interrupted; // Tells whether this timer has been interrupted
+	private volatile int epoch;			// incremented when the timer is reset so the frames of 
+										// all the threads are discarded
+	
+	private final ThreadLocal<Frame> frames = new ThreadLocal<Frame>() {
+		@Override
+		protected Frame initialValue() {
+			return new Frame();
+		}
+	};
 	
-	private Timer parent;		// the parent timer
+	private final Timer parent;		// the parent timer
 
 	/**
 	 * Create a timer with no name and no parent.
@@ -120,6 +147,9 @@ public class Timer {
 		this.name = name;
 		this.parent = parent;
 
+		totalTime = new AtomicLong();
+		count = new AtomicLong();
+		running = new AtomicInteger();
 		timeout = NO_TIMEOUT;
 		reset();
 	}
@@ -130,8 +160,21 @@ public class Timer {
 	 * @param timer
 	 */
 	public void add( Timer timer ) {
-	    totalTime += timer.totalTime;
-	    count += timer.count;
+	    totalTime.addAndGet( timer.getTotal() );
+	    count.addAndGet( timer.getCount() );
+	}
+	
+	/**
+	 * Returns the start and stop calls of the current thread.
+	 */
+	private Frame getFrame() {
+		Frame frame = frames.get();
+		if( frame.epoch != epoch ) {
+			frame.epoch = epoch;
+			frame.startCount = 0;
+			frame.startTime = NOT_STARTED;
+		}
+		return frame;
 	}
 	
 	/**
@@ -141,11 +184,14 @@ public class Timer {
 	 *
 	 */
 	public void start() {
-		if(startCount == 0) { 
-			startTime = System.currentTimeMillis();
+		Frame frame = getFrame();
+		if( frame.startCount == 0 ) { 
+			frame.startTime = System.currentTimeMillis();
+			if( running.getAndIncrement() == 0 )
+				startTime = frame.startTime;
 		}
 		
-		startCount++;
+		frame.startCount++;
 	}
 
     
@@ -157,24 +203,27 @@ public class Timer {
      * @return Return the total time spent after last start(), -1 if timer is still running, -Long.MAX_VALUE on error
 	 */
 	public long stop() {
-		if( !isStarted() ) {
+		Frame frame = getFrame();
+		if( frame.startCount == 0 ) {
 			if( log.isLoggable( Level.FINE ) )
 				log
 						.fine( String.format(
-								"Ignoring attempt to stop a timer (\"%s\") that is not running. Timer results are incorrect for multi-threaded code.",
+								"Ignoring attempt to stop a timer (\"%s\") that is not running in this thread.",
 								name ) );
 			return -Long.MAX_VALUE;
 		}
 		
 		// Decrement start counter.
-		startCount--;
+		frame.startCount--;
 		
-		if ( !isStarted() ) {			
-		    lastTime = System.currentTimeMillis() - startTime;
-			totalTime += lastTime;
-			startTime = NOT_STARTED;						
-			count++;
-            return lastTime;
+		if ( frame.startCount == 0 ) {			
+		    frame.lastTime = System.currentTimeMillis() - frame.startTime;
+			frame.startTime = NOT_STARTED;
+			totalTime.addAndGet( frame.lastTime );
+			count.incrementAndGet();
+			if( running.decrementAndGet() == 0 )
+				startTime = NOT_STARTED;
+            return frame.lastTime;
 		}
         
         return -1;
@@ -186,10 +235,11 @@ public class Timer {
 	 *
 	 */
 	public void reset() {
-		totalTime = 0;
+		epoch++;
+		totalTime.set( 0 );
+		count.set( 0 );
+		running.set( 0 );
 		startTime = NOT_STARTED;
-		startCount = 0; 
-		count = 0;
 		interrupted = false;
 	}
 	
@@ -197,7 +247,7 @@ public class Timer {
 	 * If started stop the timer and then start it again. 
 	 */
 	public void restart() {
-		if( isStarted() )
+		if( getFrame().startCount > 0 )
 			stop();
 		start();
 	}
@@ -215,9 +265,8 @@ public class Timer {
 			throw new TimerInterruptedException("Timer " + getName() + " interrupted.");
 		}
 		
-		long elapsed = getElapsed();
-		
-		if (timeout != NO_TIMEOUT && elapsed > timeout) {
+		long timeout = this.timeout;
+		if (timeout != NO_TIMEOUT && getElapsed() > timeout) {
 			throw new TimeoutException("Running time of "+name+" exceeded timeout of "+timeout);
 		}
 		
@@ -234,12 +283,12 @@ public class Timer {
 	
 	/**
 	 * Return true if timer has been started with a {@link #start()} call but not has been 
-	 * stopped with a {@link #stop()} call. 
+	 * stopped with a {@link #stop()} call in any thread. 
 	 * 
 	 * @return
 	 */
 	public boolean isStarted() {
-		return (startCount > 0);
+		return (running.get() > 0);
 	}
 	
 	/**
@@ -252,13 +301,14 @@ public class Timer {
 	}
 	
 	/**
-	 * Return the time elapsed (in milliseconds) since the last time this timer was started. 
-	 * If the timer is not running now 0 is returned.
+	 * Return the time elapsed (in milliseconds) since the timer was started by the first 
+	 * thread that is still running it. If the timer is not running now 0 is returned.
 	 * 
 	 * @return
 	 */
 	public long getElapsed() {
-	    return isStarted() ? (System.currentTimeMillis() - startTime) : 0;
+		long startTime = this.startTime;
+	    return (startTime != NOT_STARTED) ? (System.currentTimeMillis() - startTime) : 0;
 	}
 	
 	/**
@@ -269,7 +319,7 @@ public class Timer {
 	 * @return
 	 */
 	public long getTotal() {
-		return totalTime;
+		return totalTime.get();
 	}
 
 	/**
@@ -280,7 +330,7 @@ public class Timer {
 	 * @return
 	 */
 	public long getCount() {
-		return count;
+		return count.get();
 	}
 	
 	/**
@@ -300,16 +350,17 @@ public class Timer {
 	 * @return
 	 */
 	public double getAverage() {
-		return totalTime / (count == 0 ? 1.0 : count);
+		long count = getCount();
+		return getTotal() / (count == 0 ? 1.0 : count);
 	}
 	
 	/**
-	 * Return the total time spent between last start()-stop() period.
+	 * Return the total time spent between last start()-stop() period of the current thread.
 	 * 
 	 * @return
 	 */
 	public long getLast() {
-		return lastTime;
+		return getFrame().lastTime;
 	}
 	
 	/**
@@ -325,10 +376,11 @@ public class Timer {
 	}
 	
 	public String toString() {		
-	    if(startCount > 0)
-	        return "Timer " + name + " Avg: " + getAverage() + " Count: " + count + " Total: " + getTotal() + " Still running: "+ startCount;
+		int running = this.running.get();
+	    if(running > 0)
+	        return "Timer " + name + " Avg: " + getAverage() + " Count: " + getCount() + " Total: " + getTotal() + " Still running: "+ running;
 	    
-		return "Timer " + name + " Avg: " + getAverage() + " Count: " + count + " Total: " + getTotal();
+		return "Timer " + name + " Avg: " + getAverage() + " Count: " + getCount() + " Total: " + getTotal();
 	}
 
 	/**
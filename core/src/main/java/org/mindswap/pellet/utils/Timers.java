@@ -49,7 +49,10 @@ import org.mindswap.pellet.output.TableData;
 /**
  * <p>Title: </p>
  *
- * <p>Description: </p>
+ * <p>Description: A set of named timers. The timers are looked up in the hot 
+ * paths of the reasoner so the map of timers is replaced with a copy when a
+ * timer is added and it can be read by any number of threads without locking. 
+ * The timers themselves can be used by several threads (see {@link Timer}).</p>
  *
  * <p>Copyright: Copyright (c) 2008</p>
  *
@@ -58,7 +61,7 @@ import org.mindswap.pellet.output.TableData;
  * @author Evren Sirin
  */
 public class Timers  {
-	private Map<String, Timer> timers = new LinkedHashMap<String, Timer>();
+	private volatile Map<String, Timer> timers = Collections.emptyMap();
 	
 	final public Timer mainTimer;
 	
@@ -73,21 +76,33 @@ public class Timers  {
             Timer otherTimer = entry.getValue();
             Timer thisTimer = getTimer( name );
             if( thisTimer == null )
-                timers.put( name, otherTimer );
+                putTimer( name, otherTimer );
             else 
                 thisTimer.add( otherTimer );            
         }	    
 	}
+	
+	private synchronized void putTimer(String name, Timer t) {
+		Map<String, Timer> newTimers = new LinkedHashMap<String, Timer>( timers );
+		newTimers.put( name, t );
+		timers = newTimers;
+	}
 
 	public Timer createTimer(String name) {
 		Timer t = new Timer(name, mainTimer);
-		timers.put(name, t);
+		putTimer(name, t);
+		return t;
+	}
+	
+	private synchronized Timer getOrCreateTimer(String name) {
+		Timer t = getTimer(name);
+		if(t == null) t = createTimer(name);
 		return t;
 	}
 
 	public Timer startTimer(String name) {
 		Timer t = getTimer(name);
-		if(t == null) t = createTimer(name);
+		if(t == null) t = getOrCreateTimer(name);
 		t.start();
 		return t;
 	}
@@ -115,7 +130,7 @@ public class Timers  {
 	public void setTimeout(String name, long timeout) {
 		Timer t = getTimer(name);
 		if (t == null)
-			t = createTimer(name);
+			t = getOrCreateTimer(name);
 		
 		t.setTimeout(timeout);
 	}
@@ -0,0 +1,295 @@
+// Copyright (c) 2006 - 2008, Clark & Parsia, LLC. <http://www.clarkparsia.com>
+// This source code is available under the terms of the Affero General Public License v3.
+//
+// Please see LICENSE.txt for full license terms, including the availability of proprietary exceptions.
+// Questions, comments, or requests for clarification: licensing@clarkparsia.com
+
+package org.mindswap.pellet.utils.fsm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import org.mindswap.pellet.Role;
+import org.mindswap.pellet.exceptions.InternalReasonerException;
+
+/**
+ * <p>
+ * Title: Transition table
+ * </p>
+ * <p>
+ * Description: A compiled, read-only copy of a deterministic role automaton
+ * where states are numbered from <code>0</code> (the initial state) and
+ * transitions are stored in primitive arrays. A transition is looked up by the
+ * id of the role (see {@link Role#getId()}) without allocating or hashing. Roles
+ * that lead to the same state from every state share a column of the table, so
+ * the many sub roles that only appear as a single transition from the initial
+ * state do not increase the size of the table.
+ * </p>
+ * <p>
+ * Copyright: Copyright (c) 2009
+ * </p>
+ * <p>
+ * Company: Clark & Parsia, LLC. <http://www.clarkparsia.com>
+ * </p>
+ *
+ * @author Evren Sirin
+ */
+public class TransitionTable {
+	/**
+	 * Value returned by move functions when there is no transition
+	 */
+	public static final int	NONE	= -1;
+
+	private static final Role[]	NO_ROLES	= new Role[0];
+	private static final int[]	NO_STATES	= new int[0];
+
+	/**
+	 * Maps the id of a role to the column of the table, {@link #NONE} if the
+	 * role is not in the alphabet
+	 */
+	private final int[]		columns;
+
+	/**
+	 * The target states indexed by <code>state * columnCount + column</code>
+	 */
+	private final int[]		targets;
+
+	private final int		columnCount;
+
+	private final boolean[]	finals;
+
+	/**
+	 * The labels of the transitions going out of each state
+	 */
+	private final Role[][]	outRoles;
+
+	/**
+	 * The targets of the transitions going out of each state in the same order
+	 * as the labels
+	 */
+	private final int[][]	outTargets;
+
+	private TransitionTable(int[] columns, int[] targets, int columnCount, boolean[] finals,
+			Role[][] outRoles, int[][] outTargets) {
+		this.columns = columns;
+		this.targets = targets;
+		this.columnCount = columnCount;
+		this.finals = finals;
+		this.outRoles = outRoles;
+		this.outTargets = outTargets;
+	}
+
+	/**
+	 * Compiles the given deterministic transition graph into a transition
+	 * table. All the roles in the alphabet should have an id assigned by the
+	 * RBox.
+	 *
+	 * @param tg
+	 *            a deterministic transition graph
+	 * @return the transition table accepting the same language as the graph
+	 */
+	public static TransitionTable compile(TransitionGraph<Role> tg) {
+		// number the states in breadth-first order so the initial state is 0
+		Map<State<Role>, Integer> stateIds = new HashMap<State<Role>, Integer>();
+		List<State<Role>> states = new ArrayList<State<Role>>();
+		LinkedList<State<Role>> workList = new LinkedList<State<Role>>();
+
+		stateIds.put( tg.getInitialState(), 0 );
+		states.add( tg.getInitialState() );
+		workList.add( tg.getInitialState() );
+		while( !workList.isEmpty() ) {
+			State<Role> s = workList.removeFirst();
+			for( Transition<Role> t : s.getTransitions() ) {
+				if( t.isEpsilon() )
+					throw new InternalReasonerException( "Cannot compile a nondeterministic automaton" );
+
+				if( !stateIds.containsKey( t.getTo() ) ) {
+					stateIds.put( t.getTo(), states.size() );
+					states.add( t.getTo() );
+					workList.add( t.getTo() );
+				}
+			}
+		}
+
+		int stateCount = states.size();
+
+		int maxId = NONE;
+		for( Role role : tg.getAlpahabet() ) {
+			if( role.getId() < 0 )
+				throw new InternalReasonerException( "Role " + role + " does not have an id" );
+			maxId = Math.max( maxId, role.getId() );
+		}
+
+		int[] columns = new int[maxId + 1];
+		Arrays.fill( columns, NONE );
+
+		// group the roles with identical columns
+		Map<Column, Integer> columnIds = new HashMap<Column, Integer>();
+		List<int[]> uniqueColumns = new ArrayList<int[]>();
+		for( Role role : tg.getAlpahabet() ) {
+			int[] column = new int[stateCount];
+			for( int i = 0; i < stateCount; i++ ) {
+				State<Role> to = states.get( i ).move( role );
+				column[i] = (to == null)
+					? NONE
+					: stateIds.get( to );
+			}
+
+			Column key = new Column( column );
+			Integer columnId = columnIds.get( key );
+			if( columnId == null ) {
+				columnId = uniqueColumns.size();
+				columnIds.put( key, columnId );
+				uniqueColumns.add( column );
+			}
+
+			columns[role.getId()] = columnId;
+		}
+
+		int columnCount = uniqueColumns.size();
+		int[] targets = new int[stateCount * columnCount];
+		for( int c = 0; c < columnCount; c++ ) {
+			int[] column = uniqueColumns.get( c );
+			for( int i = 0; i < stateCount; i++ )
+				targets[i * columnCount + c] = column[i];
+		}
+
+		boolean[] finals = new boolean[stateCount];
+		Role[][] outRoles = new Role[stateCount][];
+		int[][] outTargets = new int[stateCount][];
+		for( int i = 0; i < stateCount; i++ ) {
+			State<Role> s = states.get( i );
+			finals[i] = tg.isFinal( s );
+
+			int size = s.getTransitions().size();
+			if( size == 0 ) {
+				outRoles[i] = NO_ROLES;
+				outTargets[i] = NO_STATES;
+			}
+			else {
+				outRoles[i] = new Role[size];
+				outTargets[i] = new int[size];
+				int j = 0;
+				for( Transition<Role> t : s.getTransitions() ) {
+					outRoles[i][j] = t.getName();
+					outTargets[i][j] = stateIds.get( t.getTo() );
+					j++;
+				}
+			}
+		}
+
+		return new TransitionTable( columns, targets, columnCount, finals, outRoles, outTargets );
+	}
+
+	/**
+	 * Returns the number of states in this table
+	 */
+	public int size() {
+		return finals.length;
+	}
+
+	/**
+	 * Returns the number of distinct columns in this table
+	 */
+	public int getColumnCount() {
+		return columnCount;
+	}
+
+	public int getInitialState() {
+		return 0;
+	}
+
+	public boolean isFinal(int state) {
+		return finals[state];
+	}
+
+	/**
+	 * Returns the state reached from the given state with the given role.
+	 *
+	 * @return the state reached from the given state, {@link #NONE} if there
+	 *         is no transition with the role
+	 */
+	public int move(int state, Role role) {
+		return move( state, role.getId() );
+	}
+
+	/**
+	 * Returns the state reached from the given state with the role that has the
+	 * given id.
+	 *
+	 * @return the state reached from the given state, {@link #NONE} if there
+	 *         is no transition with the role
+	 */
+	public int move(int state, int roleId) {
+		if( roleId < 0 || roleId >= columns.length )
+			return NONE;
+
+		int column = columns[roleId];
+		if( column == NONE )
+			return NONE;
+
+		return targets[state * columnCount + column];
+	}
+
+	/**
+	 * Returns the labels of the transitions going out of the given state. The
+	 * returned array should not be modified.
+	 */
+	public Role[] getTransitionRoles(int state) {
+		return outRoles[state];
+	}
+
+	/**
+	 * Returns the targets of the transitions going out of the given state in
+	 * the same order as {@link #getTransitionRoles(int)}. The returned array
+	 * should not be modified.
+	 */
+	public int[] getTransitionTargets(int state) {
+		return outTargets[state];
+	}
+
+	public String toString() {
+		StringBuffer buf = new StringBuffer();
+
+		buf.append( "[Transition Table\n" );
+		for( int i = 0; i < size(); i++ ) {
+			buf.append( i );
+			if( finals[i] )
+				buf.append( " (final)" );
+			buf.append( ": " );
+			for( int j = 0; j < outRoles[i].length; j++ ) {
+				if( j > 0 )
+					buf.append( ", " );
+				buf.append( outRoles[i][j] ).append( " -> " ).append( outTargets[i][j] );
+			}
+			buf.append( "\n" );
+		}
+		buf.append( "]\n" );
+
+		return buf.toString();
+	}
+
+	private static class Column {
+		private final int[]	targets;
+		private final int	hashCode;
+
+		Column(int[] targets) {
+			this.targets = targets;
+			this.hashCode = Arrays.hashCode( targets );
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof Column && Arrays.equals( targets, ((Column) obj).targets );
+		}
+	}
+}
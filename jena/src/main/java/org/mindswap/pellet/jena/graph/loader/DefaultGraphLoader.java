@@ -51,6 +51,7 @@ import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import org.mindswap.pellet.ABoxBulkLoad;
 import org.mindswap.pellet.KnowledgeBase;
 import org.mindswap.pellet.PelletOptions;
 import org.mindswap.pellet.PropertyType;
@@ -2085,17 +2086,24 @@ public class DefaultGraphLoader implements GraphLoader {
 		graph = EMPTY_GRAPH;
 		preprocess();
 
-		for (Graph g : graphs) {
-			graph = g;
-			processTypes();    
-        }
-
-		for (Graph g : graphs) {
-			graph = g;
-			processTriples();  
-        }
-		
-		processUntypedResources();
+		// the number of individuals is not known before the type triples are
+		// processed so the ABox is not sized in advance
+		ABoxBulkLoad bulkLoad = kb.beginBulkLoad( 0 );
+		try {
+			for (Graph g : graphs) {
+				graph = g;
+				processTypes();    
+	        }
+	
+			for (Graph g : graphs) {
+				graph = g;
+				processTriples();  
+	        }
+			
+			processUntypedResources();
+		} finally {
+			bulkLoad.commit();
+		}
 
 		monitor.taskFinished();
 
@@ -0,0 +1,92 @@
+// Copyright (c) 2006 - 2008, Clark & Parsia, LLC. <http://www.clarkparsia.com>
+// This source code is available under the terms of the Affero General Public License v3.
+//
+// Please see LICENSE.txt for full license terms, including the availability of proprietary exceptions.
+// Questions, comments, or requests for clarification: licensing@clarkparsia.com
+
+package org.mindswap.pellet.utils;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+import aterm.ATermAppl;
+
+/**
+ * <p>
+ * Title: JFR Reasoner Events
+ * </p>
+ * <p>
+ * Description: The Flight Recorder implementation of {@link ReasonerEvents}.
+ * This class is only loaded if the JVM supports Flight Recorder events. It is
+ * in its own module because the core module is compiled for Java 6.
+ * </p>
+ * <p>
+ * Copyright: Copyright (c) 2008
+ * </p>
+ * <p>
+ * Company: Clark & Parsia, LLC. <http://www.clarkparsia.com>
+ * </p>
+ */
+class JFRReasonerEvents extends ReasonerEvents {
+	@Name("org.mindswap.pellet.Phase")
+	@Label("Reasoning Phase")
+	@Description("Consistency check, classification, realization or query answering")
+	@Category("Pellet")
+	static class PhaseEvent extends Event implements Phase {
+		@Label("Phase")
+		String	phase;
+
+		public void finish() {
+			commit();
+		}
+	}
+
+	@Name("org.mindswap.pellet.Satisfiability")
+	@Label("Satisfiability Test")
+	@Description("Satisfiability test of a concept")
+	@Category("Pellet")
+	@Threshold("1 ms")
+	static class SatisfiabilityEvent extends Event implements Satisfiability {
+		@Label("Concept")
+		String				concept;
+
+		@Label("Satisfiable")
+		boolean				satisfiable;
+
+		transient ATermAppl	c;
+
+		public void finish(boolean satisfiable) {
+			end();
+			if( shouldCommit() ) {
+				this.concept = ATermUtils.toString( c );
+				this.satisfiable = satisfiable;
+				commit();
+			}
+		}
+	}
+
+	@Override
+	protected Phase createPhase(String name) {
+		PhaseEvent event = new PhaseEvent();
+		if( !event.isEnabled() )
+			return null;
+
+		event.phase = name;
+		event.begin();
+		return event;
+	}
+
+	@Override
+	protected Satisfiability createSatisfiability(ATermAppl c) {
+		SatisfiabilityEvent event = new SatisfiabilityEvent();
+		if( !event.isEnabled() )
+			return null;
+
+		event.c = c;
+		event.begin();
+		return event;
+	}
+}
@@ -10,6 +10,7 @@ import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import org.mindswap.pellet.ABoxBulkLoad;
 import org.mindswap.pellet.KnowledgeBase;
 import org.mindswap.pellet.exceptions.InternalReasonerException;
 import org.mindswap.pellet.exceptions.PelletRuntimeException;
@@ -962,9 +963,19 @@ public class PelletReasoner implements OWLReasoner, OWLOntologyChangeListener  {
 		
 		importsClosure = ontology.getImportsClosure();
 		
-		visitor.setAddAxiom( true );
+		int individualCount = 0;
 		for ( OWLOntology ont : importsClosure ) {
-			ont.accept( visitor );
+			individualCount += ont.getIndividualsInSignature().size();
+		}
+		
+		visitor.setAddAxiom( true );
+		ABoxBulkLoad bulkLoad = kb.beginBulkLoad( individualCount );
+		try {
+			for ( OWLOntology ont : importsClosure ) {
+				ont.accept( visitor );
+			}
+		} finally {
+			bulkLoad.commit();
 		}
 		visitor.verify();
 		
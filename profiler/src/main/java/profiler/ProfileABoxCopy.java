@@ -0,0 +1,127 @@
+// Copyright (c) 2006 - 2008, Clark & Parsia, LLC. <http://www.clarkparsia.com>
+// This source code is available under the terms of the Affero General Public License v3.
+//
+// Please see LICENSE.txt for full license terms, including the availability of proprietary exceptions.
+// Questions, comments, or requests for clarification: licensing@clarkparsia.com
+
+package profiler;
+
+import static profiler.ProfileUtils.error;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+
+import org.mindswap.pellet.ABox;
+import org.mindswap.pellet.KnowledgeBase;
+import org.mindswap.pellet.PelletOptions;
+import org.mindswap.pellet.jena.JenaLoader;
+import org.mindswap.pellet.utils.MemUtils;
+import org.mindswap.pellet.utils.Timer;
+
+/**
+ * <p>
+ * Title: Profile ABox Copy
+ * </p>
+ * <p>
+ * Description: Compares the wall time and the garbage collection pressure of
+ * realizing ontologies and copying their ABoxes with and without sharing the
+ * node labels between ABox copies (see
+ * {@link PelletOptions#COPY_ON_WRITE_NODE_LABELS}). Usage:
+ * <code>ProfileABoxCopy [-n copies] ontology...</code>
+ * </p>
+ * <p>
+ * Copyright: Copyright (c) 2008
+ * </p>
+ * <p>
+ * Company: Clark & Parsia, LLC. <http://www.clarkparsia.com>
+ * </p>
+ */
+public class ProfileABoxCopy {
+	private int	copies	= 100;
+
+	public static void main(String[] args) throws Exception {
+		new ProfileABoxCopy().run( args );
+	}
+
+	public void run(String[] args) {
+		int start = 0;
+		if( args.length > 1 && args[0].equals( "-n" ) ) {
+			try {
+				copies = Integer.parseInt( args[1] );
+			} catch( NumberFormatException e ) {
+				error( "Invalid number: " + e );
+			}
+			start = 2;
+		}
+
+		if( start >= args.length )
+			error( "No input ontology provided!" );
+
+		System.out.println( String.format( "%-40s %-7s %10s %10s %8s %10s %10s", "Ontology",
+				"Shared", "Realize", "Copy", "GCs", "GC time", "Clone" ) );
+
+		boolean savedOption = PelletOptions.COPY_ON_WRITE_NODE_LABELS;
+		try {
+			for( int i = start; i < args.length; i++ ) {
+				// the first run warms up the JVM
+				profile( args[i], true, false );
+				profile( args[i], false, true );
+				profile( args[i], true, true );
+			}
+		} finally {
+			PelletOptions.COPY_ON_WRITE_NODE_LABELS = savedOption;
+		}
+	}
+
+	private void profile(String file, boolean shareLabels, boolean print) {
+		PelletOptions.COPY_ON_WRITE_NODE_LABELS = shareLabels;
+
+		KnowledgeBase kb = new JenaLoader().createKB( file );
+		kb.timers.resetAll();
+
+		MemUtils.runGC();
+		long gcCount = getGCCount();
+		long gcTime = getGCTime();
+
+		long realizeStart = System.currentTimeMillis();
+		kb.realize();
+		long realizeTime = System.currentTimeMillis() - realizeStart;
+
+		long copyStart = System.currentTimeMillis();
+		ABox abox = kb.getABox();
+		for( int i = 0; i < copies; i++ ) {
+			abox.copy();
+		}
+		long copyTime = System.currentTimeMillis() - copyStart;
+
+		gcCount = getGCCount() - gcCount;
+		gcTime = getGCTime() - gcTime;
+
+		if( print ) {
+			Timer cloneTimer = kb.timers.getTimer( "cloneABox" );
+			long cloneTime = cloneTimer == null
+				? 0
+				: cloneTimer.getTotal();
+
+			System.out.println( String.format( "%-40s %-7s %10d %10d %8d %10d %10d", ProfileUtils
+					.formatFileName( file, 40 ), shareLabels, realizeTime, copyTime, gcCount,
+					gcTime, cloneTime ) );
+		}
+	}
+
+	private static long getGCCount() {
+		long count = 0;
+		for( GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans() ) {
+			count += Math.max( 0, gc.getCollectionCount() );
+		}
+		return count;
+	}
+
+	private static long getGCTime() {
+		long time = 0;
+		for( GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans() ) {
+			time += Math.max( 0, gc.getCollectionTime() );
+		}
+		return time;
+	}
+}
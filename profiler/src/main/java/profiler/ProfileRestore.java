@@ -0,0 +1,101 @@
+// Copyright (c) 2006 - 2008, Clark & Parsia, LLC. <http://www.clarkparsia.com>
+// This source code is available under the terms of the Affero General Public License v3.
+//
+// Please see LICENSE.txt for full license terms, including the availability of proprietary exceptions.
+// Questions, comments, or requests for clarification: licensing@clarkparsia.com
+
+package profiler;
+
+import static profiler.ProfileUtils.error;
+
+import org.mindswap.pellet.KnowledgeBase;
+import org.mindswap.pellet.PelletOptions;
+import org.mindswap.pellet.jena.JenaLoader;
+
+/**
+ * <p>
+ * Title: Profile Restore
+ * </p>
+ * <p>
+ * Description: Compares the time to check the consistency of, classify and
+ * realize ontologies when the completion strategy backtracks by scanning all
+ * the nodes in the ABox and when it undoes the branch effect trail (see
+ * {@link PelletOptions#USE_TRAIL_RESTORE}). Ontologies with nominals are
+ * completed by <code>SROIQStrategy</code>. Usage:
+ * <code>ProfileRestore [-n runs] ontology...</code>
+ * </p>
+ * <p>
+ * Copyright: Copyright (c) 2008
+ * </p>
+ * <p>
+ * Company: Clark & Parsia, LLC. <http://www.clarkparsia.com>
+ * </p>
+ */
+public class ProfileRestore {
+	private int	runs	= 3;
+
+	public static void main(String[] args) throws Exception {
+		new ProfileRestore().run( args );
+	}
+
+	public void run(String[] args) {
+		int start = 0;
+		if( args.length > 1 && args[0].equals( "-n" ) ) {
+			try {
+				runs = Integer.parseInt( args[1] );
+			} catch( NumberFormatException e ) {
+				error( "Invalid number: " + e );
+			}
+			start = 2;
+		}
+
+		if( start >= args.length )
+			error( "No input ontology provided!" );
+
+		System.out.println( String.format( "%-40s %-7s %10s %10s %10s %10s", "Ontology", "Trail",
+				"Consistency", "Classify", "Realize", "Backtracks" ) );
+
+		boolean savedTrack = PelletOptions.TRACK_BRANCH_EFFECTS;
+		boolean savedTrail = PelletOptions.USE_TRAIL_RESTORE;
+		try {
+			for( int i = start; i < args.length; i++ ) {
+				// the first run warms up the JVM
+				profile( args[i], false, false );
+				for( int j = 0; j < runs; j++ ) {
+					profile( args[i], false, true );
+					profile( args[i], true, true );
+				}
+			}
+		} finally {
+			PelletOptions.TRACK_BRANCH_EFFECTS = savedTrack;
+			PelletOptions.USE_TRAIL_RESTORE = savedTrail;
+		}
+	}
+
+	private void profile(String file, boolean useTrail, boolean print) {
+		// the full restore is profiled without tracking branch effects
+		PelletOptions.TRACK_BRANCH_EFFECTS = useTrail;
+		PelletOptions.USE_TRAIL_RESTORE = useTrail;
+
+		KnowledgeBase kb = new JenaLoader().createKB( file );
+		kb.timers.resetAll();
+
+		long time = System.currentTimeMillis();
+		kb.isConsistent();
+		long consistencyTime = System.currentTimeMillis() - time;
+
+		time = System.currentTimeMillis();
+		kb.classify();
+		long classifyTime = System.currentTimeMillis() - time;
+
+		time = System.currentTimeMillis();
+		kb.realize();
+		long realizeTime = System.currentTimeMillis() - time;
+
+		if( print ) {
+			System.out.println( String.format( "%-40s %-7s %10d %10d %10d %10d", ProfileUtils
+					.formatFileName( file, 40 ), useTrail, consistencyTime, classifyTime,
+					realizeTime, kb.getABox().stats.backtracks ) );
+		}
+	}
+}
@@ -438,7 +438,7 @@ public class CombinedQueryEngine implements QueryExec {
 							runNext( binding, arguments, property, property, property );
 						}
 						else {
-							for( final ATermAppl i : kb.getIndividuals() ) {
+							for( final ATermAppl i : kb.getPossibleSubjects( property ) ) {
 								if( !kb.hasPropertyValue( i, property, i ) ) {
 									continue;
 								}
@@ -456,7 +456,7 @@ public class CombinedQueryEngine implements QueryExec {
 							}
 						}
 						else if( pvIL.equals( pvP ) ) {
-							for( final ATermAppl i : kb.getIndividuals() ) {
+							for( final ATermAppl i : kb.getPossibleSubjects( property ) ) {
 								if( !kb.hasPropertyValue( i, property, property ) ) {
 									continue;
 								}
@@ -464,7 +464,7 @@ public class CombinedQueryEngine implements QueryExec {
 							}
 						}
 						else {
-							for( final ATermAppl subject : kb.getIndividuals() ) {
+							for( final ATermAppl subject : kb.getPossibleSubjects( property ) ) {
 								for( final ATermAppl object : kb.getPropertyValues( property,
 										subject ) ) {
 									runNext( binding, arguments, subject, property, object );
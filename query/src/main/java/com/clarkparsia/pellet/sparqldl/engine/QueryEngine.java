@@ -33,6 +33,7 @@ import org.mindswap.pellet.exceptions.InternalReasonerException;
 import org.mindswap.pellet.utils.ATermUtils;
 import org.mindswap.pellet.utils.Bool;
 import org.mindswap.pellet.utils.DisjointSet;
+import org.mindswap.pellet.utils.ReasonerEvents;
 import org.mindswap.pellet.utils.SetUtils;
 
 import aterm.ATermAppl;
@@ -105,6 +106,8 @@ public class QueryEngine {
 		}
 		query.getKB().ensureConsistency();
 
+		ReasonerEvents.Phase event = ReasonerEvents.beginPhase( "query" );
+
 		// PREPROCESSING
 		if( log.isLoggable( Level.FINE ) ) {
 			log.fine( "Preprocessing:\n" + query );
@@ -143,6 +146,8 @@ public class QueryEngine {
 			r = new MultiQueryResults( query.getResultVars(), results );
 		}
 		
+		event.finish();
+
 		return r;
 	}
 
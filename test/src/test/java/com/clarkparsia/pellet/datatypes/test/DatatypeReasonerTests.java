@@ -41,6 +41,9 @@ import java.net.URI;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
 import java.util.Random;
 import java.util.Set;
 
@@ -51,6 +54,8 @@ import org.mindswap.pellet.ABox;
 import org.mindswap.pellet.DependencySet;
 import org.mindswap.pellet.KnowledgeBase;
 import org.mindswap.pellet.Literal;
+import org.mindswap.pellet.PelletOptions;
+import org.mindswap.pellet.utils.ATermCache;
 
 import aterm.ATermAppl;
 
@@ -777,6 +782,89 @@ public class DatatypeReasonerTests {
 		assertFalse(reasoner.isSatisfiable(Collections.singleton(d), reasoner.getValue(literal("1956-01-01T10:00:00Z", DATE_TIME))));
 	}
 
+	/**
+	 * Verify that repeated checks of the same conjunction, in any order, are answered from the caches with the same
+	 * results.
+	 */
+	@Test
+	public void cachedResults() throws InvalidConstrainingFacetException, InvalidLiteralException,
+	                UnrecognizedDatatypeException {
+		final DatatypeReasonerImpl impl = (DatatypeReasonerImpl) reasoner;
+
+		final ATermAppl dt1 = restrict(INTEGER, minInclusive(literal(1)), maxInclusive(literal(3)));
+		final ATermAppl dt2 = restrict(INTEGER, minInclusive(literal(2)), maxInclusive(literal(5)));
+		final Collection<ATermAppl> types = Arrays.asList(dt1, dt2);
+		final Collection<ATermAppl> reversed = Arrays.asList(dt2, dt1);
+
+		assertTrue(reasoner.containsAtLeast(2, types));
+		assertFalse(reasoner.containsAtLeast(3, types));
+
+		final boolean collectStats = PelletOptions.COLLECT_TERM_CACHE_STATISTICS;
+		PelletOptions.COLLECT_TERM_CACHE_STATISTICS = true;
+		try {
+			long hits = 0;
+			for (ATermCache<?> cache : impl.getCaches()) {
+				hits += cache.getHits();
+			}
+
+			assertTrue(reasoner.containsAtLeast(1, reversed));
+			assertTrue(reasoner.containsAtLeast(2, reversed));
+			assertFalse(reasoner.containsAtLeast(4, reversed));
+			assertTrue(reasoner.isSatisfiable(reversed));
+			assertFalse(reasoner.isSatisfiable(types, reasoner.getValue(literal(4))));
+
+			long newHits = 0;
+			for (ATermCache<?> cache : impl.getCaches()) {
+				newHits += cache.getHits();
+			}
+			assertTrue(newHits > hits);
+		} finally {
+			PelletOptions.COLLECT_TERM_CACHE_STATISTICS = collectStats;
+		}
+
+		final Literal x = new Literal(term("x"), null, abox, DependencySet.INDEPENDENT);
+		final Literal y = new Literal(term("y"), null, abox, DependencySet.INDEPENDENT);
+		final Literal z = new Literal(term("z"), null, abox, DependencySet.INDEPENDENT);
+		for (ATermAppl a : types) {
+			x.addType(a, DependencySet.INDEPENDENT);
+			y.addType(a, DependencySet.INDEPENDENT);
+			z.addType(a, DependencySet.INDEPENDENT);
+		}
+		final Set<Literal> xy = new HashSet<Literal>(Arrays.asList(x, y));
+		final Set<Literal> xyz = new HashSet<Literal>(Arrays.asList(x, y, z));
+
+		assertTrue(reasoner.isSatisfiable(xy, allDifferent(xy)));
+		assertFalse(reasoner.isSatisfiable(xyz, allDifferent(xyz)));
+	}
+
+	/**
+	 * Verify that the cached results are not used after a named data range is defined.
+	 */
+	@Test
+	public void cacheClearedByDefinition() throws InvalidConstrainingFacetException, InvalidLiteralException,
+	                UnrecognizedDatatypeException {
+		final ATermAppl name = term("smallInteger");
+		final ATermAppl range = restrict(INTEGER, minInclusive(literal(1)), maxInclusive(literal(2)));
+		final Collection<ATermAppl> types = singleton(name);
+
+		reasoner.declare(name);
+		assertTrue(reasoner.containsAtLeast(3, types));
+
+		reasoner.define(name, range);
+		assertTrue(reasoner.containsAtLeast(2, types));
+		assertFalse(reasoner.containsAtLeast(3, types));
+	}
+
+	private static Map<Literal, Set<Literal>> allDifferent(Set<Literal> literals) {
+		Map<Literal, Set<Literal>> neqs = new HashMap<Literal, Set<Literal>>();
+		for (Literal l : literals) {
+			Set<Literal> others = new HashSet<Literal>(literals);
+			others.remove(l);
+			neqs.put(l, others);
+		}
+		return neqs;
+	}
+
 	@Ignore("Equal but not identical semantics is very counter-intuitive and currently Pellet treats equals values as identical")
 	@Test
 	public void equalbutNotIdenticalDateTime() throws InvalidConstrainingFacetException, InvalidLiteralException,
@@ -20,7 +20,10 @@ import org.junit.runners.Suite.SuiteClasses;
 @SuiteClasses( {
 	SimpleClassificationTests.class,
 	JenaClassificationTest.class,
-	OWLAPIClassificationTest.class
+	OWLAPIClassificationTest.class,
+	ParallelClassificationTest.class,
+	ParallelRealizationTest.class,
+	KnowledgeBaseSnapshotTest.class
 })
 public class ClassificationTestSuite {
 	public static junit.framework.Test suite() {
@@ -0,0 +1,239 @@
+// Copyright (c) 2006 - 2008, Clark & Parsia, LLC. <http://www.clarkparsia.com>
+// This source code is available under the terms of the Affero General Public
+// License v3.
+//
+// Please see LICENSE.txt for full license terms, including the availability of
+// proprietary exceptions.
+// Questions, comments, or requests for clarification: licensing@clarkparsia.com
+
+package com.clarkparsia.pellet.test.classification;
+
+import static com.clarkparsia.pellet.utils.TermFactory.and;
+import static com.clarkparsia.pellet.utils.TermFactory.not;
+import static com.clarkparsia.pellet.utils.TermFactory.or;
+import static com.clarkparsia.pellet.utils.TermFactory.term;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+import org.mindswap.pellet.KnowledgeBase;
+import org.mindswap.pellet.KnowledgeBaseSnapshot;
+import org.mindswap.pellet.jena.JenaLoader;
+import org.mindswap.pellet.utils.ATermUtils;
+
+import aterm.ATermAppl;
+
+/**
+ * Verifies that a {@link KnowledgeBaseSnapshot} gives the same answers as the
+ * KB it was created from when queried from several threads at the same time.
+ */
+public class KnowledgeBaseSnapshotTest extends AbstractClassificationTest {
+	private static final int	THREADS			= 4;
+
+	/**
+	 * Number of class expressions not in the taxonomy that will be queried
+	 */
+	private static final int	COMPLEX_CLASSES	= 5;
+
+	private static class Query {
+		private String		type;
+		private ATermAppl	term;
+		private ATermAppl	other;
+		private Object		expected;
+
+		private Query(String type, ATermAppl term, ATermAppl other, Object expected) {
+			this.type = type;
+			this.term = term;
+			this.other = other;
+			this.expected = expected;
+		}
+
+		public String toString() {
+			return type + " " + term + (other == null
+				? ""
+				: " " + other);
+		}
+	}
+
+	public void testClassification(String inputOnt, String classifiedOnt) throws Exception {
+		KnowledgeBase kb = new JenaLoader().createKB( inputOnt );
+		final KnowledgeBaseSnapshot snapshot = kb.snapshot();
+
+		final List<ATermAppl> classes = new ArrayList<ATermAppl>( kb.getAllClasses() );
+		final List<ATermAppl> individuals = new ArrayList<ATermAppl>( kb.getIndividuals() );
+		final List<ATermAppl> complexClasses = new ArrayList<ATermAppl>();
+		for( int i = 0; i + 1 < classes.size() && complexClasses.size() < COMPLEX_CLASSES; i += 2 ) {
+			complexClasses.add( ATermUtils.makeAnd( classes.get( i ), classes.get( i + 1 ) ) );
+		}
+
+		final List<Query> queries = new ArrayList<Query>();
+		for( ATermAppl c : classes ) {
+			addClassQueries( kb, c, queries );
+		}
+		for( ATermAppl c : complexClasses ) {
+			addClassQueries( kb, c, queries );
+		}
+		for( ATermAppl ind : individuals ) {
+			queries.add( new Query( "types", ind, null, kb.getTypes( ind, true ) ) );
+			if( !classes.isEmpty() ) {
+				ATermAppl c = classes.get( Math.abs( ind.hashCode() ) % classes.size() );
+				queries.add( new Query( "isType", ind, c, kb.isType( ind, c ) ) );
+			}
+		}
+
+		assertSameAnswers( snapshot, queries );
+	}
+
+	/**
+	 * Threads ask for the position of disjunctions that are not in the
+	 * taxonomy at the same time so every per-thread KB copy runs tableau tests
+	 * with the same disjunctions.
+	 */
+	@Test
+	public void testDisjunctionsInParallel() throws Exception {
+		KnowledgeBase kb = ParallelClassificationTest.createDisjunctiveKB( 20 );
+		KnowledgeBaseSnapshot snapshot = kb.snapshot();
+
+		List<Query> queries = new ArrayList<Query>();
+		for( int i = 0; i < 20; i++ ) {
+			ATermAppl c = or( term( "C" + i ), term( "C" + ((i * 7 + 3) % 20) ) );
+			addClassQueries( kb, c, queries );
+			ATermAppl d = and( term( "C" + ((i + 1) % 20) ), not( term( "C" + i ) ) );
+			queries.add( new Query( "isSubClassOf", c, d, kb.isSubClassOf( c, d ) ) );
+			queries.add( new Query( "isSubClassOf", d, c, kb.isSubClassOf( d, c ) ) );
+		}
+
+		assertSameAnswers( snapshot, queries );
+	}
+
+	/**
+	 * Class expressions that are not in negation normal form are normalized
+	 * before their position in the hierarchy is searched, also when their
+	 * direct instances are returned.
+	 */
+	@Test
+	public void testNonNormalizedClassExpressions() throws Exception {
+		ATermAppl A = term( "A" );
+		ATermAppl B = term( "B" );
+		ATermAppl C = term( "C" );
+		ATermAppl D = term( "D" );
+
+		KnowledgeBase kb = new KnowledgeBase();
+		kb.addClass( A );
+		kb.addClass( B );
+		kb.addClass( C );
+		kb.addClass( D );
+		kb.addSubClass( A, D );
+		kb.addSubClass( B, D );
+		kb.addSubClass( C, D );
+		for( ATermAppl c : new ATermAppl[] { A, B, C, D } ) {
+			ATermAppl ind = term( c.getName().toLowerCase() );
+			kb.addIndividual( ind );
+			kb.addType( ind, c );
+		}
+		kb.realize();
+
+		KnowledgeBaseSnapshot snapshot = kb.snapshot();
+
+		List<Query> queries = new ArrayList<Query>();
+		addClassQueries( kb, or( A, B ), queries );
+		addClassQueries( kb, not( not( or( A, C ) ) ), queries );
+		addClassQueries( kb, not( or( not( D ), A ) ), queries );
+
+		assertSameAnswers( snapshot, queries );
+	}
+
+	/**
+	 * Ask the queries from several threads, each thread in a different order,
+	 * and check that the snapshot gives the expected answers. Every thread
+	 * releases its KB copy in the middle of the queries and once more when it
+	 * is done.
+	 */
+	private void assertSameAnswers(final KnowledgeBaseSnapshot snapshot, final List<Query> queries)
+			throws InterruptedException {
+		final List<List<String>> differences = Collections
+				.synchronizedList( new ArrayList<List<String>>() );
+		final List<Throwable> errors = Collections.synchronizedList( new ArrayList<Throwable>() );
+		List<Thread> threads = new ArrayList<Thread>();
+		for( int t = 0; t < THREADS; t++ ) {
+			final int offset = t;
+			threads.add( new Thread() {
+				public void run() {
+					try {
+						List<String> threadDifferences = new ArrayList<String>();
+						// every thread asks the same questions in a different order
+						for( int i = 0; i < queries.size(); i++ ) {
+							if( i == queries.size() / 2 ) {
+								// a new copy is created for the remaining queries
+								snapshot.release();
+							}
+
+							Query query = queries.get( (i + offset * queries.size() / THREADS)
+									% queries.size() );
+							Object actual = answer( snapshot, query );
+							if( !query.expected.equals( actual ) ) {
+								threadDifferences.add( query + " " + query.expected
+										+ " != " + actual );
+							}
+						}
+						differences.add( threadDifferences );
+					} catch( Throwable e ) {
+						errors.add( e );
+					} finally {
+						snapshot.release();
+					}
+				}
+			} );
+		}
+
+		for( Thread thread : threads ) {
+			thread.start();
+		}
+		for( Thread thread : threads ) {
+			thread.join();
+		}
+
+		assertTrue( errors.toString(), errors.isEmpty() );
+		for( List<String> threadDifferences : differences ) {
+			assertTrue( threadDifferences.toString(), threadDifferences.isEmpty() );
+		}
+	}
+
+	private void addClassQueries(KnowledgeBase kb, ATermAppl c, List<Query> queries) {
+		queries.add( new Query( "supers", c, null, kb.getSuperClasses( c, true ) ) );
+		queries.add( new Query( "allSupers", c, null, kb.getSuperClasses( c, false ) ) );
+		queries.add( new Query( "subs", c, null, kb.getSubClasses( c, true ) ) );
+		queries.add( new Query( "equivalents", c, null, kb.getEquivalentClasses( c ) ) );
+		queries.add( new Query( "instances", c, null, kb.getInstances( c, true ) ) );
+		queries.add( new Query( "allInstances", c, null, kb.getInstances( c, false ) ) );
+	}
+
+	private Object answer(KnowledgeBaseSnapshot snapshot, Query query) {
+		String type = query.type;
+		ATermAppl term = query.term;
+
+		if( type.equals( "supers" ) )
+			return snapshot.getSuperClasses( term, true );
+		if( type.equals( "allSupers" ) )
+			return snapshot.getSuperClasses( term, false );
+		if( type.equals( "subs" ) )
+			return snapshot.getSubClasses( term, true );
+		if( type.equals( "equivalents" ) )
+			return snapshot.getEquivalentClasses( term );
+		if( type.equals( "instances" ) )
+			return snapshot.getInstances( term, true );
+		if( type.equals( "allInstances" ) )
+			return snapshot.getInstances( term, false );
+		if( type.equals( "types" ) )
+			return snapshot.getTypes( term, true );
+		if( type.equals( "isType" ) )
+			return snapshot.isType( term, query.other );
+		if( type.equals( "isSubClassOf" ) )
+			return snapshot.isSubClassOf( term, query.other );
+
+		throw new IllegalArgumentException( query.toString() );
+	}
+}
@@ -0,0 +1,184 @@
+// Copyright (c) 2006 - 2008, Clark & Parsia, LLC. <http://www.clarkparsia.com>
+// This source code is available under the terms of the Affero General Public
+// License v3.
+//
+// Please see LICENSE.txt for full license terms, including the availability of
+// proprietary exceptions.
+// Questions, comments, or requests for clarification: licensing@clarkparsia.com
+
+package com.clarkparsia.pellet.test.classification;
+
+import static com.clarkparsia.pellet.utils.TermFactory.and;
+import static com.clarkparsia.pellet.utils.TermFactory.not;
+import static com.clarkparsia.pellet.utils.TermFactory.or;
+import static com.clarkparsia.pellet.utils.TermFactory.some;
+import static com.clarkparsia.pellet.utils.TermFactory.term;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mindswap.pellet.KnowledgeBase;
+import org.mindswap.pellet.PelletOptions;
+import org.mindswap.pellet.ReasonerWorkerPool;
+import org.mindswap.pellet.jena.JenaLoader;
+import org.mindswap.pellet.taxonomy.Taxonomy;
+
+import aterm.ATermAppl;
+
+/**
+ * Verifies that parallel classification produces exactly the same taxonomy as
+ * the sequential classification.
+ */
+public class ParallelClassificationTest extends AbstractClassificationTest {
+	private boolean	savedUseParallel;
+	private int		savedThreads;
+	private boolean	savedDisableEL;
+
+	@Before
+	public void saveOptions() {
+		savedUseParallel = PelletOptions.USE_PARALLEL_CLASSIFICATION;
+		savedThreads = PelletOptions.CLASSIFICATION_THREADS;
+		savedDisableEL = PelletOptions.DISABLE_EL_CLASSIFIER;
+
+		// make sure the tableau based classifier is used for every ontology
+		PelletOptions.DISABLE_EL_CLASSIFIER = true;
+		PelletOptions.CLASSIFICATION_THREADS = 4;
+	}
+
+	@After
+	public void restoreOptions() {
+		PelletOptions.USE_PARALLEL_CLASSIFICATION = savedUseParallel;
+		PelletOptions.CLASSIFICATION_THREADS = savedThreads;
+		PelletOptions.DISABLE_EL_CLASSIFIER = savedDisableEL;
+	}
+
+	public void testClassification(String inputOnt, String classifiedOnt) {
+		PelletOptions.USE_PARALLEL_CLASSIFICATION = false;
+		KnowledgeBase sequential = classify( inputOnt );
+
+		PelletOptions.USE_PARALLEL_CLASSIFICATION = true;
+		KnowledgeBase parallel = classify( inputOnt );
+		assertNotNull( "Parallel classification not used", parallel.timers
+				.getTimer( "classifyParallelSat" ) );
+
+		Taxonomy<ATermAppl> expected = sequential.getTaxonomy();
+		Taxonomy<ATermAppl> actual = parallel.getTaxonomy();
+
+		List<String> differences = new ArrayList<String>();
+		for( ATermAppl c : sequential.getAllClasses() ) {
+			Set<ATermAppl> expectedEqs = expected.getAllEquivalents( c );
+			Set<ATermAppl> actualEqs = actual.getAllEquivalents( c );
+			if( !expectedEqs.equals( actualEqs ) ) {
+				differences.add( "Equivalents of " + c + " " + expectedEqs + " != " + actualEqs );
+			}
+
+			Set<Set<ATermAppl>> expectedSupers = expected.getSupers( c, /* direct = */true );
+			Set<Set<ATermAppl>> actualSupers = actual.getSupers( c, /* direct = */true );
+			if( !expectedSupers.equals( actualSupers ) ) {
+				differences.add( "Supers of " + c + " " + expectedSupers + " != " + actualSupers );
+			}
+		}
+
+		assertTrue( differences.toString(), differences.isEmpty() );
+		assertEquals( expected.getNodes().size(), actual.getNodes().size() );
+	}
+
+	private KnowledgeBase classify(String inputOnt) {
+		KnowledgeBase kb = new JenaLoader().createKB( inputOnt );
+		kb.classify();
+
+		return kb;
+	}
+
+	/**
+	 * Workers run tableau tests with many disjunctions at the same time. The
+	 * results should be the same as the sequential results and no worker
+	 * should update the disjunction statistics of the original KB.
+	 */
+	@Test
+	public void testDisjunctionsInParallel() {
+		List<ATermAppl> concepts = new ArrayList<ATermAppl>();
+		for( int i = 0; i < 20; i++ ) {
+			for( int j = 0; j < 20; j++ ) {
+				if( i != j ) {
+					concepts.add( and( term( "C" + i ), not( term( "C" + j ) ) ) );
+				}
+			}
+		}
+
+		KnowledgeBase sequential = createDisjunctiveKB( 20 );
+		assertTrue( sequential.isConsistent() );
+		List<Boolean> expected = new ArrayList<Boolean>();
+		for( ATermAppl c : concepts ) {
+			expected.add( sequential.getABox().isSatisfiable( c, true ) );
+		}
+
+		KnowledgeBase kb = createDisjunctiveKB( 20 );
+		assertTrue( kb.isConsistent() );
+
+		final Set<Map<ATermAppl, int[]>> workerStats = Collections.synchronizedSet( Collections
+				.newSetFromMap( new IdentityHashMap<Map<ATermAppl, int[]>, Boolean>() ) );
+		List<ReasonerWorkerPool.Task<Boolean>> tasks = new ArrayList<ReasonerWorkerPool.Task<Boolean>>();
+		for( final ATermAppl c : concepts ) {
+			tasks.add( new ReasonerWorkerPool.Task<Boolean>() {
+				public Boolean call(KnowledgeBase worker) {
+					workerStats.add( worker.getABox().getDisjBranchStats() );
+					return worker.getABox().isSatisfiable( c, true );
+				}
+			} );
+		}
+
+		ReasonerWorkerPool pool = new ReasonerWorkerPool( kb, PelletOptions.CLASSIFICATION_THREADS );
+		try {
+			assertEquals( expected, pool.invokeAll( "testDisjunctions", tasks, null ) );
+		} finally {
+			pool.shutdown();
+		}
+
+		assertFalse( workerStats.contains( kb.getABox().getDisjBranchStats() ) );
+	}
+
+	/**
+	 * Creates a KB where every class C<i>i</i> is a subclass of a disjunction
+	 * and some of the classes are disjoint.
+	 */
+	static KnowledgeBase createDisjunctiveKB(int classCount) {
+		Random random = new Random( 42 );
+
+		KnowledgeBase kb = new KnowledgeBase();
+
+		ATermAppl p = term( "p" );
+		kb.addObjectProperty( p );
+
+		ATermAppl[] classes = new ATermAppl[classCount];
+		for( int i = 0; i < classCount; i++ ) {
+			classes[i] = term( "C" + i );
+			kb.addClass( classes[i] );
+		}
+
+		for( int i = 0; i < classCount; i++ ) {
+			ATermAppl c1 = classes[random.nextInt( classCount )];
+			ATermAppl c2 = classes[random.nextInt( classCount )];
+			ATermAppl c3 = classes[random.nextInt( classCount )];
+
+			kb.addSubClass( classes[i], or( c1, c2, some( p, or( c2, c3 ) ) ) );
+			if( random.nextBoolean() ) {
+				kb.addDisjointClass( c1, c3 );
+			}
+		}
+
+		return kb;
+	}
+}
@@ -0,0 +1,151 @@
+// Copyright (c) 2006 - 2008, Clark & Parsia, LLC. <http://www.clarkparsia.com>
+// This source code is available under the terms of the Affero General Public
+// License v3.
+//
+// Please see LICENSE.txt for full license terms, including the availability of
+// proprietary exceptions.
+// Questions, comments, or requests for clarification: licensing@clarkparsia.com
+
+package com.clarkparsia.pellet.test.classification;
+
+import static com.clarkparsia.pellet.utils.TermFactory.or;
+import static com.clarkparsia.pellet.utils.TermFactory.term;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mindswap.pellet.KnowledgeBase;
+import org.mindswap.pellet.PelletOptions;
+import org.mindswap.pellet.jena.JenaLoader;
+
+import aterm.ATermAppl;
+
+/**
+ * Verifies that parallel realization finds exactly the same direct types as
+ * the sequential realization for both realization strategies.
+ */
+public class ParallelRealizationTest extends AbstractClassificationTest {
+	private boolean	savedUseParallel;
+	private int		savedThreads;
+	private int		savedBatchSize;
+	private boolean	savedIndividualAtATime;
+	private boolean	savedDisableEL;
+
+	@Before
+	public void saveOptions() {
+		savedUseParallel = PelletOptions.USE_PARALLEL_REALIZATION;
+		savedThreads = PelletOptions.REALIZATION_THREADS;
+		savedBatchSize = PelletOptions.REALIZATION_BATCH_SIZE;
+		savedIndividualAtATime = PelletOptions.REALIZE_INDIVIDUAL_AT_A_TIME;
+		savedDisableEL = PelletOptions.DISABLE_EL_CLASSIFIER;
+
+		PelletOptions.DISABLE_EL_CLASSIFIER = true;
+		PelletOptions.REALIZATION_THREADS = 4;
+		// small batches so even small test ontologies are split
+		PelletOptions.REALIZATION_BATCH_SIZE = 5;
+	}
+
+	@After
+	public void restoreOptions() {
+		PelletOptions.USE_PARALLEL_REALIZATION = savedUseParallel;
+		PelletOptions.REALIZATION_THREADS = savedThreads;
+		PelletOptions.REALIZATION_BATCH_SIZE = savedBatchSize;
+		PelletOptions.REALIZE_INDIVIDUAL_AT_A_TIME = savedIndividualAtATime;
+		PelletOptions.DISABLE_EL_CLASSIFIER = savedDisableEL;
+	}
+
+	public void testClassification(String inputOnt, String classifiedOnt) {
+		// the two strategies do not agree on individuals merged by sameAs so
+		// each parallel strategy is compared to the same sequential strategy
+		for( boolean individualAtATime : new boolean[] { false, true } ) {
+			PelletOptions.REALIZE_INDIVIDUAL_AT_A_TIME = individualAtATime;
+
+			PelletOptions.USE_PARALLEL_REALIZATION = false;
+			KnowledgeBase sequential = realize( inputOnt );
+
+			PelletOptions.USE_PARALLEL_REALIZATION = true;
+			KnowledgeBase parallel = realize( inputOnt );
+
+			assertSameTypes( sequential, parallel, individualAtATime );
+		}
+	}
+
+	/**
+	 * Workers realize individuals whose types are disjunctions at the same
+	 * time so every worker keeps updating the statistics of the same
+	 * disjunctions.
+	 */
+	@Test
+	public void testDisjunctionsInParallel() {
+		for( boolean individualAtATime : new boolean[] { false, true } ) {
+			PelletOptions.REALIZE_INDIVIDUAL_AT_A_TIME = individualAtATime;
+
+			PelletOptions.USE_PARALLEL_REALIZATION = false;
+			KnowledgeBase sequential = createDisjunctiveABox();
+			sequential.realize();
+
+			PelletOptions.USE_PARALLEL_REALIZATION = true;
+			KnowledgeBase parallel = createDisjunctiveABox();
+			parallel.realize();
+
+			assertSameTypes( sequential, parallel, individualAtATime );
+		}
+	}
+
+	private void assertSameTypes(KnowledgeBase sequential, KnowledgeBase parallel,
+			boolean individualAtATime) {
+		if( !parallel.getIndividuals().isEmpty() ) {
+			assertNotNull( "Parallel realization not used", parallel.timers
+					.getTimer( "realizeParallel" ) );
+		}
+
+		List<String> differences = new ArrayList<String>();
+		for( ATermAppl ind : sequential.getIndividuals() ) {
+			Set<Set<ATermAppl>> expected = sequential.getTypes( ind, /* direct = */true );
+			Set<Set<ATermAppl>> actual = parallel.getTypes( ind, /* direct = */true );
+			if( !expected.equals( actual ) ) {
+				differences.add( "Types of " + ind + " " + expected + " != " + actual );
+			}
+		}
+
+		assertTrue( "individualAtATime=" + individualAtATime + " " + differences, differences
+				.isEmpty() );
+	}
+
+	private KnowledgeBase createDisjunctiveABox() {
+		Random random = new Random( 42 );
+
+		KnowledgeBase kb = ParallelClassificationTest.createDisjunctiveKB( 20 );
+
+		// only use satisfiable classes so the ABox is consistent
+		List<ATermAppl> classes = new ArrayList<ATermAppl>();
+		for( int i = 0; i < 20; i++ ) {
+			if( kb.isSatisfiable( term( "C" + i ) ) ) {
+				classes.add( term( "C" + i ) );
+			}
+		}
+
+		for( int i = 0; i < 60; i++ ) {
+			ATermAppl ind = term( "a" + i );
+			kb.addIndividual( ind );
+			kb.addType( ind, or( classes.get( random.nextInt( classes.size() ) ), classes
+					.get( random.nextInt( classes.size() ) ) ) );
+		}
+
+		return kb;
+	}
+
+	private KnowledgeBase realize(String inputOnt) {
+		KnowledgeBase kb = new JenaLoader().createKB( inputOnt );
+		kb.realize();
+
+		return kb;
+	}
+}
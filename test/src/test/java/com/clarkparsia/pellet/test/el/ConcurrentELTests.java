@@ -0,0 +1,190 @@
+// Copyright (c) 2006 - 2008, Clark & Parsia, LLC. <http://www.clarkparsia.com>
+// This source code is available under the terms of the Affero General Public License v3.
+//
+// Please see LICENSE.txt for full license terms, including the availability of proprietary exceptions.
+// Questions, comments, or requests for clarification: licensing@clarkparsia.com
+
+package com.clarkparsia.pellet.test.el;
+
+import static com.clarkparsia.pellet.utils.TermFactory.and;
+import static com.clarkparsia.pellet.utils.TermFactory.list;
+import static com.clarkparsia.pellet.utils.TermFactory.some;
+import static com.clarkparsia.pellet.utils.TermFactory.term;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import junit.framework.JUnit4TestAdapter;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mindswap.pellet.KnowledgeBase;
+import org.mindswap.pellet.PelletOptions;
+import org.mindswap.pellet.taxonomy.Taxonomy;
+import org.mindswap.pellet.taxonomy.TaxonomyBuilder;
+import org.mindswap.pellet.utils.progress.SilentProgressMonitor;
+
+import aterm.ATermAppl;
+
+import com.clarkparsia.pellet.el.ConcurrentELClassifier;
+import com.clarkparsia.pellet.el.SimplifiedELClassifier;
+
+/**
+ * <p>
+ * Title:
+ * </p>
+ * <p>
+ * Description: Runs the EL tests with the concurrent EL classifier and
+ * compares its results to the results of the single threaded classifier.
+ * </p>
+ * <p>
+ * Copyright: Copyright (c) 2008
+ * </p>
+ * <p>
+ * Company: Clark & Parsia, LLC. <http://www.clarkparsia.com>
+ * </p>
+ */
+public class ConcurrentELTests extends ELTests {
+	private static final int	THREADS	= 4;
+
+	private int					savedThreads;
+
+	public static junit.framework.Test suite() {
+		return new JUnit4TestAdapter( ConcurrentELTests.class );
+	}
+
+	public ConcurrentELTests() {
+		super( ConcurrentELClassifier.class );
+	}
+
+	@Before
+	public void setThreads() {
+		savedThreads = PelletOptions.EL_CLASSIFICATION_THREADS;
+		PelletOptions.EL_CLASSIFICATION_THREADS = THREADS;
+	}
+
+	@After
+	public void restoreThreads() {
+		PelletOptions.EL_CLASSIFICATION_THREADS = savedThreads;
+	}
+
+	private KnowledgeBase createRandomKB(long seed, int classCount, int axiomCount) {
+		Random random = new Random( seed );
+
+		KnowledgeBase kb = new KnowledgeBase();
+
+		ATermAppl[] classes = new ATermAppl[classCount];
+		for( int i = 0; i < classCount; i++ ) {
+			classes[i] = term( "C" + i );
+			kb.addClass( classes[i] );
+		}
+
+		ATermAppl[] props = new ATermAppl[4];
+		for( int i = 0; i < props.length; i++ ) {
+			props[i] = term( "p" + i );
+			kb.addObjectProperty( props[i] );
+		}
+		kb.addSubProperty( props[0], props[1] );
+		kb.addTransitiveProperty( props[2] );
+		kb.addSubProperty( list( props[0], props[3] ), props[3] );
+
+		for( int i = 0; i < axiomCount; i++ ) {
+			ATermAppl c1 = classes[random.nextInt( classCount )];
+			ATermAppl c2 = classes[random.nextInt( classCount )];
+			ATermAppl c3 = classes[random.nextInt( classCount )];
+			ATermAppl prop = props[random.nextInt( props.length )];
+			if( c1 == c2 || c2 == c3 || c1 == c3 )
+				continue;
+
+			switch( random.nextInt( 5 ) ) {
+			case 0:
+				kb.addSubClass( c1, c2 );
+				break;
+			case 1:
+				kb.addSubClass( c1, some( prop, c2 ) );
+				break;
+			case 2:
+				kb.addSubClass( some( prop, c2 ), c1 );
+				break;
+			case 3:
+				kb.addSubClass( and( c1, c2 ), c3 );
+				break;
+			default:
+				kb.addSubClass( c1, and( c2, some( prop, c3 ) ) );
+				break;
+			}
+		}
+
+		return kb;
+	}
+
+	private Taxonomy<ATermAppl> classify(KnowledgeBase kb, TaxonomyBuilder builder) {
+		assertTrue( "Expressivity is not EL", kb.getExpressivity().isEL() );
+
+		builder.setKB( kb );
+		builder.setProgressMonitor( new SilentProgressMonitor() );
+		builder.classify();
+
+		return builder.getTaxonomy();
+	}
+
+	private void assertSameTaxonomy(long seed, int classCount, int axiomCount) {
+		Taxonomy<ATermAppl> expected = classify( createRandomKB( seed, classCount, axiomCount ),
+				new SimplifiedELClassifier() );
+		Taxonomy<ATermAppl> actual = classify( createRandomKB( seed, classCount, axiomCount ),
+				new ConcurrentELClassifier( THREADS ) );
+
+		assertEquals( expected.getClasses(), actual.getClasses() );
+		for( ATermAppl c : expected.getClasses() ) {
+			assertEquals( c.toString(), expected.getEquivalents( c ), actual.getEquivalents( c ) );
+			assertEquals( c.toString(), expected.getSupers( c, true ), actual.getSupers( c, true ) );
+			assertEquals( c.toString(), expected.getSupers( c ), actual.getSupers( c ) );
+		}
+	}
+
+	@Test
+	public void testSameTaxonomy() {
+		for( long seed = 0; seed < 20; seed++ ) {
+			assertSameTaxonomy( seed, 50, 100 );
+		}
+	}
+
+	@Test
+	public void testSameTaxonomyLarge() {
+		assertSameTaxonomy( 42, 500, 600 );
+	}
+
+	@Test
+	public void testSingleThread() {
+		Taxonomy<ATermAppl> expected = classify( createRandomKB( 7, 50, 100 ),
+				new SimplifiedELClassifier() );
+		Taxonomy<ATermAppl> actual = classify( createRandomKB( 7, 50, 100 ),
+				new ConcurrentELClassifier( 1 ) );
+
+		for( ATermAppl c : expected.getClasses() ) {
+			assertEquals( c.toString(), expected.getSupers( c ), actual.getSupers( c ) );
+		}
+	}
+
+	@Test
+	public void testParallelELClassifierSelected() {
+		boolean savedValue = PelletOptions.USE_PARALLEL_EL_CLASSIFICATION;
+
+		try {
+			PelletOptions.USE_PARALLEL_EL_CLASSIFICATION = true;
+
+			classes( A, B, C );
+			objectProperties( p );
+			kb.addSubClass( A, some( p, B ) );
+			kb.addSubClass( some( p, B ), C );
+
+			assertEquals( ConcurrentELClassifier.class, kb.getTaxonomyBuilder().getClass() );
+			assertTrue( kb.isSubClassOf( A, C ) );
+		}
+		finally {
+			PelletOptions.USE_PARALLEL_EL_CLASSIFICATION = savedValue;
+		}
+	}
+}
@@ -74,7 +74,11 @@ public class ELTests extends AbstractKBTests {
 	}
 
 	public ELTests() {
-		this.builderClass = SimplifiedELClassifier.class ;
+		this( SimplifiedELClassifier.class );
+	}
+
+	protected ELTests(Class<? extends TaxonomyBuilder> builderClass) {
+		this.builderClass = builderClass;
 	}
 
 	public Taxonomy<ATermAppl> getHierarchy() {
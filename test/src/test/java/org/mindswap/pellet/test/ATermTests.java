@@ -27,10 +27,16 @@ import static org.mindswap.pellet.test.PelletTestCase.assertIteratorValues;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import junit.framework.JUnit4TestAdapter;
 
 import org.junit.Test;
+import org.mindswap.pellet.PelletOptions;
+import org.mindswap.pellet.utils.ATermCache;
 import org.mindswap.pellet.utils.ATermUtils;
 import org.mindswap.pellet.utils.Comparators;
 
@@ -195,4 +201,85 @@ public class ATermTests {
     private void testFindPrimitives( ATermAppl c, ATermAppl[] expected ) {
         assertIteratorValues( ATermUtils.findPrimitives( c ).iterator(), expected );        
     } 
+
+    @Test
+    public void testTermCache() {
+		ATermAppl e = or( a, some( p, and( b, not( or( c, d ) ) ) ) );
+		ATermAppl norm = ATermUtils.normalize( e );
+		ATermAppl nnf = ATermUtils.nnf( not( e ) );
+
+		boolean collectStats = PelletOptions.COLLECT_TERM_CACHE_STATISTICS;
+		PelletOptions.COLLECT_TERM_CACHE_STATISTICS = true;
+		try {
+			ATermCache<ATermAppl> cache = ATermUtils.getNormalizeCache();
+			long hits = cache.getHits();
+			assertTrue( norm == ATermUtils.normalize( e ) );
+			assertTrue( cache.getHits() > hits );
+			assertTrue( nnf == ATermUtils.nnf( not( e ) ) );
+
+			ATermCache<ATermAppl> counted = new ATermCache<ATermAppl>( "test", 3 );
+			counted.put( a, b );
+			assertTrue( b == counted.get( a ) );
+			assertTrue( counted.get( e ) == null );
+			assertEquals( 0.5, counted.getHitRate(), 0 );
+		} finally {
+			PelletOptions.COLLECT_TERM_CACHE_STATISTICS = collectStats;
+		}
+
+		ATermUtils.clearCaches();
+		assertTrue( norm == ATermUtils.normalize( e ) );
+		assertTrue( nnf == ATermUtils.nnf( not( e ) ) );
+
+		ATermCache<ATermAppl> small = new ATermCache<ATermAppl>( "test", 3 );
+		assertEquals( 4, small.getCapacity() );
+		small.put( a, b );
+		assertTrue( b == small.get( a ) );
+		assertTrue( small.get( e ) == null );
+		assertEquals( 0.0, small.getHitRate(), 0 );
+		small.clear();
+		assertTrue( small.get( a ) == null );
+
+		ATermCache<ATermAppl> disabled = new ATermCache<ATermAppl>( "test", 0 );
+		disabled.put( a, b );
+		assertTrue( disabled.get( a ) == null );
+    }
+
+    @Test
+    public void testConcurrentTerms() throws Exception {
+		final int count = 200;
+		Callable<List<ATermAppl>> task = new Callable<List<ATermAppl>>() {
+			public List<ATermAppl> call() {
+				List<ATermAppl> terms = new ArrayList<ATermAppl>();
+				for( int i = 0; i < count; i++ ) {
+					ATermAppl x = term( "x" + i );
+					ATermAppl y = term( "y" + (i % 7) );
+					terms.add( ATermUtils.normalize( and( not( or( x, y ) ), some( p, all( q,
+							not( x ) ) ), min( r, i % 3, y ) ) ) );
+					terms.add( ATermUtils.nnf( not( and( x, some( p, y ) ) ) ) );
+				}
+				return terms;
+			}
+		};
+
+		ExecutorService executor = Executors.newFixedThreadPool( 4 );
+		try {
+			List<Future<List<ATermAppl>>> results = new ArrayList<Future<List<ATermAppl>>>();
+			for( int t = 0; t < 8; t++ ) {
+				results.add( executor.submit( task ) );
+			}
+
+			// terms created by different threads are maximally shared
+			List<ATermAppl> expected = results.get( 0 ).get();
+			for( Future<List<ATermAppl>> result : results ) {
+				List<ATermAppl> terms = result.get();
+				assertEquals( expected.size(), terms.size() );
+				for( int i = 0; i < terms.size(); i++ ) {
+					assertTrue( expected.get( i ) == terms.get( i ) );
+				}
+			}
+			assertTrue( expected.get( 0 ) == task.call().get( 0 ) );
+		} finally {
+			executor.shutdown();
+		}
+    }
 }
@@ -0,0 +1,50 @@
+// Copyright (c) 2006 - 2008, Clark & Parsia, LLC. <http://www.clarkparsia.com>
+// This source code is available under the terms of the Affero General Public License v3.
+//
+// Please see LICENSE.txt for full license terms, including the availability of proprietary exceptions.
+// Questions, comments, or requests for clarification: licensing@clarkparsia.com
+
+package org.mindswap.pellet.test;
+
+import java.util.Enumeration;
+
+import junit.framework.JUnit4TestAdapter;
+import junit.framework.Test;
+import junit.framework.TestResult;
+import junit.framework.TestSuite;
+
+import org.mindswap.pellet.PelletOptions;
+
+/**
+ * Runs the ABox tests and the DL benchmark tests with nogood learning (see
+ * {@link PelletOptions#USE_NOGOOD_LEARNING}) so the pruned disjunction and max
+ * cardinality choices do not change the results.
+ */
+public class NogoodLearningTestSuite extends TestSuite {
+	public NogoodLearningTestSuite() {
+		super( NogoodLearningTestSuite.class.getName() );
+
+		addTest( new JUnit4TestAdapter( MiscTests.class ) );
+		addTest( new JUnit4TestAdapter( MergeTests.class ) );
+		addTest( NogoodTests.suite() );
+		for( Enumeration<Test> e = new DLTestSuite().tests(); e.hasMoreElements(); ) {
+			addTest( e.nextElement() );
+		}
+	}
+
+	@Override
+	public void run(TestResult result) {
+		boolean useNogoodLearning = PelletOptions.USE_NOGOOD_LEARNING;
+
+		PelletOptions.USE_NOGOOD_LEARNING = true;
+		try {
+			super.run( result );
+		} finally {
+			PelletOptions.USE_NOGOOD_LEARNING = useNogoodLearning;
+		}
+	}
+
+	public static TestSuite suite() {
+		return new NogoodLearningTestSuite();
+	}
+}
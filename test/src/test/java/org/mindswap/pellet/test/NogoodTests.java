@@ -0,0 +1,179 @@
+// Copyright (c) 2006 - 2008, Clark & Parsia, LLC. <http://www.clarkparsia.com>
+// This source code is available under the terms of the Affero General Public License v3.
+//
+// Please see LICENSE.txt for full license terms, including the availability of proprietary exceptions.
+// Questions, comments, or requests for clarification: licensing@clarkparsia.com
+
+package org.mindswap.pellet.test;
+
+import static com.clarkparsia.pellet.utils.TermFactory.not;
+import static com.clarkparsia.pellet.utils.TermFactory.or;
+import static com.clarkparsia.pellet.utils.TermFactory.some;
+import static com.clarkparsia.pellet.utils.TermFactory.term;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import junit.framework.JUnit4TestAdapter;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mindswap.pellet.ABox;
+import org.mindswap.pellet.ABoxStats;
+import org.mindswap.pellet.DependencySet;
+import org.mindswap.pellet.PelletOptions;
+import org.mindswap.pellet.tableau.branch.Branch;
+import org.mindswap.pellet.tableau.branch.NogoodStore;
+
+import aterm.ATermAppl;
+
+/**
+ * Checks which clashes are learned as nogoods (see
+ * {@link PelletOptions#USE_NOGOOD_LEARNING}).
+ */
+public class NogoodTests extends AbstractKBTests {
+	public static junit.framework.Test suite() {
+		return new JUnit4TestAdapter( NogoodTests.class );
+	}
+
+	private boolean	savedUseNogoodLearning;
+
+	@Before
+	public void enableNogoodLearning() {
+		savedUseNogoodLearning = PelletOptions.USE_NOGOOD_LEARNING;
+		PelletOptions.USE_NOGOOD_LEARNING = true;
+	}
+
+	@After
+	public void restoreNogoodLearning() {
+		PelletOptions.USE_NOGOOD_LEARNING = savedUseNogoodLearning;
+	}
+
+	/**
+	 * Returns the disjunction branch created for the type of a in the
+	 * completed ABox.
+	 */
+	private Branch getDisjunctionBranch(ABox abox) {
+		assertEquals( 1, abox.getBranches().size() );
+
+		Branch branch = abox.getBranches().get( 0 );
+		assertNotNull( branch.getDecision() );
+
+		return branch;
+	}
+
+	@Test
+	public void learnWithNamedIndividuals() {
+		classes( A, B );
+		individuals( a );
+
+		kb.addType( a, or( A, B ) );
+
+		assertTrue( kb.isConsistent() );
+
+		ABox abox = kb.getABox();
+		Branch branch = getDisjunctionBranch( abox );
+		NogoodStore nogoods = abox.getNogoods();
+		nogoods.clear();
+		assertTrue( nogoods.isLearning() );
+
+		nogoods.learn( new DependencySet( branch.getBranch() ) );
+		assertEquals( 1, nogoods.size() );
+		assertNotNull( nogoods.check( branch.getDecision() ) );
+	}
+
+	/**
+	 * The completion of a pseudo model copy starts with blockable nodes whose
+	 * dependency sets refer to the branches of the pseudo model, so nothing
+	 * is learned from it.
+	 */
+	@Test
+	public void noLearningWithCopiedBlockableNodes() {
+		classes( A, B, C );
+		objectProperties( p );
+		individuals( a );
+
+		kb.addType( a, or( A, B ) );
+		kb.addType( a, some( p, C ) );
+
+		assertTrue( kb.isConsistent() );
+
+		ABox abox = kb.getABox();
+		Branch branch = getDisjunctionBranch( abox );
+		NogoodStore nogoods = abox.getNogoods();
+		assertTrue( nogoods.isLearning() );
+
+		nogoods.clear();
+		assertFalse( nogoods.isLearning() );
+
+		nogoods.learn( new DependencySet( branch.getBranch() ) );
+		assertEquals( 0, nogoods.size() );
+		assertNull( nogoods.check( branch.getDecision() ) );
+	}
+
+	/**
+	 * Nogoods learned before learning is stopped are still used.
+	 */
+	@Test
+	public void keepNogoodsWhenLearningStops() {
+		classes( A, B );
+		objectProperties( p );
+		individuals( a );
+
+		kb.addType( a, or( A, B ) );
+
+		assertTrue( kb.isConsistent() );
+
+		ABox abox = kb.getABox();
+		Branch branch = getDisjunctionBranch( abox );
+		NogoodStore nogoods = abox.getNogoods();
+		nogoods.clear();
+		nogoods.learn( new DependencySet( branch.getBranch() ) );
+
+		nogoods.stopLearning();
+		assertFalse( nogoods.isLearning() );
+		assertEquals( 1, nogoods.size() );
+		assertNotNull( nogoods.check( branch.getDecision() ) );
+	}
+
+	/**
+	 * In the satisfiability test of some(p, C) the branches are created for
+	 * the blockable p-successor. The first choices X, R and P clash because of
+	 * E, which is learned as the nogood {X, P}. Q clashes with R, so the
+	 * reasoner backjumps to R and tries S, which adds the disjunction of P and
+	 * Q again. This time P is pruned by the nogood without adding it.
+	 */
+	@Test
+	public void pruneWithLearnedNogood() {
+		ATermAppl X = term( "X" );
+		ATermAppl Y = term( "Y" );
+		ATermAppl R = term( "R" );
+		ATermAppl S = term( "S" );
+		ATermAppl P = term( "P" );
+		ATermAppl Q = term( "Q" );
+
+		classes( C, E, X, Y, R, S, P, Q );
+		objectProperties( p );
+
+		kb.addSubClass( C, or( X, Y ) );
+		kb.addSubClass( C, or( R, S ) );
+		kb.addSubClass( C, some( p, C ) );
+		kb.addSubClass( R, or( P, Q ) );
+		kb.addSubClass( S, or( P, Q ) );
+		kb.addSubClass( X, not( E ) );
+		kb.addSubClass( P, E );
+		kb.addDisjointClass( Q, R );
+
+		assertTrue( kb.isConsistent() );
+
+		kb.getABox().setKeepLastCompletion( true );
+		assertTrue( kb.isSatisfiable( some( p, C ) ) );
+
+		ABoxStats stats = kb.getABox().getLastCompletion().stats;
+		assertTrue( stats.nogoodsLearned > 0 );
+		assertTrue( stats.nogoodsApplied > 0 );
+	}
+}
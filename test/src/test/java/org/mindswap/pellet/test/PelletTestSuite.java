@@ -12,6 +12,20 @@ import org.junit.runners.Suite.SuiteClasses;
 import org.mindswap.pellet.test.inctest.IncConsistencyTests;
 import org.mindswap.pellet.test.inctest.IncJenaConsistencyTests;
 import org.mindswap.pellet.test.rules.RulesTestSuite;
+import org.mindswap.pellet.test.utils.ConceptCachePersistenceTest;
+import org.mindswap.pellet.test.utils.KnowledgeBasePersistenceTest;
+import org.mindswap.pellet.test.utils.LiteralDictionaryTest;
+import org.mindswap.pellet.test.utils.TableauRuleStatsTest;
+import org.mindswap.pellet.test.utils.RoleHierarchyTest;
+import org.mindswap.pellet.test.utils.TimerTest;
+import org.mindswap.pellet.test.utils.TransitionTableTest;
+import org.mindswap.pellet.test.utils.FrozenTaxonomyTest;
+import org.mindswap.pellet.test.utils.PropertyIndexTest;
+import org.mindswap.pellet.test.utils.TypeIndexTest;
+import org.mindswap.pellet.test.utils.ABoxBulkLoadTest;
+import org.mindswap.pellet.test.utils.ABoxComponentsTest;
+import org.mindswap.pellet.test.utils.ConceptCacheTest;
+import org.mindswap.pellet.test.utils.ConceptDependencyMapTest;
 
 import com.clarkparsia.TestATermManchesterSyntaxRenderer;
 import com.clarkparsia.explanation.test.ExplanationTestSuite;
@@ -22,6 +36,7 @@ import com.clarkparsia.pellet.test.CacheSafetyTests;
 import com.clarkparsia.pellet.test.TestKnowledgeBase;
 import com.clarkparsia.pellet.test.annotations.AnnotationsTestSuite;
 import com.clarkparsia.pellet.test.classification.ClassificationTestSuite;
+import com.clarkparsia.pellet.test.el.ConcurrentELTests;
 import com.clarkparsia.pellet.test.el.ELTests;
 import com.clarkparsia.pellet.test.owlapi.OWLAPIv3Tests;
 import com.clarkparsia.pellet.test.owlapi.OWLPrimerTests;
@@ -34,6 +49,20 @@ import com.clarkparsia.pellint.test.PellintTestSuite;
 @RunWith(Suite.class)
 @SuiteClasses( { 
 	ATermTests.class,
+	ConceptDependencyMapTest.class,
+	ConceptCacheTest.class,
+	ConceptCachePersistenceTest.class,
+	KnowledgeBasePersistenceTest.class,
+	TableauRuleStatsTest.class,
+	TimerTest.class,
+	ABoxComponentsTest.class,
+	ABoxBulkLoadTest.class,
+	TypeIndexTest.class,
+	PropertyIndexTest.class,
+	FrozenTaxonomyTest.class,
+	TransitionTableTest.class,
+	RoleHierarchyTest.class,
+	LiteralDictionaryTest.class,
 	PellintTestSuite.class,
 	TracingTests.class,
 	MiscTests.class,
@@ -52,6 +81,7 @@ import com.clarkparsia.pellint.test.PellintTestSuite;
 	TBoxTests.class,
 	DatatypesSuite.class,
 	ELTests.class,
+	ConcurrentELTests.class,
 	ExplanationTestSuite.class,
 	TestIsClass.class,
 	TestKnowledgeBase.class,
@@ -62,6 +92,8 @@ import com.clarkparsia.pellint.test.PellintTestSuite;
 	QueryTestSuite.class,
 	WebOntTestSuite.class,
 	DLTestSuite.class,
+	TrailRestoreTestSuite.class,
+	NogoodLearningTestSuite.class,
 	ClassificationTestSuite.class,
 	ModularityTestSuite.class,
 	
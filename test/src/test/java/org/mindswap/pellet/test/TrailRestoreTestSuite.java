@@ -0,0 +1,52 @@
+// Copyright (c) 2006 - 2008, Clark & Parsia, LLC. <http://www.clarkparsia.com>
+// This source code is available under the terms of the Affero General Public License v3.
+//
+// Please see LICENSE.txt for full license terms, including the availability of proprietary exceptions.
+// Questions, comments, or requests for clarification: licensing@clarkparsia.com
+
+package org.mindswap.pellet.test;
+
+import java.util.Enumeration;
+
+import junit.framework.JUnit4TestAdapter;
+import junit.framework.Test;
+import junit.framework.TestResult;
+import junit.framework.TestSuite;
+
+import org.mindswap.pellet.PelletOptions;
+
+/**
+ * Runs the ABox tests (completed by <code>SROIQStrategy</code>) and the DL
+ * benchmark tests restoring the ABox with the branch effect trail (see
+ * {@link PelletOptions#USE_TRAIL_RESTORE}) instead of scanning all the nodes.
+ */
+public class TrailRestoreTestSuite extends TestSuite {
+	public TrailRestoreTestSuite() {
+		super( TrailRestoreTestSuite.class.getName() );
+
+		addTest( new JUnit4TestAdapter( MiscTests.class ) );
+		addTest( new JUnit4TestAdapter( MergeTests.class ) );
+		for( Enumeration<Test> e = new DLTestSuite().tests(); e.hasMoreElements(); ) {
+			addTest( e.nextElement() );
+		}
+	}
+
+	@Override
+	public void run(TestResult result) {
+		boolean trackBranchEffects = PelletOptions.TRACK_BRANCH_EFFECTS;
+		boolean useTrailRestore = PelletOptions.USE_TRAIL_RESTORE;
+
+		PelletOptions.TRACK_BRANCH_EFFECTS = true;
+		PelletOptions.USE_TRAIL_RESTORE = true;
+		try {
+			super.run( result );
+		} finally {
+			PelletOptions.TRACK_BRANCH_EFFECTS = trackBranchEffects;
+			PelletOptions.USE_TRAIL_RESTORE = useTrailRestore;
+		}
+	}
+
+	public static TestSuite suite() {
+		return new TrailRestoreTestSuite();
+	}
+}
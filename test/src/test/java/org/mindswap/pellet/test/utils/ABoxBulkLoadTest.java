@@ -0,0 +1,130 @@
+// Copyright (c) 2006 - 2008, Clark & Parsia, LLC. <http://www.clarkparsia.com>
+// This source code is available under the terms of the Affero General Public License v3.
+//
+// Please see LICENSE.txt for full license terms, including the availability of proprietary exceptions.
+// Questions, comments, or requests for clarification: licensing@clarkparsia.com
+
+package org.mindswap.pellet.test.utils;
+
+import static com.clarkparsia.pellet.utils.TermFactory.literal;
+import static com.clarkparsia.pellet.utils.TermFactory.min;
+import static com.clarkparsia.pellet.utils.TermFactory.not;
+import static com.clarkparsia.pellet.utils.TermFactory.some;
+import static com.clarkparsia.pellet.utils.TermFactory.term;
+
+import junit.framework.TestCase;
+
+import org.mindswap.pellet.ABoxBulkLoad;
+import org.mindswap.pellet.KnowledgeBase;
+import org.mindswap.pellet.PelletOptions;
+import org.mindswap.pellet.utils.SetUtils;
+
+import aterm.ATermAppl;
+
+public class ABoxBulkLoadTest extends TestCase {
+	private ATermAppl	A	= term( "A" );
+	private ATermAppl	B	= term( "B" );
+	private ATermAppl	p	= term( "p" );
+	private ATermAppl	d	= term( "d" );
+	private ATermAppl	a	= term( "a" );
+	private ATermAppl	b	= term( "b" );
+	private ATermAppl	c	= term( "c" );
+
+	private KnowledgeBase createKB() {
+		KnowledgeBase kb = new KnowledgeBase();
+
+		kb.addClass( A );
+		kb.addClass( B );
+		kb.addObjectProperty( p );
+		kb.addDatatypeProperty( d );
+		kb.addSubClass( some( p, A ), B );
+
+		return kb;
+	}
+
+	public void testBatches() {
+		KnowledgeBase kb = createKB();
+
+		ABoxBulkLoad bulkLoad = kb.beginBulkLoad( 3 );
+		assertSame( bulkLoad, kb.getBulkLoad() );
+
+		bulkLoad.addIndividuals( new ATermAppl[] { a, b, c, null }, 3 );
+		bulkLoad.addTypes( new ATermAppl[] { b }, new ATermAppl[] { A }, 1 );
+		int added = bulkLoad.addPropertyValues( new ATermAppl[] { p, p, d, p }, new ATermAppl[] {
+				a, c, a, term( "unknown" ) }, new ATermAppl[] { b, a, literal( "x" ), a }, 4 );
+		assertEquals( 3, added );
+
+		bulkLoad.commit();
+		assertTrue( bulkLoad.isCommitted() );
+		assertNull( kb.getBulkLoad() );
+
+		assertTrue( kb.isConsistent() );
+		assertEquals( SetUtils.create( a, b, c ), kb.getIndividuals() );
+		assertEquals( SetUtils.create( a ), kb.getInstances( B ) );
+		assertEquals( SetUtils.create( b ), SetUtils.create( kb.getPropertyValues( p, a ) ) );
+	}
+
+	public void testInconsistent() {
+		KnowledgeBase kb = createKB();
+
+		ABoxBulkLoad bulkLoad = kb.beginBulkLoad( 0 );
+		bulkLoad.addIndividual( a );
+		bulkLoad.addType( a, A );
+		bulkLoad.addType( a, not( A ) );
+		bulkLoad.commit();
+
+		assertFalse( kb.isConsistent() );
+	}
+
+	public void testIncremental() {
+		boolean incConsistency = PelletOptions.USE_INCREMENTAL_CONSISTENCY;
+		PelletOptions.USE_INCREMENTAL_CONSISTENCY = true;
+		try {
+			KnowledgeBase kb = createKB();
+			kb.addIndividual( a );
+			kb.addType( a, min( p, 2, A ) );
+			assertTrue( kb.isConsistent() );
+
+			ABoxBulkLoad bulkLoad = kb.beginBulkLoad( 1 );
+			bulkLoad.addIndividual( b );
+			bulkLoad.addPropertyValue( p, b, a );
+			bulkLoad.addType( b, not( B ) );
+			bulkLoad.commit();
+
+			assertTrue( kb.isConsistent() );
+			assertTrue( kb.isType( b, not( B ) ) );
+
+			bulkLoad = kb.beginBulkLoad( 0 );
+			bulkLoad.addType( a, A );
+			bulkLoad.commit();
+
+			assertFalse( kb.isConsistent() );
+		} finally {
+			PelletOptions.USE_INCREMENTAL_CONSISTENCY = incConsistency;
+		}
+	}
+
+	public void testState() {
+		KnowledgeBase kb = createKB();
+
+		ABoxBulkLoad bulkLoad = kb.beginBulkLoad( 0 );
+		try {
+			kb.beginBulkLoad( 0 );
+			fail( "Started a bulk load during a bulk load" );
+		} catch( IllegalStateException e ) {
+			// expected
+		}
+		bulkLoad.commit();
+
+		try {
+			bulkLoad.addIndividual( a );
+			fail( "Added an individual after commit" );
+		} catch( IllegalStateException e ) {
+			// expected
+		}
+
+		kb.addIndividual( a );
+		assertTrue( kb.isConsistent() );
+		assertEquals( SetUtils.create( a ), kb.getIndividuals() );
+	}
+}
@@ -0,0 +1,190 @@
+// Copyright (c) 2006 - 2008, Clark & Parsia, LLC. <http://www.clarkparsia.com>
+// This source code is available under the terms of the Affero General Public License v3.
+//
+// Please see LICENSE.txt for full license terms, including the availability of proprietary exceptions.
+// Questions, comments, or requests for clarification: licensing@clarkparsia.com
+
+package org.mindswap.pellet.test.utils;
+
+import static com.clarkparsia.pellet.utils.TermFactory.all;
+import static com.clarkparsia.pellet.utils.TermFactory.not;
+import static com.clarkparsia.pellet.utils.TermFactory.or;
+import static com.clarkparsia.pellet.utils.TermFactory.some;
+import static com.clarkparsia.pellet.utils.TermFactory.term;
+import static com.clarkparsia.pellet.utils.TermFactory.value;
+
+import junit.framework.TestCase;
+
+import org.mindswap.pellet.ABoxComponents;
+import org.mindswap.pellet.KnowledgeBase;
+import org.mindswap.pellet.PelletOptions;
+
+import aterm.ATermAppl;
+
+public class ABoxComponentsTest extends TestCase {
+	private ATermAppl	A	= term( "A" );
+	private ATermAppl	B	= term( "B" );
+	private ATermAppl	C	= term( "C" );
+	private ATermAppl	D	= term( "D" );
+	private ATermAppl	E	= term( "E" );
+	private ATermAppl	p	= term( "p" );
+	private ATermAppl	q	= term( "q" );
+
+	private boolean		partition;
+	private int			threads;
+
+	@Override
+	protected void setUp() {
+		partition = PelletOptions.USE_PARTITIONED_CONSISTENCY;
+		threads = PelletOptions.PARTITIONED_CONSISTENCY_THREADS;
+
+		PelletOptions.USE_PARTITIONED_CONSISTENCY = true;
+		PelletOptions.PARTITIONED_CONSISTENCY_THREADS = 2;
+	}
+
+	@Override
+	protected void tearDown() {
+		PelletOptions.USE_PARTITIONED_CONSISTENCY = partition;
+		PelletOptions.PARTITIONED_CONSISTENCY_THREADS = threads;
+	}
+
+	private static ATermAppl ind(int component, int i) {
+		return term( "i" + component + "_" + i );
+	}
+
+	/**
+	 * Create a KB with the given number of components where each component is
+	 * a chain of three individuals. The first component needs a
+	 * non-deterministic choice.
+	 */
+	private KnowledgeBase createKB(int components) {
+		KnowledgeBase kb = new KnowledgeBase();
+
+		kb.addClass( A );
+		kb.addClass( B );
+		kb.addClass( C );
+		kb.addClass( D );
+		kb.addClass( E );
+		kb.addObjectProperty( p );
+		kb.addObjectProperty( q );
+		kb.addTransitiveProperty( q );
+
+		kb.addSubClass( A, some( p, B ) );
+		kb.addSubClass( B, all( q, C ) );
+		kb.addSubClass( D, or( A, E ) );
+		kb.addSubClass( E, not( C ) );
+
+		for( int i = 0; i < components; i++ ) {
+			for( int j = 0; j < 3; j++ ) {
+				kb.addIndividual( ind( i, j ) );
+			}
+			kb.addPropertyValue( p, ind( i, 0 ), ind( i, 1 ) );
+			kb.addPropertyValue( q, ind( i, 1 ), ind( i, 2 ) );
+			kb.addType( ind( i, 0 ), A );
+			kb.addType( ind( i, 1 ), B );
+		}
+		kb.addType( ind( 0, 2 ), D );
+
+		return kb;
+	}
+
+	private void assertSameInstances(KnowledgeBase expected, KnowledgeBase kb) {
+		for( ATermAppl c : new ATermAppl[] { A, B, C, D, E, some( p, B ), some( q, C ) } ) {
+			assertEquals( expected.getInstances( c ), kb.getInstances( c ) );
+		}
+	}
+
+	private KnowledgeBase createExpectedKB(int components) {
+		PelletOptions.USE_PARTITIONED_CONSISTENCY = false;
+		try {
+			KnowledgeBase kb = createKB( components );
+			assertTrue( kb.isConsistent() );
+			assertNull( kb.getABox().getComponents() );
+			return kb;
+		} finally {
+			PelletOptions.USE_PARTITIONED_CONSISTENCY = true;
+		}
+	}
+
+	public void testComponents() {
+		KnowledgeBase kb = createKB( 5 );
+
+		assertTrue( kb.isConsistent() );
+
+		ABoxComponents components = kb.getABox().getComponents();
+		assertEquals( 5, components.getComponentCount() );
+		assertEquals( 5, components.getCompletedCount() );
+		assertEquals( 0, components.getReusedCount() );
+		// the first component is completed again as part of the ABox
+		assertEquals( 4, components.getCopiedCount() );
+
+		assertTrue( kb.isType( ind( 3, 2 ), C ) );
+		assertTrue( kb.isType( ind( 0, 2 ), A ) );
+		assertSameInstances( createExpectedKB( 5 ), kb );
+	}
+
+	public void testSequential() {
+		PelletOptions.PARTITIONED_CONSISTENCY_THREADS = 1;
+
+		KnowledgeBase kb = createKB( 3 );
+
+		assertTrue( kb.isConsistent() );
+		assertEquals( 3, kb.getABox().getComponents().getComponentCount() );
+		assertSameInstances( createExpectedKB( 3 ), kb );
+	}
+
+	public void testInconsistentComponent() {
+		KnowledgeBase kb = createKB( 4 );
+		kb.addType( ind( 2, 2 ), E );
+
+		assertFalse( kb.isConsistent() );
+
+		ABoxComponents components = kb.getABox().getComponents();
+		assertEquals( 4, components.getComponentCount() );
+		assertEquals( 0, components.getCopiedCount() );
+	}
+
+	public void testChangedComponents() {
+		KnowledgeBase kb = createKB( 5 );
+		assertTrue( kb.isConsistent() );
+
+		kb.removePropertyValue( q, ind( 3, 1 ), ind( 3, 2 ) );
+		assertTrue( kb.isConsistent() );
+
+		ABoxComponents components = kb.getABox().getComponents();
+		assertEquals( 6, components.getComponentCount() );
+		assertEquals( 2, components.getCompletedCount() );
+		assertEquals( 4, components.getReusedCount() );
+		assertEquals( 5, components.getCopiedCount() );
+
+		assertFalse( kb.isType( ind( 3, 2 ), C ) );
+		assertTrue( kb.isType( ind( 4, 2 ), C ) );
+
+		KnowledgeBase expected = createExpectedKB( 5 );
+		expected.removePropertyValue( q, ind( 3, 1 ), ind( 3, 2 ) );
+		assertSameInstances( expected, kb );
+	}
+
+	public void testTBoxChange() {
+		KnowledgeBase kb = createKB( 3 );
+		assertTrue( kb.isConsistent() );
+
+		kb.addSubClass( C, D );
+		kb.removeType( ind( 1, 0 ), A );
+		assertTrue( kb.isConsistent() );
+
+		ABoxComponents components = kb.getABox().getComponents();
+		assertEquals( 3, components.getComponentCount() );
+		assertEquals( 3, components.getCompletedCount() );
+		assertEquals( 0, components.getReusedCount() );
+		assertTrue( kb.isType( ind( 2, 2 ), D ) );
+	}
+
+	public void testNominals() {
+		KnowledgeBase kb = createKB( 3 );
+		kb.addSubClass( C, some( q, value( ind( 1, 0 ) ) ) );
+
+		assertTrue( kb.isConsistent() );
+		assertEquals( 0, kb.getABox().getComponents().getComponentCount() );
+	}
+}
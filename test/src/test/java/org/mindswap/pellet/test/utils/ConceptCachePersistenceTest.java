@@ -0,0 +1,137 @@
+// Copyright (c) 2006 - 2008, Clark & Parsia, LLC. <http://www.clarkparsia.com>
+// This source code is available under the terms of the Affero General Public License v3.
+//
+// Please see LICENSE.txt for full license terms, including the availability of proprietary exceptions.
+// Questions, comments, or requests for clarification: licensing@clarkparsia.com
+
+package org.mindswap.pellet.test.utils;
+
+import static com.clarkparsia.pellet.utils.TermFactory.TOP_LIT;
+import static com.clarkparsia.pellet.utils.TermFactory.all;
+import static com.clarkparsia.pellet.utils.TermFactory.and;
+import static com.clarkparsia.pellet.utils.TermFactory.min;
+import static com.clarkparsia.pellet.utils.TermFactory.not;
+import static com.clarkparsia.pellet.utils.TermFactory.oneOf;
+import static com.clarkparsia.pellet.utils.TermFactory.some;
+import static com.clarkparsia.pellet.utils.TermFactory.term;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import org.mindswap.pellet.KnowledgeBase;
+import org.mindswap.pellet.tableau.cache.CachedNode;
+import org.mindswap.pellet.tableau.cache.ConceptCache;
+import org.mindswap.pellet.tableau.cache.ConceptCachePersistence;
+
+import aterm.ATermAppl;
+
+public class ConceptCachePersistenceTest extends TestCase {
+	private ATermAppl	A	= term( "A" );
+	private ATermAppl	B	= term( "B" );
+	private ATermAppl	C	= term( "C" );
+	private ATermAppl	D	= term( "D" );
+	private ATermAppl	E	= term( "E" );
+	private ATermAppl	p	= term( "p" );
+	private ATermAppl	d	= term( "d" );
+
+	private KnowledgeBase createKB() {
+		KnowledgeBase kb = new KnowledgeBase();
+
+		kb.addClass( A );
+		kb.addClass( B );
+		kb.addClass( C );
+		kb.addClass( D );
+		kb.addClass( E );
+		kb.addObjectProperty( p );
+		kb.addTransitiveProperty( p );
+		kb.addDatatypeProperty( d );
+
+		kb.addSubClass( A, some( p, B ) );
+		kb.addSubClass( B, min( d, 2, TOP_LIT ) );
+		kb.addEquivalentClass( C, and( A, all( p, D ) ) );
+		kb.addEquivalentClass( E, and( A, all( p, not( B ) ) ) );
+
+		return kb;
+	}
+
+	private byte[] save(KnowledgeBase kb) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ConceptCachePersistence.save( kb, out );
+		return out.toByteArray();
+	}
+
+	private boolean load(KnowledgeBase kb, byte[] bytes) throws IOException {
+		return ConceptCachePersistence.load( kb, new ByteArrayInputStream( bytes ) );
+	}
+
+	public void testSaveLoad() throws IOException {
+		KnowledgeBase kb = createKB();
+		kb.classify();
+
+		ConceptCache cache = kb.getABox().getCache();
+		byte[] bytes = save( kb );
+
+		KnowledgeBase loaded = createKB();
+		assertTrue( load( loaded, bytes ) );
+
+		ConceptCache loadedCache = loaded.getABox().getCache();
+		assertEquals( cache.keySet(), loadedCache.keySet() );
+		for( Map.Entry<ATermAppl, CachedNode> entry : cache.entrySet() ) {
+			CachedNode node = entry.getValue();
+			CachedNode loadedNode = loadedCache.get( entry.getKey() );
+
+			assertEquals( node.isTop(), loadedNode.isTop() );
+			assertEquals( node.isBottom(), loadedNode.isBottom() );
+			assertEquals( node.isComplete(), loadedNode.isComplete() );
+			if( node.isComplete() && !node.isTop() && !node.isBottom() ) {
+				assertEquals( node.isIndependent(), loadedNode.isIndependent() );
+				assertEquals( node.getDepends().keySet(), loadedNode.getDepends().keySet() );
+				assertEquals( node.getOutEdges().size(), loadedNode.getOutEdges().size() );
+				assertEquals( node.getInEdges().size(), loadedNode.getInEdges().size() );
+			}
+		}
+
+		assertFalse( loaded.isSatisfiable( E ) );
+		assertTrue( loaded.isSatisfiable( C ) );
+		assertTrue( loaded.isSubClassOf( E, A ) );
+		assertFalse( loaded.isSubClassOf( A, C ) );
+		assertEquals( kb.getTaxonomy().getSubs( A, false ), loaded.getTaxonomy().getSubs( A,
+				false ) );
+	}
+
+	public void testChangedTBox() throws IOException {
+		KnowledgeBase kb = createKB();
+		kb.classify();
+
+		byte[] bytes = save( kb );
+
+		KnowledgeBase changed = createKB();
+		changed.addSubClass( D, B );
+		assertFalse( load( changed, bytes ) );
+
+		KnowledgeBase changedRBox = createKB();
+		changedRBox.addFunctionalProperty( p );
+		assertFalse( load( changedRBox, bytes ) );
+	}
+
+	public void testNominals() throws IOException {
+		ATermAppl a = term( "a" );
+
+		KnowledgeBase kb = createKB();
+		kb.addIndividual( a );
+		kb.addSubClass( D, oneOf( a ) );
+		kb.classify();
+
+		byte[] bytes = save( kb );
+
+		KnowledgeBase loaded = createKB();
+		loaded.addIndividual( a );
+		loaded.addSubClass( D, oneOf( a ) );
+		assertTrue( load( loaded, bytes ) );
+		assertTrue( loaded.getABox().getCache().isEmpty() );
+	}
+}
@@ -6,6 +6,10 @@
 
 package org.mindswap.pellet.test.utils;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
 import junit.framework.TestCase;
 
 import org.mindswap.pellet.KnowledgeBase;
@@ -13,6 +17,7 @@ import org.mindswap.pellet.tableau.cache.CachedNode;
 import org.mindswap.pellet.tableau.cache.CachedNodeFactory;
 import org.mindswap.pellet.tableau.cache.ConceptCache;
 import org.mindswap.pellet.tableau.cache.ConceptCacheLRU;
+import org.mindswap.pellet.tableau.cache.ConceptCacheTinyLFU;
 import org.mindswap.pellet.utils.ATermUtils;
 
 import aterm.ATermAppl;
@@ -56,4 +61,112 @@ public class ConceptCacheTest extends TestCase {
 		assertTrue( cache.containsKey( np4 ) );
 
 	}
+
+	public void testTinyLFUAdmission() {
+		ConceptCacheTinyLFU cache = new ConceptCacheTinyLFU( new KnowledgeBase(), 3 );
+
+		cache.put( p1, DUMMY );
+		cache.put( p2, DUMMY );
+		cache.put( p3, DUMMY );
+		cache.put( p4, DUMMY );
+		cache.put( np1, DUMMY );
+		cache.put( np2, DUMMY );
+		cache.put( np3, DUMMY );
+
+		assertEquals( 7, cache.size() );
+
+		for( int i = 0; i < 3; i++ ) {
+			cache.get( np1 );
+			cache.get( np3 );
+		}
+
+		// np4 is used less than np1 which is the oldest concept in the cache
+		cache.put( np4, DUMMY );
+
+		assertEquals( 7, cache.size() );
+		assertFalse( cache.containsKey( np4 ) );
+		assertEquals( 1, cache.getRejectionCount() );
+		assertEquals( 0, cache.getEvictionCount() );
+
+		// np4 is used more than np2 which is now the oldest concept
+		cache.get( np4 );
+		cache.get( np4 );
+		cache.put( np4, DUMMY );
+
+		assertEquals( 7, cache.size() );
+		assertTrue( cache.containsKey( np1 ) );
+		assertFalse( cache.containsKey( np2 ) );
+		assertTrue( cache.containsKey( np3 ) );
+		assertTrue( cache.containsKey( np4 ) );
+		assertEquals( 1, cache.getEvictionCount() );
+	}
+
+	public void testTinyLFUStats() {
+		ConceptCacheTinyLFU cache = new ConceptCacheTinyLFU( new KnowledgeBase(), 3 );
+
+		assertEquals( 0.0, cache.getHitRate() );
+
+		cache.put( p1, DUMMY );
+		cache.put( np1, DUMMY );
+
+		assertNotNull( cache.get( p1 ) );
+		assertNotNull( cache.get( np1 ) );
+		assertNull( cache.get( np2 ) );
+		assertNull( cache.get( p2 ) );
+
+		assertEquals( 2, cache.getHitCount() );
+		assertEquals( 2, cache.getMissCount() );
+		assertEquals( 0.5, cache.getHitRate() );
+
+		cache.resetStats();
+		assertEquals( 0, cache.getHitCount() );
+		assertEquals( 0, cache.getMissCount() );
+
+		assertEquals( DUMMY, cache.remove( np1 ) );
+		assertFalse( cache.containsKey( np1 ) );
+		assertEquals( 1, cache.size() );
+	}
+
+	public void testTinyLFUConcurrent() throws InterruptedException {
+		final int maxSize = 50;
+		final ConceptCacheTinyLFU cache = new ConceptCacheTinyLFU( new KnowledgeBase(), maxSize );
+		final List<ATermAppl> concepts = new ArrayList<ATermAppl>();
+		for( int i = 0; i < 200; i++ ) {
+			concepts.add( ATermUtils.makeAnd( p1, ATermUtils.makeTermAppl( "c" + i ) ) );
+		}
+
+		final List<Throwable> errors = new ArrayList<Throwable>();
+		Thread[] threads = new Thread[4];
+		for( int t = 0; t < threads.length; t++ ) {
+			final Random random = new Random( t );
+			threads[t] = new Thread() {
+				public void run() {
+					try {
+						for( int i = 0; i < 10000; i++ ) {
+							// skew the accesses towards the first concepts
+							int index = Math.min( random.nextInt( concepts.size() ), random
+									.nextInt( concepts.size() ) );
+							ATermAppl c = concepts.get( index );
+							if( cache.get( c ) == null )
+								cache.put( c, DUMMY );
+						}
+					} catch( Throwable e ) {
+						synchronized( errors ) {
+							errors.add( e );
+						}
+					}
+				}
+			};
+			threads[t].start();
+		}
+
+		for( Thread thread : threads ) {
+			thread.join();
+		}
+
+		assertTrue( errors.toString(), errors.isEmpty() );
+		assertTrue( cache.size() <= maxSize );
+		assertEquals( 40000, cache.getHitCount() + cache.getMissCount() );
+		assertTrue( cache.getHitCount() > 0 );
+	}
 }
@@ -0,0 +1,182 @@
+// Copyright (c) 2006 - 2008, Clark & Parsia, LLC. <http://www.clarkparsia.com>
+// This source code is available under the terms of the Affero General Public License v3.
+//
+// Please see LICENSE.txt for full license terms, including the availability of proprietary exceptions.
+// Questions, comments, or requests for clarification: licensing@clarkparsia.com
+
+package org.mindswap.pellet.test.utils;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import org.mindswap.pellet.ConceptDependencyMap;
+import org.mindswap.pellet.ConceptDictionary;
+import org.mindswap.pellet.DependencySet;
+import org.mindswap.pellet.KnowledgeBase;
+import org.mindswap.pellet.utils.ATermUtils;
+
+import aterm.ATermAppl;
+
+public class ConceptDependencyMapTest extends TestCase {
+	private ConceptDictionary		dictionary;
+
+	private ConceptDependencyMap	map;
+
+	private ATermAppl				p1	= ATermUtils.makeTermAppl( "p1" );
+	private ATermAppl				p2	= ATermUtils.makeTermAppl( "p2" );
+	private ATermAppl				p3	= ATermUtils.makeNot( p1 );
+
+	private DependencySet			ds1	= DependencySet.INDEPENDENT;
+	private DependencySet			ds2	= new DependencySet( 1 );
+
+	public void setUp() {
+		dictionary = new ConceptDictionary();
+		map = new ConceptDependencyMap( dictionary );
+	}
+
+	public void testDictionary() {
+		assertEquals( ConceptDictionary.NOT_FOUND, dictionary.lookup( p1 ) );
+
+		int id1 = dictionary.getId( p1 );
+		int id2 = dictionary.getId( p2 );
+
+		assertEquals( 0, id1 );
+		assertEquals( 1, id2 );
+		assertEquals( id1, dictionary.getId( p1 ) );
+		assertEquals( id2, dictionary.lookup( p2 ) );
+		assertEquals( 2, dictionary.size() );
+	}
+
+	public void testPutGetRemove() {
+		assertNull( map.put( p1, ds1 ) );
+		assertNull( map.put( p2, ds2 ) );
+		assertEquals( ds1, map.put( p1, ds2 ) );
+
+		assertEquals( 2, map.size() );
+		assertEquals( ds2, map.get( p1 ) );
+		assertTrue( map.containsKey( p2 ) );
+		assertFalse( map.containsKey( p3 ) );
+		assertNull( map.get( "p1" ) );
+
+		// looking up a concept does not add it to the dictionary
+		assertEquals( ConceptDictionary.NOT_FOUND, dictionary.lookup( p3 ) );
+
+		assertEquals( ds2, map.remove( p1 ) );
+		assertNull( map.remove( p1 ) );
+		assertFalse( map.containsKey( p1 ) );
+		assertEquals( 1, map.size() );
+
+		assertNull( map.put( p1, ds1 ) );
+		assertEquals( ds1, map.get( p1 ) );
+		assertEquals( 2, map.size() );
+	}
+
+	public void testManyConcepts() {
+		Map<ATermAppl, DependencySet> expected = new HashMap<ATermAppl, DependencySet>();
+		for( int i = 0; i < 1000; i++ ) {
+			ATermAppl c = ATermUtils.makeTermAppl( "c" + i );
+			DependencySet ds = new DependencySet( i );
+			map.put( c, ds );
+			expected.put( c, ds );
+
+			// remove some concepts to leave removed slots in the table
+			if( i % 3 == 0 ) {
+				map.remove( c );
+				expected.remove( c );
+			}
+		}
+
+		assertEquals( expected, map );
+		assertEquals( expected.keySet(), map.keySet() );
+
+		ConceptDependencyMap copy = new ConceptDependencyMap( map, dictionary );
+		assertEquals( expected, copy );
+
+		ConceptDependencyMap otherCopy = new ConceptDependencyMap( map, new ConceptDictionary() );
+		assertEquals( expected, otherCopy );
+	}
+
+	public void testCopyOnWrite() {
+		map.put( p1, ds1 );
+		map.put( p2, ds2 );
+
+		ConceptDependencyMap copy = new ConceptDependencyMap( map, dictionary );
+		copy.put( p3, ds1 );
+		copy.remove( p1 );
+		map.put( p2, ds1 );
+
+		assertEquals( 2, map.size() );
+		assertEquals( ds1, map.get( p1 ) );
+		assertEquals( ds1, map.get( p2 ) );
+		assertFalse( map.containsKey( p3 ) );
+
+		assertEquals( 2, copy.size() );
+		assertFalse( copy.containsKey( p1 ) );
+		assertEquals( ds2, copy.get( p2 ) );
+		assertEquals( ds1, copy.get( p3 ) );
+
+		ConceptDependencyMap cleared = new ConceptDependencyMap( map, dictionary );
+		cleared.clear();
+		assertTrue( cleared.isEmpty() );
+		assertEquals( 2, map.size() );
+	}
+
+	public void testIteratorRemove() {
+		for( int i = 0; i < 100; i++ ) {
+			map.put( ATermUtils.makeTermAppl( "c" + i ), new DependencySet( i % 2 ) );
+		}
+
+		for( Iterator<DependencySet> i = map.values().iterator(); i.hasNext(); ) {
+			if( i.next().max() != 0 )
+				i.remove();
+		}
+
+		assertEquals( 50, map.size() );
+		for( Map.Entry<ATermAppl, DependencySet> entry : map.entrySet() ) {
+			assertEquals( 0, entry.getValue().max() );
+		}
+
+		map.clear();
+		assertTrue( map.isEmpty() );
+		assertFalse( map.keySet().iterator().hasNext() );
+	}
+
+	/**
+	 * The concepts used by satisfiability tests are released when the KB is
+	 * prepared again after a change.
+	 */
+	public void testDictionaryReset() {
+		KnowledgeBase kb = new KnowledgeBase();
+		ATermAppl a = ATermUtils.makeTermAppl( "a" );
+		kb.addClass( p1 );
+		kb.addClass( p2 );
+		kb.addIndividual( a );
+		kb.addType( a, p1 );
+		assertTrue( kb.isConsistent() );
+
+		for( int i = 0; i < 100; i++ ) {
+			ATermAppl c = ATermUtils.makeTermAppl( "c" + i );
+			kb.addClass( c );
+		}
+		assertTrue( kb.isConsistent() );
+
+		ConceptDictionary oldDictionary = kb.getABox().getConceptDictionary();
+		for( int i = 0; i < 100; i++ ) {
+			ATermAppl c = ATermUtils.makeTermAppl( "c" + i );
+			assertTrue( kb.isSatisfiable( ATermUtils.makeAnd( p1, ATermUtils.makeNot( c ) ) ) );
+		}
+		int oldSize = oldDictionary.size();
+
+		kb.addSubClass( p2, p1 );
+		assertTrue( kb.isConsistent() );
+
+		ConceptDictionary newDictionary = kb.getABox().getConceptDictionary();
+		assertNotSame( oldDictionary, newDictionary );
+		assertTrue( newDictionary.size() < oldSize );
+		assertTrue( kb.isType( a, p1 ) );
+		assertFalse( kb.isType( a, p2 ) );
+	}
+}
@@ -0,0 +1,143 @@
+// Copyright (c) 2006 - 2008, Clark & Parsia, LLC. <http://www.clarkparsia.com>
+// This source code is available under the terms of the Affero General Public License v3.
+//
+// Please see LICENSE.txt for full license terms, including the availability of proprietary exceptions.
+// Questions, comments, or requests for clarification: licensing@clarkparsia.com
+
+package org.mindswap.pellet.test.utils;
+
+import static com.clarkparsia.pellet.utils.TermFactory.and;
+import static com.clarkparsia.pellet.utils.TermFactory.not;
+import static com.clarkparsia.pellet.utils.TermFactory.or;
+import static com.clarkparsia.pellet.utils.TermFactory.some;
+import static com.clarkparsia.pellet.utils.TermFactory.term;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import junit.framework.TestCase;
+
+import org.mindswap.pellet.KnowledgeBase;
+import org.mindswap.pellet.taxonomy.FrozenTaxonomy;
+import org.mindswap.pellet.taxonomy.Taxonomy;
+import org.mindswap.pellet.utils.ATermUtils;
+import org.mindswap.pellet.utils.SetUtils;
+
+import aterm.ATermAppl;
+
+public class FrozenTaxonomyTest extends TestCase {
+	private ATermAppl	p	= term( "p" );
+
+	private static ATermAppl cls(int i) {
+		return term( "C" + i );
+	}
+
+	/**
+	 * A hierarchy where C(i) is a subclass of C(i/2) and C(i/3) with a few
+	 * equivalent and unsatisfiable classes
+	 */
+	private KnowledgeBase createKB(int size) {
+		KnowledgeBase kb = new KnowledgeBase();
+
+		kb.addObjectProperty( p );
+		for( int i = 1; i < size; i++ ) {
+			kb.addClass( cls( i ) );
+		}
+		for( int i = 2; i < size; i++ ) {
+			kb.addSubClass( cls( i ), cls( i / 2 ) );
+			if( i % 3 == 0 )
+				kb.addSubClass( cls( i ), cls( i / 3 ) );
+		}
+		kb.addEquivalentClass( cls( size - 1 ), cls( size - 2 ) );
+		kb.addSubClass( cls( size - 3 ), not( cls( 1 ) ) );
+		kb.addEquivalentClass( cls( size - 4 ), some( p, cls( 2 ) ) );
+
+		return kb;
+	}
+
+	private List<ATermAppl> getClasses(int size) {
+		List<ATermAppl> classes = new ArrayList<ATermAppl>();
+		classes.add( ATermUtils.TOP );
+		classes.add( ATermUtils.BOTTOM );
+		for( int i = 1; i < size; i++ ) {
+			classes.add( cls( i ) );
+		}
+
+		return classes;
+	}
+
+	public void testTaxonomy() {
+		int size = 60;
+		KnowledgeBase kb = createKB( size );
+		kb.classify();
+
+		Taxonomy<ATermAppl> taxonomy = kb.getTaxonomy();
+		FrozenTaxonomy<ATermAppl> frozen = new FrozenTaxonomy<ATermAppl>( taxonomy );
+
+		List<ATermAppl> classes = getClasses( size );
+		for( ATermAppl c : classes ) {
+			assertEquals( taxonomy.getSupers( c, true ), frozen.getSupers( c, true ) );
+			assertEquals( taxonomy.getSupers( c, false ), frozen.getSupers( c, false ) );
+			assertEquals( taxonomy.getSubs( c, true ), frozen.getSubs( c, true ) );
+			assertEquals( taxonomy.getSubs( c, false ), frozen.getSubs( c, false ) );
+
+			for( ATermAppl d : classes ) {
+				assertEquals( c + " " + d, taxonomy.isSubNodeOf( c, d ), frozen
+						.isSubNodeOf( c, d ) );
+			}
+		}
+
+		assertTrue( frozen.isSubNodeOf( cls( 12 ), cls( 3 ) ).isTrue() );
+		assertTrue( frozen.isSubNodeOf( cls( 12 ), cls( 5 ) ).isFalse() );
+		assertTrue( frozen.isSubNodeOf( term( "unknown" ), cls( 5 ) ).isUnknown() );
+	}
+
+	private static Set<Set<ATermAppl>> primitiveOrBottom(Set<Set<ATermAppl>> sets) {
+		Set<Set<ATermAppl>> result = new HashSet<Set<ATermAppl>>();
+		for( Set<ATermAppl> set : sets ) {
+			Set<ATermAppl> named = ATermUtils.primitiveOrBottom( set );
+			if( !named.isEmpty() )
+				result.add( named );
+		}
+
+		return result;
+	}
+
+	public void testKB() {
+		int size = 60;
+		KnowledgeBase kb = createKB( size );
+		kb.classify();
+		assertTrue( kb.isSubClassOf( cls( 12 ), cls( 1 ) ) );
+
+		// complex classes are added to the taxonomy as hidden nodes after
+		// the frozen taxonomy has been created
+		ATermAppl union = or( cls( 6 ), cls( 10 ) );
+		ATermAppl intersection = and( cls( 2 ), cls( 3 ) );
+		kb.getSubClasses( union, true );
+		kb.getSuperClasses( intersection, true );
+
+		Taxonomy<ATermAppl> taxonomy = kb.getTaxonomy();
+		List<ATermAppl> classes = getClasses( size );
+		classes.add( union );
+		classes.add( intersection );
+		for( ATermAppl c : classes ) {
+			ATermAppl n = ATermUtils.normalize( c );
+			assertEquals( primitiveOrBottom( taxonomy.getSupers( n, true ) ), kb.getSuperClasses(
+					c, true ) );
+			assertEquals( primitiveOrBottom( taxonomy.getSupers( n, false ) ), kb.getSuperClasses(
+					c, false ) );
+			assertEquals( primitiveOrBottom( taxonomy.getSubs( n, true ) ), kb.getSubClasses( c,
+					true ) );
+			assertEquals( primitiveOrBottom( taxonomy.getSubs( n, false ) ), kb.getSubClasses( c,
+					false ) );
+		}
+
+		Set<Set<ATermAppl>> expectedSubs = SetUtils.create( SetUtils.create( cls( 12 ) ), SetUtils
+				.create( cls( 13 ) ), SetUtils.create( cls( 18 ) ) );
+		assertTrue( kb.getSubClasses( cls( 6 ), true ).containsAll( expectedSubs ) );
+		assertTrue( kb.isSubClassOf( cls( 36 ), cls( 2 ) ) );
+		assertFalse( kb.isSubClassOf( cls( 36 ), cls( 5 ) ) );
+	}
+}
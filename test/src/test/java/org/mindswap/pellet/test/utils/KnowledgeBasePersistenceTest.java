@@ -0,0 +1,173 @@
+// Copyright (c) 2006 - 2008, Clark & Parsia, LLC. <http://www.clarkparsia.com>
+// This source code is available under the terms of the Affero General Public License v3.
+//
+// Please see LICENSE.txt for full license terms, including the availability of proprietary exceptions.
+// Questions, comments, or requests for clarification: licensing@clarkparsia.com
+
+package org.mindswap.pellet.test.utils;
+
+import static com.clarkparsia.pellet.utils.TermFactory.and;
+import static com.clarkparsia.pellet.utils.TermFactory.literal;
+import static com.clarkparsia.pellet.utils.TermFactory.not;
+import static com.clarkparsia.pellet.utils.TermFactory.some;
+import static com.clarkparsia.pellet.utils.TermFactory.term;
+import static com.clarkparsia.pellet.utils.TermFactory.value;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashSet;
+
+import junit.framework.TestCase;
+
+import org.mindswap.pellet.KnowledgeBase;
+import org.mindswap.pellet.exceptions.UnsupportedFeatureException;
+import org.mindswap.pellet.utils.ATermUtils;
+
+import aterm.ATermAppl;
+
+public class KnowledgeBasePersistenceTest extends TestCase {
+	private ATermAppl	A	= term( "A" );
+	private ATermAppl	B	= term( "B" );
+	private ATermAppl	C	= term( "C" );
+	private ATermAppl	D	= term( "D" );
+	private ATermAppl	p	= term( "p" );
+	private ATermAppl	q	= term( "q" );
+	private ATermAppl	r	= term( "r" );
+	private ATermAppl	d	= term( "d" );
+	private ATermAppl	a	= term( "a" );
+	private ATermAppl	b	= term( "b" );
+	private ATermAppl	c	= term( "c" );
+
+	private KnowledgeBase createKB() {
+		KnowledgeBase kb = new KnowledgeBase();
+
+		kb.addClass( A );
+		kb.addClass( B );
+		kb.addClass( C );
+		kb.addClass( D );
+		kb.addObjectProperty( p );
+		kb.addObjectProperty( q );
+		kb.addObjectProperty( r );
+		kb.addDatatypeProperty( d );
+		kb.addTransitiveProperty( p );
+		kb.addInverseProperty( p, q );
+		kb.addSubProperty( r, p );
+		kb.addDomain( d, A );
+
+		kb.addSubClass( B, A );
+		kb.addEquivalentClass( C, and( A, some( p, B ) ) );
+		kb.addDisjointClass( D, A );
+
+		kb.addIndividual( a );
+		kb.addIndividual( b );
+		kb.addIndividual( c );
+		kb.addType( b, B );
+		kb.addPropertyValue( r, a, b );
+		kb.addPropertyValue( p, c, a );
+		kb.addPropertyValue( d, c, literal( "x" ) );
+		kb.addDifferent( a, b );
+
+		return kb;
+	}
+
+	private KnowledgeBase saveLoad(KnowledgeBase kb) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		kb.save( out );
+		return KnowledgeBase.load( new ByteArrayInputStream( out.toByteArray() ) );
+	}
+
+	public void testClassified() throws IOException {
+		KnowledgeBase kb = createKB();
+		kb.classify();
+
+		KnowledgeBase loaded = saveLoad( kb );
+
+		assertTrue( loaded.isClassified() );
+		assertFalse( loaded.isRealized() );
+		for( ATermAppl cls : kb.getAllClasses() ) {
+			assertEquals( kb.getSuperClasses( cls, true ), loaded.getSuperClasses( cls, true ) );
+			assertEquals( kb.getSubClasses( cls, true ), loaded.getSubClasses( cls, true ) );
+			assertEquals( kb.getEquivalentClasses( cls ), loaded.getEquivalentClasses( cls ) );
+		}
+
+		assertTrue( loaded.isConsistent() );
+		assertTrue( loaded.isSubPropertyOf( r, p ) );
+		assertTrue( loaded.isTransitiveProperty( q ) );
+		assertTrue( loaded.hasDomain( d, A ) );
+
+		// classes that are not in the taxonomy are still classified
+		assertTrue( loaded.isSubClassOf( and( C, not( D ) ), A ) );
+		assertFalse( loaded.isSatisfiable( and( C, D ) ) );
+
+		loaded.realize();
+		assertTrue( loaded.isRealized() );
+		assertEquals( Collections.singleton( c ), loaded.getInstances( C, true ) );
+	}
+
+	public void testRealized() throws IOException {
+		KnowledgeBase kb = createKB();
+		kb.realize();
+
+		KnowledgeBase loaded = saveLoad( kb );
+
+		assertTrue( loaded.isRealized() );
+		for( ATermAppl cls : kb.getAllClasses() ) {
+			assertEquals( kb.getInstances( cls ), loaded.getInstances( cls ) );
+			assertEquals( kb.getInstances( cls, true ), loaded.getInstances( cls, true ) );
+		}
+
+		assertEquals( new HashSet<ATermAppl>( kb.getPropertyValues( p, c ) ),
+				new HashSet<ATermAppl>( loaded.getPropertyValues( p, c ) ) );
+		assertEquals( Collections.singletonList( c ), loaded.getPropertyValues( q, a ) );
+		assertTrue( loaded.isDifferentFrom( a, b ) );
+		assertTrue( loaded.isType( c, A ) );
+		assertTrue( loaded.isType( a, some( p, value( b ) ) ) );
+		assertFalse( loaded.isType( b, C ) );
+	}
+
+	public void testConsistencyRestored() throws IOException {
+		KnowledgeBase kb = createKB();
+		kb.classify();
+
+		KnowledgeBase loaded = saveLoad( kb );
+
+		// TBox queries use the saved consistency result without a tableau
+		assertTrue( loaded.isConsistencyDone() );
+		loaded.classify();
+		assertEquals( kb.getSubClasses( A, true ), loaded.getSubClasses( A, true ) );
+		assertTrue( loaded.isSubClassOf( and( C, not( D ) ), A ) );
+		assertTrue( loaded.isSatisfiable( and( A, value( c ) ) ) );
+		assertFalse( loaded.getABox().isComplete() );
+
+		// the ABox is completed for the first ABox query
+		assertTrue( loaded.isType( c, C ) );
+		assertTrue( loaded.getABox().isComplete() );
+		assertTrue( loaded.isConsistent() );
+	}
+
+	public void testIncremental() throws IOException {
+		KnowledgeBase kb = createKB();
+		kb.classify();
+
+		KnowledgeBase loaded = saveLoad( kb );
+		loaded.addSubClass( D, B );
+
+		assertFalse( loaded.isClassified() );
+		assertFalse( loaded.isSatisfiable( D ) );
+		assertTrue( loaded.getEquivalentClasses( ATermUtils.BOTTOM ).contains( D ) );
+	}
+
+	public void testRules() throws IOException {
+		KnowledgeBase kb = createKB();
+		kb.addKey( A, Collections.singleton( d ) );
+
+		try {
+			saveLoad( kb );
+			fail( "A KB with keys cannot be saved" );
+		} catch( UnsupportedFeatureException e ) {
+			// expected
+		}
+	}
+}
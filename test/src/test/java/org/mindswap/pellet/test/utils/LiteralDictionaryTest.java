@@ -0,0 +1,118 @@
+// Copyright (c) 2006 - 2008, Clark & Parsia, LLC. <http://www.clarkparsia.com>
+// This source code is available under the terms of the Affero General Public License v3.
+//
+// Please see LICENSE.txt for full license terms, including the availability of proprietary exceptions.
+// Questions, comments, or requests for clarification: licensing@clarkparsia.com
+
+package org.mindswap.pellet.test.utils;
+
+import static com.clarkparsia.pellet.utils.TermFactory.literal;
+import static com.clarkparsia.pellet.utils.TermFactory.term;
+
+import junit.framework.TestCase;
+
+import org.mindswap.pellet.ABox;
+import org.mindswap.pellet.KnowledgeBase;
+import org.mindswap.pellet.Literal;
+import org.mindswap.pellet.LiteralDictionary;
+
+import aterm.ATermAppl;
+
+import com.clarkparsia.pellet.datatypes.Datatypes;
+import com.clarkparsia.pellet.datatypes.exceptions.InvalidLiteralException;
+
+public class LiteralDictionaryTest extends TestCase {
+	private ATermAppl	one		= literal( "1", Datatypes.INTEGER );
+	private ATermAppl	oneAlt	= literal( "01", Datatypes.INTEGER );
+	private ATermAppl	two		= literal( "2", Datatypes.INTEGER );
+
+	public void testCanonicalValues() throws Exception {
+		LiteralDictionary dictionary = new ABox( null ).getLiteralDictionary();
+
+		ATermAppl canonical = dictionary.getCanonicalRepresentation( one );
+		assertSame( canonical, dictionary.getCanonicalRepresentation( oneAlt ) );
+		assertSame( dictionary.getValue( one ), dictionary.getValue( oneAlt ) );
+		assertEquals( 2, dictionary.size() );
+
+		assertNotSame( canonical, dictionary.getCanonicalRepresentation( two ) );
+		assertFalse( dictionary.getValue( one ).equals( dictionary.getValue( two ) ) );
+		assertEquals( 3, dictionary.size() );
+
+		dictionary.clear();
+		assertEquals( 0, dictionary.size() );
+		assertSame( canonical, dictionary.getCanonicalRepresentation( oneAlt ) );
+	}
+
+	public void testInvalidLiteral() throws Exception {
+		LiteralDictionary dictionary = new ABox( null ).getLiteralDictionary();
+
+		ATermAppl invalid = literal( "abc", Datatypes.INTEGER );
+		for( int i = 0; i < 2; i++ ) {
+			try {
+				dictionary.getCanonicalRepresentation( invalid );
+				fail( "Invalid literal not reported" );
+			} catch( InvalidLiteralException e ) {
+				// expected
+			}
+		}
+
+		assertEquals( 0, dictionary.size() );
+	}
+
+	public void testSharedLiterals() throws Exception {
+		KnowledgeBase kb = new KnowledgeBase();
+
+		ATermAppl p = term( "p" );
+		ATermAppl a = term( "a" );
+		ATermAppl b = term( "b" );
+
+		kb.addDatatypeProperty( p );
+		kb.addIndividual( a );
+		kb.addIndividual( b );
+		kb.addPropertyValue( p, a, one );
+		kb.addPropertyValue( p, b, oneAlt );
+		kb.addPropertyValue( p, b, two );
+
+		ABox abox = kb.getABox();
+		Literal lit = abox.addLiteral( one );
+		assertSame( lit, abox.addLiteral( oneAlt ) );
+		assertSame( lit, abox.getLiteral( abox.getLiteralDictionary().getCanonicalRepresentation( one ) ) );
+
+		assertTrue( kb.isConsistent() );
+		assertTrue( kb.hasPropertyValue( a, p, oneAlt ) );
+		assertTrue( kb.hasPropertyValue( b, p, one ) );
+		assertEquals( 2, kb.getDataPropertyValues( p, b ).size() );
+
+		// copies of the ABox share the dictionary
+		assertSame( abox.getLiteralDictionary(), abox.copy().getLiteralDictionary() );
+	}
+
+	public void testClear() throws Exception {
+		KnowledgeBase kb = new KnowledgeBase();
+
+		ATermAppl p = term( "p" );
+		ATermAppl a = term( "a" );
+
+		kb.addDatatypeProperty( p );
+		kb.addIndividual( a );
+		kb.addPropertyValue( p, a, one );
+		kb.addPropertyValue( p, a, two );
+		assertTrue( kb.isConsistent() );
+
+		// literals of a removed assertion are released when the ABox is reset
+		LiteralDictionary dictionary = kb.getABox().getLiteralDictionary();
+		assertTrue( dictionary.size() >= 2 );
+		kb.removePropertyValue( p, a, two );
+		assertTrue( kb.isConsistent() );
+		assertFalse( kb.hasPropertyValue( a, p, two ) );
+		assertTrue( kb.hasPropertyValue( a, p, one ) );
+
+		// the dictionary of a cleared KB is emptied even if a copy of the
+		// ABox still uses it
+		ABox copy = kb.getABox().copy();
+		dictionary = copy.getLiteralDictionary();
+		kb.clear();
+		assertEquals( 0, dictionary.size() );
+		assertNotSame( dictionary, kb.getABox().getLiteralDictionary() );
+	}
+}
@@ -0,0 +1,132 @@
+// Copyright (c) 2006 - 2008, Clark & Parsia, LLC. <http://www.clarkparsia.com>
+// This source code is available under the terms of the Affero General Public License v3.
+//
+// Please see LICENSE.txt for full license terms, including the availability of proprietary exceptions.
+// Questions, comments, or requests for clarification: licensing@clarkparsia.com
+
+package org.mindswap.pellet.test.utils;
+
+import static com.clarkparsia.pellet.utils.TermFactory.literal;
+import static com.clarkparsia.pellet.utils.TermFactory.some;
+import static com.clarkparsia.pellet.utils.TermFactory.term;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import junit.framework.TestCase;
+
+import org.mindswap.pellet.KnowledgeBase;
+import org.mindswap.pellet.PelletOptions;
+import org.mindswap.pellet.utils.ATermUtils;
+import org.mindswap.pellet.utils.SetUtils;
+
+import aterm.ATermAppl;
+
+public class PropertyIndexTest extends TestCase {
+	private ATermAppl	A		= term( "A" );
+	private ATermAppl	p		= term( "p" );
+	private ATermAppl	q		= term( "q" );
+	private ATermAppl	invP	= term( "invP" );
+	private ATermAppl	t		= term( "t" );
+	private ATermAppl	f		= term( "f" );
+	private ATermAppl	d		= term( "d" );
+	private ATermAppl	e		= term( "e" );
+
+	private KnowledgeBase createKB() {
+		KnowledgeBase kb = new KnowledgeBase();
+
+		kb.addClass( A );
+		for( ATermAppl r : new ATermAppl[] { p, q, invP, t, f } ) {
+			kb.addObjectProperty( r );
+		}
+		kb.addDatatypeProperty( d );
+		kb.addDatatypeProperty( e );
+
+		kb.addSubProperty( q, p );
+		kb.addInverseProperty( invP, p );
+		kb.addTransitiveProperty( t );
+		kb.addFunctionalProperty( f );
+		kb.addSubProperty( e, d );
+		kb.addSubClass( A, some( q, ATermUtils.TOP ) );
+
+		for( int i = 0; i < 10; i++ ) {
+			kb.addIndividual( ind( i ) );
+		}
+
+		kb.addPropertyValue( p, ind( 0 ), ind( 1 ) );
+		kb.addPropertyValue( q, ind( 2 ), ind( 3 ) );
+		kb.addPropertyValue( invP, ind( 4 ), ind( 5 ) );
+		kb.addPropertyValue( t, ind( 1 ), ind( 2 ) );
+		kb.addPropertyValue( t, ind( 2 ), ind( 3 ) );
+		kb.addPropertyValue( e, ind( 6 ), literal( "x" ) );
+		kb.addPropertyValue( d, ind( 7 ), literal( "y" ) );
+		kb.addType( ind( 8 ), A );
+
+		// ind9 is merged with ind1 by the functional property
+		kb.addPropertyValue( f, ind( 3 ), ind( 1 ) );
+		kb.addPropertyValue( f, ind( 3 ), ind( 9 ) );
+
+		return kb;
+	}
+
+	private static ATermAppl ind(int i) {
+		return term( "i" + i );
+	}
+
+	private Map<ATermAppl, Set<ATermAppl>> getPropertyValues(KnowledgeBase kb, ATermAppl r) {
+		Map<ATermAppl, Set<ATermAppl>> result = new HashMap<ATermAppl, Set<ATermAppl>>();
+		for( Map.Entry<ATermAppl, List<ATermAppl>> entry : kb.getPropertyValues( r ).entrySet() ) {
+			result.put( entry.getKey(), SetUtils.create( entry.getValue() ) );
+		}
+
+		return result;
+	}
+
+	public void testIndex() {
+		boolean useIndex = PelletOptions.USE_PROPERTY_INDEX;
+		try {
+			PelletOptions.USE_PROPERTY_INDEX = false;
+			KnowledgeBase expected = createKB();
+			assertTrue( expected.isConsistent() );
+
+			PelletOptions.USE_PROPERTY_INDEX = true;
+			KnowledgeBase kb = createKB();
+			assertTrue( kb.isConsistent() );
+
+			for( ATermAppl r : new ATermAppl[] {
+					p, q, invP, t, f, d, e, ATermUtils.TOP_OBJECT_PROPERTY } ) {
+				assertEquals( getPropertyValues( expected, r ), getPropertyValues( kb, r ) );
+				assertEquals( SetUtils.create( expected.retrieveIndividualsWithProperty( r ) ),
+						SetUtils.create( kb.retrieveIndividualsWithProperty( r ) ) );
+				assertTrue( kb.getPossibleSubjects( r ).containsAll(
+						kb.retrieveIndividualsWithProperty( r ) ) );
+			}
+
+			assertEquals( SetUtils.create( ind( 0 ), ind( 2 ), ind( 5 ) ),
+					SetUtils.create( kb.retrieveIndividualsWithProperty( p ) ) );
+			assertEquals( SetUtils.create( ind( 1 ), ind( 3 ), ind( 4 ), ind( 9 ) ), kb
+					.getPropertyValues( invP ).keySet() );
+			assertEquals( SetUtils.create( ind( 6 ), ind( 7 ) ), SetUtils.create( kb
+					.retrieveIndividualsWithProperty( d ) ) );
+			assertEquals( SetUtils.create( ind( 2 ), ind( 3 ) ), SetUtils.create( kb
+					.getPropertyValues( t, ind( 1 ) ) ) );
+		} finally {
+			PelletOptions.USE_PROPERTY_INDEX = useIndex;
+		}
+	}
+
+	public void testUpdate() {
+		KnowledgeBase kb = createKB();
+		assertEquals( SetUtils.create( ind( 6 ), ind( 7 ) ), SetUtils.create( kb
+				.retrieveIndividualsWithProperty( d ) ) );
+
+		// the index is created again after the ABox changes
+		kb.addPropertyValue( e, ind( 0 ), literal( "z" ) );
+		assertEquals( SetUtils.create( ind( 0 ), ind( 6 ), ind( 7 ) ), SetUtils.create( kb
+				.retrieveIndividualsWithProperty( d ) ) );
+		assertEquals( SetUtils.create( ind( 0 ), ind( 6 ), ind( 7 ) ), kb.getPropertyValues( d )
+				.keySet() );
+	}
+}
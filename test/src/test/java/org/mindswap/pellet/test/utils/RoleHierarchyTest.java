@@ -0,0 +1,114 @@
+// Copyright (c) 2006 - 2008, Clark & Parsia, LLC. <http://www.clarkparsia.com>
+// This source code is available under the terms of the Affero General Public License v3.
+//
+// Please see LICENSE.txt for full license terms, including the availability of proprietary exceptions.
+// Questions, comments, or requests for clarification: licensing@clarkparsia.com
+
+package org.mindswap.pellet.test.utils;
+
+import static com.clarkparsia.pellet.utils.TermFactory.inv;
+import static com.clarkparsia.pellet.utils.TermFactory.term;
+
+import java.util.HashSet;
+
+import junit.framework.TestCase;
+
+import org.mindswap.pellet.KnowledgeBase;
+import org.mindswap.pellet.RBox;
+import org.mindswap.pellet.Role;
+import org.mindswap.pellet.RoleHierarchy;
+
+import aterm.ATermAppl;
+
+public class RoleHierarchyTest extends TestCase {
+	private ATermAppl	p	= term( "p" );
+	private ATermAppl	q	= term( "q" );
+	private ATermAppl	r	= term( "r" );
+	private ATermAppl	s	= term( "s" );
+	private ATermAppl	d	= term( "d" );
+
+	private KnowledgeBase createKB() {
+		KnowledgeBase kb = new KnowledgeBase();
+
+		kb.addObjectProperty( p );
+		kb.addObjectProperty( q );
+		kb.addObjectProperty( r );
+		kb.addObjectProperty( s );
+		kb.addDatatypeProperty( d );
+
+		kb.addSubProperty( p, q );
+		kb.addSubProperty( q, r );
+		kb.addEquivalentProperty( r, inv( s ) );
+		kb.addFunctionalProperty( r );
+		kb.addTransitiveProperty( q );
+
+		return kb;
+	}
+
+	public void testHierarchy() {
+		KnowledgeBase kb = createKB();
+		kb.prepare();
+
+		RBox rbox = kb.getRBox();
+		RoleHierarchy hierarchy = rbox.getRoleHierarchy();
+		assertNotNull( hierarchy );
+
+		for( Role role : rbox.getRoles() ) {
+			int id = role.getId();
+			assertSame( role, hierarchy.getRole( id ) );
+			assertEquals( role.getSuperRoles(), new HashSet<Role>( hierarchy.getSuperRoles( id ) ) );
+			assertEquals( role.getSubRoles(), new HashSet<Role>( hierarchy.getSubRoles( id ) ) );
+
+			for( Role other : rbox.getRoles() ) {
+				boolean isSub = role.getSuperRoles().contains( other );
+				assertEquals( role + " " + other, isSub, role.isSubRoleOf( other ) );
+				assertEquals( role + " " + other, isSub, hierarchy.isSubRoleOf( role, other ) );
+				assertEquals( role + " " + other, role.getSubRoles().contains( other ), role
+						.isSuperRoleOf( other ) );
+			}
+		}
+
+		assertTrue( kb.getRole( p ).isSubRoleOf( kb.getRole( r ) ) );
+		assertTrue( kb.getRole( inv( p ) ).isSubRoleOf( kb.getRole( s ) ) );
+		assertFalse( kb.getRole( r ).isSubRoleOf( kb.getRole( p ) ) );
+		assertFalse( kb.getRole( d ).isSubRoleOf( kb.getRole( p ) ) );
+	}
+
+	public void testCharacteristics() {
+		KnowledgeBase kb = createKB();
+		kb.prepare();
+
+		RoleHierarchy hierarchy = kb.getRBox().getRoleHierarchy();
+
+		int rId = kb.getRole( r ).getId();
+		int qId = kb.getRole( q ).getId();
+		int pId = kb.getRole( p ).getId();
+
+		assertTrue( hierarchy.hasCharacteristics( rId, Role.FUNCTIONAL ) );
+		assertFalse( hierarchy.hasCharacteristics( rId, Role.TRANSITIVE ) );
+		assertTrue( hierarchy.hasCharacteristics( qId, Role.TRANSITIVE ) );
+		assertTrue( hierarchy.hasCharacteristics( qId, Role.FUNCTIONAL ) );
+		assertTrue( hierarchy.hasCharacteristics( pId, Role.FUNCTIONAL ) );
+		assertFalse( hierarchy.hasCharacteristics( pId, Role.FUNCTIONAL | Role.TRANSITIVE ) );
+	}
+
+	public void testUpdate() {
+		KnowledgeBase kb = createKB();
+		kb.prepare();
+
+		ATermAppl t = term( "t" );
+		kb.addObjectProperty( t );
+		kb.addSubProperty( r, t );
+
+		// the modified roles use their sets until the RBox is prepared again
+		assertTrue( kb.getRole( r ).isSubRoleOf( kb.getRole( t ) ) );
+		assertTrue( kb.getRole( t ).isSuperRoleOf( kb.getRole( r ) ) );
+		assertFalse( kb.getRole( t ).isSubRoleOf( kb.getRole( r ) ) );
+
+		kb.prepare();
+
+		assertTrue( kb.getRole( p ).isSubRoleOf( kb.getRole( t ) ) );
+		assertTrue( kb.getRBox().getRoleHierarchy().isSubRoleOf( kb.getRole( p ), kb.getRole( t ) ) );
+		assertTrue( kb.isSubPropertyOf( p, t ) );
+	}
+}
@@ -0,0 +1,123 @@
+// Copyright (c) 2006 - 2008, Clark & Parsia, LLC. <http://www.clarkparsia.com>
+// This source code is available under the terms of the Affero General Public License v3.
+//
+// Please see LICENSE.txt for full license terms, including the availability of proprietary exceptions.
+// Questions, comments, or requests for clarification: licensing@clarkparsia.com
+
+package org.mindswap.pellet.test.utils;
+
+import static com.clarkparsia.pellet.utils.TermFactory.not;
+import static com.clarkparsia.pellet.utils.TermFactory.or;
+import static com.clarkparsia.pellet.utils.TermFactory.some;
+import static com.clarkparsia.pellet.utils.TermFactory.term;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+import javax.management.Attribute;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import junit.framework.TestCase;
+
+import org.mindswap.pellet.KnowledgeBase;
+import org.mindswap.pellet.tableau.completion.rule.TableauRuleStats;
+import org.mindswap.pellet.tableau.completion.rule.TableauRuleStats.RuleCounters;
+
+import aterm.ATermAppl;
+
+public class TableauRuleStatsTest extends TestCase {
+	private ATermAppl	A	= term( "A" );
+	private ATermAppl	B	= term( "B" );
+	private ATermAppl	C	= term( "C" );
+	private ATermAppl	D	= term( "D" );
+	private ATermAppl	p	= term( "p" );
+	private ATermAppl	a	= term( "a" );
+
+	private KnowledgeBase createKB() {
+		KnowledgeBase kb = new KnowledgeBase();
+
+		kb.addClass( A );
+		kb.addClass( B );
+		kb.addClass( C );
+		kb.addClass( D );
+		kb.addObjectProperty( p );
+
+		kb.addSubClass( A, or( B, C ) );
+		kb.addSubClass( B, not( D ) );
+		kb.addSubClass( C, not( D ) );
+
+		kb.addIndividual( a );
+		kb.addType( a, A );
+		kb.addType( a, D );
+		kb.addType( a, some( p, A ) );
+
+		return kb;
+	}
+
+	private static long total(TableauRuleStats stats, String counter) {
+		long total = 0;
+		for( RuleCounters counters : stats.getRules().values() ) {
+			if( counter.equals( "applications" ) )
+				total += counters.getApplications();
+			else if( counter.equals( "nodes" ) )
+				total += counters.getNodes();
+			else if( counter.equals( "clashes" ) )
+				total += counters.getClashes();
+			else if( counter.equals( "backtracks" ) )
+				total += counters.getBacktracks();
+		}
+		return total;
+	}
+
+	public void testDisabled() {
+		KnowledgeBase kb = createKB();
+
+		assertFalse( kb.getRuleStats().isEnabled() );
+		assertFalse( kb.isConsistent() );
+		assertEquals( 0, total( kb.getRuleStats(), "applications" ) );
+	}
+
+	public void testCounters() {
+		KnowledgeBase kb = createKB();
+		TableauRuleStats stats = kb.getRuleStats();
+		stats.setEnabled( true );
+
+		assertFalse( kb.isConsistent() );
+
+		Map<String, RuleCounters> rules = stats.getRules();
+		assertTrue( rules.containsKey( "DisjunctionRule" ) );
+		assertTrue( rules.get( "DisjunctionRule" ).getApplications() > 0 );
+		assertTrue( rules.get( "SomeValuesRule" ).getNodes() > 0 );
+		assertTrue( total( stats, "clashes" ) >= 2 );
+		assertTrue( total( stats, "backtracks" ) >= 1 );
+		assertTrue( total( stats, "backtracks" ) <= total( stats, "clashes" ) );
+
+		stats.reset();
+		assertEquals( 0, total( stats, "applications" ) );
+		assertEquals( 0, total( stats, "backtracks" ) );
+	}
+
+	public void testMBean() throws JMException {
+		KnowledgeBase kb = createKB();
+		TableauRuleStats stats = kb.getRuleStats();
+
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		ObjectName name = stats.registerMBean( "test" );
+		try {
+			assertTrue( server.isRegistered( name ) );
+			assertEquals( Boolean.FALSE, server.getAttribute( name, "Enabled" ) );
+
+			server.setAttribute( name, new Attribute( "Enabled", Boolean.TRUE ) );
+			assertTrue( stats.isEnabled() );
+
+			kb.isConsistent();
+			assertNotNull( server.getAttribute( name, "Rules" ) );
+		} finally {
+			stats.unregisterMBean( "test" );
+		}
+
+		assertFalse( server.isRegistered( name ) );
+	}
+}
@@ -0,0 +1,105 @@
+// Copyright (c) 2006 - 2008, Clark & Parsia, LLC. <http://www.clarkparsia.com>
+// This source code is available under the terms of the Affero General Public License v3.
+//
+// Please see LICENSE.txt for full license terms, including the availability of proprietary exceptions.
+// Questions, comments, or requests for clarification: licensing@clarkparsia.com
+
+package org.mindswap.pellet.test.utils;
+
+import java.util.concurrent.CountDownLatch;
+
+import junit.framework.TestCase;
+
+import org.mindswap.pellet.exceptions.TimeoutException;
+import org.mindswap.pellet.exceptions.TimerInterruptedException;
+import org.mindswap.pellet.utils.Timer;
+import org.mindswap.pellet.utils.Timers;
+
+public class TimerTest extends TestCase {
+	public void testRecursiveStart() {
+		Timer timer = new Timer( "test" );
+
+		timer.start();
+		timer.start();
+		assertEquals( -1, timer.stop() );
+		assertTrue( timer.isStarted() );
+		assertTrue( timer.stop() >= 0 );
+		assertFalse( timer.isStarted() );
+		assertEquals( 1, timer.getCount() );
+
+		assertEquals( -Long.MAX_VALUE, timer.stop() );
+	}
+
+	public void testThreads() throws InterruptedException {
+		final Timers timers = new Timers();
+		final int threadCount = 4;
+		final int iterations = 1000;
+		final CountDownLatch done = new CountDownLatch( threadCount );
+
+		for( int i = 0; i < threadCount; i++ ) {
+			new Thread() {
+				public void run() {
+					try {
+						for( int j = 0; j < iterations; j++ ) {
+							timers.startTimer( "outer" );
+							timers.startTimer( "inner" + (j % 10) ).stop();
+							timers.getTimer( "outer" ).check();
+							timers.stopTimer( "outer" );
+						}
+					} finally {
+						done.countDown();
+					}
+				}
+			}.start();
+		}
+		done.await();
+
+		Timer outer = timers.getTimer( "outer" );
+		assertEquals( threadCount * iterations, outer.getCount() );
+		assertFalse( outer.isStarted() );
+		long inner = 0;
+		for( int i = 0; i < 10; i++ ) {
+			inner += timers.getTimer( "inner" + i ).getCount();
+		}
+		assertEquals( threadCount * iterations, inner );
+	}
+
+	public void testInterrupt() throws InterruptedException {
+		final Timers timers = new Timers();
+		final Timer timer = timers.startTimer( "test" );
+
+		Thread thread = new Thread() {
+			public void run() {
+				timers.interrupt();
+			}
+		};
+		thread.start();
+		thread.join();
+
+		try {
+			timer.check();
+			fail( "Timer was not interrupted" );
+		} catch( TimerInterruptedException e ) {
+			// expected
+		}
+
+		timer.check();
+	}
+
+	public void testTimeout() throws InterruptedException {
+		Timer timer = new Timer( "test" );
+		timer.setTimeout( 1 );
+		timer.start();
+		Thread.sleep( 10 );
+
+		try {
+			timer.check();
+			fail( "Timer did not time out" );
+		} catch( TimeoutException e ) {
+			// expected
+		}
+
+		timer.stop();
+		timer.check();
+	}
+}
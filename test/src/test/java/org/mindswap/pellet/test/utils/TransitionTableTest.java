@@ -0,0 +1,169 @@
+// Copyright (c) 2006 - 2008, Clark & Parsia, LLC. <http://www.clarkparsia.com>
+// This source code is available under the terms of the Affero General Public License v3.
+//
+// Please see LICENSE.txt for full license terms, including the availability of proprietary exceptions.
+// Questions, comments, or requests for clarification: licensing@clarkparsia.com
+
+package org.mindswap.pellet.test.utils;
+
+import static com.clarkparsia.pellet.utils.TermFactory.all;
+import static com.clarkparsia.pellet.utils.TermFactory.inv;
+import static com.clarkparsia.pellet.utils.TermFactory.list;
+import static com.clarkparsia.pellet.utils.TermFactory.term;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.mindswap.pellet.KnowledgeBase;
+import org.mindswap.pellet.Role;
+import org.mindswap.pellet.utils.fsm.TransitionGraph;
+import org.mindswap.pellet.utils.fsm.TransitionTable;
+
+import aterm.ATermAppl;
+
+public class TransitionTableTest extends TestCase {
+	private ATermAppl	partOf		= term( "partOf" );
+	private ATermAppl	directPartOf	= term( "directPartOf" );
+	private ATermAppl	locatedIn	= term( "locatedIn" );
+	private ATermAppl	regionOf	= term( "regionOf" );
+
+	private KnowledgeBase createKB() {
+		KnowledgeBase kb = new KnowledgeBase();
+
+		kb.addObjectProperty( partOf );
+		kb.addObjectProperty( directPartOf );
+		kb.addObjectProperty( locatedIn );
+		kb.addObjectProperty( regionOf );
+
+		kb.addSubProperty( directPartOf, partOf );
+		kb.addTransitiveProperty( partOf );
+		kb.addSubProperty( list( locatedIn, partOf ), locatedIn );
+		kb.addSubProperty( list( regionOf, partOf, directPartOf ), locatedIn );
+
+		return kb;
+	}
+
+	private boolean accepts(TransitionTable table, List<Role> word) {
+		int state = table.getInitialState();
+		for( Role role : word ) {
+			state = table.move( state, role );
+			if( state == TransitionTable.NONE )
+				return false;
+		}
+
+		return table.isFinal( state );
+	}
+
+	private void addWords(List<Role> alphabet, List<Role> prefix, int length, List<List<Role>> words) {
+		words.add( prefix );
+		if( length == 0 )
+			return;
+
+		for( Role role : alphabet ) {
+			List<Role> word = new ArrayList<Role>( prefix );
+			word.add( role );
+			addWords( alphabet, word, length - 1, words );
+		}
+	}
+
+	private void assertSameLanguage(Role role) {
+		TransitionGraph<Role> tg = role.getFSM();
+		TransitionTable table = role.getTransitionTable();
+
+		assertNotNull( tg );
+		assertNotNull( table );
+		assertTrue( table.size() <= tg.size() );
+
+		List<Role> alphabet = new ArrayList<Role>( tg.getAlpahabet() );
+		List<List<Role>> words = new ArrayList<List<Role>>();
+		addWords( alphabet, new ArrayList<Role>(), 4, words );
+
+		for( List<Role> word : words ) {
+			assertEquals( role + " " + word, tg.accepts( word ), accepts( table, word ) );
+		}
+	}
+
+	public void testCompiledAutomata() {
+		KnowledgeBase kb = createKB();
+		kb.prepare();
+
+		for( ATermAppl p : Arrays.asList( locatedIn, inv( locatedIn ) ) ) {
+			assertSameLanguage( kb.getRole( p ) );
+		}
+	}
+
+	public void testTransitions() {
+		KnowledgeBase kb = createKB();
+		kb.prepare();
+
+		Role role = kb.getRole( locatedIn );
+		TransitionTable table = role.getTransitionTable();
+
+		// partOf and directPartOf can follow locatedIn but no chain starts
+		// with them
+		int initial = table.getInitialState();
+		int afterLocatedIn = table.move( initial, kb.getRole( locatedIn ) );
+		assertTrue( table.isFinal( afterLocatedIn ) );
+		assertTrue( table.isFinal( table.move( afterLocatedIn, kb.getRole( partOf ) ) ) );
+		assertTrue( table.isFinal( table.move( afterLocatedIn, kb.getRole( directPartOf ) ) ) );
+		assertEquals( TransitionTable.NONE, table.move( initial, kb.getRole( partOf ) ) );
+		assertEquals( TransitionTable.NONE, table.move( initial, kb.getRole( directPartOf ) ) );
+
+		int afterRegionOf = table.move( initial, kb.getRole( regionOf ) );
+		assertFalse( table.isFinal( afterRegionOf ) );
+		assertEquals( TransitionTable.NONE, table.move( afterRegionOf, kb.getRole( locatedIn ) ) );
+	}
+
+	public void testRoleIds() {
+		KnowledgeBase kb = createKB();
+		kb.prepare();
+
+		HashSet<Integer> ids = new HashSet<Integer>();
+		for( Role role : kb.getRBox().getRoles() ) {
+			assertTrue( role.getId() >= 0 );
+			assertTrue( role.getId() < kb.getRBox().getRoleIdBound() );
+			assertTrue( ids.add( role.getId() ) );
+		}
+
+		int id = kb.getRole( locatedIn ).getId();
+		ATermAppl q = term( "q" );
+		kb.addObjectProperty( q );
+		kb.prepare();
+
+		assertEquals( id, kb.getRole( locatedIn ).getId() );
+		assertTrue( kb.getRole( q ).getId() >= 0 );
+	}
+
+	public void testPropertyValues() {
+		KnowledgeBase kb = createKB();
+
+		ATermAppl a = term( "a" );
+		ATermAppl b = term( "b" );
+		ATermAppl c = term( "c" );
+		ATermAppl d = term( "d" );
+		ATermAppl e = term( "e" );
+		ATermAppl C = term( "C" );
+
+		kb.addClass( C );
+		for( ATermAppl ind : Arrays.asList( a, b, c, d, e ) )
+			kb.addIndividual( ind );
+
+		kb.addPropertyValue( locatedIn, a, b );
+		kb.addPropertyValue( directPartOf, b, c );
+		kb.addPropertyValue( partOf, c, d );
+		kb.addPropertyValue( regionOf, e, b );
+		kb.addType( a, all( locatedIn, C ) );
+
+		assertEquals( new HashSet<ATermAppl>( Arrays.asList( b, c, d ) ), new HashSet<ATermAppl>( kb
+				.getPropertyValues( locatedIn, a ) ) );
+		assertEquals( new HashSet<ATermAppl>( Arrays.asList( a ) ), new HashSet<ATermAppl>( kb
+				.getPropertyValues( inv( locatedIn ), d ) ) );
+		assertTrue( kb.isType( b, C ) );
+		assertTrue( kb.isType( d, C ) );
+		assertFalse( kb.isType( e, C ) );
+	}
+}
@@ -0,0 +1,146 @@
+// Copyright (c) 2006 - 2008, Clark & Parsia, LLC. <http://www.clarkparsia.com>
+// This source code is available under the terms of the Affero General Public License v3.
+//
+// Please see LICENSE.txt for full license terms, including the availability of proprietary exceptions.
+// Questions, comments, or requests for clarification: licensing@clarkparsia.com
+
+package org.mindswap.pellet.test.utils;
+
+import static com.clarkparsia.pellet.utils.TermFactory.and;
+import static com.clarkparsia.pellet.utils.TermFactory.or;
+import static com.clarkparsia.pellet.utils.TermFactory.some;
+import static com.clarkparsia.pellet.utils.TermFactory.term;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import junit.framework.TestCase;
+
+import org.mindswap.pellet.KnowledgeBase;
+import org.mindswap.pellet.taxonomy.Taxonomy;
+import org.mindswap.pellet.taxonomy.TypeIndex;
+import org.mindswap.pellet.utils.ATermUtils;
+import org.mindswap.pellet.utils.SetUtils;
+import org.mindswap.pellet.utils.TaxonomyUtils;
+
+import aterm.ATermAppl;
+
+public class TypeIndexTest extends TestCase {
+	private ATermAppl	A	= term( "A" );
+	private ATermAppl	B	= term( "B" );
+	private ATermAppl	C	= term( "C" );
+	private ATermAppl	D	= term( "D" );
+	private ATermAppl	E	= term( "E" );
+	private ATermAppl	p	= term( "p" );
+
+	private KnowledgeBase createKB() {
+		KnowledgeBase kb = new KnowledgeBase();
+
+		kb.addClass( A );
+		kb.addClass( B );
+		kb.addClass( C );
+		kb.addClass( D );
+		kb.addClass( E );
+		kb.addObjectProperty( p );
+
+		// A has subclasses B and C, D is a subclass of both B and C
+		kb.addSubClass( B, A );
+		kb.addSubClass( C, A );
+		kb.addSubClass( D, B );
+		kb.addSubClass( D, C );
+		kb.addEquivalentClass( E, some( p, B ) );
+
+		for( int i = 0; i < 20; i++ ) {
+			kb.addIndividual( ind( i ) );
+		}
+		for( int i = 0; i < 20; i++ ) {
+			ATermAppl type = i % 5 == 0
+				? A
+				: i % 5 == 1
+					? B
+					: i % 5 == 2
+						? C
+						: i % 5 == 3
+							? D
+							: ATermUtils.TOP;
+			kb.addType( ind( i ), type );
+			kb.addPropertyValue( p, ind( i ), ind( (i + 1) % 20 ) );
+		}
+
+		return kb;
+	}
+
+	private static ATermAppl ind(int i) {
+		return term( "i" + i );
+	}
+
+	public void testIndex() {
+		KnowledgeBase kb = createKB();
+		kb.realize();
+
+		Taxonomy<ATermAppl> taxonomy = kb.getTaxonomy();
+		TypeIndex index = new TypeIndex( taxonomy );
+
+		for( ATermAppl c : new ATermAppl[] { ATermUtils.TOP, A, B, C, D, E } ) {
+			Set<ATermAppl> all = TaxonomyUtils.getAllInstances( taxonomy, c );
+			assertEquals( all, index.getAllInstances( c ) );
+			assertEquals( index.getAllInstances( c ), all );
+			assertEquals( all.size(), index.getAllInstances( c ).size() );
+			assertEquals( TaxonomyUtils.getDirectInstances( taxonomy, c ), index
+					.getDirectInstances( c ) );
+
+			for( int i = 0; i < 20; i++ ) {
+				assertEquals( TaxonomyUtils.isType( taxonomy, ind( i ), c ), index.isType( ind( i ),
+						c ) );
+			}
+		}
+
+		for( int i = 0; i < 20; i++ ) {
+			assertEquals( TaxonomyUtils.getTypes( taxonomy, ind( i ), true ), index.getTypes( ind( i ),
+					true ) );
+			assertEquals( TaxonomyUtils.getTypes( taxonomy, ind( i ), false ), index.getTypes(
+					ind( i ), false ) );
+		}
+
+		assertFalse( index.isType( term( "unknown" ), A ) );
+		assertTrue( index.getTypes( term( "unknown" ), false ).isEmpty() );
+	}
+
+	public void testInstances() {
+		KnowledgeBase kb = createKB();
+
+		Set<ATermAppl> expectedD = SetUtils.create( ind( 3 ), ind( 8 ), ind( 13 ), ind( 18 ) );
+		Set<ATermAppl> expectedB = new HashSet<ATermAppl>( expectedD );
+		for( int i = 1; i < 20; i += 5 ) {
+			expectedB.add( ind( i ) );
+		}
+		Set<ATermAppl> expectedE = new HashSet<ATermAppl>();
+		for( ATermAppl x : expectedB ) {
+			int i = Integer.parseInt( x.getName().substring( 1 ) );
+			expectedE.add( ind( (i + 19) % 20 ) );
+		}
+
+		KnowledgeBase unrealized = createKB();
+		Set<ATermAppl> complex = unrealized.getInstances( and( E, A ) );
+		Set<ATermAppl> union = unrealized.getInstances( or( D, E ) );
+
+		kb.realize();
+
+		assertEquals( expectedB, kb.getInstances( B ) );
+		assertEquals( expectedD, kb.getInstances( D, true ) );
+		assertEquals( expectedE, kb.getInstances( E ) );
+		assertTrue( kb.isType( ind( 3 ), C ) );
+		assertFalse( kb.isType( ind( 4 ), A ) );
+
+		// retrieval after realization uses the realized instances
+		assertEquals( complex, kb.getInstances( and( E, A ) ) );
+		assertEquals( union, kb.getInstances( or( D, E ) ) );
+
+		// the index is created again after the ABox changes
+		kb.addType( ind( 4 ), D );
+		kb.realize();
+		expectedD.add( ind( 4 ) );
+		assertEquals( expectedD, kb.getInstances( D ) );
+		assertTrue( kb.isType( ind( 4 ), A ) );
+	}
+}